@@ -0,0 +1,69 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.spinnaker.q
+
+import java.time.Clock
+import java.time.Duration
+import java.time.Instant
+
+/**
+ * Decides whether a scheduled [QueueProcessor.poll] actually polls the [Queue].
+ *
+ * Every poll that returns nothing doubles the time until the next one, starting
+ * at [minBackoff] and up to [maxBackoff]. Any poll that returns a message resets
+ * the backoff so the next scheduled cycle polls again. [wake] does the same, for
+ * example when a message is pushed for immediate delivery.
+ *
+ * @param maxImmediatePolls how many times a single cycle may poll again straight
+ * away because the previous poll returned as many messages as it asked for.
+ */
+class AdaptivePollSchedule(
+  private val minBackoff: Duration,
+  private val maxBackoff: Duration,
+  val maxImmediatePolls: Int,
+  private val clock: Clock
+) {
+
+  @Volatile
+  private var nextPoll: Instant = Instant.MIN
+
+  /**
+   * The delay applied after the last poll.
+   */
+  @Volatile
+  var backoff: Duration = Duration.ZERO
+    private set
+
+  fun isDue(): Boolean = !clock.instant().isBefore(nextPoll)
+
+  /**
+   * Records the number of [messages] the last poll returned.
+   */
+  fun polled(messages: Int) {
+    backoff = when {
+      messages > 0 -> Duration.ZERO
+      backoff.isZero -> minBackoff
+      else -> minOf(backoff.multipliedBy(2), maxBackoff)
+    }
+    nextPoll = clock.instant().plus(backoff)
+  }
+
+  fun wake() {
+    backoff = Duration.ZERO
+    nextPoll = Instant.MIN
+  }
+}
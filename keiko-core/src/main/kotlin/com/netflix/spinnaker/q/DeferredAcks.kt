@@ -0,0 +1,61 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.spinnaker.q
+
+/**
+ * Lets a [MessageHandler] acknowledge the message it is handling after it
+ * returns, once work it handed off to another thread has completed.
+ *
+ * [QueueProcessor] acknowledges each message when its handler returns unless
+ * the handler called [defer], in which case the handler becomes responsible
+ * for invoking the ack [defer] returned. A message that is never acknowledged
+ * is redelivered once the queue's ack timeout passes.
+ */
+object DeferredAcks {
+
+  private class Pending(val ack: () -> Unit) {
+    var deferred = false
+  }
+
+  private val holder: ThreadLocal<Pending> = ThreadLocal()
+
+  fun begin(ack: () -> Unit) {
+    holder.set(Pending(ack))
+  }
+
+  /**
+   * @return `true` if the message being handled on this thread can be
+   * acknowledged later.
+   */
+  fun canDefer(): Boolean = holder.get() != null
+
+  /**
+   * @return the ack of the message being handled on this thread, which the
+   * caller must now invoke, or `null` if it cannot be deferred.
+   */
+  fun defer(): (() -> Unit)? =
+    holder.get()?.let {
+      it.deferred = true
+      it.ack
+    }
+
+  fun isDeferred(): Boolean = holder.get()?.deferred == true
+
+  fun clear() {
+    holder.remove()
+  }
+}
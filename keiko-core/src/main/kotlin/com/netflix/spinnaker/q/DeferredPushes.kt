@@ -0,0 +1,58 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.spinnaker.q
+
+import java.time.temporal.TemporalAmount
+import java.util.IdentityHashMap
+
+/**
+ * Buffers [Queue.push] calls made on the current thread while a batch is open so
+ * that they can be written with a single [Queue.pushAll] per queue.
+ *
+ * [QueueProcessor] opens a batch around each handler invocation when push
+ * batching is enabled. [Queue] implementations that support batching call
+ * [defer] at the start of [Queue.push] and return early if it returns `true`.
+ */
+object DeferredPushes {
+
+  private val holder: ThreadLocal<MutableMap<Queue, MutableList<Pair<Message, TemporalAmount>>>> =
+    ThreadLocal()
+
+  fun begin() {
+    holder.set(IdentityHashMap())
+  }
+
+  fun isActive(): Boolean = holder.get() != null
+
+  /**
+   * @return `true` if [message] was buffered, `false` if no batch is open on
+   * this thread and the caller should push immediately.
+   */
+  fun defer(queue: Queue, message: Message, delay: TemporalAmount): Boolean {
+    val pending = holder.get() ?: return false
+    pending.getOrPut(queue) { mutableListOf() }.add(message to delay)
+    return true
+  }
+
+  /**
+   * Closes the batch and pushes everything that was buffered.
+   */
+  fun flush() {
+    val pending = holder.get() ?: return
+    holder.remove()
+    pending.forEach { (queue, messages) -> queue.pushAll(messages) }
+  }
+}
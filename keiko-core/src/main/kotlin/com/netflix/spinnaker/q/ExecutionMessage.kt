@@ -0,0 +1,42 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.spinnaker.q
+
+import com.netflix.spinnaker.q.metrics.MonitorableQueue
+
+/**
+ * Implemented by messages that belong to an execution, so that
+ * [MonitorableQueue] implementations can index them and answer
+ * [MonitorableQueue.containsMessagesForExecution] without reading every
+ * message on the queue.
+ *
+ * The key is exposed as a function rather than a property so that it is not
+ * serialized with the message.
+ */
+interface ExecutionMessage {
+  /**
+   * @return the key of the execution this message belongs to, see
+   * [executionKey].
+   */
+  fun executionKey(): String
+}
+
+/**
+ * @return the key identifying an execution in queue indexes.
+ */
+fun executionKey(executionType: String, executionId: String) =
+  "$executionType:$executionId"
@@ -0,0 +1,130 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.spinnaker.q
+
+import com.netflix.spectator.api.Registry
+import com.netflix.spectator.api.patterns.PolledMeter
+import java.time.Duration
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.Semaphore
+
+/**
+ * Divides the capacity of the [QueueExecutor] into lanes, each limiting how
+ * many messages of some types are handled at once.
+ *
+ * A burst of slow messages can otherwise occupy every handler and starve the
+ * messages that move executions along. Capping the lane of the slow type
+ * keeps the rest of the executor free for everything else. Messages of types
+ * that are not assigned to a lane go in the [DEFAULT_LANE], limited only by
+ * the executor.
+ *
+ * The number of messages in flight in each lane is reported by the
+ * `queue.lanes.inFlight` gauge.
+ */
+class MessageLanes(
+  lanes: Collection<MessageLane>,
+  registry: Registry
+) {
+
+  private val defaultLane = Lane(DEFAULT_LANE, Int.MAX_VALUE, Duration.ZERO)
+
+  init {
+    lanes
+      .flatMap { lane -> lane.messageTypes.distinct().map { it to lane.name } }
+      .groupBy({ it.first }, { it.second })
+      .forEach { (type, names) ->
+        require(names.size == 1) {
+          "Message type $type is in more than one lane: ${names.joinToString()}"
+        }
+      }
+  }
+
+  private val lanesByType: Map<String, Lane> =
+    lanes
+      .flatMap { lane ->
+        val admitting = Lane(lane.name, lane.maxConcurrency, lane.requeueDelay)
+        lane.messageTypes.map { it to admitting }
+      }
+      .toMap()
+
+  private val laneCache = ConcurrentHashMap<Class<out Message>, Lane>()
+
+  init {
+    (lanesByType.values.distinct() + defaultLane).forEach { lane ->
+      PolledMeter.using(registry)
+        .withName("queue.lanes.inFlight")
+        .withTag("lane", lane.name)
+        .monitorValue(lane) { it.inFlight.toDouble() }
+    }
+  }
+
+  /**
+   * @return the lane of [message], which is that of the most specific of its
+   * types assigned to a lane.
+   */
+  fun laneFor(message: Message): Lane =
+    laneCache.computeIfAbsent(message.javaClass) { type ->
+      generateSequence<Class<*>>(type) { it.superclass }
+        .mapNotNull { lanesByType[it.simpleName] ?: lanesByType[it.name] }
+        .firstOrNull()
+        ?: defaultLane
+    }
+
+  class Lane internal constructor(
+    val name: String,
+    val maxConcurrency: Int,
+    val requeueDelay: Duration
+  ) {
+    private val permits = Semaphore(maxConcurrency)
+
+    val inFlight: Int
+      get() = maxConcurrency - permits.availablePermits()
+
+    /**
+     * @return `true` if a message may be handled in this lane, in which case
+     * [release] must be called once it has been.
+     */
+    fun tryAcquire(): Boolean = permits.tryAcquire()
+
+    fun release() = permits.release()
+  }
+
+  companion object {
+    const val DEFAULT_LANE = "default"
+  }
+}
+
+/**
+ * Limits messages whose class, or one of its superclasses, has one of
+ * [messageTypes] as its simple or fully qualified name to [maxConcurrency]
+ * handled at once.
+ *
+ * Messages that arrive while the lane is full are re-queued after between
+ * one and two times [requeueDelay], so that they are not polled again
+ * straight away while the lane is still full.
+ */
+data class MessageLane(
+  val name: String,
+  val messageTypes: Collection<String>,
+  val maxConcurrency: Int,
+  val requeueDelay: Duration = Duration.ofSeconds(1)
+) {
+  init {
+    require(maxConcurrency > 0) { "Lane $name must admit at least one message" }
+    require(!requeueDelay.isNegative) { "Lane $name must not re-queue messages with a negative delay" }
+  }
+}
@@ -65,5 +65,6 @@ class NoopQueue : MonitorableQueue {
   }
 
   override fun containsMessage(predicate: (Message) -> Boolean) = false
+  override fun containsMessagesForExecution(executionType: String, executionId: String) = false
   override fun readState(): QueueState = QueueState(0, 0, 0)
 }
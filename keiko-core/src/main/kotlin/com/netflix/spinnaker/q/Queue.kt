@@ -61,6 +61,15 @@ interface Queue {
    */
   fun push(message: Message, delay: TemporalAmount): Unit
 
+  /**
+   * Push each of [messages] for delivery after its paired delay.
+   *
+   * Semantically identical to calling [push] for each message in order, but
+   * implementations may apply the whole batch in a single round trip.
+   */
+  fun pushAll(messages: List<Pair<Message, TemporalAmount>>): Unit =
+    messages.forEach { (message, delay) -> push(message, delay) }
+
   /**
    * Update [message] if it exists for immediate delivery. No-op if the [message] does not exist.
    */
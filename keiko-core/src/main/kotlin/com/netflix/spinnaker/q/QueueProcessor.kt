@@ -19,11 +19,16 @@ package com.netflix.spinnaker.q
 import com.netflix.spinnaker.KotlinOpen
 import com.netflix.spinnaker.q.metrics.EventPublisher
 import com.netflix.spinnaker.q.metrics.HandlerThrewError
+import com.netflix.spinnaker.q.metrics.MessageAdmissionRejected
 import com.netflix.spinnaker.q.metrics.MessageDead
 import com.netflix.spinnaker.q.metrics.NoHandlerCapacity
+import com.netflix.spinnaker.q.metrics.QueuePollCompleted
+import java.time.Clock
 import java.time.Duration
+import java.time.Instant
 import java.util.Random
 import java.util.concurrent.RejectedExecutionException
+import java.util.concurrent.atomic.AtomicInteger
 import javax.annotation.PostConstruct
 import org.slf4j.Logger
 import org.slf4j.LoggerFactory.getLogger
@@ -32,6 +37,14 @@ import org.springframework.scheduling.annotation.Scheduled
 /**
  * The processor that fetches messages from the [Queue] and hands them off to
  * the appropriate [MessageHandler].
+ *
+ * With [lanes] each message must also be admitted to its lane. Messages whose
+ * lane is full are re-queued like those the [executor] rejects, but after at
+ * least the [MessageLanes.Lane.requeueDelay] of the lane, and without the poll
+ * counting as an attempt.
+ *
+ * Messages are acknowledged when their handler returns, unless the handler
+ * takes over acknowledging them through [DeferredAcks].
  */
 @KotlinOpen
 class QueueProcessor(
@@ -43,82 +56,165 @@ class QueueProcessor(
   private val deadMessageHandler: DeadMessageCallback,
   private val fillExecutorEachCycle: Boolean = true,
   private val requeueDelay: Duration = Duration.ofSeconds(0),
-  private val requeueMaxJitter: Duration = Duration.ofSeconds(0)
+  private val requeueMaxJitter: Duration = Duration.ofSeconds(0),
+  private val batchPushes: Boolean = false,
+  private val pollSchedule: AdaptivePollSchedule? = null,
+  private val clock: Clock = Clock.systemUTC(),
+  private val lanes: MessageLanes? = null
 ) {
   private val log: Logger = getLogger(javaClass)
   private val random: Random = Random()
 
+  @Volatile
+  private var lastPoll: Instant? = null
+
   /**
    * Polls the [Queue] once (or more if [fillExecutorEachCycle] is true) so
    * long as [executor] has capacity.
+   *
+   * With a [pollSchedule] cycles are skipped while it is backing off, and a
+   * poll that returned as many messages as it asked for is followed straight
+   * away by another.
    */
   @Scheduled(fixedDelayString = "\${queue.poll.frequency.ms:50}")
   fun poll() =
     ifEnabled {
-      if (executor.hasCapacity()) {
-        if (fillExecutorEachCycle) {
-          if (queue.canPollMany) {
-            queue.poll(executor.availableCapacity(), callback)
-          } else {
-            executor.availableCapacity().downTo(1).forEach {
-              pollOnce()
-            }
-          }
-        } else {
-          pollOnce()
-        }
-      } else {
+      val schedule = pollSchedule
+      if (schedule != null && !schedule.isDue()) {
+        return@ifEnabled
+      }
+
+      if (!executor.hasCapacity()) {
         publisher.publishEvent(NoHandlerCapacity)
+        return@ifEnabled
       }
+
+      var polls = 0
+      var received: Int
+      do {
+        val maxMessages = if (fillExecutorEachCycle) executor.availableCapacity() else 1
+        received = pollCycle(maxMessages)
+        polls++
+      } while (
+        schedule != null &&
+        received >= maxMessages &&
+        polls <= schedule.maxImmediatePolls &&
+        executor.hasCapacity()
+      )
+      schedule?.polled(received)
     }
 
   /**
-   * Polls the [Queue] once to attempt to read a single message.
+   * Polls the [Queue] for up to [maxMessages] and publishes a
+   * [QueuePollCompleted] event.
+   *
+   * @return the number of messages received.
    */
-  private fun pollOnce() {
-    queue.poll(callback)
+  private fun pollCycle(maxMessages: Int): Int {
+    val now = clock.instant()
+    val interval = lastPoll?.let { Duration.between(it, now) } ?: Duration.ZERO
+    lastPoll = now
+
+    val received = AtomicInteger()
+    val counting: QueueCallback = { message, ack ->
+      received.incrementAndGet()
+      callback.invoke(message, ack)
+    }
+    if (fillExecutorEachCycle && queue.canPollMany) {
+      queue.poll(maxMessages, counting)
+    } else {
+      repeat(maxMessages) { queue.poll(counting) }
+    }
+
+    publisher.publishEvent(QueuePollCompleted(received.get(), maxMessages, interval))
+    return received.get()
   }
 
   val callback: QueueCallback = { message, ack ->
     log.info("Received message $message")
     val handler = handlerFor(message)
-    if (handler != null) {
+    val lane = lanes?.laneFor(message)
+    if (handler == null) {
+      log.error("Unsupported message type ${message.javaClass.simpleName}: $message")
+      deadMessageHandler.invoke(queue, message)
+      publisher.publishEvent(MessageDead)
+    } else if (lane != null && !lane.tryAcquire()) {
+      publisher.publishEvent(MessageAdmissionRejected(message, lane.name))
+      // not being admitted is not a failed attempt at handling the message
+      message.getAttribute<AttemptsAttribute>()?.run {
+        attempts = (attempts - 1).coerceAtLeast(0)
+      }
+      requeue(message, "Lane ${lane.name} at capacity", null, lane.requeueDelay)
+      // the delayed copy replaces the polled message, which would otherwise be
+      // redelivered once its ack timed out as well
+      ack.invoke()
+    } else {
       try {
         executor.execute {
           try {
             QueueContextHolder.set(message)
-            handler.invoke(message)
-            ack.invoke()
+            DeferredAcks.begin(ack)
+            invokeHandler(handler, message)
+            if (!DeferredAcks.isDeferred()) {
+              ack.invoke()
+            }
           } catch (e: Throwable) {
             // Something very bad is happening
             log.error("Unhandled throwable from $message", e)
             publisher.publishEvent(HandlerThrewError(message))
           } finally {
+            DeferredAcks.clear()
             QueueContextHolder.clear()
+            lane?.release()
           }
         }
       } catch (e: RejectedExecutionException) {
-        var requeueDelaySeconds = requeueDelay.seconds
-        if (requeueMaxJitter.seconds > 0) {
-          requeueDelaySeconds += random.nextInt(requeueMaxJitter.seconds.toInt())
-        }
-
-        val requeueDelay = Duration.ofSeconds(requeueDelaySeconds)
-        val numberOfAttempts = message.getAttribute<AttemptsAttribute>()
-
-        log.warn(
-          "Executor at capacity, re-queuing message {} (delay: {}, attempts: {})",
-          message,
-          requeueDelay,
-          numberOfAttempts,
-          e
-        )
-        queue.push(message, requeueDelay)
+        lane?.release()
+        requeue(message, "Executor at capacity", e)
       }
-    } else {
-      log.error("Unsupported message type ${message.javaClass.simpleName}: $message")
-      deadMessageHandler.invoke(queue, message)
-      publisher.publishEvent(MessageDead)
+    }
+  }
+
+  private fun requeue(message: Message, reason: String, cause: Throwable?, minimumDelay: Duration = Duration.ZERO) {
+    var requeueDelaySeconds = requeueDelay.seconds
+    if (requeueMaxJitter.seconds > 0) {
+      requeueDelaySeconds += random.nextInt(requeueMaxJitter.seconds.toInt())
+    }
+
+    var requeueDelay = Duration.ofSeconds(requeueDelaySeconds)
+    if (requeueDelay < minimumDelay) {
+      // spreads out messages turned away together, so they don't all come back together
+      requeueDelay = minimumDelay.plusMillis((random.nextDouble() * minimumDelay.toMillis()).toLong())
+    }
+    val numberOfAttempts = message.getAttribute<AttemptsAttribute>()
+
+    log.warn(
+      "{}, re-queuing message {} (delay: {}, attempts: {})",
+      reason,
+      message,
+      requeueDelay,
+      numberOfAttempts,
+      cause
+    )
+    queue.push(message, requeueDelay)
+  }
+
+  /**
+   * Invokes [handler], buffering any messages it pushes when [batchPushes] is
+   * enabled so they are written in a single [Queue.pushAll] before the message
+   * is acknowledged. Buffered messages are pushed even if the handler throws.
+   */
+  private fun invokeHandler(handler: MessageHandler<*>, message: Message) {
+    if (!batchPushes) {
+      handler.invoke(message)
+      return
+    }
+
+    DeferredPushes.begin()
+    try {
+      handler.invoke(message)
+    } finally {
+      DeferredPushes.flush()
     }
   }
 
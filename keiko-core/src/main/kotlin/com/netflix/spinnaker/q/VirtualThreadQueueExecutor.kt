@@ -0,0 +1,132 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.spinnaker.q
+
+import com.netflix.spectator.api.Registry
+import java.io.Closeable
+import java.time.Duration
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.Executors
+import java.util.concurrent.RejectedExecutionException
+import java.util.concurrent.Semaphore
+import java.util.concurrent.ThreadFactory
+import java.util.concurrent.TimeUnit
+import jdk.jfr.consumer.RecordingStream
+import org.slf4j.Logger
+import org.slf4j.LoggerFactory.getLogger
+
+/**
+ * Runs each message handler on its own virtual thread, with capacity limited
+ * to [maxConcurrency] in-flight messages rather than by the size of a thread
+ * pool.
+ *
+ * Handlers spend most of their time blocked on I/O, which unmounts a virtual
+ * thread from its carrier, so far more messages can be in flight than with
+ * platform threads. Blocking while pinned to the carrier (in a `synchronized`
+ * block or native frame) does not, and is recorded by the
+ * `queue.executor.pinned` timer.
+ *
+ * Every message gets a new thread and nothing is carried over from the
+ * polling thread, so thread locals such as the MDC, `AuthenticatedRequest`
+ * and [QueueContextHolder] start out empty and handlers set up whatever they
+ * need themselves, as they do on a pooled thread.
+ *
+ * Virtual threads require Java 21. On older runtimes construction fails, as
+ * [maxConcurrency] is far more platform threads than should be started.
+ */
+class VirtualThreadQueueExecutor(
+  private val maxConcurrency: Int,
+  threadNamePrefix: String,
+  registry: Registry,
+  pinnedThreshold: Duration = Duration.ofMillis(20)
+) : QueueExecutor<ExecutorService>(
+  virtualThreadExecutor(threadNamePrefix)
+    ?: throw IllegalStateException("Virtual threads require Java 21, running on ${Runtime.version()}")
+),
+  Closeable {
+
+  private val log: Logger = getLogger(javaClass)
+
+  private val permits = Semaphore(maxConcurrency)
+
+  private val pinnedEvents: RecordingStream? = recordPinnedEvents(registry, pinnedThreshold)
+
+  override fun execute(command: Runnable) {
+    if (!permits.tryAcquire()) {
+      throw RejectedExecutionException("All $maxConcurrency handler permits are in use")
+    }
+    try {
+      executor.execute {
+        try {
+          command.run()
+        } finally {
+          permits.release()
+        }
+      }
+    } catch (e: RejectedExecutionException) {
+      permits.release()
+      throw e
+    }
+  }
+
+  override fun hasCapacity() = permits.availablePermits() > 0
+
+  override fun availableCapacity() = permits.availablePermits()
+
+  private fun recordPinnedEvents(registry: Registry, pinnedThreshold: Duration): RecordingStream? =
+    try {
+      RecordingStream().apply {
+        enable(PINNED_EVENT).withThreshold(pinnedThreshold)
+        onEvent(PINNED_EVENT) {
+          registry.timer("queue.executor.pinned").record(it.duration.toNanos(), TimeUnit.NANOSECONDS)
+        }
+        startAsync()
+      }
+    } catch (e: Exception) {
+      log.warn("Unable to record $PINNED_EVENT events", e)
+      null
+    }
+
+  override fun close() {
+    pinnedEvents?.close()
+    executor.shutdown()
+  }
+
+  private companion object {
+    const val PINNED_EVENT = "jdk.VirtualThreadPinned"
+
+    /**
+     * Looked up reflectively as the build targets Java 17, null if the runtime
+     * has no virtual threads.
+     */
+    fun virtualThreadExecutor(threadNamePrefix: String): ExecutorService? =
+      try {
+        val builder = Thread::class.java.getMethod("ofVirtual").invoke(null)
+        Class.forName("java.lang.Thread\$Builder")
+          .getMethod("name", String::class.java, Long::class.javaPrimitiveType)
+          .invoke(builder, threadNamePrefix, 0L)
+        val factory = Class.forName("java.lang.Thread\$Builder")
+          .getMethod("factory")
+          .invoke(builder) as ThreadFactory
+        Executors::class.java
+          .getMethod("newThreadPerTaskExecutor", ThreadFactory::class.java)
+          .invoke(null, factory) as ExecutorService
+      } catch (e: ReflectiveOperationException) {
+        null
+      }
+  }
+}
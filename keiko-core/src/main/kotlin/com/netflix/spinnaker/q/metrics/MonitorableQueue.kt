@@ -16,8 +16,10 @@
 
 package com.netflix.spinnaker.q.metrics
 
+import com.netflix.spinnaker.q.ExecutionMessage
 import com.netflix.spinnaker.q.Message
 import com.netflix.spinnaker.q.Queue
+import com.netflix.spinnaker.q.executionKey
 
 /**
  * Optional interface [Queue] implementations may support in order to provide
@@ -38,6 +40,20 @@ interface MonitorableQueue : Queue {
    */
   fun containsMessage(predicate: (Message) -> Boolean): Boolean
 
+  /**
+   * Confirms if the queue currently contains one or more messages of the
+   * execution [executionId] of type [executionType].
+   *
+   * Implementations may answer this from an index of [ExecutionMessage]s
+   * rather than reading every message as [containsMessage] does. An index
+   * misses messages pushed by instances that don't write to it, so a `false`
+   * should be confirmed with [containsMessage] before acting on it.
+   */
+  fun containsMessagesForExecution(executionType: String, executionId: String): Boolean =
+    executionKey(executionType, executionId).let { key ->
+      containsMessage { it is ExecutionMessage && it.executionKey() == key }
+    }
+
   /**
    * Convenience method to allow implementations to fire events.
    */
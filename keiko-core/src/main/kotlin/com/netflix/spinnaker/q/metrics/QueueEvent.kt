@@ -18,8 +18,11 @@ package com.netflix.spinnaker.q.metrics
 
 import com.netflix.spinnaker.q.Message
 import com.netflix.spinnaker.q.Queue
+import com.netflix.spinnaker.q.QueueProcessor
+import java.time.Clock
 import java.time.Duration
 import java.time.Instant
+import java.time.temporal.TemporalAmount
 
 /**
  * Events that may be emitted by a [Queue].
@@ -32,8 +35,21 @@ sealed class QueueEvent
 sealed class PayloadQueueEvent(val payload: Message) : QueueEvent()
 
 object QueuePolled : QueueEvent()
+
+/**
+ * A [QueueProcessor] poll cycle asked for up to [maxMessages] and received
+ * [messages], [interval] after the start of the previous cycle that polled.
+ */
+data class QueuePollCompleted(val messages: Int, val maxMessages: Int, val interval: Duration) : QueueEvent()
 object RetryPolled : QueueEvent()
-data class MessagePushed(val payload: Message) : QueueEvent()
+data class MessagePushed(val payload: Message, val delay: Duration = Duration.ZERO) : QueueEvent() {
+  /**
+   * Measures [delay] from the current time of [clock], as the queues schedule messages,
+   * so that any [TemporalAmount] an [Instant] can be moved by is supported.
+   */
+  constructor(payload: Message, delay: TemporalAmount, clock: Clock) :
+    this(payload, clock.instant().let { now -> Duration.between(now, now.plus(delay)) })
+}
 object MessageAcknowledged : QueueEvent()
 object MessageRetried : QueueEvent()
 data class MessageProcessing(val payload: Message, val lag: Duration) : QueueEvent() {
@@ -45,6 +61,11 @@ object MessageDead : QueueEvent()
 data class MessageDuplicate(val payload: Message) : QueueEvent()
 object LockFailed : QueueEvent()
 object NoHandlerCapacity : QueueEvent()
+
+/**
+ * A [QueueProcessor] re-queued [payload] as its [lane] was full.
+ */
+data class MessageAdmissionRejected(val payload: Message, val lane: String) : QueueEvent()
 data class MessageRescheduled(val payload: Message) : QueueEvent()
 data class MessageNotFound(val payload: Message) : QueueEvent()
 data class HandlerThrewError(val payload: Message) : QueueEvent()
@@ -63,6 +63,11 @@ class QueueMetricsPublisher(
   override fun publishEvent(event: QueueEvent) {
     when (event) {
       QueuePolled -> _lastQueuePoll.set(clock.instant())
+      is QueuePollCompleted -> {
+        registry.timer("queue.poll.interval").record(event.interval.toMillis(), TimeUnit.MILLISECONDS)
+        registry.distributionSummary("queue.poll.messages").record(event.messages.toLong())
+        event.counter.increment()
+      }
       is MessageProcessing -> {
         registry.timer("queue.message.lag").record(event.lag.toMillis(), TimeUnit.MILLISECONDS)
       }
@@ -75,9 +80,26 @@ class QueueMetricsPublisher(
       is LockFailed -> event.counter.increment()
       is MessageRescheduled -> event.counter.increment()
       is MessageNotFound -> event.counter.increment()
+      is MessageAdmissionRejected -> event.counter.increment()
     }
   }
 
+  /**
+   * Count of poll cycles by whether they received no messages, fewer than
+   * they asked for or a full batch. The share of `empty` polls is the
+   * empty-poll ratio.
+   */
+  private val QueuePollCompleted.counter: Counter
+    get() = registry.counter(
+      "queue.polls",
+      "result",
+      when {
+        messages == 0 -> "empty"
+        messages < maxMessages -> "partial"
+        else -> "full"
+      }
+    )
+
   /**
    * Count of messages pushed to the queue.
    */
@@ -136,6 +158,16 @@ class QueueMetricsPublisher(
   private val MessageNotFound.counter: Counter
     get() = registry.counter("queue.message.notfound")
 
+  /**
+   * Count of messages re-queued because their lane was full.
+   */
+  private val MessageAdmissionRejected.counter: Counter
+    get() = registry.counter(
+      "queue.lanes.rejected",
+      "lane", lane,
+      "messageType", payload.javaClass.simpleName
+    )
+
   /**
    * The last time the [Queue.poll] method was executed.
    */
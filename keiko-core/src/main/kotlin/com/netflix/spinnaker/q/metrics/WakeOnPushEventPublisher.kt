@@ -0,0 +1,37 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.spinnaker.q.metrics
+
+import com.netflix.spinnaker.q.AdaptivePollSchedule
+import java.time.Duration
+
+/**
+ * Wakes [schedule] whenever this instance pushes a message for immediate
+ * delivery so it is polled without waiting out the current backoff.
+ */
+class WakeOnPushEventPublisher(
+  private val delegate: EventPublisher,
+  private val schedule: AdaptivePollSchedule
+) : EventPublisher {
+
+  override fun publishEvent(event: QueueEvent) {
+    if (event is MessagePushed && event.delay <= Duration.ZERO) {
+      schedule.wake()
+    }
+    delegate.publishEvent(event)
+  }
+}
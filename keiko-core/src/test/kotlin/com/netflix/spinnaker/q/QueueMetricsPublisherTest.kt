@@ -26,6 +26,7 @@ import com.netflix.spinnaker.q.metrics.MessageProcessing
 import com.netflix.spinnaker.q.metrics.MessagePushed
 import com.netflix.spinnaker.q.metrics.MessageRetried
 import com.netflix.spinnaker.q.metrics.QueueMetricsPublisher
+import com.netflix.spinnaker.q.metrics.QueuePollCompleted
 import com.netflix.spinnaker.q.metrics.QueuePolled
 import com.netflix.spinnaker.q.metrics.RetryPolled
 import com.netflix.spinnaker.time.fixedClock
@@ -69,6 +70,27 @@ object QueueMetricsPublisherTest : SubjectSpek<QueueMetricsPublisher>({
       }
     }
 
+    describe("when a poll cycle completes") {
+      val event = QueuePollCompleted(0, 10, Duration.ofMillis(50))
+
+      on("receiving a ${event.javaClass.simpleName} event") {
+        subject.publishEvent(event)
+      }
+
+      it("records the poll interval") {
+        assertThat(registry.timer("queue.poll.interval").totalTime())
+          .isEqualTo(event.interval.toNanos())
+      }
+
+      it("records the number of messages received") {
+        assertThat(registry.distributionSummary("queue.poll.messages").count()).isEqualTo(1)
+      }
+
+      it("counts the empty poll") {
+        assertThat(registry.counter("queue.polls", "result", "empty").count()).isEqualTo(1)
+      }
+    }
+
     describe("when the retry queue is polled") {
       val event = RetryPolled
 
@@ -17,25 +17,35 @@
 package com.netflix.spinnaker.q
 
 import com.fasterxml.jackson.annotation.JsonTypeName
+import com.netflix.spectator.api.NoopRegistry
 import com.netflix.spinnaker.mockito.doStub
 import com.netflix.spinnaker.q.metrics.EventPublisher
+import com.netflix.spinnaker.q.metrics.MessageAdmissionRejected
 import com.netflix.spinnaker.q.metrics.MessageDead
 import com.netflix.spinnaker.q.metrics.NoHandlerCapacity
+import com.netflix.spinnaker.q.metrics.QueuePollCompleted
 import com.netflix.spinnaker.spek.and
+import com.netflix.spinnaker.time.MutableClock
 import com.nhaarman.mockito_kotlin.any
+import com.nhaarman.mockito_kotlin.argThat
 import com.nhaarman.mockito_kotlin.doReturn
 import com.nhaarman.mockito_kotlin.doThrow
 import com.nhaarman.mockito_kotlin.eq
+import com.nhaarman.mockito_kotlin.inOrder
 import com.nhaarman.mockito_kotlin.isA
 import com.nhaarman.mockito_kotlin.mock
 import com.nhaarman.mockito_kotlin.never
 import com.nhaarman.mockito_kotlin.reset
+import com.nhaarman.mockito_kotlin.times
 import com.nhaarman.mockito_kotlin.verify
 import com.nhaarman.mockito_kotlin.verifyNoMoreInteractions
 import com.nhaarman.mockito_kotlin.whenever
+import java.time.Duration
 import java.util.concurrent.CountDownLatch
 import java.util.concurrent.Executor
 import java.util.concurrent.Executors
+import org.assertj.core.api.Assertions.assertThat
+import org.assertj.core.api.Assertions.assertThatThrownBy
 import org.jetbrains.spek.api.Spek
 import org.jetbrains.spek.api.dsl.context
 import org.jetbrains.spek.api.dsl.describe
@@ -253,6 +263,259 @@ object QueueProcessorTest : Spek({
               verify(ackFunction, never()).invoke()
             }
           }
+
+          context("the handler defers acknowledging the message") {
+            val message = SimpleMessage("foo")
+            var deferredAck: (() -> Unit)? = null
+
+            beforeGroup {
+              whenever(simpleMessageHandler.messageType) doReturn SimpleMessage::class.java
+              whenever(parentMessageHandler.messageType) doReturn ParentMessage::class.java
+
+              whenever(queue.poll(any())) doStub { callback: QueueCallback ->
+                callback.invoke(message, ackFunction)
+              }
+
+              whenever(simpleMessageHandler.invoke(any())) doStub { _: Message ->
+                deferredAck = DeferredAcks.defer()
+              }
+            }
+
+            afterGroup(::resetMocks)
+
+            on("the next polling cycle") {
+              subject.poll()
+            }
+
+            it("does not acknowledge the message when the handler returns") {
+              verify(ackFunction, never()).invoke()
+            }
+
+            it("hands the acknowledgement to the handler") {
+              deferredAck!!.invoke()
+              verify(ackFunction).invoke()
+            }
+
+            it("does not defer the acknowledgement of later messages") {
+              assertThat(DeferredAcks.canDefer()).isFalse()
+            }
+          }
+        }
+      }
+
+      and("messages are admitted to lanes") {
+        val lanes = MessageLanes(
+          listOf(
+            MessageLane("simple", listOf("SimpleMessage"), 1),
+            MessageLane("parents", listOf(ParentMessage::class.java.name), 1)
+          ),
+          NoopRegistry()
+        )
+
+        val subject = QueueProcessor(
+          queue,
+          BlockingQueueExecutor(),
+          listOf(simpleMessageHandler, parentMessageHandler),
+          listOf(activator),
+          publisher,
+          deadMessageHandler,
+          lanes = lanes
+        )
+
+        describe("when the lane of the message is full") {
+          val message = SimpleMessage("foo").apply {
+            // as the queue counts the poll that delivered it
+            setAttribute(AttemptsAttribute(1))
+          }
+          val lane = lanes.laneFor(message)
+
+          beforeGroup {
+            whenever(simpleMessageHandler.messageType) doReturn SimpleMessage::class.java
+            whenever(parentMessageHandler.messageType) doReturn ParentMessage::class.java
+
+            whenever(queue.poll(any())) doStub { callback: QueueCallback ->
+              callback.invoke(message, ackFunction)
+            }
+            lane.tryAcquire()
+          }
+
+          afterGroup {
+            resetMocks()
+            lane.release()
+          }
+
+          on("the next polling cycle") {
+            subject.poll()
+          }
+
+          it("does not invoke the handler") {
+            verify(simpleMessageHandler, never()).invoke(any())
+          }
+
+          it("re-queues the message and acknowledges the original") {
+            inOrder(queue, ackFunction) {
+              verify(queue).push(eq(message), any<Duration>())
+              verify(ackFunction).invoke()
+            }
+          }
+
+          it("backs off for between one and two times the delay of the lane") {
+            verify(queue).push(
+              eq(message),
+              argThat<Duration> { this >= Duration.ofSeconds(1) && this < Duration.ofSeconds(2) }
+            )
+          }
+
+          it("does not count the rejection as an attempt") {
+            assertThat(message.getAttribute<AttemptsAttribute>()?.attempts).isEqualTo(0)
+          }
+
+          it("emits an event") {
+            verify(publisher).publishEvent(MessageAdmissionRejected(message, "simple"))
+          }
+        }
+
+        describe("when the lane of the message has capacity") {
+          val message = ChildMessage("foo")
+          val lane = lanes.laneFor(message)
+
+          beforeGroup {
+            whenever(simpleMessageHandler.messageType) doReturn SimpleMessage::class.java
+            whenever(parentMessageHandler.messageType) doReturn ParentMessage::class.java
+
+            whenever(queue.poll(any())) doStub { callback: QueueCallback ->
+              callback.invoke(message, ackFunction)
+            }
+          }
+
+          afterGroup(::resetMocks)
+
+          on("the next polling cycle") {
+            subject.poll()
+          }
+
+          it("admits the message to the lane of its superclass") {
+            assertThat(lane.name).isEqualTo("parents")
+          }
+
+          it("passes the message to the handler") {
+            verify(parentMessageHandler).invoke(eq(message))
+            verify(ackFunction).invoke()
+          }
+
+          it("leaves the lane once handled") {
+            assertThat(lane.inFlight).isEqualTo(0)
+          }
+        }
+      }
+
+      and("a message type is in more than one lane") {
+        it("refuses the lanes") {
+          assertThatThrownBy {
+            MessageLanes(
+              listOf(
+                MessageLane("simple", listOf("SimpleMessage"), 1),
+                MessageLane("other", listOf("SimpleMessage"), 2)
+              ),
+              NoopRegistry()
+            )
+          }
+            .isInstanceOf(IllegalArgumentException::class.java)
+            .hasMessage("Message type SimpleMessage is in more than one lane: simple, other")
+        }
+      }
+
+      and("polling is adaptive") {
+        val clock = MutableClock()
+        val schedule = AdaptivePollSchedule(
+          Duration.ofMillis(50),
+          Duration.ofMillis(200),
+          3,
+          clock
+        )
+
+        val subject = QueueProcessor(
+          queue,
+          BlockingQueueExecutor(),
+          listOf(simpleMessageHandler),
+          listOf(activator),
+          publisher,
+          deadMessageHandler,
+          pollSchedule = schedule,
+          clock = clock
+        )
+
+        describe("when the queue is empty") {
+          afterGroup {
+            resetMocks()
+            schedule.wake()
+          }
+
+          on("several polling cycles before the backoff expires") {
+            subject.poll()
+            subject.poll()
+            subject.poll()
+          }
+
+          it("polls the queue once") {
+            verify(queue, times(1)).poll(any())
+          }
+
+          it("backs off") {
+            assertThat(schedule.backoff).isEqualTo(Duration.ofMillis(50))
+          }
+
+          it("publishes an empty poll") {
+            verify(publisher).publishEvent(QueuePollCompleted(0, 1, Duration.ZERO))
+          }
+
+          on("further empty polls once the backoff expires") {
+            repeat(3) {
+              clock.incrementBy(schedule.backoff)
+              subject.poll()
+            }
+          }
+
+          it("doubles the backoff up to the maximum") {
+            assertThat(schedule.backoff).isEqualTo(Duration.ofMillis(200))
+          }
+
+          on("waking the schedule") {
+            schedule.wake()
+            subject.poll()
+          }
+
+          it("polls again immediately") {
+            verify(queue, times(5)).poll(any())
+          }
+        }
+
+        describe("when every poll returns a message") {
+          val message = SimpleMessage("foo")
+
+          beforeGroup {
+            whenever(simpleMessageHandler.messageType) doReturn SimpleMessage::class.java
+
+            whenever(queue.poll(any())) doStub { callback: QueueCallback ->
+              callback.invoke(message, ackFunction)
+            }
+          }
+
+          afterGroup(::resetMocks)
+
+          on("the next polling cycle") {
+            subject.poll()
+          }
+
+          it("polls again straight away up to the limit") {
+            verify(queue, times(4)).poll(any())
+            verify(simpleMessageHandler, times(4)).invoke(eq(message))
+          }
+
+          it("does not back off") {
+            assertThat(schedule.backoff).isEqualTo(Duration.ZERO)
+            assertThat(schedule.isDue()).isTrue()
+          }
         }
       }
     }
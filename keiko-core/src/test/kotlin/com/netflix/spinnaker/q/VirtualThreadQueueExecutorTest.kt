@@ -0,0 +1,83 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.spinnaker.q
+
+import com.netflix.spectator.api.NoopRegistry
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.RejectedExecutionException
+import java.util.concurrent.TimeUnit
+import org.assertj.core.api.Assertions.assertThat
+import org.assertj.core.api.Assertions.assertThatThrownBy
+import org.jetbrains.spek.api.Spek
+import org.jetbrains.spek.api.dsl.describe
+import org.jetbrains.spek.api.dsl.it
+
+object VirtualThreadQueueExecutorTest : Spek({
+  describe("a virtual thread queue executor on a runtime without virtual threads") {
+    if (Runtime.version().feature() >= 21) return@describe
+
+    it("refuses to start") {
+      assertThatThrownBy { VirtualThreadQueueExecutor(2, "handlers-", NoopRegistry()) }
+        .isInstanceOf(IllegalStateException::class.java)
+    }
+  }
+
+  describe("a virtual thread queue executor") {
+    if (Runtime.version().feature() < 21) return@describe
+
+    val subject = VirtualThreadQueueExecutor(2, "handlers-", NoopRegistry())
+
+    afterGroup { subject.close() }
+
+    it("handles messages on virtual threads") {
+      val handler = CompletableFuture<Thread>()
+      subject.execute { handler.complete(Thread.currentThread()) }
+
+      val thread = handler.get(5, TimeUnit.SECONDS)
+      assertThat(Thread::class.java.getMethod("isVirtual").invoke(thread)).isEqualTo(true)
+      assertThat(thread.name).startsWith("handlers-")
+    }
+
+    it("has capacity for the configured number of messages") {
+      assertThat(subject.hasCapacity()).isTrue()
+      assertThat(subject.availableCapacity()).isEqualTo(2)
+    }
+
+    it("rejects messages while at capacity and recovers once they complete") {
+      val started = CountDownLatch(2)
+      val release = CountDownLatch(1)
+      repeat(2) {
+        subject.execute {
+          started.countDown()
+          release.await()
+        }
+      }
+      started.await(5, TimeUnit.SECONDS)
+
+      assertThat(subject.hasCapacity()).isFalse()
+      assertThatThrownBy { subject.execute { } }.isInstanceOf(RejectedExecutionException::class.java)
+
+      release.countDown()
+      val deadline = System.currentTimeMillis() + 5000
+      while (subject.availableCapacity() < 2 && System.currentTimeMillis() < deadline) {
+        Thread.sleep(10)
+      }
+      assertThat(subject.availableCapacity()).isEqualTo(2)
+    }
+  }
+})
@@ -17,6 +17,7 @@
 package com.netflix.spinnaker.q.memory
 
 import com.netflix.spinnaker.q.DeadMessageCallback
+import com.netflix.spinnaker.q.DeferredPushes
 import com.netflix.spinnaker.q.Message
 import com.netflix.spinnaker.q.Queue
 import com.netflix.spinnaker.q.QueueCallback
@@ -88,12 +89,16 @@ class InMemoryQueue(
   }
 
   override fun push(message: Message, delay: TemporalAmount) {
+    if (DeferredPushes.defer(this, message, delay)) {
+      return
+    }
+
     val existed = queue.removeIf { it.payload == message }
     queue.put(Envelope(message, clock.instant().plus(delay), clock))
     if (existed) {
       fire(MessageDuplicate(message))
     } else {
-      fire(MessagePushed(message))
+      fire(MessagePushed(message, delay, clock))
     }
   }
 
@@ -4,18 +4,24 @@ import com.fasterxml.jackson.databind.ObjectMapper
 import com.fasterxml.jackson.databind.SerializationFeature
 import com.google.common.hash.Hashing
 import com.netflix.spinnaker.q.DeadMessageCallback
+import com.netflix.spinnaker.q.ExecutionMessage
 import com.netflix.spinnaker.q.Message
 import com.netflix.spinnaker.q.metrics.EventPublisher
 import com.netflix.spinnaker.q.metrics.MonitorableQueue
 import com.netflix.spinnaker.q.migration.SerializationMigrator
+import java.io.IOException
 import java.nio.charset.Charset
 import java.nio.charset.StandardCharsets
 import java.time.Clock
 import java.time.Duration
+import java.time.Instant
 import java.time.temporal.TemporalAmount
+import java.util.Locale
 import java.util.Optional
+import kotlin.math.max
 import org.slf4j.Logger
 import redis.clients.jedis.Jedis
+import redis.clients.jedis.ScanResult
 import redis.clients.jedis.Transaction
 import redis.clients.jedis.commands.JedisClusterCommands
 import redis.clients.jedis.commands.JedisCommands
@@ -27,7 +33,7 @@ abstract class AbstractRedisQueue(
   private val serializationMigrator: Optional<SerializationMigrator>,
   override val ackTimeout: TemporalAmount = Duration.ofMinutes(1),
   override val deadMessageHandlers: List<DeadMessageCallback>,
-  override val canPollMany: Boolean = false,
+  override val canPollMany: Boolean = true,
   override val publisher: EventPublisher
 
 ) : MonitorableQueue {
@@ -36,6 +42,7 @@ abstract class AbstractRedisQueue(
   internal abstract val messagesKey: String
   internal abstract val locksKey: String
   internal abstract val attemptsKey: String
+  internal abstract val executionsKey: String
 
   internal abstract val log: Logger
 
@@ -46,6 +53,111 @@ abstract class AbstractRedisQueue(
 
   abstract fun cacheScript()
   abstract var readMessageWithLockScriptSha: String
+  abstract var readMessagesWithLockScriptSha: String
+
+  /**
+   * Arguments of [READ_MESSAGES_WITH_LOCK_SRC] to lock up to [maxMessages].
+   */
+  internal fun readMessagesWithLockArgs(maxMessages: Int) =
+    listOf(
+      score().toString(),
+      // peek at more fingerprints than needed as some may be locked by other instances
+      max(maxMessages * 2, 10).toString(),
+      lockTtlSeconds.toString(),
+      java.lang.String.format(Locale.US, "%f", score(ackTimeout)),
+      java.lang.String.format(Locale.US, "%f", score()),
+      maxMessages.toString()
+    )
+
+  /**
+   * Splits the response of [READ_MESSAGES_WITH_LOCK_SRC] into the fingerprint,
+   * score and body of each locked message.
+   */
+  internal fun lockedMessages(response: Any?): List<Triple<String, Instant, String?>> =
+    (response as? List<*>)
+      .orEmpty()
+      .chunked(3)
+      .map { (fingerprint, fingerprintScore, message) ->
+        Triple(
+          fingerprint.toString(),
+          Instant.ofEpochMilli(fingerprintScore.toString().toLong()),
+          message?.toString()
+        )
+      }
+
+  /**
+   * Key of the set of fingerprints of messages of the execution [executionKey].
+   */
+  internal fun executionIndexKey(executionKey: String) = "$executionsKey:$executionKey"
+
+  /**
+   * Adds [fingerprint] to the index of the execution [message] belongs to, if
+   * any. [executionsKey] maps the fingerprint back to the execution so that it
+   * can be removed from the index again by [unindexMessage].
+   */
+  internal fun Transaction.indexMessage(fingerprint: String, message: Message) {
+    if (message is ExecutionMessage) {
+      val executionKey = message.executionKey()
+      hset(executionsKey, fingerprint, executionKey)
+      sadd(executionIndexKey(executionKey), fingerprint)
+    }
+  }
+
+  @Volatile
+  private var executionIndexBackfilled = false
+
+  /**
+   * Adds every [ExecutionMessage] in [messagesKey] to the index the first time it
+   * is called, so that messages pushed before the index existed are found by it.
+   * Messages pushed without being indexed after that, by instances of an earlier
+   * version still running during a deployment, are not, so a miss has to be
+   * confirmed with [containsMessage].
+   *
+   * [scan] reads a page of [messagesKey] from a cursor and [transaction] runs the
+   * index updates of a page.
+   */
+  internal fun backfillExecutionIndex(
+    scan: (String) -> ScanResult<Map.Entry<String, String>>,
+    transaction: (Transaction.() -> Unit) -> Unit
+  ) {
+    if (executionIndexBackfilled) {
+      return
+    }
+    synchronized(this) {
+      if (!executionIndexBackfilled) {
+        var cursor = "0"
+        do {
+          val page = scan(cursor)
+          val messages = page.result.mapNotNull { (fingerprint, json) ->
+            try {
+              fingerprint to mapper.readValue<Message>(json)
+            } catch (e: IOException) {
+              log.error("Failed indexing message $fingerprint", e)
+              null
+            }
+          }
+          if (messages.isNotEmpty()) {
+            transaction {
+              messages.forEach { (fingerprint, message) -> indexMessage(fingerprint, message) }
+            }
+          }
+          cursor = page.cursor
+        } while (cursor != "0")
+        executionIndexBackfilled = true
+      }
+    }
+  }
+
+  /**
+   * Removes [fingerprint] from the index of [executionKey], which has to be
+   * read from [executionsKey] before the transaction is started.
+   */
+  internal fun Transaction.unindexMessage(fingerprint: String, executionKey: String?) {
+    if (executionKey != null) {
+      hdel(executionsKey, fingerprint)
+      srem(executionIndexKey(executionKey), fingerprint)
+    }
+  }
 
   internal fun runSerializationMigration(json: String): String {
     if (serializationMigrator.isPresent) {
@@ -100,6 +212,37 @@ abstract class AbstractRedisQueue(
   internal fun JedisClusterCommands.firstFingerprint(key: String, fingerprint: Fingerprint) =
     fingerprint.all.firstOrNull { zismember(key, it) }
 
+  /**
+   * Pipelined equivalent of [firstFingerprint] for many messages at once.
+   */
+  internal fun Jedis.firstFingerprints(key: String, fingerprints: List<Fingerprint>): List<String?> =
+    pipelined().use { pipeline ->
+      val ranks = fingerprints.map { fingerprint ->
+        fingerprint.all.map { it to pipeline.zrank(key, it) }
+      }
+      pipeline.sync()
+      ranks.map { candidates ->
+        candidates.firstOrNull { (_, rank) -> rank.get() != null }?.first
+      }
+    }
+
+  /**
+   * Pairs each of [messages] with the fingerprint of an identical message that is already
+   * queued, or that appears earlier in the same batch, given the already queued
+   * fingerprints in [existing].
+   */
+  internal fun duplicatesOf(
+    messages: List<Pair<Message, TemporalAmount>>,
+    fingerprints: List<Fingerprint>,
+    existing: List<String?>
+  ): List<String?> {
+    val batched = mutableSetOf<String>()
+    return messages.indices.map { i ->
+      (existing[i] ?: fingerprints[i].latest.takeIf { it in batched })
+        .also { batched.add(fingerprints[i].latest) }
+    }
+  }
+
   @Deprecated("Hashes the attributes property, which is mutable")
   internal fun Message.hashV1() =
     Hashing
@@ -198,3 +341,62 @@ internal const val READ_MESSAGE_WITH_LOCK_SRC =
 
   return {fingerprint, fingerprintScore, message}
 """
+
+/**
+ * Locks and reads up to `maxMessages` ready messages in one call, returning a
+ * flat list of fingerprint, score and message body for each of them.
+ */
+internal const val READ_MESSAGES_WITH_LOCK_SRC =
+  """
+  local queueKey = KEYS[1]
+  local unackKey = KEYS[2]
+  local lockKey = KEYS[3]
+  local messagesKey = KEYS[4]
+  local maxScore = ARGV[1]
+  local peekFingerprintCount = ARGV[2]
+  local lockTtlSeconds = ARGV[3]
+  local unackDefaultScore = ARGV[4]
+  local unackBaseScore = ARGV[5]
+  local maxMessages = tonumber(ARGV[6])
+
+  local java_scientific = function(x)
+    return string.format("%.12E", x):gsub("\+", "")
+  end
+
+  -- move the fingerprint to the unacked queue and return its message
+  local read_message = function(fingerprint)
+    local message = redis.call("HGET", messagesKey, fingerprint)
+
+    -- check for an ack timeout override on the message
+    local unackScore = unackDefaultScore
+    if type(message) == "string" and message ~= nil then
+      local ackTimeoutOverride = tonumber(cjson.decode(message)["ackTimeoutMs"])
+      if ackTimeoutOverride ~= nil and unackBaseScore ~= nil then
+        unackScore = unackBaseScore + ackTimeoutOverride
+      end
+    end
+
+    unackScore = java_scientific(unackScore)
+
+    redis.call("ZREM", queueKey, fingerprint)
+    redis.call("ZADD", unackKey, unackScore, fingerprint)
+    return message
+  end
+
+  local result = {}
+  local count = 0
+  local fingerprints = redis.call("ZRANGEBYSCORE", queueKey, 0.0, maxScore, "WITHSCORES", "LIMIT", 0, peekFingerprintCount)
+  local i = 1
+  while (i <= #fingerprints) and (count < maxMessages) do
+    local fingerprint = fingerprints[i]
+    if redis.call("SET", lockKey .. ":" .. fingerprint, "\uD83D\uDD12", "EX", lockTtlSeconds, "NX") then
+      result[#result + 1] = fingerprint
+      result[#result + 1] = fingerprints[i + 1]
+      result[#result + 1] = read_message(fingerprint)
+      count = count + 1
+    end
+    i = i + 2
+  end
+
+  return result
+"""
@@ -6,10 +6,13 @@ import com.fasterxml.jackson.databind.ObjectMapper
 import com.netflix.spinnaker.KotlinOpen
 import com.netflix.spinnaker.q.AttemptsAttribute
 import com.netflix.spinnaker.q.DeadMessageCallback
+import com.netflix.spinnaker.q.DeferredPushes
+import com.netflix.spinnaker.q.ExecutionMessage
 import com.netflix.spinnaker.q.MaxAttemptsAttribute
 import com.netflix.spinnaker.q.Message
 import com.netflix.spinnaker.q.Queue
 import com.netflix.spinnaker.q.QueueCallback
+import com.netflix.spinnaker.q.executionKey
 import com.netflix.spinnaker.q.metrics.EventPublisher
 import com.netflix.spinnaker.q.metrics.LockFailed
 import com.netflix.spinnaker.q.metrics.MessageAcknowledged
@@ -50,7 +53,7 @@ class RedisClusterQueue(
   private val serializationMigrator: Optional<SerializationMigrator>,
   override val ackTimeout: TemporalAmount = Duration.ofMinutes(1),
   override val deadMessageHandlers: List<DeadMessageCallback>,
-  override val canPollMany: Boolean = false,
+  override val canPollMany: Boolean = true,
   override val publisher: EventPublisher
 ) : AbstractRedisQueue(
   clock,
@@ -70,8 +73,10 @@ class RedisClusterQueue(
   override val messagesKey = "{$queueName}.messages"
   override val locksKey = "{$queueName}.locks"
   override val attemptsKey = "{$queueName}.attempts"
+  override val executionsKey = "{$queueName}.executions"
 
   override lateinit var readMessageWithLockScriptSha: String
+  override lateinit var readMessagesWithLockScriptSha: String
 
   init {
     cacheScript()
@@ -80,37 +85,63 @@ class RedisClusterQueue(
 
   final override fun cacheScript() {
     readMessageWithLockScriptSha = jedisCluster.scriptLoad(READ_MESSAGE_WITH_LOCK_SRC, queueKey)
+    readMessagesWithLockScriptSha = jedisCluster.scriptLoad(READ_MESSAGES_WITH_LOCK_SRC, queueKey)
   }
 
   override fun poll(callback: (Message, () -> Unit) -> Unit) {
     jedisCluster.readMessageWithLock()
       ?.also { (fingerprint, scheduledTime, json) ->
-        val ack = this::ackMessage.partially1(fingerprint)
-        jedisCluster.readMessage(fingerprint, json) { message ->
-          val attempts = message.getAttribute<AttemptsAttribute>()?.attempts
-            ?: 0
-          val maxAttempts = message.getAttribute<MaxAttemptsAttribute>()?.maxAttempts
-            ?: 0
-
-          if (maxAttempts > 0 && attempts > maxAttempts) {
-            log.warn("Message $fingerprint with payload $message exceeded $maxAttempts retries")
-            handleDeadMessage(message)
-            jedisCluster.removeMessage(fingerprint)
-            fire(MessageDead)
-          } else {
-            fire(MessageProcessing(message, scheduledTime, clock.instant()))
-            callback(message, ack)
-          }
-        }
+        processMessage(fingerprint, scheduledTime, json, callback)
       }
     fire(QueuePolled)
   }
 
+  /**
+   * Locks and reads up to [maxMessages] with a single script call.
+   */
   override fun poll(maxMessages: Int, callback: QueueCallback) {
-    poll(callback)
+    if (maxMessages <= 1) {
+      poll(callback)
+      return
+    }
+
+    jedisCluster.readMessagesWithLock(maxMessages)
+      .forEach { (fingerprint, scheduledTime, json) ->
+        processMessage(fingerprint, scheduledTime, json, callback)
+      }
+    fire(QueuePolled)
+  }
+
+  private fun processMessage(
+    fingerprint: String,
+    scheduledTime: Instant,
+    json: String?,
+    callback: QueueCallback
+  ) {
+    val ack = this::ackMessage.partially1(fingerprint)
+    jedisCluster.readMessage(fingerprint, json) { message ->
+      val attempts = message.getAttribute<AttemptsAttribute>()?.attempts
+        ?: 0
+      val maxAttempts = message.getAttribute<MaxAttemptsAttribute>()?.maxAttempts
+        ?: 0
+
+      if (maxAttempts > 0 && attempts > maxAttempts) {
+        log.warn("Message $fingerprint with payload $message exceeded $maxAttempts retries")
+        handleDeadMessage(message)
+        jedisCluster.removeMessage(fingerprint)
+        fire(MessageDead)
+      } else {
+        fire(MessageProcessing(message, scheduledTime, clock.instant()))
+        callback(message, ack)
+      }
+    }
   }
 
   override fun push(message: Message, delay: TemporalAmount) {
+    if (DeferredPushes.defer(this, message, delay)) {
+      return
+    }
+
     jedisCluster.firstFingerprint(queueKey, message.fingerprint()).also { fingerprint ->
       if (fingerprint != null) {
         log.info(
@@ -121,7 +152,48 @@ class RedisClusterQueue(
         fire(MessageDuplicate(message))
       } else {
         jedisCluster.queueMessage(message, delay)
-        fire(MessagePushed(message))
+        fire(MessagePushed(message, delay, clock))
+      }
+    }
+  }
+
+  /**
+   * Checks for already queued duplicates with a single pipeline and then writes the whole
+   * batch in a single MULTI. All keys share the `{queueName}` hash tag so both run against
+   * the node owning [queueKey].
+   */
+  override fun pushAll(messages: List<Pair<Message, TemporalAmount>>) {
+    if (messages.isEmpty()) {
+      return
+    }
+
+    val fingerprints = messages.map { (message, _) -> message.fingerprint() }
+    val existing = jedisCluster
+      .getConnectionFromSlot(JedisClusterCRC16.getSlot(queueKey))
+      .use { it.firstFingerprints(queueKey, fingerprints) }
+    val duplicates = duplicatesOf(messages, fingerprints, existing)
+
+    jedisCluster.multi {
+      messages.forEachIndexed { i, (message, delay) ->
+        val duplicate = duplicates[i]
+        if (duplicate != null) {
+          zadd(queueKey, score(delay), duplicate, zAddParams().xx())
+        } else {
+          message.setAttribute(
+            message.getAttribute() ?: AttemptsAttribute()
+          )
+          hset(messagesKey, fingerprints[i].latest, mapper.writeValueAsString(message))
+          zadd(queueKey, score(delay), fingerprints[i].latest)
+          indexMessage(fingerprints[i].latest, message)
+        }
+      }
+    }
+
+    messages.forEachIndexed { i, (message, delay) ->
+      if (duplicates[i] != null) {
+        fire(MessageDuplicate(message))
+      } else {
+        fire(MessagePushed(message, delay, clock))
       }
     }
   }
@@ -233,6 +305,17 @@ class RedisClusterQueue(
     return found
   }
 
+  /**
+   * Answered from the index of [ExecutionMessage]s alone, once
+   * [backfillExecutionIndex] has added the messages pushed before it existed.
+   */
+  override fun containsMessagesForExecution(executionType: String, executionId: String): Boolean {
+    backfillExecutionIndex({ jedisCluster.hscan(messagesKey, it) }, { jedisCluster.multi(it) })
+    return jedisCluster
+      .smembers(executionIndexKey(executionKey(executionType, executionId)))
+      .any { jedisCluster.hexists(messagesKey, it) }
+  }
+
   internal fun JedisCluster.queueMessage(
     message: Message,
     delay: TemporalAmount = Duration.ZERO
@@ -247,6 +330,7 @@ class RedisClusterQueue(
     multi {
       hset(messagesKey, fingerprint, mapper.writeValueAsString(message))
       zadd(queueKey, score(delay), fingerprint)
+      indexMessage(fingerprint, message)
     }
   }
 
@@ -258,12 +342,14 @@ class RedisClusterQueue(
   }
 
   internal fun JedisCluster.removeMessage(fingerprint: String) {
+    val executionKey = hget(executionsKey, fingerprint)
     multi {
       zrem(queueKey, fingerprint)
       zrem(unackedKey, fingerprint)
       hdel(messagesKey, fingerprint)
       del("$locksKey:$fingerprint")
       hdel(attemptsKey, fingerprint)
+      unindexMessage(fingerprint, executionKey)
     }
   }
 
@@ -328,6 +414,30 @@ class RedisClusterQueue(
     return null
   }
 
+  internal fun JedisCluster.readMessagesWithLock(maxMessages: Int): List<Triple<String, Instant, String?>> {
+    try {
+      return lockedMessages(
+        evalsha(
+          readMessagesWithLockScriptSha,
+          listOf(
+            queueKey,
+            unackedKey,
+            locksKey,
+            messagesKey
+          ),
+          readMessagesWithLockArgs(maxMessages)
+        )
+      )
+    } catch (e: JedisDataException) {
+      if ((e.message ?: "").startsWith("NOSCRIPT")) {
+        cacheScript()
+        return readMessagesWithLock(maxMessages)
+      } else {
+        throw e
+      }
+    }
+  }
+
   internal fun JedisCluster.readMessage(
     fingerprint: String,
     json: String?,
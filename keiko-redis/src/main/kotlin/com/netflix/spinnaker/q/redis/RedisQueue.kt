@@ -22,10 +22,13 @@ import com.fasterxml.jackson.databind.ObjectMapper
 import com.netflix.spinnaker.KotlinOpen
 import com.netflix.spinnaker.q.AttemptsAttribute
 import com.netflix.spinnaker.q.DeadMessageCallback
+import com.netflix.spinnaker.q.DeferredPushes
+import com.netflix.spinnaker.q.ExecutionMessage
 import com.netflix.spinnaker.q.MaxAttemptsAttribute
 import com.netflix.spinnaker.q.Message
 import com.netflix.spinnaker.q.Queue
 import com.netflix.spinnaker.q.QueueCallback
+import com.netflix.spinnaker.q.executionKey
 import com.netflix.spinnaker.q.metrics.EventPublisher
 import com.netflix.spinnaker.q.metrics.LockFailed
 import com.netflix.spinnaker.q.metrics.MessageAcknowledged
@@ -66,7 +69,7 @@ class RedisQueue(
   private val serializationMigrator: Optional<SerializationMigrator>,
   override val ackTimeout: TemporalAmount = Duration.ofMinutes(1),
   override val deadMessageHandlers: List<DeadMessageCallback>,
-  override val canPollMany: Boolean = false,
+  override val canPollMany: Boolean = true,
   override val publisher: EventPublisher
 ) : AbstractRedisQueue(
   clock,
@@ -86,8 +89,10 @@ class RedisQueue(
   override val messagesKey = "$queueName.messages"
   override val locksKey = "$queueName.locks"
   override val attemptsKey = "$queueName.attempts"
+  override val executionsKey = "$queueName.executions"
 
   override lateinit var readMessageWithLockScriptSha: String
+  override lateinit var readMessagesWithLockScriptSha: String
 
   init {
     cacheScript()
@@ -97,6 +102,7 @@ class RedisQueue(
   final override fun cacheScript() {
     pool.resource.use { redis ->
       readMessageWithLockScriptSha = redis.scriptLoad(READ_MESSAGE_WITH_LOCK_SRC)
+      readMessagesWithLockScriptSha = redis.scriptLoad(READ_MESSAGES_WITH_LOCK_SRC)
     }
   }
 
@@ -104,33 +110,60 @@ class RedisQueue(
     pool.resource.use { redis ->
       redis.readMessageWithLock()
         ?.also { (fingerprint, scheduledTime, json) ->
-          val ack = this::ackMessage.partially1(fingerprint)
-          redis.readMessage(fingerprint, json) { message ->
-            val attempts = message.getAttribute<AttemptsAttribute>()?.attempts
-              ?: 0
-            val maxAttempts = message.getAttribute<MaxAttemptsAttribute>()?.maxAttempts
-              ?: 0
-
-            if (maxAttempts > 0 && attempts > maxAttempts) {
-              log.warn("Message $fingerprint with payload $message exceeded $maxAttempts retries")
-              handleDeadMessage(message)
-              redis.removeMessage(fingerprint)
-              fire(MessageDead)
-            } else {
-              fire(MessageProcessing(message, scheduledTime, clock.instant()))
-              callback(message, ack)
-            }
-          }
+          redis.processMessage(fingerprint, scheduledTime, json, callback)
         }
       fire(QueuePolled)
     }
   }
 
+  /**
+   * Locks and reads up to [maxMessages] with a single script call.
+   */
   override fun poll(maxMessages: Int, callback: QueueCallback) {
-    poll(callback)
+    if (maxMessages <= 1) {
+      poll(callback)
+      return
+    }
+
+    pool.resource.use { redis ->
+      redis.readMessagesWithLock(maxMessages)
+        .forEach { (fingerprint, scheduledTime, json) ->
+          redis.processMessage(fingerprint, scheduledTime, json, callback)
+        }
+      fire(QueuePolled)
+    }
+  }
+
+  private fun Jedis.processMessage(
+    fingerprint: String,
+    scheduledTime: Instant,
+    json: String?,
+    callback: QueueCallback
+  ) {
+    val ack = this@RedisQueue::ackMessage.partially1(fingerprint)
+    readMessage(fingerprint, json) { message ->
+      val attempts = message.getAttribute<AttemptsAttribute>()?.attempts
+        ?: 0
+      val maxAttempts = message.getAttribute<MaxAttemptsAttribute>()?.maxAttempts
+        ?: 0
+
+      if (maxAttempts > 0 && attempts > maxAttempts) {
+        log.warn("Message $fingerprint with payload $message exceeded $maxAttempts retries")
+        handleDeadMessage(message)
+        removeMessage(fingerprint)
+        fire(MessageDead)
+      } else {
+        fire(MessageProcessing(message, scheduledTime, clock.instant()))
+        callback(message, ack)
+      }
+    }
   }
 
   override fun push(message: Message, delay: TemporalAmount) {
+    if (DeferredPushes.defer(this, message, delay)) {
+      return
+    }
+
     pool.resource.use { redis ->
       redis.firstFingerprint(queueKey, message.fingerprint()).also { fingerprint ->
         if (fingerprint != null) {
@@ -142,7 +175,46 @@ class RedisQueue(
           fire(MessageDuplicate(message))
         } else {
           redis.queueMessage(message, delay)
-          fire(MessagePushed(message))
+          fire(MessagePushed(message, delay, clock))
+        }
+      }
+    }
+  }
+
+  /**
+   * Checks for already queued duplicates with a single pipeline and then writes the whole
+   * batch in a single MULTI.
+   */
+  override fun pushAll(messages: List<Pair<Message, TemporalAmount>>) {
+    if (messages.isEmpty()) {
+      return
+    }
+
+    pool.resource.use { redis ->
+      val fingerprints = messages.map { (message, _) -> message.fingerprint() }
+      val duplicates = duplicatesOf(messages, fingerprints, redis.firstFingerprints(queueKey, fingerprints))
+
+      redis.multi {
+        messages.forEachIndexed { i, (message, delay) ->
+          val duplicate = duplicates[i]
+          if (duplicate != null) {
+            zadd(queueKey, score(delay), duplicate, zAddParams().xx())
+          } else {
+            message.setAttribute(
+              message.getAttribute() ?: AttemptsAttribute()
+            )
+            hset(messagesKey, fingerprints[i].latest, mapper.writeValueAsString(message))
+            zadd(queueKey, score(delay), fingerprints[i].latest)
+            indexMessage(fingerprints[i].latest, message)
+          }
+        }
+      }
+
+      messages.forEachIndexed { i, (message, delay) ->
+        if (duplicates[i] != null) {
+          fire(MessageDuplicate(message))
+        } else {
+          fire(MessagePushed(message, delay, clock))
         }
       }
     }
@@ -236,7 +308,7 @@ class RedisQueue(
 
   override fun clear() {
     pool.resource.use { redis ->
-      redis.del(messagesKey)
+      redis.del(messagesKey, executionsKey)
     }
   }
 
@@ -275,6 +347,18 @@ class RedisQueue(
       return found
     }
 
+  /**
+   * Answered from the index of [ExecutionMessage]s alone, once
+   * [backfillExecutionIndex] has added the messages pushed before it existed.
+   */
+  override fun containsMessagesForExecution(executionType: String, executionId: String): Boolean =
+    pool.resource.use { redis ->
+      backfillExecutionIndex({ redis.hscan(messagesKey, it) }, { redis.multi(it) })
+      redis
+        .smembers(executionIndexKey(executionKey(executionType, executionId)))
+        .any { redis.hexists(messagesKey, it) }
+    }
+
   override fun toString() = "RedisQueue[$queueName]"
 
   private fun ackMessage(fingerprint: String) {
@@ -304,6 +388,7 @@ class RedisQueue(
     multi {
       hset(messagesKey, fingerprint, mapper.writeValueAsString(message))
       zadd(queueKey, score(delay), fingerprint)
+      indexMessage(fingerprint, message)
     }
   }
 
@@ -315,12 +400,14 @@ class RedisQueue(
   }
 
   internal fun Jedis.removeMessage(fingerprint: String) {
+    val executionKey = hget(executionsKey, fingerprint)
     multi {
       zrem(queueKey, fingerprint)
       zrem(unackedKey, fingerprint)
       hdel(messagesKey, fingerprint)
       del("$locksKey:$fingerprint")
       hdel(attemptsKey, fingerprint)
+      unindexMessage(fingerprint, executionKey)
     }
   }
 
@@ -382,6 +469,30 @@ class RedisQueue(
     return null
   }
 
+  internal fun ScriptingCommands.readMessagesWithLock(maxMessages: Int): List<Triple<String, Instant, String?>> {
+    try {
+      return lockedMessages(
+        evalsha(
+          readMessagesWithLockScriptSha,
+          listOf(
+            queueKey,
+            unackedKey,
+            locksKey,
+            messagesKey
+          ),
+          readMessagesWithLockArgs(maxMessages)
+        )
+      )
+    } catch (e: JedisDataException) {
+      if ((e.message ?: "").startsWith("NOSCRIPT")) {
+        cacheScript()
+        return readMessagesWithLock(maxMessages)
+      } else {
+        throw e
+      }
+    }
+  }
+
   /**
    * Tries to read the message with the specified [fingerprint] passing it to
    * [block]. If it's not accessible for whatever reason any references are
@@ -23,13 +23,25 @@ import com.netflix.spinnaker.kork.jedis.EmbeddedRedis
 import com.netflix.spinnaker.q.AttemptsAttribute
 import com.netflix.spinnaker.q.DeadMessageCallback
 import com.netflix.spinnaker.q.MaxAttemptsAttribute
+import com.netflix.spinnaker.q.Message
 import com.netflix.spinnaker.q.QueueTest
+import com.netflix.spinnaker.q.TestExecutionMessage
 import com.netflix.spinnaker.q.TestMessage
 import com.netflix.spinnaker.q.metrics.EventPublisher
 import com.netflix.spinnaker.q.metrics.MonitorableQueueTest
 import com.netflix.spinnaker.q.metrics.QueueEvent
+import com.netflix.spinnaker.q.metrics.QueuePolled
+import com.netflix.spinnaker.time.MutableClock
+import com.nhaarman.mockito_kotlin.mock
+import com.nhaarman.mockito_kotlin.times
+import com.nhaarman.mockito_kotlin.verify
 import java.time.Clock
+import java.time.Duration
 import java.util.Optional
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.jupiter.api.AfterEach
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
 
 object RedisQueueTest : QueueTest<RedisQueue>(createQueueNoPublisher, ::shutdownCallback)
 
@@ -64,7 +76,7 @@ private fun createQueue(clock: Clock,
       registerModule(KotlinModule.Builder().build())
       disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
 
-      registerSubtypes(TestMessage::class.java)
+      registerSubtypes(TestMessage::class.java, TestExecutionMessage::class.java)
       registerSubtypes(MaxAttemptsAttribute::class.java, AttemptsAttribute::class.java)
     },
     serializationMigrator = Optional.empty()
@@ -74,3 +86,87 @@ private fun createQueue(clock: Clock,
 private fun shutdownCallback() {
   redis?.destroy()
 }
+
+class RedisQueueSpecificTests {
+  private val clock = MutableClock()
+  private val deadMessageHandler: DeadMessageCallback = mock()
+  private val publisher: EventPublisher = mock()
+  private lateinit var queue: RedisQueue
+
+  @BeforeEach
+  fun setup() {
+    queue = createQueue(clock, deadMessageHandler, publisher)
+  }
+
+  @AfterEach
+  fun cleanup() {
+    shutdownCallback()
+  }
+
+  @Test
+  fun `polling many messages reads every ready message in one call`() {
+    (1..5).forEach { queue.push(TestMessage("$it")) }
+    queue.push(TestMessage("later"), Duration.ofMinutes(1))
+
+    val received = mutableListOf<Message>()
+    queue.poll(10) { message, ack ->
+      received.add(message)
+      ack()
+    }
+
+    assertThat(received).containsExactlyInAnyOrderElementsOf((1..5).map { TestMessage("$it") })
+    verify(publisher, times(1)).publishEvent(QueuePolled)
+    with(queue.readState()) {
+      assertThat(depth).isEqualTo(1)
+      assertThat(unacked).isEqualTo(0)
+    }
+  }
+
+  @Test
+  fun `polling many messages stops at the maximum`() {
+    (1..5).forEach { queue.push(TestMessage("$it")) }
+
+    val received = mutableListOf<Message>()
+    queue.poll(3) { message, _ -> received.add(message) }
+
+    assertThat(received).hasSize(3)
+    with(queue.readState()) {
+      assertThat(depth).isEqualTo(2)
+      assertThat(unacked).isEqualTo(3)
+    }
+  }
+
+  @Test
+  fun `acknowledged messages are removed from the execution index`() {
+    queue.push(TestExecutionMessage("PIPELINE", "1"))
+    assertThat(queue.containsMessagesForExecution("PIPELINE", "1")).isTrue
+
+    queue.poll { _, ack -> ack() }
+
+    assertThat(queue.containsMessagesForExecution("PIPELINE", "1")).isFalse
+    redis!!.pool.resource.use { jedis ->
+      assertThat(jedis.exists(queue.executionIndexKey("PIPELINE:1"))).isFalse
+      assertThat(jedis.hlen(queue.executionsKey)).isEqualTo(0)
+    }
+  }
+
+  @Test
+  fun `messages pushed before the execution index existed are indexed once`() {
+    queue.push(TestExecutionMessage("PIPELINE", "1"))
+    unindex("PIPELINE:1")
+
+    assertThat(queue.containsMessagesForExecution("PIPELINE", "1")).isTrue
+
+    queue.push(TestExecutionMessage("PIPELINE", "2"))
+    unindex("PIPELINE:2")
+
+    assertThat(queue.containsMessagesForExecution("PIPELINE", "2")).isFalse
+  }
+
+  private fun unindex(executionKey: String) {
+    redis!!.pool.resource.use { jedis ->
+      jedis.smembers(queue.executionIndexKey(executionKey)).forEach { jedis.hdel(queue.executionsKey, it) }
+      jedis.del(queue.executionIndexKey(executionKey))
+    }
+  }
+}
@@ -18,17 +18,22 @@ package com.netflix.spinnaker.config
 
 import com.netflix.spectator.api.Registry
 import com.netflix.spinnaker.q.Activator
+import com.netflix.spinnaker.q.AdaptivePollSchedule
 import com.netflix.spinnaker.q.DeadMessageCallback
 import com.netflix.spinnaker.q.EnabledActivator
+import com.netflix.spinnaker.q.MessageLane
+import com.netflix.spinnaker.q.MessageLanes
 import com.netflix.spinnaker.q.MessageHandler
 import com.netflix.spinnaker.q.Queue
 import com.netflix.spinnaker.q.QueueExecutor
 import com.netflix.spinnaker.q.QueueProcessor
+import com.netflix.spinnaker.q.VirtualThreadQueueExecutor
 import com.netflix.spinnaker.q.metrics.EventPublisher
 import com.netflix.spinnaker.q.metrics.MonitorableQueue
 import com.netflix.spinnaker.q.metrics.NoopEventPublisher
 import com.netflix.spinnaker.q.metrics.QueueMetricsPublisher
 import com.netflix.spinnaker.q.metrics.QueueMonitor
+import com.netflix.spinnaker.q.metrics.WakeOnPushEventPublisher
 import java.time.Clock
 import java.time.Duration
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean
@@ -59,8 +64,19 @@ class QueueConfiguration {
       setQueueCapacity(0)
     }
 
+  @Bean
+  @ConditionalOnProperty("keiko.queue.virtual-threads.enabled")
+  fun virtualThreadQueueExecutor(queueProperties: QueueProperties, registry: Registry): QueueExecutor<*> =
+    VirtualThreadQueueExecutor(
+      queueProperties.virtualThreads.maxConcurrency,
+      queueProperties.handlerThreadNamePrefix,
+      registry,
+      Duration.ofMillis(queueProperties.virtualThreads.pinnedThresholdMs)
+    )
+
   @Bean
   @ConditionalOnMissingBean(QueueExecutor::class)
+  @ConditionalOnProperty("keiko.queue.virtual-threads.enabled", havingValue = "false", matchIfMissing = true)
   fun queueExecutor(messageHandlerPool: ThreadPoolTaskExecutor) =
     object : QueueExecutor<ThreadPoolTaskExecutor>(messageHandlerPool) {
       override fun hasCapacity() =
@@ -74,6 +90,18 @@ class QueueConfiguration {
         }
     }
 
+  @Bean
+  @ConditionalOnProperty("keiko.queue.adaptive-polling.enabled")
+  fun adaptivePollSchedule(queueProperties: QueueProperties, clock: Clock) =
+    queueProperties.adaptivePolling.run {
+      AdaptivePollSchedule(
+        Duration.ofMillis(minBackoffMs),
+        Duration.ofMillis(maxBackoffMs),
+        maxImmediatePolls,
+        clock
+      )
+    }
+
   @Bean
   fun queueProcessor(
     queue: Queue,
@@ -82,7 +110,10 @@ class QueueConfiguration {
     activators: List<Activator>,
     publisher: EventPublisher,
     queueProperties: QueueProperties,
-    deadMessageHandler: DeadMessageCallback
+    deadMessageHandler: DeadMessageCallback,
+    adaptivePollSchedule: AdaptivePollSchedule?,
+    clock: Clock,
+    registry: Registry
   ) = QueueProcessor(
     queue,
     executor,
@@ -92,7 +123,16 @@ class QueueConfiguration {
     deadMessageHandler,
     queueProperties.fillExecutorEachCycle,
     Duration.ofSeconds(queueProperties.requeueDelaySeconds),
-    Duration.ofSeconds(queueProperties.requeueMaxJitterSeconds)
+    Duration.ofSeconds(queueProperties.requeueMaxJitterSeconds),
+    queueProperties.batchPushes,
+    adaptivePollSchedule,
+    clock,
+    queueProperties.lanes
+      .takeIf { it.isNotEmpty() }
+      ?.map { (name, lane) ->
+        MessageLane(name, lane.messageTypes, lane.maxConcurrency, Duration.ofMillis(lane.requeueDelayMs))
+      }
+      ?.let { MessageLanes(it, registry) }
   )
 
   @Bean
@@ -110,12 +150,27 @@ class QueueConfiguration {
   @ConditionalOnProperty("queue.metrics.enabled", havingValue = "true", matchIfMissing = true)
   fun queueMetricsPublisher(
     registry: Registry,
-    clock: Clock
+    clock: Clock,
+    queueProperties: QueueProperties,
+    adaptivePollSchedule: AdaptivePollSchedule?
   ): EventPublisher =
-    QueueMetricsPublisher(registry, clock)
+    QueueMetricsPublisher(registry, clock).wakingOnPush(queueProperties, adaptivePollSchedule)
 
   @Bean
   @ConditionalOnMissingBean(EventPublisher::class)
-  fun queueEventPublisher(): EventPublisher =
-    NoopEventPublisher()
+  fun queueEventPublisher(
+    queueProperties: QueueProperties,
+    adaptivePollSchedule: AdaptivePollSchedule?
+  ): EventPublisher =
+    NoopEventPublisher().wakingOnPush(queueProperties, adaptivePollSchedule)
+
+  private fun EventPublisher.wakingOnPush(
+    queueProperties: QueueProperties,
+    adaptivePollSchedule: AdaptivePollSchedule?
+  ): EventPublisher =
+    if (adaptivePollSchedule != null && queueProperties.adaptivePolling.wakeOnPush) {
+      WakeOnPushEventPublisher(this, adaptivePollSchedule)
+    } else {
+      this
+    }
 }
@@ -27,4 +27,73 @@ class QueueProperties {
   var fillExecutorEachCycle: Boolean = true
   var requeueDelaySeconds: Long = 0
   var requeueMaxJitterSeconds: Long = 0
+  var batchPushes: Boolean = false
+  var adaptivePolling: AdaptivePollingProperties = AdaptivePollingProperties()
+  var virtualThreads: VirtualThreadProperties = VirtualThreadProperties()
+  var lanes: Map<String, MessageLaneProperties> = emptyMap()
+}
+
+/**
+ * Limits how many messages of [messageTypes] are handled at once, see
+ * [com.netflix.spinnaker.q.MessageLanes]. Messages that arrive while their
+ * lane is full are re-queued after [QueueProperties.requeueDelaySeconds], or
+ * between one and two times [requeueDelayMs] if that is longer.
+ */
+class MessageLaneProperties {
+  /**
+   * Simple or fully qualified class names of the messages in this lane,
+   * including those of their subclasses.
+   */
+  var messageTypes: List<String> = emptyList()
+
+  var maxConcurrency: Int = 1
+
+  var requeueDelayMs: Long = 1000
+}
+
+/**
+ * Runs message handlers on virtual threads instead of [QueueProperties.handlerMaxPoolSize]
+ * platform threads, see [com.netflix.spinnaker.q.VirtualThreadQueueExecutor]. Requires
+ * Java 21, the application fails to start on older runtimes when enabled.
+ */
+class VirtualThreadProperties {
+  var enabled: Boolean = false
+
+  /**
+   * Maximum number of messages handled at once.
+   */
+  var maxConcurrency: Int = 1000
+
+  /**
+   * Pinned carrier threads are only reported if they block for at least this long.
+   */
+  var pinnedThresholdMs: Long = 20
+}
+
+/**
+ * Backs off polling an empty queue instead of polling every
+ * `queue.poll.frequency.ms`. As idle cycles no longer reach the queue, the
+ * frequency can be lowered to reduce latency on busy instances.
+ */
+class AdaptivePollingProperties {
+  var enabled: Boolean = false
+
+  /**
+   * Backoff after the first empty poll, doubled by each consecutive one.
+   */
+  var minBackoffMs: Long = 50
+
+  var maxBackoffMs: Long = 1000
+
+  /**
+   * How many times a cycle may poll again straight away after receiving as
+   * many messages as it asked for.
+   */
+  var maxImmediatePolls: Int = 10
+
+  /**
+   * Ends the backoff as soon as this instance pushes a message for immediate
+   * delivery.
+   */
+  var wakeOnPush: Boolean = true
 }
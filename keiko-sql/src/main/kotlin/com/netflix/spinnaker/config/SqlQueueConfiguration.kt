@@ -1,13 +1,16 @@
 package com.netflix.spinnaker.config
 
 import com.fasterxml.jackson.databind.ObjectMapper
+import com.netflix.spinnaker.q.Message
 import com.netflix.spinnaker.q.metrics.EventPublisher
 import com.netflix.spinnaker.q.migration.SerializationMigrator
 import com.netflix.spinnaker.q.sql.SqlDeadMessageHandler
+import com.netflix.spinnaker.q.sql.ShardedSqlQueue
 import com.netflix.spinnaker.q.sql.SqlQueue
 import java.time.Clock
 import java.util.Optional
 import org.jooq.DSLContext
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty
 import org.springframework.boot.context.properties.EnableConfigurationProperties
@@ -29,6 +32,7 @@ class SqlQueueConfiguration {
 
   @Bean
   @ConditionalOnMissingBean(name = ["queue"])
+  @ConditionalOnExpression("\${keiko.queue.sql.shards:1} <= 1")
   fun queue(
     jooq: DSLContext,
     clock: Clock,
@@ -49,9 +53,52 @@ class SqlQueueConfiguration {
       ackTimeout = properties.ackTimeout,
       deadMessageHandlers = listOf(deadMessageHandler),
       publisher = publisher,
-      sqlRetryProperties = properties.retries
+      sqlRetryProperties = properties.retries,
+      pollStrategy = properties.pollStrategy
     )
 
+  @Bean
+  @ConditionalOnMissingBean(name = ["queue"])
+  @ConditionalOnExpression("\${keiko.queue.sql.shards:1} > 1")
+  fun shardedQueue(
+    jooq: DSLContext,
+    clock: Clock,
+    mapper: ObjectMapper,
+    deadMessageHandler: SqlDeadMessageHandler,
+    publisher: EventPublisher,
+    serializationMigrator: Optional<SerializationMigrator>,
+    properties: SqlQueueProperties
+  ) =
+    ShardedSqlQueue(
+      queueName = properties.queueName,
+      shardCount = properties.shards,
+      publisher = publisher,
+      deadMessageHandlers = listOf(deadMessageHandler),
+      shardFactory = { queueName, shardPublisher, shardDeadMessageHandlers ->
+        SqlQueue(
+          queueName = queueName,
+          schemaVersion = SCHEMA_VERSION,
+          jooq = jooq,
+          clock = clock,
+          lockTtlSeconds = properties.lockTtlSeconds,
+          mapper = mapper,
+          serializationMigrator = serializationMigrator,
+          ackTimeout = properties.ackTimeout,
+          deadMessageHandlers = shardDeadMessageHandlers,
+          publisher = shardPublisher,
+          sqlRetryProperties = properties.retries,
+          pollStrategy = properties.pollStrategy
+        )
+      },
+      shardKey = ::shardKey
+    )
+
+  /**
+   * Selects the shard of [message] when there is more than one, or `null` to
+   * use its fingerprint.
+   */
+  protected fun shardKey(message: Message): String? = null
+
   @Bean
   @ConditionalOnMissingBean(name = ["sqlDeadMessageHandler"])
   fun sqlDeadMessageHandler(
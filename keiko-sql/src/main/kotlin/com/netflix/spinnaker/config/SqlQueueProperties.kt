@@ -2,6 +2,7 @@ package com.netflix.spinnaker.config
 
 import com.netflix.spinnaker.kork.sql.config.RetryProperties
 import com.netflix.spinnaker.kork.sql.config.SqlRetryProperties
+import com.netflix.spinnaker.q.sql.PollStrategy
 import java.time.Duration
 import javax.validation.constraints.Pattern
 import javax.validation.constraints.Positive
@@ -47,6 +48,24 @@ class SqlQueueProperties {
   @Positive(message = "lockTtlSeconds must be a positive integer")
   val lockTtlSeconds: Int = 20
 
+  /**
+   * [PollStrategy] used to claim ready messages. [PollStrategy.SKIP_LOCKED] claims a full batch
+   * with a single locking read and requires MySQL 8+ or PostgreSQL.
+   */
+  var pollStrategy: PollStrategy = PollStrategy.OPTIMISTIC
+
+  /**
+   * Number of table sets the queue is spread over, see [com.netflix.spinnaker.q.sql.ShardedSqlQueue].
+   * The first shard uses the tables of the unsharded queue.
+   *
+   * Must not be changed while messages are queued: a message's shard is derived from
+   * the shard count, so queued messages would no longer be found on the shard that
+   * new copies of them are pushed to, and duplicates of them would no longer be
+   * deduplicated. Queue shovels are not supported with more than one shard.
+   */
+  @Positive(message = "shards must be a positive integer")
+  var shards: Int = 1
+
   /**
    * [SqlRetryProperties] determines how read and write database queries are retried.
    * See: https://github.com/spinnaker/kork/blob/master/kork-sql/src/main/kotlin/com/netflix/spinnaker/kork/sql/config/SqlRetryProperties.kt
@@ -0,0 +1,18 @@
+package com.netflix.spinnaker.q.sql
+
+/**
+ * Determines how [SqlQueue.poll] claims ready messages from the queue table.
+ */
+enum class PollStrategy {
+  /**
+   * Non-locking candidate read followed by optimistic `UPDATE ... WHERE locked = '0'` passes.
+   * Works on every supported database.
+   */
+  OPTIMISTIC,
+
+  /**
+   * Claims up to `maxMessages` rows with a single `SELECT ... FOR UPDATE SKIP LOCKED` and moves
+   * them to the unacked table in the same transaction. Requires MySQL 8+ or PostgreSQL 9.5+.
+   */
+  SKIP_LOCKED
+}
@@ -0,0 +1,191 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.spinnaker.q.sql
+
+import com.netflix.spinnaker.KotlinOpen
+import com.netflix.spinnaker.q.DeadMessageCallback
+import com.netflix.spinnaker.q.Message
+import com.netflix.spinnaker.q.Queue
+import com.netflix.spinnaker.q.metrics.EventPublisher
+import com.netflix.spinnaker.q.metrics.MonitorableQueue
+import com.netflix.spinnaker.q.metrics.QueueEvent
+import com.netflix.spinnaker.q.metrics.QueuePolled
+import com.netflix.spinnaker.q.metrics.QueueState
+import com.netflix.spinnaker.q.metrics.RetryPolled
+import java.time.temporal.TemporalAmount
+import java.util.concurrent.ThreadLocalRandom
+import java.util.concurrent.atomic.AtomicInteger
+import org.slf4j.LoggerFactory
+import org.springframework.scheduling.annotation.Scheduled
+
+/**
+ * Spreads a queue over several [SqlQueue]s, each with its own set of tables, so
+ * that instances polling the queue don't all contend on the same index.
+ *
+ * Every message is pushed to the shard selected by its [shardKey], or by its
+ * fingerprint if it has none, so that duplicates always land on the same shard.
+ * Each poll starts at the next shard in a rotation that begins at a random
+ * shard on every instance, and moves on to the other shards if that one did
+ * not have enough ready messages.
+ *
+ * The first shard uses the tables of an unsharded queue of the same name, so
+ * messages queued before sharding was enabled are still delivered. The number
+ * of shards must not change while messages are queued though, as that moves
+ * fingerprints to other shards where duplicates are no longer detected.
+ *
+ * @param shardFactory creates the [SqlQueue] for a shard given its queue name
+ * and the publisher and dead message handlers it should use.
+ */
+@KotlinOpen
+class ShardedSqlQueue(
+  queueName: String,
+  shardCount: Int,
+  override val publisher: EventPublisher,
+  override val deadMessageHandlers: List<DeadMessageCallback>,
+  shardFactory: (String, EventPublisher, List<DeadMessageCallback>) -> SqlQueue,
+  private val shardKey: (Message) -> String? = { null }
+) : MonitorableQueue {
+
+  companion object {
+    private val log = LoggerFactory.getLogger(ShardedSqlQueue::class.java)
+
+    fun shardName(queueName: String, shard: Int) =
+      if (shard == 0) queueName else "${queueName}_shard$shard"
+  }
+
+  init {
+    require(shardCount > 0) { "shardCount must be positive" }
+  }
+
+  /**
+   * Polls and retries are reported once for all shards rather than by each.
+   */
+  private val shardPublisher = object : EventPublisher {
+    override fun publishEvent(event: QueueEvent) {
+      if (event != QueuePolled && event != RetryPolled) {
+        publisher.publishEvent(event)
+      }
+    }
+  }
+
+  /**
+   * Dead messages are reported as coming from this queue rather than a shard.
+   */
+  private val shardDeadMessageHandlers: List<DeadMessageCallback> =
+    deadMessageHandlers.map { handler -> { _: Queue, message: Message -> handler(this, message) } }
+
+  val shards: List<SqlQueue> = (0 until shardCount).map {
+    shardFactory(shardName(queueName, it), shardPublisher, shardDeadMessageHandlers)
+  }
+
+  private val nextShard = AtomicInteger(ThreadLocalRandom.current().nextInt(shardCount))
+
+  init {
+    log.info("Configured queue $this")
+  }
+
+  override val ackTimeout: TemporalAmount
+    get() = shards.first().ackTimeout
+
+  override val canPollMany: Boolean
+    get() = shards.first().canPollMany
+
+  override fun toString(): String =
+    "ShardedSqlQueue(shards=$shards)"
+
+  override fun readState(): QueueState =
+    shards
+      .map { it.readState() }
+      .reduce { total, state ->
+        QueueState(
+          depth = total.depth + state.depth,
+          ready = total.ready + state.ready,
+          unacked = total.unacked + state.unacked,
+          orphaned = total.orphaned + state.orphaned,
+          hashDrift = total.hashDrift + state.hashDrift
+        )
+      }
+
+  override fun containsMessage(predicate: (Message) -> Boolean): Boolean =
+    shards.any { it.containsMessage(predicate) }
+
+  /**
+   * Checks the index of every shard, as messages of an execution only share a
+   * shard if the [shardKey] keeps them together.
+   */
+  override fun containsMessagesForExecution(executionType: String, executionId: String): Boolean =
+    shards.any { it.containsMessagesForExecution(executionType, executionId) }
+
+  override fun poll(callback: (Message, () -> Unit) -> Unit) {
+    poll(1, callback)
+  }
+
+  override fun poll(maxMessages: Int, callback: (Message, () -> Unit) -> Unit) {
+    var remaining = maxMessages
+    val start = Math.floorMod(nextShard.getAndIncrement(), shards.size)
+    for (i in shards.indices) {
+      val received = AtomicInteger()
+      shards[(start + i) % shards.size].poll(remaining) { message, ack ->
+        received.incrementAndGet()
+        callback(message, ack)
+      }
+      remaining -= received.get()
+      if (remaining <= 0) {
+        break
+      }
+    }
+
+    fire(QueuePolled)
+  }
+
+  override fun push(message: Message, delay: TemporalAmount) {
+    shardFor(message).push(message, delay)
+  }
+
+  override fun pushAll(messages: List<Pair<Message, TemporalAmount>>) {
+    messages
+      .groupBy { (message, _) -> shardFor(message) }
+      .forEach { (shard, batch) -> shard.pushAll(batch) }
+  }
+
+  override fun reschedule(message: Message, delay: TemporalAmount) {
+    shardFor(message).reschedule(message, delay)
+  }
+
+  override fun ensure(message: Message, delay: TemporalAmount) {
+    shardFor(message).ensure(message, delay)
+  }
+
+  @Scheduled(fixedDelayString = "\${queue.retry.frequency.ms:10000}")
+  override fun retry() {
+    shards.forEach { it.retry() }
+    fire(RetryPolled)
+  }
+
+  override fun clear() {
+    shards.forEach { it.clear() }
+  }
+
+  @Scheduled(fixedDelayString = "\${queue.cleanup.frequency.ms:2000}")
+  fun cleanupMessages() {
+    shards.forEach { it.cleanupMessages() }
+  }
+
+  fun shardFor(message: Message): SqlQueue {
+    val key = shardKey(message) ?: with(shards.first()) { message.hashV2() }
+    return shards[Math.floorMod(key.hashCode(), shards.size)]
+  }
+}
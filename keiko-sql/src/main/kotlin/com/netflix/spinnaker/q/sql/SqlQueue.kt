@@ -11,9 +11,12 @@ import com.netflix.spinnaker.kork.sql.routing.withPool
 import com.netflix.spinnaker.q.AckAttemptsAttribute
 import com.netflix.spinnaker.q.AttemptsAttribute
 import com.netflix.spinnaker.q.DeadMessageCallback
+import com.netflix.spinnaker.q.DeferredPushes
+import com.netflix.spinnaker.q.ExecutionMessage
 import com.netflix.spinnaker.q.MaxAttemptsAttribute
 import com.netflix.spinnaker.q.Message
 import com.netflix.spinnaker.q.Queue
+import com.netflix.spinnaker.q.executionKey
 import com.netflix.spinnaker.q.metrics.EventPublisher
 import com.netflix.spinnaker.q.metrics.MessageAcknowledged
 import com.netflix.spinnaker.q.metrics.MessageDead
@@ -56,6 +59,7 @@ import org.jooq.impl.DSL
 import org.jooq.impl.DSL.count
 import org.jooq.impl.DSL.field
 import org.jooq.impl.DSL.select
+import org.jooq.impl.DSL.selectOne
 import org.jooq.impl.DSL.sql
 import org.jooq.impl.DSL.table
 import org.jooq.util.mysql.MySQLDSL
@@ -79,6 +83,7 @@ class SqlQueue(
   private val ULID: ULID = ULID(),
   private val poolName: String = "default",
   private val containsMessageBatchSize: Int = 100,
+  pollStrategy: PollStrategy = PollStrategy.OPTIMISTIC,
 ) : MonitorableQueue {
 
   companion object {
@@ -108,17 +113,21 @@ class SqlQueue(
   private val queueBase = "keiko_v${schemaVersion}_queue"
   private val unackedBase = "keiko_v${schemaVersion}_unacked"
   private val messagesBase = "keiko_v${schemaVersion}_messages"
+  private val executionsBase = "keiko_v${schemaVersion}_executions"
 
   private val queueTableName = "${queueBase}_$sanitizedName"
   private val unackedTableName = "${unackedBase}_$sanitizedName"
   private val messagesTableName = "${messagesBase}_$sanitizedName"
+  private val executionsTableName = "${executionsBase}_$sanitizedName"
 
   private val queueTable = table(queueTableName)
   private val unackedTable = table(unackedTableName)
   private val messagesTable = table(messagesTableName)
+  private val executionsTable = table(executionsTableName)
 
   private val bodyField = field("body")
   private val deliveryField = field("delivery")
+  private val executionKeyField = field("execution_key")
   private val expiryField = field("expiry")
   private val fingerprintField = field("fingerprint")
   private val idField = field("id")
@@ -130,12 +139,25 @@ class SqlQueue(
   private val writeRetryBackoffMin = max(sqlRetryProperties.transactions.backoffMs - 25, 25)
   private val writeRetryBackoffMax = max(sqlRetryProperties.transactions.backoffMs + 50, 100)
 
+  @Volatile
+  private var executionIndexBackfilled = false
+
+  private val pollStrategy = when {
+    pollStrategy == PollStrategy.SKIP_LOCKED &&
+      jooq.dialect().family() !in setOf(SQLDialect.MYSQL, SQLDialect.POSTGRES) -> {
+      log.warn("Poll strategy $pollStrategy is not supported by ${jooq.dialect()}, using ${PollStrategy.OPTIMISTIC}")
+      PollStrategy.OPTIMISTIC
+    }
+    else -> pollStrategy
+  }
+
   init {
     log.info("Configured queue $this")
     initTables()
   }
 
-  override fun toString(): String = "SqlQueue(queueName=$sanitizedName, poolName=$poolName)"
+  override fun toString(): String =
+    "SqlQueue(queueName=$sanitizedName, poolName=$poolName, pollStrategy=$pollStrategy)"
 
   override fun readState(): QueueState {
     withPool(poolName) {
@@ -218,13 +240,90 @@ class SqlQueue(
     return found
   }
 
+  /**
+   * Answered from [executionsTable] alone, once [backfillExecutionIndex] has added
+   * the messages pushed before the index existed.
+   */
+  override fun containsMessagesForExecution(executionType: String, executionId: String): Boolean {
+    backfillExecutionIndex()
+    return indexContainsExecution(executionKey(executionType, executionId))
+  }
+
+  private fun indexContainsExecution(executionKey: String): Boolean =
+    withPool(poolName) {
+      withRetry(READ) {
+        jooq.fetchExists(
+          jooq.select(field("e.fingerprint"))
+            .from(executionsTable.`as`("e"))
+            .join(messagesTable.`as`("m"))
+            .on(sql("e.fingerprint = m.fingerprint"))
+            .where(field("e.execution_key").eq(executionKey))
+        )
+      }
+    }
+
+  /**
+   * Adds every [ExecutionMessage] in [messagesTable] to [executionsTable] the first
+   * time it is called, reading the messages in batches as [containsMessage] does.
+   * Messages pushed without being indexed after that, by instances of an earlier
+   * version still running during a deployment, are not found by the index, which is why
+   * [containsMessagesForExecution] only rules executions out.
+   */
+  private fun backfillExecutionIndex() {
+    if (executionIndexBackfilled) {
+      return
+    }
+    synchronized(this) {
+      if (!executionIndexBackfilled) {
+        withPool(poolName) {
+          doBackfillExecutionIndex()
+        }
+        executionIndexBackfilled = true
+      }
+    }
+  }
+
+  private fun doBackfillExecutionIndex() {
+    var lastId = "0"
+
+    do {
+      val rs = withRetry(READ) {
+        jooq.select(idField, fingerprintField, bodyField)
+          .from(messagesTable)
+          .where(idField.gt(lastId))
+          .orderBy(idField.asc())
+          .limit(containsMessageBatchSize)
+          .fetch()
+      }
+
+      val executionKeys = rs.mapNotNull { record ->
+        val fingerprint = record[fingerprintField, String::class.java]
+        lastId = record[idField, String::class.java]
+        try {
+          (mapper.readValue<Message>(record[bodyField, String::class.java]) as? ExecutionMessage)
+            ?.let { fingerprint to it.executionKey() }
+        } catch (e: Exception) {
+          log.error("Failed indexing message with fingerprint: $fingerprint", e)
+          null
+        }
+      }
+
+      withRetry(WRITE) {
+        jooq.indexExecutions(executionKeys)
+      }
+    } while (rs.isNotEmpty)
+  }
+
   override fun poll(callback: (Message, () -> Unit) -> Unit) {
     poll(1, callback)
   }
 
   override fun poll(maxMessages: Int, callback: (Message, () -> Unit) -> Unit) {
     withPool(poolName) {
-      doPoll(maxMessages, callback)
+      when (pollStrategy) {
+        PollStrategy.SKIP_LOCKED -> doPollSkipLocked(maxMessages, callback)
+        else -> doPoll(maxMessages, callback)
+      }
     }
   }
 
@@ -332,31 +431,7 @@ class SqlQueue(
         }
 
         try {
-          val message = mapper.readValue<Message>(runSerializationMigration(json))
-            .apply {
-              val currentAttempts = (getAttribute() ?: AttemptsAttribute())
-                .run { copy(attempts = attempts + 1) }
-
-              setAttribute(currentAttempts)
-            }
-
-          val timeoutOverride = message.ackTimeoutMs ?: 0
-
-          candidates.add(
-            LockedMessage(
-              queueId = rs.getString("id"),
-              fingerprint = fingerprint,
-              scheduledTime = Instant.ofEpochMilli(rs.getLong("delivery")),
-              message = message,
-              expiry = if (timeoutOverride > 0) {
-                atTime(Duration.ofMillis(timeoutOverride))
-              } else {
-                atTime(ackTimeout)
-              },
-              maxAttempts = message.getAttribute<MaxAttemptsAttribute>()?.maxAttempts ?: 0,
-              ackCallback = this::ackMessage.partially1(fingerprint)
-            )
-          )
+          candidates.add(toLockedMessage(rs.getString("id"), fingerprint, rs.getLong("delivery"), json))
         } catch (e: Exception) {
           log.error(
             "Failed reading message for fingerprint: $fingerprint, " +
@@ -448,12 +523,247 @@ class SqlQueue(
     fire(QueuePolled)
   }
 
+  /**
+   * Claims up to [maxMessages] ready messages in a single locking read, using
+   * `FOR UPDATE OF q SKIP LOCKED` so that concurrent pollers never block on, or compete for,
+   * the same rows. Within the same transaction the claimed messages are moved to [unackedTable]
+   * with one multi-row insert and removed from [queueTable] with one delete.
+   *
+   * Messages whose fingerprint is already present in [unackedTable] (i.e. currently being
+   * processed elsewhere) are left on the queue untouched, matching the behavior of [doPoll].
+   * They are excluded by the locking read itself, so that a run of them at the head of the
+   * queue never takes up the [maxMessages] rows and starves the ready messages behind it.
+   */
+  private fun doPollSkipLocked(maxMessages: Int, callback: (Message, () -> Unit) -> Unit) {
+    val now = clock.instant().toEpochMilli()
+    val claimed = mutableListOf<LockedMessage>()
+    val broken = mutableSetOf<String>()
+
+    withRetry(WRITE) {
+      claimed.clear()
+      broken.clear()
+
+      jooq.transaction { config ->
+        val txn = DSL.using(config)
+        val q = queueTable.`as`("q")
+
+        val rs = txn.select(
+          field("q.id").`as`("id"),
+          field("q.fingerprint").`as`("fingerprint"),
+          field("q.delivery").`as`("delivery"),
+          field("m.body").`as`("body")
+        )
+          .from(q)
+          .leftOuterJoin(messagesTable.`as`("m"))
+          .on(sql("q.fingerprint = m.fingerprint"))
+          .where(field("q.delivery").le(now), field("q.locked").eq("0"))
+          .andNotExists(
+            selectOne()
+              .from(unackedTable.`as`("u"))
+              .where(sql("u.fingerprint = q.fingerprint"))
+          )
+          .orderBy(field("q.delivery").asc())
+          .limit(maxMessages)
+          .forUpdate()
+          .of(q)
+          .skipLocked()
+          .fetch()
+          .intoResultSet()
+
+        while (rs.next()) {
+          val fingerprint = rs.getString("fingerprint")
+          val json: String? = rs.getString("body")
+
+          if (json == null) {
+            log.error("Payload for message $fingerprint is missing")
+            broken.add(fingerprint)
+            continue
+          }
+
+          try {
+            claimed.add(toLockedMessage(rs.getString("id"), fingerprint, rs.getLong("delivery"), json))
+          } catch (e: Exception) {
+            log.error("Failed reading message for fingerprint: $fingerprint, json: $json, removing", e)
+            broken.add(fingerprint)
+          }
+        }
+
+        if (claimed.isEmpty()) {
+          return@transaction
+        }
+
+        var ulid = ULID.nextValue()
+        claimed
+          .fold(txn.insertInto(unackedTable, idField, fingerprintField, expiryField)) { insert, m ->
+            insert.values(ulid.toString(), m.fingerprint, m.expiry)
+              .also { ulid = ULID.nextMonotonicValue(ulid) }
+          }
+          .run {
+            when (jooq.dialect()) {
+              SQLDialect.POSTGRES ->
+                onConflict(fingerprintField)
+                  .doNothing()
+                  .execute()
+              else ->
+                onDuplicateKeyIgnore()
+                  .execute()
+            }
+          }
+
+        /**
+         * Message bodies are only updated on [poll] and [AttemptsAttribute] incremented
+         * for messages with [MaxAttemptsAttribute] set.
+         */
+        claimed
+          .filter { it.maxAttempts > 0 }
+          .map {
+            txn.update(messagesTable)
+              .set(bodyField, mapper.writeValueAsString(it.message))
+              .set(updatedAtField, now)
+              .where(fingerprintField.eq(it.fingerprint))
+          }
+          .takeIf { it.isNotEmpty() }
+          ?.let { txn.batch(it).execute() }
+
+        txn.deleteFrom(queueTable)
+          .where(idField.`in`(*claimed.map { it.queueId }.sorted().toTypedArray()))
+          .execute()
+      }
+    }
+
+    broken.forEach { deleteAll(it) }
+
+    claimed.forEach {
+      fire(MessageProcessing(it.message, it.scheduledTime, clock.instant()))
+      callback(it.message, it.ackCallback)
+    }
+
+    fire(QueuePolled)
+  }
+
+  private fun toLockedMessage(queueId: String, fingerprint: String, delivery: Long, json: String): LockedMessage {
+    val message = mapper.readValue<Message>(runSerializationMigration(json))
+      .apply {
+        val currentAttempts = (getAttribute() ?: AttemptsAttribute())
+          .run { copy(attempts = attempts + 1) }
+
+        setAttribute(currentAttempts)
+      }
+
+    val timeoutOverride = message.ackTimeoutMs ?: 0
+
+    return LockedMessage(
+      queueId = queueId,
+      fingerprint = fingerprint,
+      scheduledTime = Instant.ofEpochMilli(delivery),
+      message = message,
+      expiry = if (timeoutOverride > 0) {
+        atTime(Duration.ofMillis(timeoutOverride))
+      } else {
+        atTime(ackTimeout)
+      },
+      maxAttempts = message.getAttribute<MaxAttemptsAttribute>()?.maxAttempts ?: 0,
+      ackCallback = this::ackMessage.partially1(fingerprint)
+    )
+  }
+
   override fun push(message: Message, delay: TemporalAmount) {
+    if (DeferredPushes.defer(this, message, delay)) {
+      return
+    }
+
     withPool(poolName) {
       doPush(message, delay)
     }
   }
 
+  override fun pushAll(messages: List<Pair<Message, TemporalAmount>>) {
+    if (messages.isEmpty()) {
+      return
+    }
+
+    withPool(poolName) {
+      doPushAll(messages)
+    }
+  }
+
+  /**
+   * Writes all [messages] with one multi-row upsert into [messagesTable] and one into
+   * [queueTable], in a single transaction. When the batch contains identical messages the
+   * last one wins, matching the outcome of sequential [push] calls.
+   *
+   * Rows are written in fingerprint order, so that concurrent batches sharing messages take
+   * their row locks in the same order rather than deadlocking.
+   */
+  private fun doPushAll(messages: List<Pair<Message, TemporalAmount>>) {
+    val now = clock.millis()
+    val batch = messages
+      .map { (message, delay) ->
+        message.setAttribute(
+          message.getAttribute() ?: AttemptsAttribute()
+        )
+        PendingPush(
+          message.hashV2(),
+          mapper.writeValueAsString(message),
+          atTime(delay),
+          (message as? ExecutionMessage)?.executionKey()
+        )
+      }
+      .associateBy { it.fingerprint }
+      .values
+      .sortedBy { it.fingerprint }
+
+    withRetry(WRITE) {
+      jooq.transaction { config ->
+        val txn = DSL.using(config)
+        var ulid = ULID.nextValue()
+
+        batch
+          .fold(txn.insertInto(messagesTable, idField, fingerprintField, bodyField, updatedAtField)) { insert, p ->
+            insert.values(ulid.toString(), p.fingerprint, p.body, now)
+              .also { ulid = ULID.nextMonotonicValue(ulid) }
+          }
+          .run {
+            when (jooq.dialect()) {
+              SQLDialect.POSTGRES ->
+                onConflict(fingerprintField)
+                  .doUpdate()
+                  .set(bodyField, excluded(bodyField) as Any)
+                  .execute()
+              else ->
+                onDuplicateKeyUpdate()
+                  .set(idField, MySQLDSL.values(idField) as Any)
+                  .set(bodyField, MySQLDSL.values(bodyField) as Any)
+                  .execute()
+            }
+          }
+
+        batch
+          .fold(txn.insertInto(queueTable, idField, fingerprintField, deliveryField, lockedField)) { insert, p ->
+            insert.values(ulid.toString(), p.fingerprint, p.delivery, "0")
+              .also { ulid = ULID.nextMonotonicValue(ulid) }
+          }
+          .run {
+            when (jooq.dialect()) {
+              SQLDialect.POSTGRES ->
+                onConflict(fingerprintField)
+                  .doUpdate()
+                  .set(deliveryField, excluded(deliveryField) as Any)
+                  .execute()
+              else ->
+                onDuplicateKeyUpdate()
+                  .set(deliveryField, MySQLDSL.values(deliveryField) as Any)
+                  .execute()
+            }
+          }
+
+        txn.indexExecutions(batch.mapNotNull { p -> p.executionKey?.let { p.fingerprint to it } })
+      }
+    }
+
+    messages.forEach { (message, delay) -> fire(MessagePushed(message, delay, clock)) }
+  }
+
   private fun doPush(message: Message, delay: TemporalAmount) {
     val fingerprint = message.hashV2()
     val ulid = ULID.nextValue()
@@ -506,10 +816,40 @@ class SqlQueue(
                   .execute()
             }
           }
+
+        if (message is ExecutionMessage) {
+          txn.indexExecutions(listOf(fingerprint to message.executionKey()))
+        }
       }
     }
 
-    fire(MessagePushed(message))
+    fire(MessagePushed(message, delay, clock))
+  }
+
+  /**
+   * Records the execution of each message in [executionsTable], given as pairs of
+   * fingerprint and execution key.
+   */
+  private fun DSLContext.indexExecutions(executionKeys: List<Pair<String, String>>) {
+    if (executionKeys.isEmpty()) {
+      return
+    }
+
+    executionKeys
+      .fold(insertInto(executionsTable, fingerprintField, executionKeyField)) { insert, (fingerprint, executionKey) ->
+        insert.values(fingerprint, executionKey)
+      }
+      .run {
+        when (jooq.dialect()) {
+          SQLDialect.POSTGRES ->
+            onConflict(fingerprintField)
+              .doNothing()
+              .execute()
+          else ->
+            onDuplicateKeyIgnore()
+              .execute()
+        }
+      }
   }
 
   override fun reschedule(message: Message, delay: TemporalAmount) {
@@ -768,6 +1108,7 @@ class SqlQueue(
     withPool(poolName) {
       withRetry(WRITE) {
         jooq.deleteFrom(messagesTable).execute()
+        jooq.deleteFrom(executionsTable).execute()
       }
     }
   }
@@ -792,6 +1133,7 @@ class SqlQueue(
     val rs = withRetry(READ) {
       jooq.select(
         field("m.id").`as`("mid"),
+        field("m.fingerprint").`as`("fingerprint"),
         field("q.id").`as`("qid"),
         field("u.id").`as`("uid")
       )
@@ -808,6 +1150,7 @@ class SqlQueue(
     }
 
     val candidates = mutableListOf<String>()
+    val candidateFingerprints = mutableListOf<String>()
     var olderMessages = 0
 
     while (rs.next() && candidates.size < 1000) {
@@ -816,6 +1159,7 @@ class SqlQueue(
 
       if (queueId == null && unackedId == null) {
         candidates.add(rs.getString("mid"))
+        candidateFingerprints.add(rs.getString("fingerprint"))
       }
 
       olderMessages++
@@ -834,6 +1178,25 @@ class SqlQueue(
       }
     }
 
+    /**
+     * Only messages that were actually deleted are removed from the index, any
+     * pushed again since they were read remain in [messagesTable].
+     */
+    candidateFingerprints.chunked(100).forEach { chunk ->
+      withRetry(WRITE) {
+        jooq.deleteFrom(executionsTable)
+          .where(
+            fingerprintField.`in`(*chunk.toTypedArray()),
+            fingerprintField.notIn(
+              select(fingerprintField)
+                .from(messagesTable)
+                .where(fingerprintField.`in`(*chunk.toTypedArray()))
+            )
+          )
+          .execute()
+      }
+    }
+
     if (deleted > 0) {
       log.debug(
         "Deleted $deleted completed messages / ${candidates.size} attempted in " +
@@ -874,6 +1237,10 @@ class SqlQueue(
       jooq.deleteFrom(messagesTable)
         .where(fingerprintField.eq(fingerprint))
         .execute()
+
+      jooq.deleteFrom(executionsTable)
+        .where(fingerprintField.eq(fingerprint))
+        .execute()
     }
   }
 
@@ -881,7 +1248,8 @@ class SqlQueue(
     val tables = listOf(
       Pair(queueTableName, queueBase),
       Pair(unackedTableName, unackedBase),
-      Pair(messagesTableName, messagesBase)
+      Pair(messagesTableName, messagesBase),
+      Pair(executionsTableName, executionsBase)
     )
 
     withPool(poolName) {
@@ -956,6 +1324,13 @@ class SqlQueue(
     }
   }
 
+  private data class PendingPush(
+    val fingerprint: String,
+    val body: String,
+    val delivery: Long,
+    val executionKey: String?
+  )
+
   private data class LockedMessage(
     val queueId: String,
     val fingerprint: String,
@@ -11,6 +11,7 @@ import com.netflix.spinnaker.q.AttemptsAttribute
 import com.netflix.spinnaker.q.DeadMessageCallback
 import com.netflix.spinnaker.q.MaxAttemptsAttribute
 import com.netflix.spinnaker.q.QueueTest
+import com.netflix.spinnaker.q.TestExecutionMessage
 import com.netflix.spinnaker.q.TestMessage
 import com.netflix.spinnaker.q.metrics.EventPublisher
 import com.netflix.spinnaker.q.metrics.MonitorableQueueTest
@@ -18,6 +19,9 @@ import com.netflix.spinnaker.q.metrics.QueueEvent
 import com.netflix.spinnaker.time.MutableClock
 import com.nhaarman.mockito_kotlin.mock
 import org.assertj.core.api.Assertions.assertThat
+import org.jooq.DSLContext
+import org.jooq.impl.DSL.field
+import org.jooq.impl.DSL.table
 import org.junit.jupiter.api.AfterEach
 import org.junit.jupiter.api.Test
 import org.junit.jupiter.api.BeforeEach
@@ -27,35 +31,85 @@ import java.util.Optional
 
 object SqlQueueTest : QueueTest<SqlQueue>(createQueueNoPublisher, ::cleanupCallback)
 
+object SqlSkipLockedQueueTest : QueueTest<SqlQueue>(createSkipLockedQueue, ::cleanupCallback)
+
+object PostgresSqlSkipLockedQueueTest : QueueTest<SqlQueue>(createPostgresSkipLockedQueue, ::cleanupPostgresCallback)
+
 object SqlMonitorableQueueTest : MonitorableQueueTest<SqlQueue>(
   ::createQueue,
   SqlQueue::retry,
   ::cleanupCallback
 )
 
+object ShardedSqlQueueTest : QueueTest<ShardedSqlQueue>(createShardedQueueNoPublisher, ::cleanupCallback)
+
+object ShardedSqlMonitorableQueueTest : MonitorableQueueTest<ShardedSqlQueue>(
+  ::createShardedQueue,
+  ShardedSqlQueue::retry,
+  ::cleanupCallback
+)
+
 private val testDb = SqlTestUtil.initTcMysqlDatabase()
 private val jooq = testDb.context
 
+private val postgresTestDb by lazy { SqlTestUtil.initTcPostgresDatabase() }
+
 private val createQueueNoPublisher = { clock: Clock,
   deadLetterCallback: DeadMessageCallback ->
   createQueue(clock, deadLetterCallback, null)
 }
 
+private val createSkipLockedQueue = { clock: Clock,
+  deadLetterCallback: DeadMessageCallback ->
+  createQueue(clock, deadLetterCallback, null, pollStrategy = PollStrategy.SKIP_LOCKED)
+}
+
+private val createPostgresSkipLockedQueue = { clock: Clock,
+  deadLetterCallback: DeadMessageCallback ->
+  createQueue(clock, deadLetterCallback, null, pollStrategy = PollStrategy.SKIP_LOCKED, context = postgresTestDb.context)
+}
+
+private val createShardedQueueNoPublisher = { clock: Clock,
+  deadLetterCallback: DeadMessageCallback ->
+  createShardedQueue(clock, deadLetterCallback, null)
+}
+
+private fun createShardedQueue(clock: Clock,
+                               deadLetterCallback: DeadMessageCallback,
+                               publisher: EventPublisher?): ShardedSqlQueue {
+  return ShardedSqlQueue(
+    queueName = "test",
+    shardCount = 3,
+    publisher = publisher ?: (
+      object : EventPublisher {
+        override fun publishEvent(event: QueueEvent) {}
+      }
+      ),
+    deadMessageHandlers = listOf(deadLetterCallback),
+    shardFactory = { queueName, shardPublisher, deadMessageHandlers ->
+      createQueue(clock, deadMessageHandlers.single(), shardPublisher, queueName = queueName)
+    }
+  )
+}
+
 private fun createQueue(clock: Clock,
                         deadLetterCallback: DeadMessageCallback,
                         publisher: EventPublisher?,
-                        containsMessageBatchSize: Int = 5): SqlQueue {
+                        containsMessageBatchSize: Int = 5,
+                        pollStrategy: PollStrategy = PollStrategy.OPTIMISTIC,
+                        queueName: String = "test",
+                        context: DSLContext = jooq): SqlQueue {
   return SqlQueue(
-    queueName = "test",
+    queueName = queueName,
     schemaVersion = 1,
-    jooq = jooq,
+    jooq = context,
     clock = clock,
     lockTtlSeconds = 2,
     mapper = ObjectMapper().apply {
       registerModule(KotlinModule.Builder().build())
       disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
 
-      registerSubtypes(TestMessage::class.java)
+      registerSubtypes(TestMessage::class.java, TestExecutionMessage::class.java)
       registerSubtypes(
         MaxAttemptsAttribute::class.java,
         AttemptsAttribute::class.java,
@@ -75,6 +129,7 @@ private fun createQueue(clock: Clock,
       reads = retryPolicy
     ),
     containsMessageBatchSize = containsMessageBatchSize,
+    pollStrategy = pollStrategy,
   )
 }
 
@@ -82,6 +137,10 @@ private fun cleanupCallback() {
   SqlTestUtil.cleanupDb(jooq)
 }
 
+private fun cleanupPostgresCallback() {
+  SqlTestUtil.cleanupDb(postgresTestDb.context)
+}
+
 private val retryPolicy: RetryProperties = RetryProperties(
   maxRetries = 1,
   backoffMs = 10 // minimum allowed
@@ -123,6 +182,19 @@ class SqlQueueSpecificTests {
     assertThat(doContainsMessagePayload("")).isFalse
   }
 
+  @Test
+  fun `messages pushed before the execution index existed are indexed once`() {
+    queue!!.push(TestExecutionMessage("PIPELINE", "1"))
+    jooq.deleteFrom(table("keiko_v1_executions_test")).execute()
+
+    assertThat(queue!!.containsMessagesForExecution("PIPELINE", "1")).isTrue
+
+    queue!!.push(TestExecutionMessage("PIPELINE", "2"))
+    jooq.deleteFrom(table("keiko_v1_executions_test")).where(field("execution_key").eq("PIPELINE:2")).execute()
+
+    assertThat(queue!!.containsMessagesForExecution("PIPELINE", "2")).isFalse
+  }
+
   private fun pushTestMessages(numberOfMessages: Int) {
     for (i in 1 .. numberOfMessages) {
       queue?.push(TestMessage(i.toString()))
@@ -132,3 +204,41 @@ class SqlQueueSpecificTests {
   private fun doContainsMessagePayload(payload: String): Boolean? =
     queue?.containsMessage { message -> message is TestMessage && message.payload == payload }
 }
+
+abstract class SqlSkipLockedQueueSpecificTests(private val context: () -> DSLContext) {
+  private val clock = MutableClock()
+  private val deadMessageHandler: DeadMessageCallback = mock()
+  private val publisher: EventPublisher = mock()
+  private lateinit var queue: SqlQueue
+
+  @BeforeEach
+  fun setup() {
+    queue = createQueue(clock, deadMessageHandler, publisher, pollStrategy = PollStrategy.SKIP_LOCKED, context = context())
+  }
+
+  @AfterEach
+  fun cleanup() {
+    SqlTestUtil.cleanupDb(context())
+  }
+
+  @Test
+  fun `messages still being processed do not hold back ready messages behind them`() {
+    val inFlight = TestMessage("in flight")
+    queue.push(inFlight)
+    queue.poll { _, _ -> }
+
+    // pushed again while unacked, so it is back on the queue ahead of the next message
+    queue.push(inFlight)
+    clock.incrementBy(Duration.ofSeconds(1))
+    queue.push(TestMessage("ready"))
+
+    val polled = mutableListOf<String>()
+    queue.poll(1) { message, _ -> polled.add((message as TestMessage).payload) }
+
+    assertThat(polled).containsExactly("ready")
+  }
+}
+
+class MySqlSkipLockedQueueSpecificTests : SqlSkipLockedQueueSpecificTests({ jooq })
+
+class PostgresSkipLockedQueueSpecificTests : SqlSkipLockedQueueSpecificTests({ postgresTestDb.context })
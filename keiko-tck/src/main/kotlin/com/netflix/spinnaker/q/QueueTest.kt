@@ -169,6 +169,99 @@ abstract class QueueTest<out Q : Queue>(
     }
   }
 
+  describe("pushing a batch of messages") {
+    given("a batch of immediate and delayed messages") {
+      val message1 = TestMessage("a")
+      val message2 = TestMessage("b")
+      val delayed = TestMessage("c")
+      val delay = Duration.ofHours(1)
+
+      beforeGroup {
+        queue = createQueue(clock, deadLetterCallback).apply {
+          pushAll(listOf(message1 to ZERO, message2 to ZERO, delayed to delay))
+        }
+      }
+
+      afterGroup(::stopQueue)
+      afterGroup(::resetMocks)
+
+      on("polling the queue") {
+        with(queue!!) {
+          poll(callback)
+          poll(callback)
+          poll(callback)
+        }
+      }
+
+      it("delivers the immediate messages") {
+        verify(callback).invoke(eq(message1), any())
+        verify(callback).invoke(eq(message2), any())
+      }
+
+      it("holds on to the delayed message until its delay expires") {
+        verifyNoMoreInteractions(callback)
+        clock.incrementBy(delay)
+        queue!!.poll(callback)
+        verify(callback).invoke(eq(delayed), any())
+      }
+    }
+
+    given("a batch containing a duplicate message") {
+      val message = TestMessage("a")
+      val delay = Duration.ofHours(1)
+
+      beforeGroup {
+        queue = createQueue(clock, deadLetterCallback).apply {
+          pushAll(listOf(message to delay, message.copy() to ZERO))
+        }
+      }
+
+      afterGroup(::stopQueue)
+      afterGroup(::resetMocks)
+
+      on("polling the queue") {
+        queue!!.poll(callback)
+      }
+
+      it("delivers the message immediately and only once") {
+        verify(callback).invoke(eq(message), any())
+      }
+
+      it("does not hold on to the first message") {
+        clock.incrementBy(delay)
+        queue!!.poll(callback)
+        verifyNoMoreInteractions(callback)
+      }
+    }
+
+    given("messages pushed while deferred pushes are open") {
+      val message = TestMessage("a")
+
+      beforeGroup {
+        queue = createQueue(clock, deadLetterCallback)
+        DeferredPushes.begin()
+        queue!!.push(message)
+      }
+
+      afterGroup(::stopQueue)
+      afterGroup(::resetMocks)
+
+      on("polling the queue before the batch is flushed") {
+        queue!!.poll(callback)
+      }
+
+      it("does not deliver the message") {
+        verifyNoMoreInteractions(callback)
+      }
+
+      it("delivers the message once the batch is flushed") {
+        DeferredPushes.flush()
+        queue!!.poll(callback)
+        verify(callback).invoke(eq(message), any())
+      }
+    }
+  }
+
   describe("message redelivery") {
     given("a message was acknowledged") {
       val message = TestMessage("a")
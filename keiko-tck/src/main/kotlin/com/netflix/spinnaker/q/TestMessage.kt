@@ -20,3 +20,8 @@ import com.fasterxml.jackson.annotation.JsonTypeName
 
 @JsonTypeName("test")
 data class TestMessage(val payload: String, override val ackTimeoutMs: Long? = null) : Message()
+
+@JsonTypeName("testExecution")
+data class TestExecutionMessage(val executionType: String, val executionId: String) : Message(), ExecutionMessage {
+  override fun executionKey() = executionKey(executionType, executionId)
+}
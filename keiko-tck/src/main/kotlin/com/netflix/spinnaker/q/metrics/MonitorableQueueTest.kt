@@ -19,6 +19,7 @@ package com.netflix.spinnaker.q.metrics
 import com.netflix.spinnaker.assertj.softly
 import com.netflix.spinnaker.q.DeadMessageCallback
 import com.netflix.spinnaker.q.Queue
+import com.netflix.spinnaker.q.TestExecutionMessage
 import com.netflix.spinnaker.q.TestMessage
 import com.netflix.spinnaker.time.MutableClock
 import com.nhaarman.mockito_kotlin.any
@@ -32,6 +33,7 @@ import com.nhaarman.mockito_kotlin.verify
 import java.io.Closeable
 import java.time.Clock
 import java.time.Duration
+import java.time.Period
 import org.assertj.core.api.Assertions.assertThat
 import org.jetbrains.spek.api.Spek
 import org.jetbrains.spek.api.dsl.describe
@@ -89,6 +91,12 @@ abstract class MonitorableQueueTest<out Q : MonitorableQueue>(
         assertThat(containsMessage { it is TestMessage }).isFalse()
       }
     }
+
+    it("reports no messages exist for an execution") {
+      with(queue!!) {
+        assertThat(containsMessagesForExecution("PIPELINE", "1")).isFalse()
+      }
+    }
   }
 
   describe("pushing a message") {
@@ -122,6 +130,45 @@ abstract class MonitorableQueueTest<out Q : MonitorableQueue>(
     }
   }
 
+  describe("pushing a message with a calendar based delay") {
+    beforeGroup(::startQueue)
+    afterGroup(::stopQueue)
+    afterGroup(::resetMocks)
+
+    on("pushing a message") {
+      queue!!.push(TestMessage("a"), Period.ofDays(1))
+    }
+
+    it("fires an event reporting the delay") {
+      verify(publisher).publishEvent(MessagePushed(TestMessage("a"), Duration.ofDays(1)))
+    }
+  }
+
+  describe("pushing a message of an execution") {
+    beforeGroup(::startQueue)
+    afterGroup(::stopQueue)
+    afterGroup(::resetMocks)
+
+    on("pushing a message") {
+      queue!!.push(TestExecutionMessage("PIPELINE", "1"))
+    }
+
+    it("reports messages exist for the execution") {
+      with(queue!!) {
+        assertThat(containsMessagesForExecution("PIPELINE", "1")).isTrue()
+      }
+    }
+
+    it("reports no messages exist for other executions") {
+      with(queue!!) {
+        softly {
+          assertThat(containsMessagesForExecution("PIPELINE", "2")).isFalse()
+          assertThat(containsMessagesForExecution("ORCHESTRATION", "1")).isFalse()
+        }
+      }
+    }
+  }
+
   describe("pushing a duplicate message") {
     beforeGroup(::startQueue)
     afterGroup(::stopQueue)
@@ -0,0 +1,52 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.spinnaker.orca.api.pipeline;
+
+import com.netflix.spinnaker.kork.annotations.Beta;
+import com.netflix.spinnaker.orca.api.pipeline.models.StageExecution;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import javax.annotation.Nonnull;
+
+/**
+ * A task that can be run without holding a message handler thread until it completes, typically one
+ * that spends most of its time waiting on a remote call.
+ *
+ * <p>When asynchronous tasks are enabled, {@link #executeAsync} is called in place of {@link
+ * #execute} and the result is handled once the returned future completes. Otherwise, or if the node
+ * already has as many asynchronous tasks in flight as it allows, {@link #execute} is called as
+ * usual, so implementations must support both.
+ */
+@Beta
+public interface AsyncTask extends Task {
+  /**
+   * Start executing the business logic of the task.
+   *
+   * <p>The default implementation runs {@link #execute} on {@code executor}, which is suitable for
+   * tasks built on blocking clients. Tasks with non-blocking clients should override it to return
+   * the future of their remote call.
+   *
+   * @param stage The running stage execution stage
+   * @param executor Runs blocking work on behalf of the task, with the caller's authentication and
+   *     execution context
+   * @return A future completed with the result of this Task's execution
+   */
+  @Nonnull
+  default CompletableFuture<TaskResult> executeAsync(
+      @Nonnull StageExecution stage, @Nonnull Executor executor) {
+    return CompletableFuture.supplyAsync(() -> execute(stage), executor);
+  }
+}
@@ -28,6 +28,7 @@ import com.fasterxml.jackson.databind.PropertyNamingStrategy.SnakeCaseStrategy
 import com.netflix.spinnaker.orca.bakery.api.BakeryService
 import com.netflix.spinnaker.orca.config.OrcaConfiguration
 import com.netflix.spinnaker.orca.retrofit.RetrofitConfiguration
+import com.netflix.spinnaker.orca.retrofit.bulkhead.ServiceBulkheads
 import com.netflix.spinnaker.orca.retrofit.logging.RetrofitSlf4jLog
 import groovy.transform.CompileStatic
 import org.springframework.beans.factory.annotation.Autowired
@@ -58,6 +59,7 @@ class BakeryConfiguration {
   @Autowired Client retrofitClient
   @Autowired LogLevel retrofitLogLevel
   @Autowired RequestInterceptor spinnakerRequestInterceptor
+  @Autowired ServiceBulkheads serviceBulkheads
 
   @Bean
   BakeryService bakery(@Value('${bakery.base-url}') String bakeryBaseUrl) {
@@ -78,7 +80,7 @@ class BakeryConfiguration {
       .setEndpoint(newFixedEndpoint(url))
       .setRequestInterceptor(spinnakerRequestInterceptor)
       .setConverter(new JacksonConverter(bakeryConfiguredObjectMapper()))
-      .setClient(retrofitClient)
+      .setClient(serviceBulkheads.withBulkhead("bakery", retrofitClient))
       .setLogLevel(retrofitLogLevel)
       .setLog(new RetrofitSlf4jLog(BakeryService))
       .setErrorHandler(SpinnakerRetrofitErrorHandler.getInstance())
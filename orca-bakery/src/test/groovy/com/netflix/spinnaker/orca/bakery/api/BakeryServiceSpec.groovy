@@ -18,9 +18,12 @@ package com.netflix.spinnaker.orca.bakery.api
 
 import com.github.tomakehurst.wiremock.WireMockServer
 import com.jakewharton.retrofit.Ok3Client
+import com.netflix.spectator.api.NoopRegistry
 import com.netflix.spinnaker.kork.retrofit.exceptions.SpinnakerHttpException
 import com.netflix.spinnaker.orca.bakery.config.BakeryConfiguration
 import com.netflix.spinnaker.orca.jackson.OrcaObjectMapper
+import com.netflix.spinnaker.orca.retrofit.bulkhead.BulkheadConfigurationProperties
+import com.netflix.spinnaker.orca.retrofit.bulkhead.ServiceBulkheads
 import retrofit.RequestInterceptor
 import spock.lang.Specification
 import spock.lang.Subject
@@ -58,7 +61,8 @@ class BakeryServiceSpec extends Specification {
     bakery = new BakeryConfiguration(
       retrofitClient: new Ok3Client(),
       retrofitLogLevel: FULL,
-      spinnakerRequestInterceptor: Mock(RequestInterceptor)
+      spinnakerRequestInterceptor: Mock(RequestInterceptor),
+      serviceBulkheads: new ServiceBulkheads(new NoopRegistry(), new BulkheadConfigurationProperties())
     )
       .buildService(wireMockServer.url("/"))
   }
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.spinnaker.orca.benchmarks
+
+import com.github.luben.zstd.ZstdDictTrainer
+import com.netflix.spinnaker.config.CompressionType
+import com.netflix.spinnaker.orca.jackson.OrcaObjectMapper
+import java.io.ByteArrayOutputStream
+import java.nio.charset.StandardCharsets
+import java.util.concurrent.TimeUnit
+import org.openjdk.jmh.annotations.AuxCounters
+import org.openjdk.jmh.annotations.Benchmark
+import org.openjdk.jmh.annotations.BenchmarkMode
+import org.openjdk.jmh.annotations.Level
+import org.openjdk.jmh.annotations.Mode
+import org.openjdk.jmh.annotations.OutputTimeUnit
+import org.openjdk.jmh.annotations.Param
+import org.openjdk.jmh.annotations.Scope
+import org.openjdk.jmh.annotations.Setup
+import org.openjdk.jmh.annotations.State
+
+/**
+ * Compression of stage bodies with each [CompressionType], as done by the SQL execution
+ * repository when compression is enabled.
+ *
+ * The stages of a [benchmarkPipeline], with and without [withExpressions], are split in
+ * two halves. The `ZSTD_DICTIONARY` codec uses a dictionary trained on one half and every
+ * codec compresses a body from the other. [CompressedSize] reports the bytes read and
+ * written by [compress], their ratio is the compression ratio.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+class CompressionBenchmark {
+
+  @Param("GZIP", "ZLIB", "ZSTD", "ZSTD_DICTIONARY", "LZ4")
+  lateinit var codec: String
+
+  private lateinit var compressionType: CompressionType
+  private var dictionary: ByteArray? = null
+
+  private lateinit var body: String
+  private lateinit var compressedBody: ByteArray
+
+  @Setup
+  fun setup() {
+    val mapper = OrcaObjectMapper.getInstance()
+    val bodies = (benchmarkPipeline().stages + benchmarkPipeline().stages.map { it.withExpressions() })
+      .map { mapper.writeValueAsString(it) }
+    val (training, samples) = bodies.withIndex().partition { it.index % 2 == 0 }
+
+    compressionType = CompressionType.valueOf(codec.removeSuffix("_DICTIONARY"))
+    dictionary = if (codec == "ZSTD_DICTIONARY") train(training.map { it.value }) else null
+
+    body = samples.first().value
+    compressedBody = compress(body)
+  }
+
+  @Benchmark
+  fun compress(size: CompressedSize): ByteArray =
+    compress(body).also {
+      size.uncompressedBytes += body.length
+      size.compressedBytes += it.size
+    }
+
+  @Benchmark
+  fun decompress(): String =
+    compressionType.getInflator(compressedBody.inputStream(), dictionary)
+      .bufferedReader(StandardCharsets.UTF_8)
+      .use { it.readText() }
+
+  private fun compress(body: String): ByteArray {
+    val out = ByteArrayOutputStream()
+    compressionType.getDeflator(out, dictionary)
+      .bufferedWriter(StandardCharsets.UTF_8)
+      .use { it.write(body) }
+    return out.toByteArray()
+  }
+
+  private fun train(samples: List<String>): ByteArray {
+    val trainer = ZstdDictTrainer(samples.sumOf { it.length }, 16 * 1024)
+    samples.forEach { trainer.addSample(it.toByteArray(StandardCharsets.UTF_8)) }
+    return trainer.trainSamples()
+  }
+
+  @State(Scope.Thread)
+  @AuxCounters(AuxCounters.Type.EVENTS)
+  class CompressedSize {
+    @JvmField
+    var uncompressedBytes: Long = 0
+
+    @JvmField
+    var compressedBytes: Long = 0
+
+    @Setup(Level.Iteration)
+    fun reset() {
+      uncompressedBytes = 0
+      compressedBytes = 0
+    }
+  }
+}
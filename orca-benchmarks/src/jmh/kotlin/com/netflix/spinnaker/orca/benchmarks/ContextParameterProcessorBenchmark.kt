@@ -0,0 +1,55 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.spinnaker.orca.benchmarks
+
+import com.netflix.spinnaker.orca.api.pipeline.models.StageExecution
+import com.netflix.spinnaker.orca.pipeline.model.StageContext
+import com.netflix.spinnaker.orca.pipeline.util.ContextParameterProcessor
+import java.util.concurrent.TimeUnit
+import org.openjdk.jmh.annotations.Benchmark
+import org.openjdk.jmh.annotations.BenchmarkMode
+import org.openjdk.jmh.annotations.Mode
+import org.openjdk.jmh.annotations.OutputTimeUnit
+import org.openjdk.jmh.annotations.Scope
+import org.openjdk.jmh.annotations.Setup
+import org.openjdk.jmh.annotations.State
+
+/**
+ * Expression evaluation of a stage context, as done before every task runs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+class ContextParameterProcessorBenchmark {
+
+  private val processor = ContextParameterProcessor()
+
+  private lateinit var stage: StageExecution
+  private lateinit var executionContext: StageContext
+
+  @Setup
+  fun setup() {
+    stage = benchmarkPipeline().stageByRef("ID: 5-5").withExpressions()
+    executionContext = processor.buildExecutionContext(stage)
+  }
+
+  @Benchmark
+  fun process(): Map<String, Any> = processor.process(stage.context, executionContext, true)
+
+  @Benchmark
+  fun buildExecutionContextAndProcess(): Map<String, Any> =
+    processor.process(stage.context, processor.buildExecutionContext(stage), true)
+}
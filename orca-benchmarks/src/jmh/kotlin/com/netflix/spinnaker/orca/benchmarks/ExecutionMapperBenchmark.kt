@@ -0,0 +1,84 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.spinnaker.orca.benchmarks
+
+import com.fasterxml.jackson.databind.ObjectMapper
+import com.netflix.spinnaker.config.ExecutionCompressionProperties
+import com.netflix.spinnaker.orca.api.pipeline.models.PipelineExecution
+import com.netflix.spinnaker.orca.jackson.OrcaObjectMapper
+import com.netflix.spinnaker.orca.sql.pipeline.persistence.ExecutionMapper
+import java.util.concurrent.TimeUnit
+import org.jooq.DSLContext
+import org.jooq.Result
+import org.jooq.SQLDialect
+import org.jooq.impl.DSL
+import org.jooq.impl.DSL.field
+import org.jooq.tools.jdbc.MockConnection
+import org.jooq.tools.jdbc.MockResult
+import org.openjdk.jmh.annotations.Benchmark
+import org.openjdk.jmh.annotations.BenchmarkMode
+import org.openjdk.jmh.annotations.Mode
+import org.openjdk.jmh.annotations.OutputTimeUnit
+import org.openjdk.jmh.annotations.Scope
+import org.openjdk.jmh.annotations.Setup
+import org.openjdk.jmh.annotations.State
+
+/**
+ * Mapping of an execution and its stages from the rows the SQL execution repository
+ * reads. The database is replaced by a jOOQ mock connection that returns the rows from
+ * memory, so this measures deserialization and mapping only.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+class ExecutionMapperBenchmark {
+
+  private val mapper: ObjectMapper = OrcaObjectMapper.getInstance()
+  private val executionMapper = ExecutionMapper(mapper, 200, ExecutionCompressionProperties(), false)
+
+  private lateinit var executionRows: Result<*>
+  private lateinit var jooq: DSLContext
+
+  @Setup
+  fun setup() {
+    val pipeline = benchmarkPipeline()
+    val rows = DSL.using(SQLDialect.MYSQL)
+
+    executionRows = rows.newResult(field("id"), field("body"), field(DSL.name("partition"))).apply {
+      add(rows.newRecord(field("id"), field("body"), field(DSL.name("partition"))).values(pipeline.id, executionBody(pipeline), null))
+    }
+
+    val stageRows = rows.newResult(field("id"), field("execution_id"), field("body")).apply {
+      pipeline.stages.forEach {
+        add(rows.newRecord(field("id"), field("execution_id"), field("body")).values(it.id, pipeline.id, mapper.writeValueAsString(it)))
+      }
+    }
+    jooq = DSL.using(MockConnection { arrayOf(MockResult(stageRows.size, stageRows)) }, SQLDialect.MYSQL)
+  }
+
+  @Benchmark
+  fun map(): Collection<PipelineExecution> =
+    executionMapper.map(executionRows.intoResultSet(), jooq)
+
+  /**
+   * Executions are stored without their stages, which are stored separately.
+   */
+  private fun executionBody(pipeline: PipelineExecution): String {
+    val stages = pipeline.stages.toList()
+    pipeline.stages.clear()
+    return mapper.writeValueAsString(pipeline).also { pipeline.stages.addAll(stages) }
+  }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.spinnaker.orca.benchmarks
+
+import com.netflix.spinnaker.orca.api.pipeline.models.ExecutionStatus.SUCCEEDED
+import com.netflix.spinnaker.orca.api.pipeline.models.ExecutionType.PIPELINE
+import com.netflix.spinnaker.orca.api.pipeline.models.PipelineExecution
+import com.netflix.spinnaker.orca.api.pipeline.models.StageExecution
+import com.netflix.spinnaker.orca.pipeline.model.DefaultTrigger
+import com.netflix.spinnaker.orca.pipeline.model.PipelineExecutionImpl
+import com.netflix.spinnaker.orca.pipeline.model.StageExecutionImpl
+import com.netflix.spinnaker.orca.pipeline.model.TaskExecutionImpl
+import com.netflix.spinnaker.orca.q.complexPipeline
+
+/**
+ * Builds a pipeline with the shape of [complexPipeline] (an initial stage, 10 layers
+ * of 10 parallel stages and a final stage) where every stage has the context and tasks
+ * of a typical deploy stage.
+ *
+ * Each call returns a new instance, so benchmarks are free to mutate it.
+ */
+fun benchmarkPipeline(): PipelineExecution {
+  val pipeline = PipelineExecutionImpl(PIPELINE, "covfefe").apply {
+    name = "Deploy to prod"
+    trigger = DefaultTrigger(
+      "manual",
+      null,
+      "covfefe@example.com",
+      mutableMapOf<String, Any>("region" to "us-west-2", "version" to "1.0.42", "canary" to true)
+    )
+    startTime = 1_700_000_000_000L
+    buildTime = 1_700_000_000_000L
+  }
+
+  complexPipeline.stages.forEachIndexed { i, template ->
+    pipeline.stages.add(
+      StageExecutionImpl(pipeline, "deploy", "Deploy ${template.refId}", deployContext(i)).apply {
+        refId = template.refId
+        requisiteStageRefIds = template.requisiteStageRefIds
+        status = template.status
+        startTime = pipeline.startTime!! + i * 1000L
+        if (status == SUCCEEDED) {
+          endTime = startTime!! + 60_000L
+          outputs["deploy.server.groups"] = context["deploy.server.groups"]
+        }
+        tasks = deployTasks(this)
+      }
+    )
+  }
+  return pipeline
+}
+
+/**
+ * A stage whose context mixes literal values with SpEL expressions referencing the
+ * trigger, the execution and upstream stages.
+ */
+fun StageExecution.withExpressions(): StageExecution = apply {
+  context["region"] = "\${trigger.parameters.region}"
+  context["amiName"] = "covfefe-\${trigger.parameters.version}-x86_64"
+  context["application"] = "\${execution.application}"
+  context["canary"] = "\${trigger.parameters.canary ? 'canary' : 'baseline'}"
+  context["upstreamAmi"] = "\${#stage('Deploy Initial').context.amiName}"
+  context["freeFormDetails"] = "\${execution.name.toLowerCase().replace(' ', '-')}"
+}
+
+private fun deployContext(i: Int): MutableMap<String, Any> =
+  mutableMapOf(
+    "account" to "prod-${i % 3}",
+    "cloudProvider" to "aws",
+    "credentials" to "prod-${i % 3}",
+    "region" to "us-west-2",
+    "availabilityZones" to mapOf("us-west-2" to listOf("us-west-2a", "us-west-2b", "us-west-2c")),
+    "capacity" to mapOf("min" to 1, "max" to 3 + i % 5, "desired" to 2),
+    "amiName" to "covfefe-1.0.$i-h$i.${Integer.toHexString(i * 7919)}-x86_64",
+    "instanceType" to "m5.large",
+    "kato.last.task.id" to mapOf("id" to "01H${i.toString().padStart(23, '0')}"),
+    "deploy.server.groups" to mapOf("us-west-2" to listOf("covfefe-v${i.toString().padStart(3, '0')}")),
+    "stack" to "main",
+    "strategy" to "redblack",
+    "securityGroups" to listOf("covfefe", "nf-infrastructure", "nf-datacenter"),
+    "tags" to mapOf("owner" to "covfefe@example.com", "costCenter" to "${1000 + i % 17}")
+  )
+
+private fun deployTasks(stage: StageExecution) =
+  listOf("determineHealthProviders", "createServerGroup", "monitorDeploy", "waitForUpInstances")
+    .mapIndexed { i, name ->
+      TaskExecutionImpl().apply {
+        id = "${i + 1}"
+        this.name = name
+        implementingClass = "com.netflix.spinnaker.orca.clouddriver.tasks.${name.replaceFirstChar { it.uppercase() }}Task"
+        status = stage.status
+        startTime = stage.startTime
+        endTime = stage.endTime
+        isStageStart = i == 0
+        isStageEnd = i == 3
+      }
+    }
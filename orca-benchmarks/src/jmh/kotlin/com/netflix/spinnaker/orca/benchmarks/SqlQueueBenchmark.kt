@@ -0,0 +1,135 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.spinnaker.orca.benchmarks
+
+import com.netflix.spinnaker.kork.sql.config.RetryProperties
+import com.netflix.spinnaker.kork.sql.config.SqlRetryProperties
+import com.netflix.spinnaker.orca.api.pipeline.models.ExecutionType.PIPELINE
+import com.netflix.spinnaker.orca.jackson.OrcaObjectMapper
+import com.netflix.spinnaker.orca.pipeline.tasks.WaitTask
+import com.netflix.spinnaker.orca.q.RunTask
+import com.netflix.spinnaker.q.metrics.EventPublisher
+import com.netflix.spinnaker.q.metrics.QueueEvent
+import com.netflix.spinnaker.q.sql.PollStrategy
+import com.netflix.spinnaker.q.sql.SqlQueue
+import java.time.Clock
+import java.util.Optional
+import java.util.concurrent.TimeUnit
+import org.jooq.Result
+import org.jooq.SQLDialect
+import org.jooq.impl.DSL
+import org.jooq.impl.DSL.field
+import org.jooq.tools.jdbc.MockConnection
+import org.jooq.tools.jdbc.MockExecuteContext
+import org.jooq.tools.jdbc.MockResult
+import org.openjdk.jmh.annotations.Benchmark
+import org.openjdk.jmh.annotations.BenchmarkMode
+import org.openjdk.jmh.annotations.Mode
+import org.openjdk.jmh.annotations.OutputTimeUnit
+import org.openjdk.jmh.annotations.Param
+import org.openjdk.jmh.annotations.Scope
+import org.openjdk.jmh.annotations.Setup
+import org.openjdk.jmh.annotations.State
+import org.openjdk.jmh.infra.Blackhole
+
+/**
+ * A single [SqlQueue.poll] of ready messages with each poll strategy.
+ *
+ * The database is replaced by a jOOQ mock connection that answers every statement from
+ * memory, so this measures the client side of polling: rendering and binding statements,
+ * the number of round trips, and deserializing messages. H2 can't stand in for MySQL
+ * here as it doesn't support the `CREATE TABLE ... LIKE` the queue creates its tables with.
+ * [SqlQueueContentionBenchmark] compares the strategies under contention for rows of a
+ * real database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+class SqlQueueBenchmark {
+
+  @Param("OPTIMISTIC", "SKIP_LOCKED")
+  lateinit var pollStrategy: String
+
+  @Param("1", "10")
+  @JvmField
+  var maxMessages: Int = 0
+
+  private lateinit var queue: SqlQueue
+
+  private val rows = DSL.using(SQLDialect.MYSQL)
+  private lateinit var candidateRows: Result<*>
+  private lateinit var messageRows: Result<*>
+  private val inFlightRows = rows.newResult(field("fingerprint"))
+
+  @Setup
+  fun setup() {
+    val mapper = OrcaObjectMapper.newInstance().apply {
+      registerSubtypes(RunTask::class.java)
+    }
+    val pipeline = benchmarkPipeline()
+    val messages = pipeline.stages.take(maxMessages).map {
+      RunTask(PIPELINE, pipeline.id, pipeline.application, it.id, "1", WaitTask::class.java)
+    }
+
+    candidateRows = rows.newResult(field("id")).apply {
+      messages.forEachIndexed { i, _ -> add(rows.newRecord(field("id")).values("q$i")) }
+    }
+    messageRows = rows.newResult(field("id"), field("fingerprint"), field("delivery"), field("body")).apply {
+      messages.forEachIndexed { i, message ->
+        add(
+          rows.newRecord(field("id"), field("fingerprint"), field("delivery"), field("body"))
+            .values("q$i", "f$i", 1_700_000_000_000L, mapper.writeValueAsString(message))
+        )
+      }
+    }
+
+    val retry = RetryProperties(maxRetries = 1, backoffMs = 10)
+    queue = SqlQueue(
+      queueName = "benchmark",
+      schemaVersion = 1,
+      jooq = DSL.using(MockConnection(::execute), SQLDialect.MYSQL),
+      clock = Clock.systemUTC(),
+      lockTtlSeconds = 60,
+      mapper = mapper,
+      serializationMigrator = Optional.empty(),
+      deadMessageHandlers = emptyList(),
+      publisher = object : EventPublisher {
+        override fun publishEvent(event: QueueEvent) {}
+      },
+      sqlRetryProperties = SqlRetryProperties(transactions = retry, reads = retry),
+      pollStrategy = PollStrategy.valueOf(pollStrategy)
+    )
+  }
+
+  @Benchmark
+  fun poll(blackhole: Blackhole) {
+    queue.poll(maxMessages) { message, _ -> blackhole.consume(message) }
+  }
+
+  private fun execute(ctx: MockExecuteContext): Array<MockResult> {
+    val sql = ctx.sql().lowercase()
+    val result = when {
+      sql.startsWith("select") && sql.contains("m.body") -> MockResult(messageRows.size, messageRows)
+      sql.startsWith("select") && sql.contains("unacked") -> MockResult(0, inFlightRows)
+      sql.startsWith("select") -> MockResult(candidateRows.size, candidateRows)
+      // claims every candidate: the bindings are the lock, the ids and the unlocked marker
+      sql.startsWith("update") -> MockResult(ctx.bindings().size - 2, null)
+      sql.startsWith("insert") || sql.startsWith("delete") -> MockResult(1, null)
+      else -> MockResult(0, null)
+    }
+    return arrayOf(result)
+  }
+}
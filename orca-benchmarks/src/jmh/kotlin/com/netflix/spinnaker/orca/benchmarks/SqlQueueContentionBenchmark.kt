@@ -0,0 +1,121 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.spinnaker.orca.benchmarks
+
+import com.netflix.spinnaker.kork.sql.config.RetryProperties
+import com.netflix.spinnaker.kork.sql.config.SqlRetryProperties
+import com.netflix.spinnaker.kork.sql.test.SqlTestUtil
+import com.netflix.spinnaker.orca.api.pipeline.models.ExecutionType.PIPELINE
+import com.netflix.spinnaker.orca.jackson.OrcaObjectMapper
+import com.netflix.spinnaker.orca.pipeline.tasks.WaitTask
+import com.netflix.spinnaker.orca.q.RunTask
+import com.netflix.spinnaker.q.metrics.EventPublisher
+import com.netflix.spinnaker.q.metrics.QueueEvent
+import com.netflix.spinnaker.q.sql.PollStrategy
+import com.netflix.spinnaker.q.sql.SqlQueue
+import java.time.Clock
+import java.util.Optional
+import java.util.concurrent.TimeUnit
+import org.jooq.DSLContext
+import org.openjdk.jmh.annotations.Benchmark
+import org.openjdk.jmh.annotations.BenchmarkMode
+import org.openjdk.jmh.annotations.Level
+import org.openjdk.jmh.annotations.Mode
+import org.openjdk.jmh.annotations.OutputTimeUnit
+import org.openjdk.jmh.annotations.Param
+import org.openjdk.jmh.annotations.Scope
+import org.openjdk.jmh.annotations.Setup
+import org.openjdk.jmh.annotations.State
+import org.openjdk.jmh.annotations.TearDown
+import org.openjdk.jmh.annotations.Threads
+import org.openjdk.jmh.infra.Blackhole
+
+/**
+ * Concurrent [SqlQueue.poll]s of ready messages with each poll strategy, against MySQL or
+ * PostgreSQL started with Testcontainers. Docker must be available, so this only runs with
+ * `-Pjmh.docker`.
+ *
+ * Several threads poll the same queue, as several Orca instances do, so the strategies
+ * are compared under contention for the same rows. Every polled message is acked and
+ * pushed again, which keeps the depth of the queue steady.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+class SqlQueueContentionBenchmark {
+
+  @Param("mysql", "postgres")
+  lateinit var database: String
+
+  @Param("OPTIMISTIC", "SKIP_LOCKED")
+  lateinit var pollStrategy: String
+
+  @Param("1", "10")
+  @JvmField
+  var maxMessages: Int = 0
+
+  private lateinit var jooq: DSLContext
+  private lateinit var queue: SqlQueue
+
+  @Setup(Level.Trial)
+  fun setup() {
+    jooq = when (database) {
+      "postgres" -> SqlTestUtil.initTcPostgresDatabase()
+      else -> SqlTestUtil.initTcMysqlDatabase()
+    }!!.context
+
+    val mapper = OrcaObjectMapper.newInstance().apply {
+      registerSubtypes(RunTask::class.java)
+    }
+
+    val retry = RetryProperties(maxRetries = 1, backoffMs = 10)
+    queue = SqlQueue(
+      queueName = "benchmark",
+      schemaVersion = 1,
+      jooq = jooq,
+      clock = Clock.systemUTC(),
+      lockTtlSeconds = 60,
+      mapper = mapper,
+      serializationMigrator = Optional.empty(),
+      deadMessageHandlers = emptyList(),
+      publisher = object : EventPublisher {
+        override fun publishEvent(event: QueueEvent) {}
+      },
+      sqlRetryProperties = SqlRetryProperties(transactions = retry, reads = retry),
+      pollStrategy = PollStrategy.valueOf(pollStrategy)
+    )
+
+    val pipeline = benchmarkPipeline()
+    pipeline.stages.forEach {
+      queue.push(RunTask(PIPELINE, pipeline.id, pipeline.application, it.id, "1", WaitTask::class.java))
+    }
+  }
+
+  @TearDown(Level.Trial)
+  fun tearDown() {
+    SqlTestUtil.cleanupDb(jooq)
+  }
+
+  @Benchmark
+  @Threads(4)
+  fun poll(blackhole: Blackhole) {
+    queue.poll(maxMessages) { message, ack ->
+      blackhole.consume(message)
+      ack()
+      queue.push(message)
+    }
+  }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.spinnaker.orca.benchmarks
+
+import com.netflix.spinnaker.orca.api.pipeline.SyntheticStageOwner.STAGE_BEFORE
+import com.netflix.spinnaker.orca.api.pipeline.models.ExecutionType.PIPELINE
+import com.netflix.spinnaker.orca.api.pipeline.models.PipelineExecution
+import com.netflix.spinnaker.orca.api.pipeline.models.StageExecution
+import com.netflix.spinnaker.orca.pipeline.model.PipelineExecutionImpl
+import com.netflix.spinnaker.orca.pipeline.model.StageExecutionImpl
+import java.util.concurrent.TimeUnit
+import kotlin.streams.toList
+import org.openjdk.jmh.annotations.Benchmark
+import org.openjdk.jmh.annotations.BenchmarkMode
+import org.openjdk.jmh.annotations.Mode
+import org.openjdk.jmh.annotations.OutputTimeUnit
+import org.openjdk.jmh.annotations.Param
+import org.openjdk.jmh.annotations.Scope
+import org.openjdk.jmh.annotations.Setup
+import org.openjdk.jmh.annotations.State
+
+/**
+ * Stage graph traversal, which most message handlers do at least once per message.
+ *
+ * The pipeline is made of layers of 10 parallel stages, each of which requires
+ * every stage of the previous layer and has a synthetic before stage.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+class StageGraphBenchmark {
+
+  @Param("50", "500", "2000")
+  @JvmField
+  var stageCount: Int = 0
+
+  private lateinit var pipeline: PipelineExecution
+  private lateinit var finalStage: StageExecution
+  private lateinit var middleStage: StageExecution
+
+  @Setup
+  fun setup() {
+    pipeline = layeredPipeline(stageCount)
+    val topLevelStages = pipeline.stages.filter { it.parentStageId == null }
+    finalStage = topLevelStages.last()
+    middleStage = topLevelStages[topLevelStages.size / 2]
+  }
+
+  @Benchmark
+  fun ancestorsOfFinalStage(): List<StageExecution> = finalStage.ancestors()
+
+  @Benchmark
+  fun ancestorsOfMiddleStage(): List<StageExecution> = middleStage.ancestors()
+
+  @Benchmark
+  fun directAncestorsOfFinalStage(): List<StageExecution> = finalStage.directAncestors()
+
+  @Benchmark
+  fun allDownstreamStagesOfMiddleStage(): List<StageExecution> = middleStage.allDownstreamStages()
+
+  @Benchmark
+  fun directChildrenOfMiddleStage(): List<StageExecution> = middleStage.directChildren()
+
+  @Benchmark
+  fun parentOfSyntheticStage(): StageExecution? = pipeline.stages.last().parent
+
+  @Benchmark
+  fun topologicalSort(): List<StageExecution> =
+    StageExecutionImpl.topologicalSort(pipeline.stages).toList()
+}
+
+/**
+ * Builds a pipeline of [stageCount] stages, half of them top level stages in
+ * layers of 10 and half of them their synthetic before stages.
+ */
+private fun layeredPipeline(stageCount: Int): PipelineExecution {
+  val pipeline = PipelineExecutionImpl(PIPELINE, "covfefe")
+  var previousLayer = emptyList<String>()
+  (0 until stageCount / 2).chunked(10).forEach { layer ->
+    layer.forEach { i ->
+      val stage = StageExecutionImpl(pipeline, "deploy", "Deploy $i", mutableMapOf()).apply {
+        refId = "$i"
+        requisiteStageRefIds = previousLayer
+      }
+      pipeline.stages.add(stage)
+      pipeline.stages.add(
+        StageExecutionImpl(pipeline, "wait", "Wait before $i", mutableMapOf()).apply {
+          refId = "$i<1"
+          parentStageId = stage.id
+          syntheticStageOwner = STAGE_BEFORE
+        }
+      )
+    }
+    previousLayer = layer.map { "$it" }
+  }
+  return pipeline
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.spinnaker.orca.benchmarks
+
+import com.fasterxml.jackson.databind.ObjectMapper
+import com.fasterxml.jackson.module.kotlin.readValue
+import com.netflix.spinnaker.orca.api.pipeline.models.PipelineExecution
+import com.netflix.spinnaker.orca.api.pipeline.models.StageExecution
+import com.netflix.spinnaker.orca.jackson.OrcaObjectMapper
+import java.util.concurrent.TimeUnit
+import org.openjdk.jmh.annotations.Benchmark
+import org.openjdk.jmh.annotations.BenchmarkMode
+import org.openjdk.jmh.annotations.Mode
+import org.openjdk.jmh.annotations.OutputTimeUnit
+import org.openjdk.jmh.annotations.Scope
+import org.openjdk.jmh.annotations.Setup
+import org.openjdk.jmh.annotations.State
+
+/**
+ * Serialization of stages as done by the execution repositories on every stage write
+ * and read.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+class StageSerializationBenchmark {
+
+  private val mapper: ObjectMapper = OrcaObjectMapper.getInstance()
+
+  private lateinit var pipeline: PipelineExecution
+  private lateinit var stage: StageExecution
+  private lateinit var stageBody: String
+
+  @Setup
+  fun setup() {
+    pipeline = benchmarkPipeline()
+    stage = pipeline.stageByRef("ID: 0-0")
+    stageBody = mapper.writeValueAsString(stage)
+  }
+
+  @Benchmark
+  fun writeStage(): String = mapper.writeValueAsString(stage)
+
+  @Benchmark
+  fun readStage(): StageExecution = mapper.readValue(stageBody)
+
+  @Benchmark
+  fun writeAllStages(): Int = pipeline.stages.sumOf { mapper.writeValueAsString(it).length }
+}
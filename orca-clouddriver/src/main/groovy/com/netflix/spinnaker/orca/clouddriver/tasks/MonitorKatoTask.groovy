@@ -21,6 +21,7 @@ import com.netflix.spinnaker.kork.annotations.VisibleForTesting
 import com.netflix.spinnaker.kork.core.RetrySupport
 import com.netflix.spinnaker.kork.dynamicconfig.DynamicConfigService
 import com.netflix.spinnaker.kork.retrofit.exceptions.SpinnakerHttpException
+import com.netflix.spinnaker.orca.api.pipeline.AsyncTask
 import com.netflix.spinnaker.orca.api.pipeline.RetryableTask
 import com.netflix.spinnaker.orca.api.pipeline.TaskResult
 import com.netflix.spinnaker.orca.api.pipeline.models.ExecutionStatus
@@ -48,7 +49,7 @@ import java.util.concurrent.TimeUnit
 @Slf4j
 @Component
 @CompileStatic
-class MonitorKatoTask implements RetryableTask, CloudProviderAware {
+class MonitorKatoTask implements RetryableTask, AsyncTask, CloudProviderAware {
 
   private final Clock clock
   private final Registry registry
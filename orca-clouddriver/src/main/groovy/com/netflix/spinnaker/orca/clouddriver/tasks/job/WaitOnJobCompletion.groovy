@@ -22,6 +22,7 @@ import com.netflix.frigga.Names
 import com.netflix.spinnaker.kork.core.RetrySupport
 import com.netflix.spinnaker.kork.exceptions.ConfigurationException
 import com.netflix.spinnaker.orca.api.pipeline.models.ExecutionStatus
+import com.netflix.spinnaker.orca.api.pipeline.AsyncTask
 import com.netflix.spinnaker.orca.api.pipeline.OverridableTimeoutRetryableTask
 import com.netflix.spinnaker.orca.api.pipeline.models.StageExecution
 import com.netflix.spinnaker.orca.api.pipeline.TaskResult
@@ -44,7 +45,7 @@ import java.time.format.DateTimeParseException
 import java.util.concurrent.TimeUnit
 
 @Component
-public class WaitOnJobCompletion implements CloudProviderAware, OverridableTimeoutRetryableTask {
+public class WaitOnJobCompletion implements CloudProviderAware, OverridableTimeoutRetryableTask, AsyncTask {
   private final Logger log = LoggerFactory.getLogger(getClass())
 
   final long backoffPeriod = TimeUnit.SECONDS.toMillis(10)
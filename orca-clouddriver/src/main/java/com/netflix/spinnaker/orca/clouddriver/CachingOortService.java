@@ -0,0 +1,205 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.spinnaker.orca.clouddriver;
+
+import com.netflix.spinnaker.kork.artifacts.model.Artifact;
+import com.netflix.spinnaker.orca.clouddriver.ClouddriverReadCache.Key;
+import com.netflix.spinnaker.orca.clouddriver.model.Ami;
+import com.netflix.spinnaker.orca.clouddriver.model.Manifest;
+import com.netflix.spinnaker.orca.clouddriver.model.ManifestCoordinates;
+import com.netflix.spinnaker.orca.clouddriver.model.ServerGroup;
+import java.util.List;
+import java.util.Map;
+import retrofit.client.Response;
+
+/**
+ * Shares server group and cluster lookups between concurrent tasks through a {@link
+ * ClouddriverReadCache}, and passes every other call straight to {@code delegate}.
+ *
+ * <p>Retrofit buffers the body of each {@link Response} that is not streamed, so a cached response
+ * can be read by every task it is returned to.
+ */
+public class CachingOortService implements OortService {
+
+  private final OortService delegate;
+  private final ClouddriverReadCache cache;
+
+  public CachingOortService(OortService delegate, ClouddriverReadCache cache) {
+    this.delegate = delegate;
+    this.cache = cache;
+  }
+
+  @Override
+  public Response getCluster(String app, String account, String cluster, String cloudProvider) {
+    return cache.get(
+        Key.of("cluster", account, app, cluster, cloudProvider),
+        () -> delegate.getCluster(app, account, cluster, cloudProvider));
+  }
+
+  @Override
+  public Manifest getManifest(String account, String name, boolean includeEvents) {
+    return delegate.getManifest(account, name, includeEvents);
+  }
+
+  @Override
+  public Manifest getManifest(String account, String location, String name, boolean includeEvents) {
+    return delegate.getManifest(account, location, name, includeEvents);
+  }
+
+  @Override
+  public ManifestCoordinates getDynamicManifest(
+      String account, String location, String kind, String app, String cluster, String criteria) {
+    return delegate.getDynamicManifest(account, location, kind, app, cluster, criteria);
+  }
+
+  @Override
+  public List<ManifestCoordinates> getClusterManifests(
+      String account, String location, String kind, String app, String cluster) {
+    return delegate.getClusterManifests(account, location, kind, app, cluster);
+  }
+
+  @Override
+  public Response getServerGroupFromCluster(
+      String app,
+      String account,
+      String cluster,
+      String serverGroup,
+      String region,
+      String cloudProvider) {
+    return cache.get(
+        Key.of("serverGroupFromCluster", account, app, cluster, serverGroup, region, cloudProvider),
+        () ->
+            delegate.getServerGroupFromCluster(
+                app, account, cluster, serverGroup, region, cloudProvider));
+  }
+
+  @Override
+  public List<ServerGroup> getServerGroupsFromClusterTyped(
+      String app, String account, String cluster, String serverGroup, String cloudProvider) {
+    return delegate.getServerGroupsFromClusterTyped(
+        app, account, cluster, serverGroup, cloudProvider);
+  }
+
+  @Override
+  public Response getServerGroups(String app) {
+    return delegate.getServerGroups(app);
+  }
+
+  @Deprecated
+  @Override
+  public Response getServerGroup(String app, String account, String region, String serverGroup) {
+    return cache.get(
+        Key.of("applicationServerGroup", account, app, region, serverGroup),
+        () -> delegate.getServerGroup(app, account, region, serverGroup));
+  }
+
+  @Override
+  public Response getServerGroup(String account, String region, String serverGroup) {
+    return cache.get(
+        Key.of("serverGroup", account, region, serverGroup),
+        () -> delegate.getServerGroup(account, region, serverGroup));
+  }
+
+  @Override
+  public ServerGroup getTargetServerGroup(
+      String app,
+      String account,
+      String cluster,
+      String cloudProvider,
+      String scope,
+      String target) {
+    return delegate.getTargetServerGroup(app, account, cluster, cloudProvider, scope, target);
+  }
+
+  @Override
+  public Map<String, Object> getServerGroupSummary(
+      String app,
+      String account,
+      String cluster,
+      String cloudProvider,
+      String scope,
+      String target,
+      String summaryType,
+      String onlyEnabled) {
+    return delegate.getServerGroupSummary(
+        app, account, cluster, cloudProvider, scope, target, summaryType, onlyEnabled);
+  }
+
+  @Override
+  public Response getSearchResults(String searchTerm, String type, String cloudProvider) {
+    return delegate.getSearchResults(searchTerm, type, cloudProvider);
+  }
+
+  @Override
+  public Response getApplication(String app) {
+    return delegate.getApplication(app);
+  }
+
+  @Override
+  public Response getInstance(String account, String region, String instanceId) {
+    return delegate.getInstance(account, region, instanceId);
+  }
+
+  @Override
+  public Response fetchArtifact(Artifact artifact) {
+    return delegate.fetchArtifact(artifact);
+  }
+
+  @Override
+  public List<Map> getLoadBalancerDetails(
+      String provider, String account, String region, String name) {
+    return delegate.getLoadBalancerDetails(provider, account, region, name);
+  }
+
+  @Override
+  public List<Ami> getByAmiId(String type, String account, String region, Object imageId) {
+    return delegate.getByAmiId(type, account, region, imageId);
+  }
+
+  @Override
+  public List<Map> findImage(
+      String cloudProvider, String query, String account, String region, Map additionalFilters) {
+    return delegate.findImage(cloudProvider, query, account, region, additionalFilters);
+  }
+
+  @Override
+  public List<Map<String, Object>> getEntityTags(
+      String cloudProvider, String entityType, String entityId, String account, String region) {
+    return delegate.getEntityTags(cloudProvider, entityType, entityId, account, region);
+  }
+
+  @Override
+  public List<Map> getEntityTags(Map parameters) {
+    return delegate.getEntityTags(parameters);
+  }
+
+  @Override
+  public Map getCloudFormationStack(String stackId) {
+    return delegate.getCloudFormationStack(stackId);
+  }
+
+  @Override
+  public Map getServiceInstance(
+      String account, String cloudProvider, String region, String serviceInstanceName) {
+    return delegate.getServiceInstance(account, cloudProvider, region, serviceInstanceName);
+  }
+
+  @Override
+  public List<Map<String, Object>> getCredentials(boolean expand) {
+    return delegate.getCredentials(expand);
+  }
+}
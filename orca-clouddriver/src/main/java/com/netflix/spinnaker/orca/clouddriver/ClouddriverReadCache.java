@@ -0,0 +1,157 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.spinnaker.orca.clouddriver;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.netflix.spectator.api.Id;
+import com.netflix.spectator.api.Registry;
+import com.netflix.spectator.api.patterns.PolledMeter;
+import com.netflix.spinnaker.orca.clouddriver.config.ClouddriverReadCacheProperties;
+import com.netflix.spinnaker.security.AuthenticatedRequest;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * A short lived cache of Clouddriver lookups shared by every task, see {@link CachingOortService}.
+ *
+ * <p>Concurrent lookups of the same key share a single call, made on the thread of the first
+ * caller so that it is made with that caller's credentials. Keys include the user making the
+ * lookup, so results are never shared between users. Failed lookups are not cached.
+ *
+ * <p>Lookups are counted by {@code clouddriver.readCache.requests}, tagged {@code result} {@code
+ * hit}, {@code miss} or {@code coalesced} (waited for a call already in flight).
+ */
+public class ClouddriverReadCache {
+
+  private final Registry registry;
+  private final Id requestsId;
+  private final ConcurrentMap<Key, CompletableFuture<Object>> entries;
+
+  public ClouddriverReadCache(Registry registry, ClouddriverReadCacheProperties properties) {
+    this.registry = registry;
+    this.requestsId = registry.createId("clouddriver.readCache.requests");
+    Cache<Key, CompletableFuture<Object>> cache =
+        Caffeine.newBuilder()
+            .expireAfterWrite(properties.getTtl())
+            .maximumSize(properties.getMaximumSize())
+            .build();
+    this.entries = cache.asMap();
+
+    PolledMeter.using(registry)
+        .withName("clouddriver.readCache.size")
+        .monitorValue(cache, it -> (double) it.estimatedSize());
+  }
+
+  /**
+   * @return the cached result of the lookup identified by {@code key}, calling {@code lookup} if
+   *     there is none
+   */
+  @SuppressWarnings("unchecked")
+  public <T> T get(Key key, Supplier<T> lookup) {
+    CompletableFuture<Object> call = new CompletableFuture<>();
+    CompletableFuture<Object> existing = entries.putIfAbsent(key, call);
+    if (existing != null) {
+      count(existing.isDone() ? "hit" : "coalesced");
+      try {
+        return (T) existing.join();
+      } catch (CompletionException e) {
+        if (e.getCause() instanceof RuntimeException) {
+          throw (RuntimeException) e.getCause();
+        }
+        throw e;
+      }
+    }
+
+    count("miss");
+    try {
+      T result = lookup.get();
+      call.complete(result);
+      return result;
+    } catch (RuntimeException | Error e) {
+      entries.remove(key, call);
+      call.completeExceptionally(e);
+      throw e;
+    }
+  }
+
+  /** Discards every lookup of {@code accounts}, as they may have been changed. */
+  public void invalidate(Collection<String> accounts) {
+    entries.keySet().removeIf(key -> accounts.contains(key.account));
+  }
+
+  public void invalidateAll() {
+    entries.clear();
+  }
+
+  private void count(String result) {
+    registry.counter(requestsId.withTag("result", result)).increment();
+  }
+
+  /**
+   * Identifies a lookup by what was looked up, the account it was looked up in and the user
+   * looking it up.
+   */
+  public static final class Key {
+    private final String account;
+    private final List<Object> parts;
+    private final String user;
+
+    private Key(String account, Object... parts) {
+      this.account = account;
+      this.parts = Arrays.asList(parts);
+      this.user = AuthenticatedRequest.getSpinnakerUser().orElse(null);
+    }
+
+    public static Key of(String lookup, String account, Object... parts) {
+      Object[] all = new Object[parts.length + 1];
+      all[0] = lookup;
+      System.arraycopy(parts, 0, all, 1, parts.length);
+      return new Key(account, all);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      Key key = (Key) o;
+      return Objects.equals(account, key.account)
+          && parts.equals(key.parts)
+          && Objects.equals(user, key.user);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(account, parts, user);
+    }
+
+    @Override
+    public String toString() {
+      return account + parts;
+    }
+  }
+}
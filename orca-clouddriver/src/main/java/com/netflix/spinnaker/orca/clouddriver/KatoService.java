@@ -15,8 +15,11 @@ import java.io.InputStream;
 import java.time.Duration;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import retrofit.client.Response;
@@ -29,33 +32,56 @@ public class KatoService {
   private final CloudDriverTaskStatusService cloudDriverTaskStatusService;
   private final RetrySupport retrySupport;
   private final ObjectMapper objectMapper;
+  @Nullable private final ClouddriverReadCache readCache;
 
   public KatoService(
       KatoRestService katoRestService,
       CloudDriverTaskStatusService cloudDriverTaskStatusService,
       RetrySupport retrySupport,
       ObjectMapper objectMapper) {
+    this(katoRestService, cloudDriverTaskStatusService, retrySupport, objectMapper, null);
+  }
+
+  /**
+   * @param readCache lookups of the accounts operated on are discarded from this once operations
+   *     have been submitted
+   */
+  public KatoService(
+      KatoRestService katoRestService,
+      CloudDriverTaskStatusService cloudDriverTaskStatusService,
+      RetrySupport retrySupport,
+      ObjectMapper objectMapper,
+      @Nullable ClouddriverReadCache readCache) {
     this.katoRestService = katoRestService;
     this.cloudDriverTaskStatusService = cloudDriverTaskStatusService;
     this.retrySupport = retrySupport;
     this.objectMapper = objectMapper;
+    this.readCache = readCache;
   }
 
   public TaskId requestOperations(Collection<? extends Map<String, Map>> operations) {
-    return retrySupport.retry(
-        () -> katoRestService.requestOperations(requestId(operations), operations),
-        3,
-        Duration.ofSeconds(1),
-        false);
+    TaskId taskId =
+        retrySupport.retry(
+            () -> katoRestService.requestOperations(requestId(operations), operations),
+            3,
+            Duration.ofSeconds(1),
+            false);
+    invalidateReadCache(operations);
+    return taskId;
   }
 
   public TaskId requestOperations(
       String cloudProvider, Collection<? extends Map<String, Map>> operations) {
-    return retrySupport.retry(
-        () -> katoRestService.requestOperations(requestId(operations), cloudProvider, operations),
-        3,
-        Duration.ofSeconds(1),
-        false);
+    TaskId taskId =
+        retrySupport.retry(
+            () ->
+                katoRestService.requestOperations(
+                    requestId(operations), cloudProvider, operations),
+            3,
+            Duration.ofSeconds(1),
+            false);
+    invalidateReadCache(operations);
+    return taskId;
   }
 
   public SubmitOperationResult submitOperation(
@@ -63,6 +89,13 @@ public class KatoService {
     Response response =
         katoRestService.submitOperation(
             requestId(operation), cloudProvider, operation.getOperationType(), operation);
+    if (readCache != null) {
+      if (operation.getCredentials() == null) {
+        readCache.invalidateAll();
+      } else {
+        readCache.invalidate(Set.of(operation.getCredentials()));
+      }
+    }
 
     TaskId taskId;
     try (InputStream body = response.getBody().in()) {
@@ -104,7 +137,35 @@ public class KatoService {
       @Nonnull String cloudProvider,
       @Nonnull String id,
       Collection<? extends Map<String, Map>> operations) {
-    return katoRestService.restartTaskViaOperations(cloudProvider, id, operations);
+    TaskId taskId = katoRestService.restartTaskViaOperations(cloudProvider, id, operations);
+    invalidateReadCache(operations);
+    return taskId;
+  }
+
+  /**
+   * Discards cached lookups of the accounts {@code operations} act on, or every cached lookup if
+   * any operation does not say which account it acts on.
+   */
+  private void invalidateReadCache(Collection<? extends Map<String, Map>> operations) {
+    if (readCache == null) {
+      return;
+    }
+
+    Set<String> accounts = new HashSet<>();
+    for (Map<String, Map> operation : operations) {
+      for (Map description : operation.values()) {
+        Object account = null;
+        if (description != null) {
+          account = description.getOrDefault("credentials", description.get("account"));
+        }
+        if (account == null) {
+          readCache.invalidateAll();
+          return;
+        }
+        accounts.add(account.toString());
+      }
+    }
+    readCache.invalidate(accounts);
   }
 
   private String requestId(Object payload) {
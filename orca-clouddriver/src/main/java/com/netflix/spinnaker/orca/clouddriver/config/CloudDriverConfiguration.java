@@ -20,6 +20,8 @@ import static retrofit.Endpoints.newFixedEndpoint;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.jakewharton.retrofit.Ok3Client;
+import com.netflix.spectator.api.NoopRegistry;
+import com.netflix.spectator.api.Registry;
 import com.netflix.spinnaker.config.DefaultServiceEndpoint;
 import com.netflix.spinnaker.config.okhttp3.OkHttpClientProvider;
 import com.netflix.spinnaker.kork.artifacts.artifactstore.ArtifactStoreConfiguration;
@@ -33,12 +35,16 @@ import com.netflix.spinnaker.orca.clouddriver.*;
 import com.netflix.spinnaker.orca.clouddriver.config.CloudDriverConfigurationProperties.BaseUrl;
 import com.netflix.spinnaker.orca.jackson.OrcaObjectMapper;
 import com.netflix.spinnaker.orca.retrofit.RetrofitConfiguration;
+import com.netflix.spinnaker.orca.retrofit.bulkhead.BulkheadConfigurationProperties;
+import com.netflix.spinnaker.orca.retrofit.bulkhead.ServiceBulkheads;
 import com.netflix.spinnaker.orca.retrofit.logging.RetrofitSlf4jLog;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 import java.util.stream.Collectors;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
@@ -58,7 +64,8 @@ import retrofit.converter.JacksonConverter;
 @EnableConfigurationProperties({
   CloudDriverConfigurationProperties.class,
   PollerConfigurationProperties.class,
-  TaskConfigurationProperties.class
+  TaskConfigurationProperties.class,
+  ClouddriverReadCacheProperties.class
 })
 @Slf4j
 public class CloudDriverConfiguration {
@@ -75,13 +82,15 @@ public class CloudDriverConfiguration {
       OkHttpClientProvider clientProvider,
       RestAdapter.LogLevel retrofitLogLevel,
       RequestInterceptor spinnakerRequestInterceptor,
-      CloudDriverConfigurationProperties cloudDriverConfigurationProperties) {
+      CloudDriverConfigurationProperties cloudDriverConfigurationProperties,
+      ServiceBulkheads serviceBulkheads) {
     return new ClouddriverRetrofitBuilder(
         objectMapper,
         clientProvider,
         retrofitLogLevel,
         spinnakerRequestInterceptor,
-        cloudDriverConfigurationProperties);
+        cloudDriverConfigurationProperties,
+        serviceBulkheads);
   }
 
   public static class ClouddriverRetrofitBuilder {
@@ -90,6 +99,7 @@ public class CloudDriverConfiguration {
     RestAdapter.LogLevel retrofitLogLevel;
     RequestInterceptor spinnakerRequestInterceptor;
     CloudDriverConfigurationProperties cloudDriverConfigurationProperties;
+    ServiceBulkheads serviceBulkheads;
 
     ClouddriverRetrofitBuilder(
         ObjectMapper objectMapper,
@@ -97,11 +107,28 @@ public class CloudDriverConfiguration {
         RestAdapter.LogLevel retrofitLogLevel,
         RequestInterceptor spinnakerRequestInterceptor,
         CloudDriverConfigurationProperties cloudDriverConfigurationProperties) {
+      this(
+          objectMapper,
+          clientProvider,
+          retrofitLogLevel,
+          spinnakerRequestInterceptor,
+          cloudDriverConfigurationProperties,
+          new ServiceBulkheads(new NoopRegistry(), new BulkheadConfigurationProperties()));
+    }
+
+    ClouddriverRetrofitBuilder(
+        ObjectMapper objectMapper,
+        OkHttpClientProvider clientProvider,
+        RestAdapter.LogLevel retrofitLogLevel,
+        RequestInterceptor spinnakerRequestInterceptor,
+        CloudDriverConfigurationProperties cloudDriverConfigurationProperties,
+        ServiceBulkheads serviceBulkheads) {
       this.objectMapper = objectMapper;
       this.clientProvider = clientProvider;
       this.retrofitLogLevel = retrofitLogLevel;
       this.spinnakerRequestInterceptor = spinnakerRequestInterceptor;
       this.cloudDriverConfigurationProperties = cloudDriverConfigurationProperties;
+      this.serviceBulkheads = serviceBulkheads;
     }
 
     /**
@@ -205,8 +232,10 @@ public class CloudDriverConfiguration {
           .setRequestInterceptor(spinnakerRequestInterceptor)
           .setEndpoint(newFixedEndpoint(url))
           .setClient(
-              new Ok3Client(
-                  clientProvider.getClient(new DefaultServiceEndpoint("clouddriver", url))))
+              serviceBulkheads.withBulkhead(
+                  "clouddriver",
+                  new Ok3Client(
+                      clientProvider.getClient(new DefaultServiceEndpoint("clouddriver", url)))))
           .setLogLevel(retrofitLogLevel)
           .setLog(new RetrofitSlf4jLog(type))
           .setConverter(new JacksonConverter(objectMapper))
@@ -234,8 +263,21 @@ public class CloudDriverConfiguration {
   }
 
   @Bean
-  OortService oortDeployService(ClouddriverRetrofitBuilder builder) {
-    return new DelegatingOortService(builder.buildReadOnlyService(OortService.class));
+  @ConditionalOnProperty("clouddriver.read-cache.enabled")
+  ClouddriverReadCache clouddriverReadCache(
+      Registry registry, ClouddriverReadCacheProperties clouddriverReadCacheProperties) {
+    return new ClouddriverReadCache(registry, clouddriverReadCacheProperties);
+  }
+
+  @Bean
+  OortService oortDeployService(
+      ClouddriverRetrofitBuilder builder, Optional<ClouddriverReadCache> clouddriverReadCache) {
+    OortService oortService =
+        new DelegatingOortService(builder.buildReadOnlyService(OortService.class));
+    if (clouddriverReadCache.isPresent()) {
+      return new CachingOortService(oortService, clouddriverReadCache.get());
+    }
+    return oortService;
   }
 
   @Bean
@@ -254,9 +296,14 @@ public class CloudDriverConfiguration {
       KatoRestService katoRestService,
       CloudDriverTaskStatusService cloudDriverTaskStatusService,
       RetrySupport retrySupport,
-      ObjectMapper objectMapper) {
+      ObjectMapper objectMapper,
+      Optional<ClouddriverReadCache> clouddriverReadCache) {
     return new KatoService(
-        katoRestService, cloudDriverTaskStatusService, retrySupport, objectMapper);
+        katoRestService,
+        cloudDriverTaskStatusService,
+        retrySupport,
+        objectMapper,
+        clouddriverReadCache.orElse(null));
   }
 
   @Bean
@@ -0,0 +1,41 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.spinnaker.orca.clouddriver.config;
+
+import com.netflix.spinnaker.orca.clouddriver.ClouddriverReadCache;
+import java.time.Duration;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration of the cache of server group and cluster lookups shared by concurrent tasks, see
+ * {@link ClouddriverReadCache}.
+ */
+@Data
+@ConfigurationProperties("clouddriver.read-cache")
+public class ClouddriverReadCacheProperties {
+
+  private boolean enabled = false;
+
+  /**
+   * How long a lookup is reused for. Tasks polling Clouddriver may see results up to this old, so
+   * keep it well below their backoff periods.
+   */
+  private Duration ttl = Duration.ofSeconds(5);
+
+  private long maximumSize = 10_000;
+}
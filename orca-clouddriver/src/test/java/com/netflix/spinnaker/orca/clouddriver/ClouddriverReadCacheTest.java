@@ -0,0 +1,180 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.spinnaker.orca.clouddriver;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.netflix.spectator.api.DefaultRegistry;
+import com.netflix.spectator.api.Registry;
+import com.netflix.spinnaker.kork.common.Header;
+import com.netflix.spinnaker.kork.core.RetrySupport;
+import com.netflix.spinnaker.orca.ExecutionContext;
+import com.netflix.spinnaker.orca.clouddriver.ClouddriverReadCache.Key;
+import com.netflix.spinnaker.orca.clouddriver.config.ClouddriverReadCacheProperties;
+import com.netflix.spinnaker.orca.clouddriver.model.TaskId;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import retrofit.client.Response;
+
+class ClouddriverReadCacheTest {
+
+  private Registry registry;
+  private ClouddriverReadCache cache;
+
+  @BeforeEach
+  void setup() {
+    registry = new DefaultRegistry();
+    cache = new ClouddriverReadCache(registry, new ClouddriverReadCacheProperties());
+  }
+
+  @AfterEach
+  void cleanup() {
+    MDC.clear();
+  }
+
+  @Test
+  void reusesLookups() {
+    OortService delegate = mock(OortService.class);
+    Response response = new Response("http://clouddriver", 200, "OK", List.of(), null);
+    when(delegate.getServerGroup("test", "us-west-2", "app-v001")).thenReturn(response);
+    OortService oortService = new CachingOortService(delegate, cache);
+
+    assertThat(oortService.getServerGroup("test", "us-west-2", "app-v001")).isSameAs(response);
+    assertThat(oortService.getServerGroup("test", "us-west-2", "app-v001")).isSameAs(response);
+
+    verify(delegate, times(1)).getServerGroup("test", "us-west-2", "app-v001");
+    assertThat(requests("miss")).isEqualTo(1);
+    assertThat(requests("hit")).isEqualTo(1);
+  }
+
+  @Test
+  void sharesLookupsInFlight() throws Exception {
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch finish = new CountDownLatch(1);
+    AtomicInteger calls = new AtomicInteger();
+    Key key = Key.of("cluster", "test", "app", "app-main", "aws");
+
+    CompletableFuture<String> first =
+        CompletableFuture.supplyAsync(
+            () ->
+                cache.get(
+                    key,
+                    () -> {
+                      calls.incrementAndGet();
+                      started.countDown();
+                      await(finish);
+                      return "cluster";
+                    }));
+    await(started);
+    CompletableFuture<String> second =
+        CompletableFuture.supplyAsync(
+            () -> cache.get(key, () -> "cluster " + calls.incrementAndGet()));
+
+    while (requests("coalesced") == 0) {
+      Thread.sleep(1);
+    }
+    finish.countDown();
+
+    assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo("cluster");
+    assertThat(second.get(5, TimeUnit.SECONDS)).isEqualTo("cluster");
+    assertThat(calls.get()).isEqualTo(1);
+  }
+
+  @Test
+  void doesNotShareLookupsBetweenUsers() {
+    MDC.put(Header.USER.getHeader(), "alice");
+    assertThat(cache.get(Key.of("app", "test", "app"), () -> "alice's")).isEqualTo("alice's");
+
+    MDC.put(Header.USER.getHeader(), "bob");
+    assertThat(cache.get(Key.of("app", "test", "app"), () -> "bob's")).isEqualTo("bob's");
+    assertThat(requests("hit")).isEqualTo(0);
+  }
+
+  @Test
+  void doesNotCacheFailedLookups() {
+    Key key = Key.of("serverGroup", "test", "us-west-2", "app-v001");
+
+    assertThatThrownBy(
+            () ->
+                cache.get(
+                    key,
+                    () -> {
+                      throw new IllegalStateException("boom");
+                    }))
+        .isInstanceOf(IllegalStateException.class);
+
+    assertThat(cache.get(key, () -> "server group")).isEqualTo("server group");
+  }
+
+  @Test
+  void discardsLookupsOfAccountsOperatedOn() {
+    KatoRestService katoRestService = mock(KatoRestService.class);
+    when(katoRestService.requestOperations(anyString(), any())).thenReturn(new TaskId("1"));
+    KatoService katoService =
+        new KatoService(
+            katoRestService,
+            mock(CloudDriverTaskStatusService.class),
+            new RetrySupport(),
+            new ObjectMapper(),
+            cache);
+    Key test = Key.of("serverGroup", "test", "us-west-2", "app-v001");
+    Key prod = Key.of("serverGroup", "prod", "us-west-2", "app-v001");
+    cache.get(test, () -> "test");
+    cache.get(prod, () -> "prod");
+
+    ExecutionContext.set(
+        new ExecutionContext(
+            "app", "user", "pipeline", "execution", "stage", "api", "test", "aws", 0L));
+    try {
+      katoService.requestOperations(
+          List.of(Map.of("destroyServerGroup", Map.of("credentials", "test"))));
+    } finally {
+      ExecutionContext.clear();
+    }
+
+    assertThat(cache.get(test, () -> "test again")).isEqualTo("test again");
+    assertThat(cache.get(prod, () -> "prod again")).isEqualTo("prod");
+  }
+
+  private long requests(String result) {
+    return registry.counter("clouddriver.readCache.requests", "result", result).count();
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      latch.await(5, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.spinnaker.orca.config;
+
+import com.netflix.spinnaker.orca.pipeline.expressions.CachingExpressionParser;
+import java.time.Duration;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.expression.spel.SpelCompilerMode;
+
+@Data
+@ConfigurationProperties("expression.cache")
+/**
+ * configuration properties for the cache of parsed SpEL expressions, see {@link
+ * CachingExpressionParser}
+ */
+public class ExpressionCacheConfigurationProperties {
+
+  /** flag to enable/disable caching parsed expressions. When disabled every evaluation parses */
+  private boolean enabled = true;
+
+  /** maximum number of parsed expressions to keep */
+  private long maximumSize = 10_000;
+
+  /** parsed expressions that haven't been used for this long are discarded */
+  private Duration expireAfterAccess = Duration.ofHours(1);
+
+  /**
+   * SpEL compiler mode. {@link SpelCompilerMode#MIXED} compiles frequently used expressions to
+   * bytecode and falls back to interpreting them should a compiled expression fail.
+   */
+  private SpelCompilerMode compilerMode = SpelCompilerMode.OFF;
+
+  /** number of times an expression must be reused before it is compiled */
+  private int compileThreshold = 100;
+}
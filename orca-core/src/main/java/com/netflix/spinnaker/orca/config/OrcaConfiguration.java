@@ -97,6 +97,7 @@ import rx.schedulers.Schedulers;
   TaskOverrideConfigurationProperties.class,
   ExecutionConfigurationProperties.class,
   ExpressionProperties.class,
+  ExpressionCacheConfigurationProperties.class,
   TaskConfigurationProperties.class
 })
 public class OrcaConfiguration {
@@ -160,9 +161,16 @@ public class OrcaConfiguration {
       List<ExpressionFunctionProvider> expressionFunctionProviders,
       PluginManager pluginManager,
       DynamicConfigService dynamicConfigService,
-      ExpressionProperties expressionProperties) {
+      ExpressionProperties expressionProperties,
+      Registry registry,
+      ExpressionCacheConfigurationProperties expressionCacheProperties) {
     return new ContextParameterProcessor(
-        expressionFunctionProviders, pluginManager, dynamicConfigService, expressionProperties);
+        expressionFunctionProviders,
+        pluginManager,
+        dynamicConfigService,
+        expressionProperties,
+        registry,
+        expressionCacheProperties);
   }
 
   @Bean
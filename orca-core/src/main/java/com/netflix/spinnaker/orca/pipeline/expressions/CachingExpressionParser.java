@@ -0,0 +1,179 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.spinnaker.orca.pipeline.expressions;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.netflix.spectator.api.Counter;
+import com.netflix.spectator.api.Id;
+import com.netflix.spectator.api.Registry;
+import com.netflix.spectator.api.patterns.PolledMeter;
+import com.netflix.spinnaker.orca.config.ExpressionCacheConfigurationProperties;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.springframework.expression.Expression;
+import org.springframework.expression.ExpressionParser;
+import org.springframework.expression.ParseException;
+import org.springframework.expression.ParserContext;
+import org.springframework.expression.common.CompositeStringExpression;
+import org.springframework.expression.spel.SpelCompilerMode;
+import org.springframework.expression.spel.standard.SpelExpression;
+
+/**
+ * An {@link ExpressionParser} that keeps the expressions it has parsed, so that the same template
+ * is only parsed once however often it is evaluated.
+ *
+ * <p>Pipeline configs contain a finite set of templates that are re-evaluated every time a stage
+ * starts or its merged context is read. Parsed expressions are safe to share between threads.
+ *
+ * <p>When a compiler mode is configured, expressions that have been looked up {@link
+ * ExpressionCacheConfigurationProperties#getCompileThreshold()} times are compiled to bytecode.
+ */
+public class CachingExpressionParser implements ExpressionParser {
+
+  private final ExpressionParser delegate;
+  private final Cache<Key, CachedExpression> cache;
+  private final SpelCompilerMode compilerMode;
+  private final int compileThreshold;
+
+  private final Counter hits;
+  private final Counter misses;
+  private final Counter evictions;
+  private final Counter compiled;
+  private final Counter compileFailures;
+
+  public CachingExpressionParser(
+      ExpressionParser delegate,
+      Registry registry,
+      ExpressionCacheConfigurationProperties properties) {
+    this.delegate = delegate;
+    this.compilerMode = properties.getCompilerMode();
+    this.compileThreshold = properties.getCompileThreshold();
+
+    Id cacheId = registry.createId("expressions.cache");
+    this.hits = registry.counter(cacheId.withTags("result", "hit"));
+    this.misses = registry.counter(cacheId.withTags("result", "miss"));
+    this.evictions = registry.counter(registry.createId("expressions.cache.evictions"));
+    Id compileId = registry.createId("expressions.compile");
+    this.compiled = registry.counter(compileId.withTags("success", "true"));
+    this.compileFailures = registry.counter(compileId.withTags("success", "false"));
+
+    this.cache =
+        Caffeine.newBuilder()
+            .maximumSize(properties.getMaximumSize())
+            .expireAfterAccess(properties.getExpireAfterAccess())
+            .removalListener(
+                (Key key, CachedExpression value, RemovalCause cause) -> {
+                  if (cause.wasEvicted()) {
+                    evictions.increment();
+                  }
+                })
+            .build();
+
+    PolledMeter.using(registry)
+        .withName("expressions.cache.size")
+        .monitorValue(cache, it -> it.estimatedSize());
+  }
+
+  @Override
+  public Expression parseExpression(String expressionString) throws ParseException {
+    return parseExpression(expressionString, null);
+  }
+
+  @Override
+  public Expression parseExpression(String expressionString, ParserContext context)
+      throws ParseException {
+    Key key = new Key(expressionString, context);
+    CachedExpression cached = cache.getIfPresent(key);
+    if (cached == null) {
+      misses.increment();
+      // parse outside of the cache so a template that fails to parse is never cached and the
+      // exception reaches the caller as it is
+      cached = new CachedExpression(delegate.parseExpression(expressionString, context));
+      CachedExpression existing = cache.asMap().putIfAbsent(key, cached);
+      if (existing != null) {
+        cached = existing;
+      }
+    } else {
+      hits.increment();
+      if (compilerMode != SpelCompilerMode.OFF
+          && cached.lookups.incrementAndGet() == compileThreshold) {
+        compile(cached.expression);
+      }
+    }
+    return cached.expression;
+  }
+
+  private void compile(Expression expression) {
+    if (expression instanceof CompositeStringExpression) {
+      Arrays.stream(((CompositeStringExpression) expression).getExpressions())
+          .forEach(this::compile);
+    } else if (expression instanceof SpelExpression) {
+      if (((SpelExpression) expression).compileExpression()) {
+        compiled.increment();
+      } else {
+        compileFailures.increment();
+      }
+    }
+  }
+
+  private static class CachedExpression {
+    final Expression expression;
+    final AtomicInteger lookups = new AtomicInteger();
+
+    CachedExpression(Expression expression) {
+      this.expression = expression;
+    }
+  }
+
+  /** Templates are parsed differently depending on the delimiters of the parser context. */
+  private static class Key {
+    final String expressionString;
+    final boolean template;
+    final String prefix;
+    final String suffix;
+
+    Key(String expressionString, ParserContext context) {
+      this.expressionString = expressionString;
+      this.template = context != null && context.isTemplate();
+      this.prefix = this.template ? context.getExpressionPrefix() : null;
+      this.suffix = this.template ? context.getExpressionSuffix() : null;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof Key)) {
+        return false;
+      }
+      Key other = (Key) o;
+      return template == other.template
+          && expressionString.equals(other.expressionString)
+          && Objects.equals(prefix, other.prefix)
+          && Objects.equals(suffix, other.suffix);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(expressionString, template, prefix, suffix);
+    }
+  }
+}
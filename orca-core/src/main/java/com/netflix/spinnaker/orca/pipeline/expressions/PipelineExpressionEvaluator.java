@@ -17,6 +17,8 @@
 package com.netflix.spinnaker.orca.pipeline.expressions;
 
 import com.google.common.base.Strings;
+import com.netflix.spectator.api.NoopRegistry;
+import com.netflix.spectator.api.Registry;
 import com.netflix.spinnaker.kork.api.expressions.ExpressionFunctionProvider;
 import com.netflix.spinnaker.kork.artifacts.model.Artifact;
 import com.netflix.spinnaker.kork.expressions.ExpressionEvaluationSummary;
@@ -27,6 +29,7 @@ import com.netflix.spinnaker.orca.api.pipeline.models.ExecutionStatus;
 import com.netflix.spinnaker.orca.api.pipeline.models.PipelineExecution;
 import com.netflix.spinnaker.orca.api.pipeline.models.StageExecution;
 import com.netflix.spinnaker.orca.api.pipeline.models.Trigger;
+import com.netflix.spinnaker.orca.config.ExpressionCacheConfigurationProperties;
 import com.netflix.spinnaker.orca.pipeline.model.*;
 import java.util.*;
 import java.util.function.Function;
@@ -141,6 +144,20 @@ public class PipelineExpressionEvaluator {
       List<ExpressionFunctionProvider> expressionFunctionProviders,
       PluginManager pluginManager,
       ExpressionProperties expressionProperties) {
+    this(
+        expressionFunctionProviders,
+        pluginManager,
+        expressionProperties,
+        new NoopRegistry(),
+        withoutCache());
+  }
+
+  public PipelineExpressionEvaluator(
+      List<ExpressionFunctionProvider> expressionFunctionProviders,
+      PluginManager pluginManager,
+      ExpressionProperties expressionProperties,
+      Registry registry,
+      ExpressionCacheConfigurationProperties cacheProperties) {
     this.support =
         new ExpressionsSupport(
             extraAllowedReturnTypes,
@@ -148,12 +165,28 @@ public class PipelineExpressionEvaluator {
             pluginManager,
             expressionProperties);
     initExecutionAwareFunctions(expressionFunctionProviders);
-    parser =
+    SpelExpressionParser spelParser =
         new SpelExpressionParser(
             expressionProperties.getMaxExpressionLength() > 0
                 ? new SpelParserConfiguration(
-                    null, null, false, false, 0, expressionProperties.getMaxExpressionLength())
-                : new SpelParserConfiguration());
+                    cacheProperties.getCompilerMode(),
+                    null,
+                    false,
+                    false,
+                    0,
+                    expressionProperties.getMaxExpressionLength())
+                : new SpelParserConfiguration(cacheProperties.getCompilerMode(), null));
+    parser =
+        cacheProperties.isEnabled()
+            ? new CachingExpressionParser(spelParser, registry, cacheProperties)
+            : spelParser;
+  }
+
+  private static ExpressionCacheConfigurationProperties withoutCache() {
+    ExpressionCacheConfigurationProperties properties =
+        new ExpressionCacheConfigurationProperties();
+    properties.setEnabled(false);
+    return properties;
   }
 
   public Map<String, Object> evaluate(
@@ -37,6 +37,7 @@ import de.huxhorn.sulky.ulid.ULID;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -195,7 +196,7 @@ public class PipelineExecutionImpl implements PipelineExecution, Serializable {
                 }));
   }
 
-  private final List<StageExecution> stages = new ArrayList<>();
+  private final StageList stages = new StageList();
 
   /**
    * Gets the stages of this execution. Does not serialize the child Execution object from stages.
@@ -206,6 +207,44 @@ public class PipelineExecutionImpl implements PipelineExecution, Serializable {
     return stages;
   }
 
+  private transient volatile StageGraph stageGraph;
+
+  /**
+   * Gets the index of the stages of this execution, rebuilding it if they have changed since it was
+   * last built.
+   */
+  @Nonnull
+  StageGraph stageGraph() {
+    StageGraph graph = stageGraph;
+    int version = stages.version();
+    if (graph == null || graph.version != version) {
+      graph = new StageGraph(stages, version);
+      stageGraph = graph;
+    }
+    return graph;
+  }
+
+  /** Discards the index of the stages after the relationships between them have changed. */
+  void invalidateStageGraph() {
+    stageGraph = null;
+  }
+
+  /** Tracks changes to the stages so that {@link StageGraph} can be rebuilt when needed. */
+  private static class StageList extends ArrayList<StageExecution> {
+    private int replaced = 0;
+
+    /** Changes whenever a stage is added, removed or replaced. */
+    int version() {
+      return modCount + replaced;
+    }
+
+    @Override
+    public StageExecution set(int index, StageExecution element) {
+      replaced++;
+      return super.set(index, element);
+    }
+  }
+
   private Long startTime;
 
   public @Nullable Long getStartTime() {
@@ -456,19 +495,17 @@ public class PipelineExecutionImpl implements PipelineExecution, Serializable {
 
   @Nonnull
   public StageExecution stageById(String stageId) {
-    return stages.stream()
-        .filter(it -> it.getId().equals(stageId))
-        .findFirst()
-        .orElseThrow(
-            () ->
-                new IllegalArgumentException(
-                    String.format("No stage with id %s exists on execution %s", stageId, id)));
+    StageExecution stage = stageGraph().stageById(stageId);
+    if (stage == null) {
+      throw new IllegalArgumentException(
+          String.format("No stage with id %s exists on execution %s", stageId, id));
+    }
+    return stage;
   }
 
   @Nonnull
   public StageExecution stageByRef(String refId) {
-    return stages.stream()
-        .filter(it -> refId.equals(it.getRefId()))
+    return stageGraph().stagesByRefIds(Collections.singleton(refId)).stream()
         .findFirst()
         .orElseThrow(
             () ->
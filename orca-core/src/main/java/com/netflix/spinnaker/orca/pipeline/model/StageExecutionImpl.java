@@ -46,6 +46,7 @@ import java.io.IOException;
 import java.io.Serializable;
 import java.util.*;
 import java.util.function.Predicate;
+import java.util.function.Supplier;
 import java.util.stream.Stream;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -57,33 +58,59 @@ public class StageExecutionImpl implements StageExecution, Serializable {
 
   private static final ULID ID_GENERATOR = new ULID();
 
-  /** Sorts stages into order according to their refIds / requisiteStageRefIds. */
+  /**
+   * Sorts stages into order according to their refIds / requisiteStageRefIds.
+   *
+   * <p>Stages are sorted in rounds, each made up of the stages whose requisite stages were all
+   * sorted in earlier rounds, in the order they were given.
+   */
   public static Stream<StageExecution> topologicalSort(Collection<StageExecution> stages) {
     List<StageExecution> unsorted =
         stages.stream().filter(it -> it.getParentStageId() == null).collect(toList());
+    Map<String, List<Integer>> dependents = new HashMap<>();
+    int[] pending = new int[unsorted.size()];
+    List<Integer> sortable = new ArrayList<>();
+    for (int i = 0; i < unsorted.size(); i++) {
+      Collection<String> requisiteStageRefIds = unsorted.get(i).getRequisiteStageRefIds();
+      pending[i] = requisiteStageRefIds.size();
+      for (String refId : requisiteStageRefIds) {
+        dependents.computeIfAbsent(refId, it -> new ArrayList<>()).add(i);
+      }
+      if (pending[i] == 0) {
+        sortable.add(i);
+      }
+    }
+
     ImmutableList.Builder<StageExecution> sorted = ImmutableList.builder();
     Set<String> refIds = new HashSet<>();
-    while (!unsorted.isEmpty()) {
-      List<StageExecution> sortable =
-          unsorted.stream()
-              .filter(it -> refIds.containsAll(it.getRequisiteStageRefIds()))
-              .collect(toList());
-      if (sortable.isEmpty()) {
-        throw new IllegalStateException(
-            format(
-                "Invalid stage relationships found %s",
-                join(
-                    ", ",
-                    stages.stream()
-                        .map(it -> format("%s->%s", it.getRequisiteStageRefIds(), it.getRefId()))
-                        .collect(toList()))));
+    int sortedCount = 0;
+    while (!sortable.isEmpty()) {
+      List<Integer> next = new ArrayList<>();
+      for (int i : sortable) {
+        StageExecution stage = unsorted.get(i);
+        sorted.add(stage);
+        sortedCount++;
+        if (refIds.add(stage.getRefId())) {
+          for (int dependent : dependents.getOrDefault(stage.getRefId(), emptyList())) {
+            if (--pending[dependent] == 0) {
+              next.add(dependent);
+            }
+          }
+        }
       }
-      sortable.forEach(
-          it -> {
-            unsorted.remove(it);
-            refIds.add(it.getRefId());
-            sorted.add(it);
-          });
+      next.sort(null);
+      sortable = next;
+    }
+
+    if (sortedCount < unsorted.size()) {
+      throw new IllegalStateException(
+          format(
+              "Invalid stage relationships found %s",
+              join(
+                  ", ",
+                  stages.stream()
+                      .map(it -> format("%s->%s", it.getRequisiteStageRefIds(), it.getRefId()))
+                      .collect(toList()))));
     }
     return sorted.build().stream();
   }
@@ -127,6 +154,7 @@ public class StageExecutionImpl implements StageExecution, Serializable {
   // TODO: this shouldn't be public or used after initial construction
   public void setId(@Nonnull String id) {
     this.id = id;
+    invalidateStageGraph();
   }
 
   private String refId;
@@ -138,6 +166,7 @@ public class StageExecutionImpl implements StageExecution, Serializable {
   // TODO: this shouldn't be public or used after initial construction
   public void setRefId(@Nullable String refId) {
     this.refId = refId;
+    invalidateStageGraph();
   }
 
   /** The type as it corresponds to the Mayo configuration */
@@ -226,10 +255,12 @@ public class StageExecutionImpl implements StageExecution, Serializable {
   private Map<String, Object> context = new StageContext(this);
 
   public @Nonnull Map<String, Object> getContext() {
+    loadDeferred();
     return context;
   }
 
   public void setContext(@Nonnull Map<String, Object> context) {
+    loadDeferred();
     if (context instanceof StageContext) {
       this.context = context;
     } else {
@@ -241,10 +272,12 @@ public class StageExecutionImpl implements StageExecution, Serializable {
   private Map<String, Object> outputs = new HashMap<>();
 
   public @Nonnull Map<String, Object> getOutputs() {
+    loadDeferred();
     return outputs;
   }
 
   public void setOutputs(@Nonnull Map<String, Object> outputs) {
+    loadDeferred();
     this.outputs = outputs;
   }
 
@@ -256,13 +289,54 @@ public class StageExecutionImpl implements StageExecution, Serializable {
   private List<TaskExecution> tasks = new ArrayList<>();
 
   public @Nonnull List<TaskExecution> getTasks() {
+    loadDeferred();
     return tasks;
   }
 
   public void setTasks(@Nonnull List<TaskExecution> tasks) {
+    loadDeferred();
     this.tasks = new ArrayList<>(tasks);
   }
 
+  /**
+   * Loads {@link #context}, {@link #outputs} and {@link #tasks} from a fully deserialized copy of
+   * this stage the first time any of them is accessed.
+   */
+  @JsonIgnore private transient Supplier<StageExecution> deferredLoader;
+
+  /**
+   * Defers loading the context, outputs and tasks of a stage that was deserialized without them.
+   * The loader is invoked at most once, the first time any of those properties is read or written.
+   */
+  public void deferLoading(@Nonnull Supplier<StageExecution> loader) {
+    this.deferredLoader = loader;
+  }
+
+  @JsonIgnore
+  public boolean isLoadingDeferred() {
+    return deferredLoader != null;
+  }
+
+  /** Runs the loader registered with {@link #deferLoading}, if it has not already run. */
+  public void loadDeferred() {
+    if (deferredLoader == null) {
+      return;
+    }
+
+    StageExecution loaded = deferredLoader.get();
+    deferredLoader = null;
+
+    Map<String, Object> loadedContext = loaded.getContext();
+    this.context =
+        new StageContext(
+            this,
+            loadedContext instanceof StageContext
+                ? ((StageContext) loadedContext).delegate()
+                : loadedContext);
+    this.outputs = loaded.getOutputs();
+    this.tasks = new ArrayList<>(loaded.getTasks());
+  }
+
   /**
    * Stages can be synthetically injected into the pipeline by a StageDefinitionBuilder. This flag
    * indicates the relationship of a synthetic stage to its position in the graph. To derive the
@@ -288,6 +362,7 @@ public class StageExecutionImpl implements StageExecution, Serializable {
 
   public void setParentStageId(@Nullable String parentStageId) {
     this.parentStageId = parentStageId;
+    invalidateStageGraph();
   }
 
   @JsonDeserialize(using = RequisiteStageRefIdDeserializer.class)
@@ -309,6 +384,14 @@ public class StageExecutionImpl implements StageExecution, Serializable {
     } else {
       this.requisiteStageRefIds = ImmutableSet.copyOf(requisiteStageRefIds);
     }
+    invalidateStageGraph();
+  }
+
+  /** The execution indexes the relationships between its stages, see {@link StageGraph}. */
+  private void invalidateStageGraph() {
+    if (execution instanceof PipelineExecutionImpl) {
+      ((PipelineExecutionImpl) execution).invalidateStageGraph();
+    }
   }
 
   /** A date when this stage is scheduled to execute. */
@@ -386,7 +469,7 @@ public class StageExecutionImpl implements StageExecution, Serializable {
   }
 
   public TaskExecution taskById(@Nonnull String taskId) {
-    return tasks.stream().filter(it -> it.getId().equals(taskId)).findFirst().orElse(null);
+    return getTasks().stream().filter(it -> it.getId().equals(taskId)).findFirst().orElse(null);
   }
 
   /**
@@ -451,17 +534,10 @@ public class StageExecutionImpl implements StageExecution, Serializable {
     StageExecution matchingStage = null;
 
     if (stage != null && !stage.getRequisiteStageRefIds().isEmpty()) {
+      StageGraph graph = StageGraph.of(execution);
       List<StageExecution> previousStages =
-          execution.getStages().stream()
-              .filter(s -> stage.getRequisiteStageRefIds().contains(s.getRefId()))
-              .collect(toList());
-
-      Set<String> previousStageIds =
-          new HashSet<>(previousStages.stream().map(StageExecution::getId).collect(toList()));
-      List<StageExecution> syntheticStages =
-          execution.getStages().stream()
-              .filter(s -> previousStageIds.contains(s.getParentStageId()))
-              .collect(toList());
+          graph.stagesByRefIds(stage.getRequisiteStageRefIds());
+      List<StageExecution> syntheticStages = graph.children(previousStages);
 
       List<StageExecution> priorStages = new ArrayList<>();
       priorStages.addAll(previousStages);
@@ -480,9 +556,7 @@ public class StageExecutionImpl implements StageExecution, Serializable {
       }
     } else if ((stage != null) && !Strings.isNullOrEmpty(stage.getParentStageId())) {
       Optional<StageExecution> parent =
-          execution.getStages().stream()
-              .filter(s -> s.getId().equals(stage.getParentStageId()))
-              .findFirst();
+          Optional.ofNullable(StageGraph.of(execution).stageById(stage.getParentStageId()));
 
       if (!parent.isPresent()) {
         throw new IllegalStateException(
@@ -505,10 +579,9 @@ public class StageExecutionImpl implements StageExecution, Serializable {
       String parentPipelineStageId = parentTrigger.getParentPipelineStageId();
 
       Optional<StageExecution> parentPipelineStage =
-          parentPipelineExecution.getStages().stream()
-              .filter(
-                  s -> s.getType().equals("pipeline") && s.getId().equals(parentPipelineStageId))
-              .findFirst();
+          Optional.ofNullable(
+                  StageGraph.of(parentPipelineExecution).stageById(parentPipelineStageId))
+              .filter(s -> s.getType().equals("pipeline"));
 
       if (parentPipelineStage.isPresent()) {
         matchingStage = findAncestor(parentPipelineStage.get(), parentPipelineExecution, predicate);
@@ -562,10 +635,12 @@ public class StageExecutionImpl implements StageExecution, Serializable {
     List<StageExecution> children = new ArrayList<>();
 
     if (execution != null) {
-      List<StageExecution> notVisited = new ArrayList<>(getExecution().getStages());
+      StageGraph graph = StageGraph.of(execution);
+      Set<StageExecution> queued = new HashSet<>();
       LinkedList<StageExecution> queue = new LinkedList<>();
 
       queue.push(this);
+      queued.add(this);
       boolean first = true;
 
       while (!queue.isEmpty()) {
@@ -575,12 +650,8 @@ public class StageExecutionImpl implements StageExecution, Serializable {
         }
 
         first = false;
-        notVisited.remove(stage);
 
-        notVisited.stream()
-            .filter(
-                s -> s.getRequisiteStageRefIds().contains(stage.getRefId()) && !queue.contains(s))
-            .forEach(queue::add);
+        graph.downstream(stage.getRefId()).stream().filter(queued::add).forEach(queue::add);
       }
     }
 
@@ -594,10 +665,7 @@ public class StageExecutionImpl implements StageExecution, Serializable {
   @Nonnull
   public List<StageExecution> directChildren() {
     if (execution != null) {
-      return getExecution().getStages().stream()
-          .filter(
-              stage -> stage.getParentStageId() != null && stage.getParentStageId().equals(getId()))
-          .collect(toList());
+      return new ArrayList<>(StageGraph.of(execution).children(getId()));
     }
     return emptyList();
   }
@@ -677,7 +745,7 @@ public class StageExecutionImpl implements StageExecution, Serializable {
   }
 
   private ObjectNode contextToNode() {
-    return (ObjectNode) objectMapper.valueToTree(context);
+    return (ObjectNode) objectMapper.valueToTree(getContext());
   }
 
   /** Enriches stage context if it supports strategies */
@@ -693,13 +761,13 @@ public class StageExecutionImpl implements StageExecution, Serializable {
         strategy = (boolean) parameters.get("strategy");
       }
       if (strategy) {
-        context.put("cloudProvider", parameters.get("cloudProvider"));
-        context.put("cluster", parameters.get("cluster"));
-        context.put("credentials", parameters.get("credentials"));
+        getContext().put("cloudProvider", parameters.get("cloudProvider"));
+        getContext().put("cluster", parameters.get("cluster"));
+        getContext().put("credentials", parameters.get("credentials"));
         if (parameters.get("region") != null) {
-          context.put("regions", singletonList(parameters.get("region")));
+          getContext().put("regions", singletonList(parameters.get("region")));
         } else if (parameters.get("zone") != null) {
-          context.put("zones", singletonList(parameters.get("zone")));
+          getContext().put("zones", singletonList(parameters.get("zone")));
         }
       }
     }
@@ -722,8 +790,7 @@ public class StageExecutionImpl implements StageExecution, Serializable {
     StageExecution topLevelStage = this;
     while (topLevelStage.getParentStageId() != null) {
       String sid = topLevelStage.getParentStageId();
-      Optional<StageExecution> stage =
-          execution.getStages().stream().filter(s -> s.getId().equals(sid)).findFirst();
+      Optional<StageExecution> stage = Optional.ofNullable(StageGraph.of(execution).stageById(sid));
       if (stage.isPresent()) {
         topLevelStage = stage.get();
       } else {
@@ -797,12 +864,12 @@ public class StageExecutionImpl implements StageExecution, Serializable {
               getType(), getId()));
     }
 
-    context.put("allowSiblingStagesToContinueOnFailure", propagateFailuresToParent);
+    getContext().put("allowSiblingStagesToContinueOnFailure", propagateFailuresToParent);
   }
 
   @JsonIgnore
   public void setContinuePipelineOnFailure(boolean continuePipeline) {
-    context.put("continuePipeline", continuePipeline);
+    getContext().put("continuePipeline", continuePipeline);
   }
 
   @JsonIgnore
@@ -824,16 +891,14 @@ public class StageExecutionImpl implements StageExecution, Serializable {
 
   @Override
   public boolean withPropagateAuthentication() {
-    return context.get("propagateAuthenticationContext") != null
-        && Boolean.parseBoolean(context.get("propagateAuthenticationContext").toString());
+    return getContext().get("propagateAuthenticationContext") != null
+        && Boolean.parseBoolean(getContext().get("propagateAuthenticationContext").toString());
   }
 
   @Nonnull
   @JsonIgnore
   public List<StageExecution> downstreamStages() {
-    return getExecution().getStages().stream()
-        .filter(it -> it.getRequisiteStageRefIds().contains(getRefId()))
-        .collect(toList());
+    return new ArrayList<>(StageGraph.of(getExecution()).downstream(getRefId()));
   }
 
   @Override
@@ -22,8 +22,8 @@ import com.google.common.collect.ImmutableList;
 import com.netflix.spinnaker.orca.api.pipeline.SyntheticStageOwner;
 import com.netflix.spinnaker.orca.api.pipeline.models.StageExecution;
 import java.util.ArrayList;
-import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.Set;
 
 /** Internal helper methods for {@link StageExecution}. */
@@ -41,23 +41,17 @@ class StageExecutionInternals {
   static List<StageExecution> getAncestorsImpl(
       StageExecution stage, Set<String> visited, boolean directParentOnly) {
     visited.add(stage.getRefId());
+    StageGraph graph = StageGraph.of(stage.getExecution());
 
     if (!directParentOnly && !stage.getRequisiteStageRefIds().isEmpty()) {
       // Get stages this stage depends on via requisiteStageRefIds:
-      Collection<String> requisiteStageRefIds = stage.getRequisiteStageRefIds();
       List<StageExecution> previousStages =
-          stage.getExecution().getStages().stream()
+          graph.stagesByRefIds(stage.getRequisiteStageRefIds()).stream()
               .filter(it -> !visited.contains(it.getRefId()))
-              .filter(it -> requisiteStageRefIds.contains(it.getRefId()))
               .collect(toList());
       List<StageExecution> syntheticStages =
-          stage.getExecution().getStages().stream()
+          graph.children(previousStages).stream()
               .filter(s -> s.getSyntheticStageOwner() != null)
-              .filter(
-                  s ->
-                      previousStages.stream()
-                          .map(StageExecution::getId)
-                          .anyMatch(id -> id.equals(s.getParentStageId())))
               .collect(toList());
       return ImmutableList.<StageExecution>builder()
           .addAll(previousStages)
@@ -73,18 +67,13 @@ class StageExecutionInternals {
       List<StageExecution> ancestors = new ArrayList<>();
       if (stage.getSyntheticStageOwner() == SyntheticStageOwner.STAGE_AFTER) {
         ancestors.addAll(
-            stage.getExecution().getStages().stream()
-                .filter(
-                    it ->
-                        stage.getParentStageId().equals(it.getParentStageId())
-                            && it.getSyntheticStageOwner() == SyntheticStageOwner.STAGE_BEFORE)
+            graph.children(stage.getParentStageId()).stream()
+                .filter(it -> it.getSyntheticStageOwner() == SyntheticStageOwner.STAGE_BEFORE)
                 .collect(toList()));
       }
 
       ancestors.addAll(
-          stage.getExecution().getStages().stream()
-              .filter(it -> it.getId().equals(stage.getParentStageId()))
-              .findFirst()
+          Optional.ofNullable(graph.stageById(stage.getParentStageId()))
               .<List<StageExecution>>map(
                   parent ->
                       ImmutableList.<StageExecution>builder()
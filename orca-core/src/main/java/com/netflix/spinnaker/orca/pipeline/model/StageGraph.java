@@ -0,0 +1,118 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.spinnaker.orca.pipeline.model;
+
+import static java.util.Collections.emptyList;
+import static java.util.Comparator.comparingInt;
+
+import com.netflix.spinnaker.orca.api.pipeline.models.PipelineExecution;
+import com.netflix.spinnaker.orca.api.pipeline.models.StageExecution;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Index of the stages of an execution by id, refId, parent stage and requisite stage, so that
+ * navigating between stages doesn't scan every stage of the execution.
+ *
+ * <p>The index is a snapshot of the stages it was built from. {@link PipelineExecutionImpl}
+ * rebuilds it when its stages, or the relationships between them, have changed. Every list it
+ * returns is in the order the stages appear in the execution.
+ */
+final class StageGraph {
+
+  final int version;
+
+  private final Map<StageExecution, Integer> positions = new IdentityHashMap<>();
+  private final Map<String, StageExecution> byId = new HashMap<>();
+  private final Map<String, List<StageExecution>> byRefId = new HashMap<>();
+  private final Map<String, List<StageExecution>> children = new HashMap<>();
+  private final Map<String, List<StageExecution>> downstream = new HashMap<>();
+
+  StageGraph(Collection<StageExecution> stages, int version) {
+    this.version = version;
+    for (StageExecution stage : stages) {
+      positions.putIfAbsent(stage, positions.size());
+      byId.putIfAbsent(stage.getId(), stage);
+      if (stage.getRefId() != null) {
+        byRefId.computeIfAbsent(stage.getRefId(), it -> new ArrayList<>()).add(stage);
+      }
+      if (stage.getParentStageId() != null) {
+        children.computeIfAbsent(stage.getParentStageId(), it -> new ArrayList<>()).add(stage);
+      }
+      for (String requisiteStageRefId : stage.getRequisiteStageRefIds()) {
+        downstream.computeIfAbsent(requisiteStageRefId, it -> new ArrayList<>()).add(stage);
+      }
+    }
+  }
+
+  /** @return the index of the stages of {@code execution}. */
+  static StageGraph of(@Nonnull PipelineExecution execution) {
+    if (execution instanceof PipelineExecutionImpl) {
+      return ((PipelineExecutionImpl) execution).stageGraph();
+    }
+    return new StageGraph(execution.getStages(), 0);
+  }
+
+  @Nullable
+  StageExecution stageById(@Nullable String id) {
+    return byId.get(id);
+  }
+
+  /** @return the stages with any of {@code refIds}. */
+  @Nonnull
+  List<StageExecution> stagesByRefIds(@Nonnull Collection<String> refIds) {
+    List<StageExecution> stages = new ArrayList<>();
+    for (String refId : refIds) {
+      stages.addAll(byRefId.getOrDefault(refId, emptyList()));
+    }
+    return inExecutionOrder(stages);
+  }
+
+  /** @return the stages whose parent is the stage with id {@code parentStageId}. */
+  @Nonnull
+  List<StageExecution> children(@Nullable String parentStageId) {
+    return children.getOrDefault(parentStageId, emptyList());
+  }
+
+  /** @return the stages whose parent is any of {@code parents}. */
+  @Nonnull
+  List<StageExecution> children(@Nonnull Collection<StageExecution> parents) {
+    List<StageExecution> stages = new ArrayList<>();
+    for (StageExecution parent : parents) {
+      stages.addAll(children(parent.getId()));
+    }
+    return inExecutionOrder(stages);
+  }
+
+  /** @return the stages that require the stage with refId {@code refId}. */
+  @Nonnull
+  List<StageExecution> downstream(@Nullable String refId) {
+    return downstream.getOrDefault(refId, emptyList());
+  }
+
+  private List<StageExecution> inExecutionOrder(List<StageExecution> stages) {
+    if (stages.size() > 1) {
+      stages.sort(comparingInt(positions::get));
+    }
+    return stages;
+  }
+}
@@ -160,6 +160,10 @@ class DualExecutionRepository(
     return select(type, id).retrieve(type, id)
   }
 
+  override fun retrieveForStage(type: ExecutionType, id: String, stageId: String): PipelineExecution {
+    return select(type, id).retrieveForStage(type, id, stageId)
+  }
+
   override fun delete(type: ExecutionType, id: String) {
     return select(type, id).delete(type, id)
   }
@@ -67,11 +67,38 @@ public interface ExecutionRepository {
 
   void updateStatus(ExecutionType type, @Nonnull String id, @Nonnull ExecutionStatus status);
 
+  /**
+   * Stores every stage in {@code stages} and then, if {@code execution} is not null, updates the
+   * execution's status. Implementations may apply the whole batch in a single transaction.
+   */
+  default void storeBatch(
+      @Nonnull Collection<StageExecution> stages, @Nullable PipelineExecution execution) {
+    stages.forEach(this::storeStage);
+    if (execution != null) {
+      updateStatus(execution);
+    }
+  }
+
   @Nonnull
   @Metered(metricName = "retrieveById")
   PipelineExecution retrieve(@Nonnull ExecutionType type, @Nonnull String id)
       throws ExecutionNotFoundException;
 
+  /**
+   * Retrieves an execution for work that concerns a single stage. The stage identified by {@code
+   * stageId} and its ancestors are fully loaded; implementations may defer loading the context,
+   * outputs and tasks of every other stage until they are first accessed.
+   *
+   * <p>The default implementation loads the whole execution.
+   */
+  @Nonnull
+  @Metered(metricName = "retrieveForStage")
+  default PipelineExecution retrieveForStage(
+      @Nonnull ExecutionType type, @Nonnull String id, @Nonnull String stageId)
+      throws ExecutionNotFoundException {
+    return retrieve(type, id);
+  }
+
   void delete(@Nonnull ExecutionType type, @Nonnull String id);
 
   void delete(@Nonnull ExecutionType type, @Nonnull List<String> idsToDelete);
@@ -0,0 +1,59 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.spinnaker.orca.pipeline.persistence;
+
+import com.netflix.spinnaker.kork.artifacts.model.Artifact;
+import com.netflix.spinnaker.orca.pipeline.persistence.ExecutionRepository.ExecutionCriteria;
+import java.util.List;
+import java.util.Optional;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import lombok.Value;
+
+/**
+ * The artifacts emitted by pipeline executions, kept apart from the executions so that they can be
+ * looked up without loading an execution.
+ */
+public interface PipelineArtifactIndex {
+
+  /**
+   * Looks up the artifacts of the execution of {@code pipelineConfigId} that {@link
+   * com.netflix.spinnaker.orca.pipeline.util.ArtifactUtils} would pick out of {@link
+   * ExecutionRepository#retrievePipelinesForPipelineConfigId} with {@code criteria}.
+   *
+   * @return the artifacts of that execution, or empty if there is no such execution or it has not
+   *     been indexed, in which case the execution itself has to be loaded.
+   */
+  @Nonnull
+  Optional<ExecutionArtifacts> getArtifacts(
+      @Nonnull String pipelineConfigId, @Nonnull ExecutionCriteria criteria);
+
+  @Value
+  class ExecutionArtifacts {
+    /** The top-level stages that emitted artifacts, in topological order. */
+    List<StageArtifacts> stages;
+
+    List<Artifact> trigger;
+  }
+
+  @Value
+  class StageArtifacts {
+    @Nullable String refId;
+
+    List<Artifact> artifacts;
+  }
+}
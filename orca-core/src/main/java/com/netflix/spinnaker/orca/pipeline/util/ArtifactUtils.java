@@ -34,6 +34,7 @@ import com.netflix.spinnaker.orca.pipeline.model.StageContext;
 import com.netflix.spinnaker.orca.pipeline.model.StageExecutionImpl;
 import com.netflix.spinnaker.orca.pipeline.persistence.ExecutionRepository;
 import com.netflix.spinnaker.orca.pipeline.persistence.ExecutionRepository.ExecutionCriteria;
+import com.netflix.spinnaker.orca.pipeline.persistence.PipelineArtifactIndex;
 import java.io.IOException;
 import java.util.Collection;
 import java.util.Collections;
@@ -64,15 +65,25 @@ public class ArtifactUtils {
   private final ObjectMapper objectMapper;
   private final ExecutionRepository executionRepository;
   private final ContextParameterProcessor contextParameterProcessor;
+  private final Optional<PipelineArtifactIndex> artifactIndex;
 
-  @Autowired
   public ArtifactUtils(
       ObjectMapper objectMapper,
       ExecutionRepository executionRepository,
       ContextParameterProcessor contextParameterProcessor) {
+    this(objectMapper, executionRepository, contextParameterProcessor, Optional.empty());
+  }
+
+  @Autowired
+  public ArtifactUtils(
+      ObjectMapper objectMapper,
+      ExecutionRepository executionRepository,
+      ContextParameterProcessor contextParameterProcessor,
+      Optional<PipelineArtifactIndex> artifactIndex) {
     this.objectMapper = objectMapper;
     this.executionRepository = executionRepository;
     this.contextParameterProcessor = contextParameterProcessor;
+    this.artifactIndex = artifactIndex;
   }
 
   public List<Artifact> getArtifacts(StageExecution stage) {
@@ -189,16 +200,22 @@ public class ArtifactUtils {
   }
 
   public List<Artifact> getArtifactsForPipelineId(String pipelineId, ExecutionCriteria criteria) {
-    return getExecutionForPipelineId(pipelineId, criteria)
-        .map(this::getAllArtifacts)
-        .orElse(Collections.emptyList());
+    return getIndexedArtifacts(pipelineId, criteria, refId -> true)
+        .orElseGet(
+            () ->
+                getExecutionForPipelineId(pipelineId, criteria)
+                    .map(this::getAllArtifacts)
+                    .orElse(Collections.emptyList()));
   }
 
   public List<Artifact> getArtifactsForPipelineIdWithoutStageRef(
       String pipelineId, String stageRef, ExecutionCriteria criteria) {
-    return getExecutionForPipelineId(pipelineId, criteria)
-        .map(e -> getAllArtifacts(e, it -> !stageRef.equals(it.getRefId())))
-        .orElse(Collections.emptyList());
+    return getIndexedArtifacts(pipelineId, criteria, refId -> !stageRef.equals(refId))
+        .orElseGet(
+            () ->
+                getExecutionForPipelineId(pipelineId, criteria)
+                    .map(e -> getAllArtifacts(e, it -> !stageRef.equals(it.getRefId())))
+                    .orElse(Collections.emptyList()));
   }
 
   public void resolveArtifacts(Map pipeline) {
@@ -297,6 +314,34 @@ public class ArtifactUtils {
     return getArtifactsForPipelineId((String) pipeline.get("id"), criteria);
   }
 
+  /**
+   * Reads the artifacts {@link #getAllArtifacts(PipelineExecution)} would return for the execution
+   * of {@code pipelineId} matching {@code criteria} from the artifact index, if there is one and it
+   * holds that execution.
+   */
+  private Optional<List<Artifact>> getIndexedArtifacts(
+      String pipelineId, ExecutionCriteria criteria, Predicate<String> stageRefFilter) {
+    Optional<PipelineArtifactIndex.ExecutionArtifacts> indexed;
+    try {
+      indexed = artifactIndex.flatMap(index -> index.getArtifacts(pipelineId, criteria));
+    } catch (Exception e) {
+      log.warn("Failed to look up indexed artifacts of pipeline {}", pipelineId, e);
+      return Optional.empty();
+    }
+
+    return indexed.map(
+        artifacts -> {
+          List<Artifact> emittedArtifacts =
+              artifacts.getStages().stream()
+                  .filter(s -> stageRefFilter.test(s.getRefId()))
+                  .flatMap(s -> s.getArtifacts().stream())
+                  .collect(Collectors.toList());
+          Collections.reverse(emittedArtifacts);
+          emittedArtifacts.addAll(artifacts.getTrigger());
+          return emittedArtifacts;
+        });
+  }
+
   private Optional<PipelineExecution> getExecutionForPipelineId(
       String pipelineId, ExecutionCriteria criteria) {
     return executionRepository
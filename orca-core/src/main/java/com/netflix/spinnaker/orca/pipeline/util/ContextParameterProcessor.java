@@ -25,6 +25,8 @@ import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Strings;
+import com.netflix.spectator.api.NoopRegistry;
+import com.netflix.spectator.api.Registry;
 import com.netflix.spinnaker.kork.api.expressions.ExpressionFunctionProvider;
 import com.netflix.spinnaker.kork.dynamicconfig.DynamicConfigService;
 import com.netflix.spinnaker.kork.expressions.ExpressionEvaluationSummary;
@@ -32,6 +34,7 @@ import com.netflix.spinnaker.kork.expressions.config.ExpressionProperties;
 import com.netflix.spinnaker.orca.api.pipeline.models.PipelineExecution;
 import com.netflix.spinnaker.orca.api.pipeline.models.StageExecution;
 import com.netflix.spinnaker.orca.api.pipeline.models.Trigger;
+import com.netflix.spinnaker.orca.config.ExpressionCacheConfigurationProperties;
 import com.netflix.spinnaker.orca.config.UserConfiguredUrlRestrictions;
 import com.netflix.spinnaker.orca.jackson.OrcaObjectMapper;
 import com.netflix.spinnaker.orca.pipeline.expressions.PipelineExpressionEvaluator;
@@ -39,6 +42,7 @@ import com.netflix.spinnaker.orca.pipeline.expressions.PipelineExpressionEvaluat
 import com.netflix.spinnaker.orca.pipeline.expressions.functions.*;
 import com.netflix.spinnaker.orca.pipeline.model.*;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
 import org.pf4j.DefaultPluginManager;
 import org.pf4j.PluginManager;
 import org.slf4j.Logger;
@@ -55,6 +59,7 @@ public class ContextParameterProcessor {
 
   private PipelineExpressionEvaluator expressionEvaluator;
   private DynamicConfigService dynamicConfigService;
+  private Registry registry = new NoopRegistry();
 
   @VisibleForTesting
   public ContextParameterProcessor() {
@@ -83,6 +88,24 @@ public class ContextParameterProcessor {
     this.dynamicConfigService = dynamicConfigService;
   }
 
+  public ContextParameterProcessor(
+      List<ExpressionFunctionProvider> expressionFunctionProviders,
+      PluginManager pluginManager,
+      DynamicConfigService dynamicConfigService,
+      ExpressionProperties expressionProperties,
+      Registry registry,
+      ExpressionCacheConfigurationProperties expressionCacheProperties) {
+    this.expressionEvaluator =
+        new PipelineExpressionEvaluator(
+            expressionFunctionProviders,
+            pluginManager,
+            expressionProperties,
+            registry,
+            expressionCacheProperties);
+    this.dynamicConfigService = dynamicConfigService;
+    this.registry = registry;
+  }
+
   public Map<String, Object> process(
       Map<String, Object> source, Map<String, Object> context, boolean allowUnknownKeys) {
     ExpressionEvaluationSummary summary = new ExpressionEvaluationSummary();
@@ -131,8 +154,54 @@ public class ContextParameterProcessor {
       return new HashMap<>();
     }
 
+    return evaluate(source, precomputeValues(context), allowUnknownKeys, summary);
+  }
+
+  /**
+   * Builds the context that expressions in the context of {@code stage} are evaluated against, as
+   * {@link #process} would from {@link #buildExecutionContext(StageExecution)}.
+   *
+   * <p>Building it copies the stage context and converts the trigger, so callers that evaluate many
+   * values of the same stage should build it once and pass it to {@link
+   * #processWithEvaluationContext} for each of them, as long as the stage doesn't change.
+   */
+  public Map<String, Object> buildEvaluationContext(StageExecution stage) {
+    long start = registry.clock().monotonicTime();
+    try {
+      return precomputeValues(buildExecutionContext(stage));
+    } finally {
+      registry
+          .timer("expressions.evaluationContext.build")
+          .record(registry.clock().monotonicTime() - start, TimeUnit.NANOSECONDS);
+    }
+  }
+
+  /**
+   * Evaluates the expressions in {@code source} against a context built by {@link
+   * #buildEvaluationContext}.
+   */
+  public Map<String, Object> processWithEvaluationContext(
+      Map<String, Object> source, Map<String, Object> evaluationContext, boolean allowUnknownKeys) {
+    if (source == null) {
+      return null;
+    }
+
+    if (source.isEmpty()) {
+      return new HashMap<>();
+    }
+
+    registry.counter("expressions.evaluationContext.reused").increment();
+    return evaluate(
+        source, evaluationContext, allowUnknownKeys, new ExpressionEvaluationSummary());
+  }
+
+  private Map<String, Object> evaluate(
+      Map<String, Object> source,
+      Map<String, Object> context,
+      boolean allowUnknownKeys,
+      ExpressionEvaluationSummary summary) {
     Map<String, Object> result =
-        expressionEvaluator.evaluate(source, precomputeValues(context), summary, allowUnknownKeys);
+        expressionEvaluator.evaluate(source, context, summary, allowUnknownKeys);
 
     if (summary.getTotalEvaluated() > 0 && context.containsKey("execution")) {
       log.info("Evaluated {}", summary);
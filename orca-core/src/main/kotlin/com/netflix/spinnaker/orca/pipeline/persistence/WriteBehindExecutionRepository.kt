@@ -0,0 +1,368 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.spinnaker.orca.pipeline.persistence
+
+import com.netflix.spectator.api.Registry
+import com.netflix.spinnaker.orca.api.pipeline.models.ExecutionStatus
+import com.netflix.spinnaker.orca.api.pipeline.models.ExecutionType
+import com.netflix.spinnaker.orca.api.pipeline.models.PipelineExecution
+import com.netflix.spinnaker.orca.api.pipeline.models.StageExecution
+import com.netflix.spinnaker.orca.pipeline.persistence.ExecutionRepository.ExecutionComparator
+import com.netflix.spinnaker.orca.pipeline.persistence.ExecutionRepository.ExecutionCriteria
+import rx.Observable
+
+/**
+ * Coalesces stage and execution status writes made on the current thread while a
+ * [unitOfWork] is open, and flushes them with a single [ExecutionRepository.storeBatch]
+ * when it closes.
+ *
+ * Writes are recorded by reference, so repeated writes to the same stage or execution
+ * collapse into one write of its final state. Any other mutation, and every read, flushes
+ * pending writes first so callers always read their own writes. Outside of a unit of work
+ * every call goes straight to [delegate].
+ *
+ * Every method is overridden explicitly rather than delegated, so that a method added to
+ * [ExecutionRepository] cannot silently bypass the pending writes.
+ */
+class WriteBehindExecutionRepository(
+  val delegate: ExecutionRepository,
+  registry: Registry
+) : ExecutionRepository {
+
+  private val pending = ThreadLocal<PendingWrites>()
+
+  private val persistedId = registry.createId("executionRepository.writeBehind.writes", "result", "persisted")
+  private val coalescedId = registry.createId("executionRepository.writeBehind.writes", "result", "coalesced")
+  private val persistedCounter = registry.counter(persistedId)
+  private val coalescedCounter = registry.counter(coalescedId)
+  private val flushTimer = registry.timer("executionRepository.writeBehind.flush")
+
+  /**
+   * Runs [block] with writes deferred until it completes. Pending writes are flushed even if
+   * [block] throws. Nested calls join the outermost unit of work.
+   */
+  fun <T> unitOfWork(block: () -> T): T {
+    if (pending.get() != null) {
+      return block()
+    }
+
+    pending.set(PendingWrites())
+    try {
+      return block()
+    } finally {
+      try {
+        flush()
+      } finally {
+        pending.remove()
+      }
+    }
+  }
+
+  /**
+   * Writes everything recorded so far, leaving the unit of work (if any) open.
+   */
+  fun flush() {
+    val writes = pending.get() ?: return
+    if (writes.isEmpty()) {
+      return
+    }
+    pending.set(PendingWrites())
+
+    flushTimer.record {
+      delegate.storeBatch(writes.stages.values.toList(), writes.execution)
+    }
+
+    val persisted = writes.stages.size + (if (writes.execution == null) 0 else 1)
+    persistedCounter.increment(persisted.toLong())
+    coalescedCounter.increment((writes.requested - persisted).toLong())
+  }
+
+  override fun storeStage(stage: StageExecution) {
+    if (!record(stage.execution) { it.stages[stage.id] = stage }) {
+      delegate.storeStage(stage)
+    }
+  }
+
+  /**
+   * Recorded as a full [storeStage], which writes a superset of the stage context.
+   */
+  override fun updateStageContext(stage: StageExecution) {
+    if (!record(stage.execution) { it.stages[stage.id] = stage }) {
+      delegate.updateStageContext(stage)
+    }
+  }
+
+  override fun updateStatus(execution: PipelineExecution) {
+    if (!record(execution) { it.execution = execution }) {
+      delegate.updateStatus(execution)
+    }
+  }
+
+  override fun storeBatch(stages: Collection<StageExecution>, execution: PipelineExecution?) {
+    flush()
+    delegate.storeBatch(stages, execution)
+  }
+
+  override fun store(execution: PipelineExecution) {
+    flush()
+    delegate.store(execution)
+  }
+
+  override fun addStage(stage: StageExecution) {
+    flush()
+    delegate.addStage(stage)
+  }
+
+  override fun removeStage(execution: PipelineExecution, stageId: String) {
+    flush()
+    delegate.removeStage(execution, stageId)
+  }
+
+  override fun cancel(type: ExecutionType, id: String) {
+    flush()
+    delegate.cancel(type, id)
+  }
+
+  override fun cancel(type: ExecutionType, id: String, user: String?, reason: String?) {
+    flush()
+    delegate.cancel(type, id, user, reason)
+  }
+
+  override fun pause(type: ExecutionType, id: String, user: String?) {
+    flush()
+    delegate.pause(type, id, user)
+  }
+
+  override fun resume(type: ExecutionType, id: String, user: String?) {
+    flush()
+    delegate.resume(type, id, user)
+  }
+
+  override fun resume(type: ExecutionType, id: String, user: String?, ignoreCurrentStatus: Boolean) {
+    flush()
+    delegate.resume(type, id, user, ignoreCurrentStatus)
+  }
+
+  override fun isCanceled(type: ExecutionType, id: String): Boolean {
+    flush()
+    return delegate.isCanceled(type, id)
+  }
+
+  override fun updateStatus(type: ExecutionType, id: String, status: ExecutionStatus) {
+    flush()
+    delegate.updateStatus(type, id, status)
+  }
+
+  override fun retrieve(type: ExecutionType, id: String): PipelineExecution {
+    flush()
+    return delegate.retrieve(type, id)
+  }
+
+  override fun retrieveForStage(type: ExecutionType, id: String, stageId: String): PipelineExecution {
+    flush()
+    return delegate.retrieveForStage(type, id, stageId)
+  }
+
+  override fun retrieve(type: ExecutionType): Observable<PipelineExecution> {
+    flush()
+    return delegate.retrieve(type)
+  }
+
+  override fun retrieve(type: ExecutionType, criteria: ExecutionCriteria): Observable<PipelineExecution> {
+    flush()
+    return delegate.retrieve(type, criteria)
+  }
+
+  override fun retrievePipelinesForApplication(application: String): Observable<PipelineExecution> {
+    flush()
+    return delegate.retrievePipelinesForApplication(application)
+  }
+
+  override fun retrievePipelinesForPipelineConfigId(
+    pipelineConfigId: String,
+    criteria: ExecutionCriteria
+  ): Observable<PipelineExecution> {
+    flush()
+    return delegate.retrievePipelinesForPipelineConfigId(pipelineConfigId, criteria)
+  }
+
+  override fun retrievePipelineConfigIdsForApplication(application: String): Collection<String> {
+    flush()
+    return delegate.retrievePipelineConfigIdsForApplication(application)
+  }
+
+  override fun retrieveAndFilterPipelineExecutionIdsForApplication(
+    application: String,
+    pipelineConfigIds: List<String>,
+    criteria: ExecutionCriteria
+  ): Collection<String> {
+    flush()
+    return delegate.retrieveAndFilterPipelineExecutionIdsForApplication(application, pipelineConfigIds, criteria)
+  }
+
+  override fun retrievePipelineExecutionDetailsForApplication(
+    application: String,
+    pipelineConfigIds: List<String>,
+    queryTimeoutSeconds: Int
+  ): Collection<PipelineExecution> {
+    flush()
+    return delegate.retrievePipelineExecutionDetailsForApplication(application, pipelineConfigIds, queryTimeoutSeconds)
+  }
+
+  override fun retrievePipelineConfigIdsForApplicationWithCriteria(
+    application: String,
+    criteria: ExecutionCriteria
+  ): List<String> {
+    flush()
+    return delegate.retrievePipelineConfigIdsForApplicationWithCriteria(application, criteria)
+  }
+
+  override fun retrievePipelinesForPipelineConfigIdsBetweenBuildTimeBoundary(
+    pipelineConfigIds: List<String>,
+    buildTimeStartBoundary: Long,
+    buildTimeEndBoundary: Long,
+    executionCriteria: ExecutionCriteria
+  ): List<PipelineExecution> {
+    flush()
+    return delegate.retrievePipelinesForPipelineConfigIdsBetweenBuildTimeBoundary(
+      pipelineConfigIds,
+      buildTimeStartBoundary,
+      buildTimeEndBoundary,
+      executionCriteria
+    )
+  }
+
+  override fun retrieveAllPipelinesForPipelineConfigIdsBetweenBuildTimeBoundary(
+    pipelineConfigIds: List<String>,
+    buildTimeStartBoundary: Long,
+    buildTimeEndBoundary: Long,
+    executionCriteria: ExecutionCriteria
+  ): List<PipelineExecution> {
+    flush()
+    return delegate.retrieveAllPipelinesForPipelineConfigIdsBetweenBuildTimeBoundary(
+      pipelineConfigIds,
+      buildTimeStartBoundary,
+      buildTimeEndBoundary,
+      executionCriteria
+    )
+  }
+
+  override fun retrieveOrchestrationsForApplication(
+    application: String,
+    criteria: ExecutionCriteria
+  ): Observable<PipelineExecution> {
+    flush()
+    return delegate.retrieveOrchestrationsForApplication(application, criteria)
+  }
+
+  override fun retrieveOrchestrationsForApplication(
+    application: String,
+    criteria: ExecutionCriteria,
+    sorter: ExecutionComparator?
+  ): List<PipelineExecution> {
+    flush()
+    return delegate.retrieveOrchestrationsForApplication(application, criteria, sorter)
+  }
+
+  override fun retrieveByCorrelationId(executionType: ExecutionType, correlationId: String): PipelineExecution {
+    flush()
+    return delegate.retrieveByCorrelationId(executionType, correlationId)
+  }
+
+  override fun retrieveOrchestrationForCorrelationId(correlationId: String): PipelineExecution {
+    flush()
+    return delegate.retrieveOrchestrationForCorrelationId(correlationId)
+  }
+
+  override fun retrievePipelineForCorrelationId(correlationId: String): PipelineExecution {
+    flush()
+    return delegate.retrievePipelineForCorrelationId(correlationId)
+  }
+
+  override fun retrieveBufferedExecutions(): List<PipelineExecution> {
+    flush()
+    return delegate.retrieveBufferedExecutions()
+  }
+
+  override fun retrieveAllApplicationNames(executionType: ExecutionType?): List<String> {
+    flush()
+    return delegate.retrieveAllApplicationNames(executionType)
+  }
+
+  override fun retrieveAllApplicationNames(executionType: ExecutionType?, minExecutions: Int): List<String> {
+    flush()
+    return delegate.retrieveAllApplicationNames(executionType, minExecutions)
+  }
+
+  override fun hasExecution(type: ExecutionType, id: String): Boolean {
+    flush()
+    return delegate.hasExecution(type, id)
+  }
+
+  override fun retrieveAllExecutionIds(type: ExecutionType): List<String> {
+    flush()
+    return delegate.retrieveAllExecutionIds(type)
+  }
+
+  override fun delete(type: ExecutionType, id: String) {
+    flush()
+    delegate.delete(type, id)
+  }
+
+  override fun delete(type: ExecutionType, idsToDelete: List<String>) {
+    flush()
+    delegate.delete(type, idsToDelete)
+  }
+
+  override fun restartStage(executionId: String, stageId: String) {
+    flush()
+    delegate.restartStage(executionId, stageId)
+  }
+
+  override fun getPartition(): String? = delegate.partition
+
+  override fun handlesPartition(partitionOfExecution: String?): Boolean =
+    delegate.handlesPartition(partitionOfExecution)
+
+  /**
+   * Records a write against [execution] if a unit of work is open.
+   *
+   * @return `false` if there is no unit of work and the caller should write immediately.
+   */
+  private fun record(execution: PipelineExecution, write: (PendingWrites) -> Unit): Boolean {
+    var writes = pending.get() ?: return false
+    if (writes.executionId != null && writes.executionId != execution.id) {
+      flush()
+      writes = pending.get()
+    }
+
+    writes.executionId = execution.id
+    writes.requested++
+    write(writes)
+    return true
+  }
+
+  override fun toString() = "WriteBehindExecutionRepository($delegate)"
+
+  private class PendingWrites {
+    var executionId: String? = null
+    val stages = LinkedHashMap<String, StageExecution>()
+    var execution: PipelineExecution? = null
+    var requested = 0
+
+    fun isEmpty() = stages.isEmpty() && execution == null
+  }
+}
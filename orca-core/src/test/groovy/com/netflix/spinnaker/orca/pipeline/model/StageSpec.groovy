@@ -274,6 +274,43 @@ class StageSpec extends Specification {
     descendants.size() == 0
   }
 
+  def "stage relationships reflect changes made after they were first navigated"() {
+    given:
+    def pipeline = pipeline {
+      stage {
+        refId = "1"
+      }
+      stage {
+        refId = "2"
+        requisiteStageRefIds = ["1"]
+      }
+    }
+
+    def stage1 = pipeline.stageByRef("1")
+    def stage2 = pipeline.stageByRef("2")
+
+    expect:
+    stage1.allDownstreamStages()*.refId == ["2"]
+
+    when:
+    stage2.requisiteStageRefIds = []
+    pipeline.stages.add(new StageExecutionImpl(pipeline, "test", "3", [:]).with {
+      refId = "3"
+      requisiteStageRefIds = ["1"]
+      it
+    })
+    pipeline.stages.set(1, new StageExecutionImpl(pipeline, "test", "4", [:]).with {
+      refId = "4"
+      parentStageId = stage1.id
+      it
+    })
+
+    then:
+    stage1.allDownstreamStages()*.refId == ["3"]
+    stage1.directChildren()*.refId == ["4"]
+    pipeline.stageByRef("3").ancestors()*.refId == ["3", "1"]
+  }
+
   def "ancestors of a STAGE_AFTER stage should include STAGE_BEFORE siblings"() {
     given:
     def pipeline = pipeline {
@@ -24,6 +24,7 @@ import com.netflix.spinnaker.kork.artifacts.model.ExpectedArtifact
 import com.netflix.spinnaker.orca.api.pipeline.models.ExecutionStatus
 import com.netflix.spinnaker.orca.pipeline.model.DefaultTrigger
 import com.netflix.spinnaker.orca.pipeline.persistence.ExecutionRepository
+import com.netflix.spinnaker.orca.pipeline.persistence.PipelineArtifactIndex
 import rx.Observable
 import spock.lang.Specification
 
@@ -366,6 +367,49 @@ class ArtifactUtilsSpec extends Specification {
     artifacts*.type == ["1", "trigger"]
   }
 
+  def "should find artifacts in the artifact index without loading the execution"() {
+    given:
+    def artifactIndex = Mock(PipelineArtifactIndex) {
+      getArtifacts(pipelineId, expectedExecutionCriteria) >> Optional.of(new PipelineArtifactIndex.ExecutionArtifacts(
+        [
+          new PipelineArtifactIndex.StageArtifacts("1", [Artifact.builder().type("1").build()]),
+          new PipelineArtifactIndex.StageArtifacts("2", [Artifact.builder().type("2a").build(), Artifact.builder().type("2b").build()])
+        ],
+        [Artifact.builder().type("trigger").build()]
+      ))
+    }
+    def executionRepositoryStub = Mock(ExecutionRepository) {
+      0 * _
+    }
+    def artifactUtils = new ArtifactUtils(new ObjectMapper(), executionRepositoryStub,
+      new ContextParameterProcessor(), Optional.of(artifactIndex))
+
+    expect:
+    artifactUtils.getArtifactsForPipelineId(pipelineId, expectedExecutionCriteria)*.type == ["2b", "2a", "1", "trigger"]
+    artifactUtils.getArtifactsForPipelineIdWithoutStageRef(pipelineId, "2", expectedExecutionCriteria)*.type == ["1", "trigger"]
+  }
+
+  def "should load the execution when it is not in the artifact index"() {
+    given:
+    def execution = pipeline {
+      stage {
+        refId = "1"
+        outputs.artifacts = [Artifact.builder().type("1").build()]
+      }
+    }
+    def artifactIndex = Mock(PipelineArtifactIndex) {
+      getArtifacts(pipelineId, expectedExecutionCriteria) >> Optional.empty()
+    }
+    def executionRepositoryStub = Mock(ExecutionRepository) {
+      retrievePipelinesForPipelineConfigId(pipelineId, expectedExecutionCriteria) >> Observable.just(execution)
+    }
+    def artifactUtils = new ArtifactUtils(new ObjectMapper(), executionRepositoryStub,
+      new ContextParameterProcessor(), Optional.of(artifactIndex))
+
+    expect:
+    artifactUtils.getArtifactsForPipelineId(pipelineId, expectedExecutionCriteria)*.type == ["1"]
+  }
+
   def "resolveArtifacts sets the bound artifact on an expected artifact"() {
     given:
     def matchArtifact = Artifact.builder().type("docker/.*").build()
@@ -444,6 +444,34 @@ class ContextParameterProcessorSpec extends Specification {
       }]
   }
 
+  def "evaluates expressions against a prebuilt evaluation context"() {
+    given:
+    def execution = pipeline {
+      stage {
+        refId = "stage1"
+        type = "wait"
+        context = [waitTime: 10]
+      }
+      trigger = new JenkinsTrigger("master", "job", 1, null)
+    }
+    def stage = execution.stageByRef("stage1")
+    def source = [
+      wait: '${waitTime * 2}',
+      job : '${trigger.job}'
+    ]
+
+    when:
+    def evaluationContext = contextParameterProcessor.buildEvaluationContext(stage)
+
+    then:
+    contextParameterProcessor.processWithEvaluationContext(source, evaluationContext, true) ==
+      contextParameterProcessor.process(source, contextParameterProcessor.buildExecutionContext(stage), true)
+    contextParameterProcessor.processWithEvaluationContext(source, evaluationContext, true) == [
+      wait: 20,
+      job : "job"
+    ]
+  }
+
   def "is able to parse deployment details correctly from execution"() {
     given:
     def source = ['deployed': '${deployedServerGroups}']
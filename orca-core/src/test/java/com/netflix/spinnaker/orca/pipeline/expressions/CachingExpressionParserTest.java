@@ -0,0 +1,113 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.spinnaker.orca.pipeline.expressions;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.netflix.spectator.api.DefaultRegistry;
+import com.netflix.spectator.api.Registry;
+import com.netflix.spinnaker.orca.config.ExpressionCacheConfigurationProperties;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.expression.Expression;
+import org.springframework.expression.ParseException;
+import org.springframework.expression.ParserContext;
+import org.springframework.expression.common.TemplateParserContext;
+import org.springframework.expression.spel.SpelCompilerMode;
+import org.springframework.expression.spel.SpelParserConfiguration;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+
+class CachingExpressionParserTest {
+
+  private final ParserContext parserContext = new TemplateParserContext("${", "}");
+
+  private Registry registry;
+  private ExpressionCacheConfigurationProperties properties;
+
+  @BeforeEach
+  void setup() {
+    registry = new DefaultRegistry();
+    properties = new ExpressionCacheConfigurationProperties();
+  }
+
+  @Test
+  void parsesEachTemplateOnce() {
+    CachingExpressionParser parser = parser();
+
+    Expression first = parser.parseExpression("${a + b}", parserContext);
+    Expression second = parser.parseExpression("${a + b}", parserContext);
+    Expression other = parser.parseExpression("${a - b}", parserContext);
+
+    assertThat(second).isSameAs(first);
+    assertThat(other).isNotSameAs(first);
+    assertThat(count("expressions.cache", "result", "hit")).isEqualTo(1);
+    assertThat(count("expressions.cache", "result", "miss")).isEqualTo(2);
+  }
+
+  @Test
+  void distinguishesParserContexts() {
+    CachingExpressionParser parser = parser();
+
+    Expression template = parser.parseExpression("'a'", parserContext);
+    Expression expression = parser.parseExpression("'a'");
+
+    assertThat(template.getValue()).isEqualTo("'a'");
+    assertThat(expression.getValue()).isEqualTo("a");
+  }
+
+  @Test
+  void doesNotCacheTemplatesThatFailToParse() {
+    CachingExpressionParser parser = parser();
+
+    assertThatThrownBy(() -> parser.parseExpression("${a +}", parserContext))
+        .isInstanceOf(ParseException.class);
+    assertThatThrownBy(() -> parser.parseExpression("${a +}", parserContext))
+        .isInstanceOf(ParseException.class);
+
+    assertThat(count("expressions.cache", "result", "miss")).isEqualTo(2);
+  }
+
+  @Test
+  void compilesFrequentlyUsedExpressions() {
+    properties.setCompilerMode(SpelCompilerMode.MIXED);
+    properties.setCompileThreshold(2);
+    CachingExpressionParser parser = parser();
+
+    for (int i = 0; i < 3; i++) {
+      Expression expression = parser.parseExpression("${['a'] + 1}", parserContext);
+      assertThat(expression.getValue(Map.of("a", 1), String.class)).isEqualTo("2");
+    }
+
+    assertThat(
+            count("expressions.compile", "success", "true")
+                + count("expressions.compile", "success", "false"))
+        .isEqualTo(1);
+  }
+
+  private CachingExpressionParser parser() {
+    return new CachingExpressionParser(
+        new SpelExpressionParser(new SpelParserConfiguration(properties.getCompilerMode(), null)),
+        registry,
+        properties);
+  }
+
+  private long count(String name, String tagKey, String tagValue) {
+    return registry.counter(registry.createId(name).withTag(tagKey, tagValue)).count();
+  }
+}
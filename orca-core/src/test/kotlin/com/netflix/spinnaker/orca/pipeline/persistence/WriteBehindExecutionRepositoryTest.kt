@@ -0,0 +1,104 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.spinnaker.orca.pipeline.persistence
+
+import com.netflix.spectator.api.NoopRegistry
+import com.netflix.spinnaker.orca.api.pipeline.models.ExecutionType.PIPELINE
+import com.netflix.spinnaker.orca.pipeline.model.PipelineExecutionImpl
+import com.netflix.spinnaker.orca.pipeline.model.StageExecutionImpl
+import com.nhaarman.mockito_kotlin.any
+import com.nhaarman.mockito_kotlin.doReturn
+import com.nhaarman.mockito_kotlin.inOrder
+import com.nhaarman.mockito_kotlin.mock
+import com.nhaarman.mockito_kotlin.never
+import com.nhaarman.mockito_kotlin.verify
+import com.nhaarman.mockito_kotlin.verifyNoMoreInteractions
+import org.junit.jupiter.api.Test
+
+class WriteBehindExecutionRepositoryTest {
+
+  private val execution = PipelineExecutionImpl(PIPELINE, "e1", "app")
+  private val stage = StageExecutionImpl(execution, "wait", "s1", mutableMapOf())
+
+  private val delegate: ExecutionRepository = mock {
+    on { retrieve(PIPELINE, "e1") } doReturn execution
+    on { retrieveByCorrelationId(PIPELINE, "c1") } doReturn execution
+  }
+  private val subject = WriteBehindExecutionRepository(delegate, NoopRegistry())
+
+  @Test
+  fun `writes go straight to the delegate outside a unit of work`() {
+    subject.storeStage(stage)
+    subject.updateStatus(execution)
+
+    verify(delegate).storeStage(stage)
+    verify(delegate).updateStatus(execution)
+    verify(delegate, never()).storeBatch(any(), any())
+  }
+
+  @Test
+  fun `repeated writes are coalesced into a single batch`() {
+    subject.unitOfWork {
+      subject.storeStage(stage)
+      subject.updateStageContext(stage)
+      subject.updateStatus(execution)
+      subject.updateStatus(execution)
+    }
+
+    verify(delegate).storeBatch(listOf(stage), execution)
+    verifyNoMoreInteractions(delegate)
+  }
+
+  @Test
+  fun `retrieving an execution flushes pending writes first`() {
+    subject.unitOfWork {
+      subject.storeStage(stage)
+      subject.retrieve(PIPELINE, "e1")
+    }
+
+    inOrder(delegate) {
+      verify(delegate).storeBatch(listOf(stage), null)
+      verify(delegate).retrieve(PIPELINE, "e1")
+    }
+    verifyNoMoreInteractions(delegate)
+  }
+
+  @Test
+  fun `queries flush pending writes first`() {
+    subject.unitOfWork {
+      subject.storeStage(stage)
+      subject.retrieveByCorrelationId(PIPELINE, "c1")
+    }
+
+    inOrder(delegate) {
+      verify(delegate).storeBatch(listOf(stage), null)
+      verify(delegate).retrieveByCorrelationId(PIPELINE, "c1")
+    }
+    verifyNoMoreInteractions(delegate)
+  }
+
+  @Test
+  fun `pending writes are flushed when the unit of work fails`() {
+    runCatching {
+      subject.unitOfWork {
+        subject.storeStage(stage)
+        throw IllegalStateException("handler failed")
+      }
+    }
+
+    verify(delegate).storeBatch(listOf(stage), null)
+  }
+}
@@ -29,6 +29,13 @@ interface EchoService {
   @POST("/")
   Response recordEvent(@Body Map<String, ?> notification)
 
+  /**
+   * Records several events at once, as {@code events}, with the executions
+   * they refer to by id in {@code executions}.
+   */
+  @POST("/events/bulk")
+  Response recordEvents(@Body Map<String, ?> events)
+
   @GET("/events/recent/{type}/{since}/")
   Response getEvents(@Path("type") String type, @Path("since") Long since)
 
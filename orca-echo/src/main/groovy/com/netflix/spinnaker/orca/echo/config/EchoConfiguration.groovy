@@ -18,11 +18,13 @@ package com.netflix.spinnaker.orca.echo.config
 
 import com.fasterxml.jackson.databind.ObjectMapper
 import com.jakewharton.retrofit.Ok3Client
+import com.netflix.spectator.api.Registry
 import com.netflix.spinnaker.config.DefaultServiceEndpoint
 import com.netflix.spinnaker.config.okhttp3.OkHttpClientProvider
 import com.netflix.spinnaker.kork.dynamicconfig.DynamicConfigService
 import com.netflix.spinnaker.kork.retrofit.exceptions.SpinnakerRetrofitErrorHandler
 import com.netflix.spinnaker.orca.echo.EchoService
+import com.netflix.spinnaker.orca.echo.spring.EchoEventPublisher
 import com.netflix.spinnaker.orca.echo.spring.EchoNotifyingExecutionListener
 import com.netflix.spinnaker.orca.echo.spring.EchoNotifyingStageListener
 import com.netflix.spinnaker.orca.events.ExecutionEvent
@@ -37,6 +39,8 @@ import groovy.transform.CompileStatic
 import org.springframework.beans.factory.annotation.Autowired
 import org.springframework.beans.factory.annotation.Value
 import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty
+import org.springframework.boot.context.properties.EnableConfigurationProperties
 import org.springframework.context.ApplicationListener
 import org.springframework.context.annotation.Bean
 import org.springframework.context.annotation.ComponentScan
@@ -51,6 +55,7 @@ import static retrofit.Endpoints.newFixedEndpoint
 @Import([RetrofitConfiguration])
 @ConditionalOnExpression('${echo.enabled:true}')
 @ComponentScan("com.netflix.spinnaker.orca.echo")
+@EnableConfigurationProperties(EchoEventsProperties)
 @CompileStatic
 class EchoConfiguration {
 
@@ -77,11 +82,20 @@ class EchoConfiguration {
       .create(EchoService)
   }
 
+  @Bean
+  @ConditionalOnProperty("echo.events.async.enabled")
+  EchoEventPublisher echoEventPublisher(EchoService echoService,
+                                        EchoEventsProperties echoEventsProperties,
+                                        Registry registry) {
+    new EchoEventPublisher(echoService, echoEventsProperties, registry)
+  }
+
   @Bean
   EchoNotifyingStageListener echoNotifyingStageExecutionListener(EchoService echoService, ExecutionRepository repository,
                                                                  ContextParameterProcessor contextParameterProcessor,
-                                                                 DynamicConfigService dynamicConfigService) {
-    new EchoNotifyingStageListener(echoService, contextParameterProcessor, dynamicConfigService)
+                                                                 DynamicConfigService dynamicConfigService,
+                                                                 Optional<EchoEventPublisher> echoEventPublisher) {
+    new EchoNotifyingStageListener(echoService, contextParameterProcessor, dynamicConfigService, echoEventPublisher.orElse(null))
   }
 
   @Bean
@@ -94,12 +108,14 @@ class EchoConfiguration {
     EchoService echoService,
     Front50Service front50Service,
     ObjectMapper objectMapper,
-    ContextParameterProcessor contextParameterProcessor) {
+    ContextParameterProcessor contextParameterProcessor,
+    Optional<EchoEventPublisher> echoEventPublisher) {
     new EchoNotifyingExecutionListener(
       echoService,
       front50Service,
       objectMapper,
-      contextParameterProcessor
+      contextParameterProcessor,
+      echoEventPublisher.orElse(null)
     )
   }
 
@@ -0,0 +1,270 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.spinnaker.orca.echo.spring
+
+import com.fasterxml.jackson.databind.ObjectMapper
+import com.netflix.spectator.api.Counter
+import com.netflix.spectator.api.Id
+import com.netflix.spectator.api.Registry
+import com.netflix.spectator.api.Timer
+import com.netflix.spectator.api.patterns.PolledMeter
+import com.netflix.spinnaker.kork.common.Header
+import com.netflix.spinnaker.orca.echo.EchoService
+import com.netflix.spinnaker.orca.echo.config.EchoEventsProperties
+import com.netflix.spinnaker.security.AuthenticatedRequest
+import groovy.transform.CompileStatic
+import groovy.util.logging.Slf4j
+import org.slf4j.MDC
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory
+
+import javax.annotation.PreDestroy
+import java.util.concurrent.Executors
+import java.util.concurrent.ScheduledExecutorService
+import java.util.concurrent.TimeUnit
+
+/**
+ * Sends events to Echo from a background thread so that message handlers do
+ * not wait on Echo.
+ *
+ * Events are snapshotted when published, since the execution they describe
+ * goes on changing. Each snapshot is written straight to JSON, the execution
+ * apart from the rest of the event, and is only read back into maps on the
+ * background thread when it is sent. Up to {@code bufferSize} events taking
+ * up to {@code maxBufferBytes} are buffered, beyond which new events are
+ * dropped. A pending event is replaced by a later one with the same
+ * coalescing key.
+ *
+ * Every {@code flushIntervalMs} pending events are sent in batches of up to
+ * {@code batchSize}, in the order they were published. With
+ * {@code bulkEndpointEnabled} each batch is a single call in which each
+ * execution is sent once, in its latest state, rather than with every event
+ * about it, so only the latest snapshot of each execution is read back. Echo
+ * then sees, for instance, a stage starting alongside an execution in which
+ * that stage has already completed, so the bulk endpoint suits consumers that
+ * read the state of an event's stage or task from the event itself and use
+ * the execution only for the rest.
+ *
+ * Publishes {@code echo.events.queueDepth}, {@code echo.events.lag} (time
+ * from publishing to sending), {@code echo.events.coalesced} and
+ * {@code echo.events.dropped}, tagged with the {@code reason}.
+ */
+@Slf4j
+@CompileStatic
+class EchoEventPublisher {
+
+  private final EchoService echoService
+  private final EchoEventsProperties properties
+  private final Registry registry
+
+  // the Echo client's JacksonConverter uses a default ObjectMapper too, so
+  // snapshots serialize just as the events themselves did
+  private final ObjectMapper objectMapper = new ObjectMapper()
+  private final Map<Object, PendingEvent> pending = new LinkedHashMap<>()
+  private long pendingBytes = 0
+  private final ScheduledExecutorService scheduler
+
+  private final Id droppedId
+  private final Counter coalesced
+  private final Timer lag
+
+  EchoEventPublisher(EchoService echoService, EchoEventsProperties properties, Registry registry) {
+    this.echoService = echoService
+    this.properties = properties
+    this.registry = registry
+    this.droppedId = registry.createId("echo.events.dropped")
+    this.coalesced = registry.counter("echo.events.coalesced")
+    this.lag = registry.timer("echo.events.lag")
+
+    PolledMeter.using(registry)
+      .withName("echo.events.queueDepth")
+      .monitorSize(pending)
+
+    def threadFactory = new CustomizableThreadFactory("echo-events-")
+    threadFactory.daemon = true
+    this.scheduler = Executors.newSingleThreadScheduledExecutor(threadFactory)
+    scheduler.scheduleWithFixedDelay(
+      { flush() } as Runnable,
+      properties.flushIntervalMs,
+      properties.flushIntervalMs,
+      TimeUnit.MILLISECONDS
+    )
+  }
+
+  boolean isCoalescingTaskEvents() {
+    return properties.coalesceTaskEvents
+  }
+
+  /**
+   * Queues {@code event} to be sent to Echo.
+   *
+   * @param coalescingKey identifies events that supersede one another, or
+   * {@code null} if {@code event} must always be sent
+   */
+  void publish(Map<String, Object> event, String executionId, String user, Object coalescingKey) {
+    Map<String, Object> withoutExecution = new LinkedHashMap<>(event)
+    Object execution = null
+    if (event.content instanceof Map) {
+      def content = new LinkedHashMap<String, Object>((Map<String, Object>) event.content)
+      execution = content.remove("execution")
+      withoutExecution.content = content
+    }
+
+    def pendingEvent = new PendingEvent(
+      objectMapper.writeValueAsBytes(withoutExecution),
+      execution == null ? null : objectMapper.writeValueAsBytes(execution),
+      executionId,
+      user,
+      registry.clock().monotonicTime()
+    )
+    def key = coalescingKey ?: new Object()
+
+    synchronized (pending) {
+      def replaced = pending.get(key)
+      long bytes = pendingBytes - (replaced == null ? 0L : replaced.size()) + pendingEvent.size()
+      if ((replaced == null && pending.size() >= properties.bufferSize) || bytes > properties.maxBufferBytes) {
+        registry.counter(droppedId.withTag("reason", "bufferFull")).increment()
+        return
+      }
+      if (replaced != null) {
+        // re-insert so that the event keeps its place behind earlier events
+        pending.remove(key)
+        coalesced.increment()
+      }
+      pending.put(key, pendingEvent)
+      pendingBytes = bytes
+    }
+  }
+
+  /**
+   * Sends every pending event.
+   */
+  void flush() {
+    try {
+      List<PendingEvent> batch
+      while (!(batch = nextBatch()).isEmpty()) {
+        send(batch)
+      }
+    } catch (Exception e) {
+      log.error("Failed to send events to echo", e)
+    }
+  }
+
+  @PreDestroy
+  void shutdown() {
+    scheduler.shutdown()
+    flush()
+  }
+
+  private List<PendingEvent> nextBatch() {
+    synchronized (pending) {
+      List<PendingEvent> batch = []
+      def iterator = pending.values().iterator()
+      while (iterator.hasNext() && batch.size() < properties.batchSize) {
+        def pendingEvent = iterator.next()
+        iterator.remove()
+        pendingBytes -= pendingEvent.size()
+        batch << pendingEvent
+      }
+      return batch
+    }
+  }
+
+  private void send(List<PendingEvent> batch) {
+    long now = registry.clock().monotonicTime()
+    batch.each { lag.record(now - it.publishedAt, TimeUnit.NANOSECONDS) }
+
+    if (properties.bulkEndpointEnabled) {
+      try {
+        AuthenticatedRequest.allowAnonymous({
+          echoService.recordEvents(bulkRequest(batch))
+        })
+      } catch (Exception e) {
+        log.warn("Failed to send ${batch.size()} events to echo", e)
+        registry.counter(droppedId.withTag("reason", "sendFailed")).increment(batch.size())
+      }
+      return
+    }
+
+    batch.each { PendingEvent pendingEvent ->
+      try {
+        MDC.put(Header.EXECUTION_ID.header, pendingEvent.executionId)
+        MDC.put(Header.USER.header, pendingEvent.user)
+        AuthenticatedRequest.allowAnonymous({
+          echoService.recordEvent(event(pendingEvent))
+        })
+      } catch (Exception e) {
+        log.warn("Failed to send event to echo (executionId: ${pendingEvent.executionId})", e)
+        registry.counter(droppedId.withTag("reason", "sendFailed")).increment()
+      } finally {
+        MDC.remove(Header.EXECUTION_ID.header)
+        MDC.remove(Header.USER.header)
+      }
+    }
+  }
+
+  private Map<String, Object> event(PendingEvent pendingEvent) {
+    def event = read(pendingEvent.event)
+    if (pendingEvent.execution != null) {
+      ((Map<String, Object>) event.content).execution = read(pendingEvent.execution)
+    }
+    return event
+  }
+
+  /**
+   * Sends the events of the batch without their executions, and the latest
+   * state of each execution by id. Earlier events of the batch lose the
+   * state of the execution they were published with.
+   */
+  private Map<String, Object> bulkRequest(List<PendingEvent> batch) {
+    Map<String, byte[]> latestExecutions = [:]
+    List<Map<String, Object>> events = batch.collect { PendingEvent pendingEvent ->
+      if (pendingEvent.execution != null) {
+        latestExecutions[pendingEvent.executionId] = pendingEvent.execution
+      }
+      return read(pendingEvent.event)
+    }
+    Map<String, Object> executions = [:]
+    latestExecutions.each { String id, byte[] execution ->
+      executions[id] = read(execution)
+    }
+    return [events: events, executions: executions] as Map<String, Object>
+  }
+
+  private Map<String, Object> read(byte[] json) {
+    return (Map<String, Object>) objectMapper.readValue(json, Map)
+  }
+
+  private static class PendingEvent {
+    final byte[] event
+    final byte[] execution
+    final String executionId
+    final String user
+    final long publishedAt
+
+    PendingEvent(byte[] event, byte[] execution, String executionId, String user, long publishedAt) {
+      this.event = event
+      this.execution = execution
+      this.executionId = executionId
+      this.user = user
+      this.publishedAt = publishedAt
+    }
+
+    long size() {
+      return event.length + (execution == null ? 0 : execution.length)
+    }
+  }
+}
@@ -28,6 +28,8 @@ import com.netflix.spinnaker.security.AuthenticatedRequest
 import groovy.transform.CompileStatic
 import groovy.util.logging.Slf4j
 
+import javax.annotation.Nullable
+
 import static com.netflix.spinnaker.orca.api.pipeline.models.ExecutionType.PIPELINE
 
 @Slf4j
@@ -38,16 +40,31 @@ class EchoNotifyingExecutionListener implements ExecutionListener {
   private final Front50Service front50Service
   private final ObjectMapper objectMapper
   private final ContextParameterProcessor contextParameterProcessor
+  private final EchoEventPublisher eventPublisher
 
   EchoNotifyingExecutionListener(
     EchoService echoService,
     Front50Service front50Service,
     ObjectMapper objectMapper,
     ContextParameterProcessor contextParameterProcessor) {
+    this(echoService, front50Service, objectMapper, contextParameterProcessor, null)
+  }
+
+  /**
+   * @param eventPublisher sends events in the background, if not null, so that
+   * they are sent in order with the stage and task events it sends
+   */
+  EchoNotifyingExecutionListener(
+    EchoService echoService,
+    Front50Service front50Service,
+    ObjectMapper objectMapper,
+    ContextParameterProcessor contextParameterProcessor,
+    @Nullable EchoEventPublisher eventPublisher) {
     this.echoService = echoService
     this.front50Service = front50Service
     this.objectMapper = objectMapper
     this.contextParameterProcessor = contextParameterProcessor
+    this.eventPublisher = eventPublisher
   }
 
   @Override
@@ -59,16 +76,14 @@ class EchoNotifyingExecutionListener implements ExecutionListener {
         if (execution.type == PIPELINE) {
           addApplicationNotifications(execution)
         }
-        AuthenticatedRequest.allowAnonymous({
-          echoService.recordEvent(
-            details: [
-              source     : "orca",
-              type       : "orca:${execution.type}:starting".toString(),
-              application: execution.application,
-            ],
-            content: buildContent(execution)
-          )
-        })
+        recordEvent(execution, [
+          details: [
+            source     : "orca",
+            type       : "orca:${execution.type}:starting".toString(),
+            application: execution.application,
+          ],
+          content: buildContent(execution)
+        ] as Map<String, Object>)
       }
     } catch (Exception e) {
       log.error("Failed to send pipeline start event: ${execution?.id}", e)
@@ -87,22 +102,31 @@ class EchoNotifyingExecutionListener implements ExecutionListener {
         if (execution.type == PIPELINE) {
           addApplicationNotifications(execution)
         }
-        AuthenticatedRequest.allowAnonymous({
-          echoService.recordEvent(
-            details: [
-              source     : "orca",
-              type       : "orca:${execution.type}:${wasSuccessful ? "complete" : "failed"}".toString(),
-              application: execution.application,
-            ],
-            content: buildContent(execution)
-          )
-        })
+        recordEvent(execution, [
+          details: [
+            source     : "orca",
+            type       : "orca:${execution.type}:${wasSuccessful ? "complete" : "failed"}".toString(),
+            application: execution.application,
+          ],
+          content: buildContent(execution)
+        ] as Map<String, Object>)
       }
     } catch (Exception e) {
       log.error("Failed to send pipeline end event: ${execution?.id}", e)
     }
   }
 
+  private void recordEvent(PipelineExecution execution, Map<String, Object> event) {
+    if (eventPublisher != null) {
+      eventPublisher.publish(event, execution.id, execution.authentication?.user ?: "anonymous", null)
+      return
+    }
+
+    AuthenticatedRequest.allowAnonymous({
+      echoService.recordEvent(event)
+    })
+  }
+
   private void processSpelInNotifications(PipelineExecution execution) {
     List<Map<String, Object>> spelProcessedNotifications = execution.notifications.collect({
       contextParameterProcessor.process(it, contextParameterProcessor.buildExecutionContext(execution), true)
@@ -31,6 +31,8 @@ import groovy.util.logging.Slf4j
 import org.slf4j.MDC
 import org.springframework.beans.factory.annotation.Autowired
 
+import javax.annotation.Nullable
+
 import static com.netflix.spinnaker.orca.api.pipeline.models.ExecutionStatus.*
 import static com.netflix.spinnaker.orca.api.pipeline.models.ExecutionType.ORCHESTRATION
 
@@ -45,14 +47,26 @@ class EchoNotifyingStageListener implements StageListener {
   private final EchoService echoService
   private final ContextParameterProcessor contextParameterProcessor
   private final DynamicConfigService dynamicConfigService
+  private final EchoEventPublisher eventPublisher
 
-  @Autowired
   EchoNotifyingStageListener(EchoService echoService,
                              ContextParameterProcessor contextParameterProcessor,
                              DynamicConfigService dynamicConfigService) {
+    this(echoService, contextParameterProcessor, dynamicConfigService, null)
+  }
+
+  /**
+   * @param eventPublisher sends events in the background, if not null
+   */
+  @Autowired
+  EchoNotifyingStageListener(EchoService echoService,
+                             ContextParameterProcessor contextParameterProcessor,
+                             DynamicConfigService dynamicConfigService,
+                             @Nullable EchoEventPublisher eventPublisher) {
     this.echoService = echoService
     this.contextParameterProcessor = contextParameterProcessor
     this.dynamicConfigService = dynamicConfigService
+    this.eventPublisher = eventPublisher
   }
 
   @Override
@@ -139,9 +153,15 @@ class EchoNotifyingStageListener implements StageListener {
         }
       }
 
+      String user = stage.execution?.authentication?.user ?: "anonymous"
+      if (eventPublisher != null) {
+        eventPublisher.publish((Map<String, Object>) event, stage.execution.id, user, coalescingKey(type, stage, maybeTask))
+        return
+      }
+
       try {
         MDC.put(Header.EXECUTION_ID.header, stage.execution.id)
-        MDC.put(Header.USER.header, stage.execution?.authentication?.user ?: "anonymous")
+        MDC.put(Header.USER.header, user)
         AuthenticatedRequest.allowAnonymous({
           echoService.recordEvent(event)
         })
@@ -154,6 +174,17 @@ class EchoNotifyingStageListener implements StageListener {
     }
   }
 
+  /**
+   * Task events are superseded by later events of the same task, while every
+   * stage event is sent.
+   */
+  private Object coalescingKey(String type, StageExecution stage, Optional<TaskExecution> maybeTask) {
+    if (type != 'task' || !maybeTask.isPresent() || !eventPublisher.coalescingTaskEvents) {
+      return null
+    }
+    return "${stage.execution.id}:${stage.id}:${maybeTask.get().id}".toString()
+  }
+
   private Map<String, Object> buildContext(PipelineExecution execution, Map context) {
     return contextParameterProcessor.process(
       context,
@@ -0,0 +1,109 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.spinnaker.orca.echo.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration of the asynchronous publishing of execution, stage and task events to Echo, see
+ * {@link com.netflix.spinnaker.orca.echo.spring.EchoEventPublisher}.
+ */
+@ConfigurationProperties("echo.events.async")
+public class EchoEventsProperties {
+
+  private boolean enabled = false;
+
+  /** Events waiting to be sent beyond which new events are dropped. */
+  private int bufferSize = 1_000;
+
+  /**
+   * Size of the JSON snapshots of events waiting to be sent beyond which new events are dropped.
+   * Each event holds a snapshot of its whole execution, so this rather than {@link #bufferSize}
+   * usually bounds the buffer.
+   */
+  private long maxBufferBytes = 64L * 1024 * 1024;
+
+  private int batchSize = 100;
+
+  private long flushIntervalMs = 1000;
+
+  /**
+   * Send each batch in a single call to Echo's bulk endpoint rather than one call per event. Echo
+   * must support {@code POST /events/bulk}. Each execution is sent once per batch, in the state of
+   * its latest event, rather than in the state it was in at each event.
+   */
+  private boolean bulkEndpointEnabled = false;
+
+  /** Replace a task event that has not been sent yet with a later event of the same task. */
+  private boolean coalesceTaskEvents = true;
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  public void setEnabled(boolean enabled) {
+    this.enabled = enabled;
+  }
+
+  public int getBufferSize() {
+    return bufferSize;
+  }
+
+  public void setBufferSize(int bufferSize) {
+    this.bufferSize = bufferSize;
+  }
+
+  public long getMaxBufferBytes() {
+    return maxBufferBytes;
+  }
+
+  public void setMaxBufferBytes(long maxBufferBytes) {
+    this.maxBufferBytes = maxBufferBytes;
+  }
+
+  public int getBatchSize() {
+    return batchSize;
+  }
+
+  public void setBatchSize(int batchSize) {
+    this.batchSize = batchSize;
+  }
+
+  public long getFlushIntervalMs() {
+    return flushIntervalMs;
+  }
+
+  public void setFlushIntervalMs(long flushIntervalMs) {
+    this.flushIntervalMs = flushIntervalMs;
+  }
+
+  public boolean isBulkEndpointEnabled() {
+    return bulkEndpointEnabled;
+  }
+
+  public void setBulkEndpointEnabled(boolean bulkEndpointEnabled) {
+    this.bulkEndpointEnabled = bulkEndpointEnabled;
+  }
+
+  public boolean isCoalesceTaskEvents() {
+    return coalesceTaskEvents;
+  }
+
+  public void setCoalesceTaskEvents(boolean coalesceTaskEvents) {
+    this.coalesceTaskEvents = coalesceTaskEvents;
+  }
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.spinnaker.orca.echo.spring
+
+import com.netflix.spectator.api.DefaultRegistry
+import com.netflix.spinnaker.orca.echo.EchoService
+import com.netflix.spinnaker.orca.echo.config.EchoEventsProperties
+import spock.lang.Specification
+import spock.lang.Subject
+
+class EchoEventPublisherSpec extends Specification {
+
+  def echoService = Mock(EchoService)
+  def registry = new DefaultRegistry()
+  def properties = new EchoEventsProperties(flushIntervalMs: 3_600_000)
+
+  @Subject
+  EchoEventPublisher publisher
+
+  def setup() {
+    publisher = new EchoEventPublisher(echoService, properties, registry)
+  }
+
+  def cleanup() {
+    publisher.shutdown()
+  }
+
+  def "sends only the latest of events with the same coalescing key"() {
+    given:
+    publisher.publish(event("orca:task:starting"), "1", "anonymous", "1:stage:task")
+    publisher.publish(event("orca:stage:starting"), "1", "anonymous", null)
+    publisher.publish(event("orca:task:complete"), "1", "anonymous", "1:stage:task")
+
+    when:
+    publisher.flush()
+
+    then:
+    1 * echoService.recordEvent({ it.details.type == "orca:stage:starting" })
+
+    then:
+    1 * echoService.recordEvent({ it.details.type == "orca:task:complete" })
+    0 * echoService.recordEvent(_)
+    registry.counter("echo.events.coalesced").count() == 1
+  }
+
+  def "drops events once the buffer is full"() {
+    given:
+    properties.bufferSize = 1
+    publisher.publish(event("orca:stage:starting"), "1", "anonymous", null)
+    publisher.publish(event("orca:stage:complete"), "1", "anonymous", null)
+
+    when:
+    publisher.flush()
+
+    then:
+    1 * echoService.recordEvent({ it.details.type == "orca:stage:starting" })
+    0 * echoService.recordEvent(_)
+    registry.counter("echo.events.dropped", "reason", "bufferFull").count() == 1
+  }
+
+  def "drops events once the buffered snapshots are too large"() {
+    given:
+    properties.maxBufferBytes = 200
+    publisher.publish(event("orca:stage:starting", [id: "1", status: "RUNNING"]), "1", "anonymous", null)
+    publisher.publish(event("orca:stage:complete", [id: "1", status: "SUCCEEDED", output: "x" * 200]), "1", "anonymous", null)
+
+    when:
+    publisher.flush()
+
+    then:
+    1 * echoService.recordEvent({ it.details.type == "orca:stage:starting" })
+    0 * echoService.recordEvent(_)
+    registry.counter("echo.events.dropped", "reason", "bufferFull").count() == 1
+  }
+
+  def "sends each execution once per batch through the bulk endpoint"() {
+    given:
+    properties.bulkEndpointEnabled = true
+    publisher.publish(event("orca:stage:starting", [id: "1", status: "RUNNING"]), "1", "anonymous", null)
+    publisher.publish(event("orca:stage:complete", [id: "1", status: "SUCCEEDED"]), "1", "anonymous", null)
+
+    when:
+    publisher.flush()
+
+    then:
+    1 * echoService.recordEvents({ Map request ->
+      request.events*.details*.type == ["orca:stage:starting", "orca:stage:complete"] &&
+        request.events.every { !it.content.containsKey("execution") } &&
+        request.executions == ["1": [id: "1", status: "SUCCEEDED"]]
+    })
+    0 * echoService.recordEvent(_)
+  }
+
+  def "snapshots events when they are published"() {
+    given:
+    def execution = [id: "1", status: "RUNNING"]
+    publisher.publish(event("orca:stage:starting", execution), "1", "anonymous", null)
+    execution.status = "SUCCEEDED"
+
+    when:
+    publisher.flush()
+
+    then:
+    1 * echoService.recordEvent({ it.content.execution.status == "RUNNING" })
+  }
+
+  private static Map<String, Object> event(String type, Map execution = null) {
+    def content = [executionId: "1"]
+    if (execution != null) {
+      content.execution = execution
+    }
+    return [details: [source: "orca", type: type], content: content] as Map<String, Object>
+  }
+}
@@ -258,4 +258,18 @@ class EchoNotifyingPipelineExecutionListenerSpec extends Specification {
     1 * front50Service.getApplicationNotifications("myapp") >> notifications
     1 * echoService.recordEvent(_)
   }
+
+  def "hands events to the event publisher when there is one"() {
+    given:
+    def eventPublisher = Mock(EchoEventPublisher)
+    def listener = new EchoNotifyingExecutionListener(echoService, front50Service, objectMapper, contextParameterProcessor, eventPublisher)
+    def pipeline = PipelineExecutionImpl.newPipeline("myapp")
+
+    when:
+    listener.beforeExecution(null, pipeline)
+
+    then:
+    1 * eventPublisher.publish({ it.details.type == "orca:pipeline:starting" }, pipeline.id, "anonymous", null)
+    0 * echoService._
+  }
 }
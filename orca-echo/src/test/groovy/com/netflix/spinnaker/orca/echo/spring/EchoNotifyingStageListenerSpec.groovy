@@ -162,4 +162,26 @@ class EchoNotifyingStageListenerSpec extends Specification {
     pipelineStage      | TERMINAL        | "failed"    | false      | false               | false
     taskName = "xxx"
   }
+
+  def "hands events to the event publisher when there is one"() {
+    given:
+    def eventPublisher = Mock(EchoEventPublisher)
+    def listener = new EchoNotifyingStageListener(echoService, contextParameterProcessor, dynamicConfigService, eventPublisher)
+    def task = new TaskExecutionImpl(id: "1", name: "xxx", status: SUCCEEDED)
+
+    when:
+    listener.afterTask(pipelineStage, task)
+
+    then:
+    1 * dynamicConfigService.getConfig(Boolean, IGNORE_TASK_EVENTS_PROPERTY, false) >> false
+    1 * dynamicConfigService.getConfig(Boolean, INCLUDE_FULL_EXECUTION_PROPERTY, _) >> true
+    _ * eventPublisher.isCoalescingTaskEvents() >> true
+    1 * eventPublisher.publish(
+      { it.details.type == "orca:task:complete" },
+      pipelineStage.execution.id,
+      "anonymous",
+      "${pipelineStage.execution.id}:${pipelineStage.id}:1"
+    )
+    0 * echoService._
+  }
 }
@@ -27,6 +27,7 @@ import com.netflix.spinnaker.orca.front50.Front50Service
 import com.netflix.spinnaker.orca.front50.spring.DependentPipelineExecutionListener
 import com.netflix.spinnaker.orca.pipeline.persistence.ExecutionRepository
 import com.netflix.spinnaker.orca.retrofit.RetrofitConfiguration
+import com.netflix.spinnaker.orca.retrofit.bulkhead.ServiceBulkheads
 import com.netflix.spinnaker.orca.retrofit.logging.RetrofitSlf4jLog
 import groovy.transform.CompileStatic
 import okhttp3.OkHttpClient
@@ -68,6 +69,9 @@ class Front50Configuration {
   @Autowired
   RequestInterceptor spinnakerRequestInterceptor
 
+  @Autowired
+  ServiceBulkheads serviceBulkheads
+
   @Bean
   Endpoint front50Endpoint(Front50ConfigurationProperties front50ConfigurationProperties) {
     newFixedEndpoint(front50ConfigurationProperties.getBaseUrl())
@@ -84,7 +88,7 @@ class Front50Configuration {
     new RestAdapter.Builder()
       .setRequestInterceptor(spinnakerRequestInterceptor)
       .setEndpoint(front50Endpoint)
-      .setClient(new Ok3Client(okHttpClient))
+      .setClient(serviceBulkheads.withBulkhead("front50", new Ok3Client(okHttpClient)))
       .setLogLevel(retrofitLogLevel)
       .setLog(new RetrofitSlf4jLog(Front50Service))
       .setConverter(new JacksonConverter(mapper))
@@ -23,6 +23,7 @@ import com.netflix.spinnaker.config.okhttp3.OkHttpClientProvider
 import com.netflix.spinnaker.kork.retrofit.exceptions.SpinnakerRetrofitErrorHandler
 import com.netflix.spinnaker.orca.igor.IgorService
 import com.netflix.spinnaker.orca.retrofit.RetrofitConfiguration
+import com.netflix.spinnaker.orca.retrofit.bulkhead.ServiceBulkheads
 import com.netflix.spinnaker.orca.retrofit.logging.RetrofitSlf4jLog
 import groovy.transform.CompileStatic
 import org.springframework.beans.factory.annotation.Autowired
@@ -48,6 +49,7 @@ class IgorConfiguration {
   @Autowired OkHttpClientProvider clientProvider
   @Autowired RestAdapter.LogLevel retrofitLogLevel
   @Autowired ObjectMapper objectMapper
+  @Autowired ServiceBulkheads serviceBulkheads
 
   @Bean
   Endpoint igorEndpoint(
@@ -59,7 +61,7 @@ class IgorConfiguration {
   IgorService igorService(Endpoint igorEndpoint, ObjectMapper mapper, RequestInterceptor spinnakerRequestInterceptor) {
     new RestAdapter.Builder()
       .setEndpoint(igorEndpoint)
-      .setClient(new Ok3Client(clientProvider.getClient(new DefaultServiceEndpoint("igor", igorEndpoint.url))))
+      .setClient(serviceBulkheads.withBulkhead("igor", new Ok3Client(clientProvider.getClient(new DefaultServiceEndpoint("igor", igorEndpoint.url)))))
       .setLogLevel(retrofitLogLevel)
       .setErrorHandler(SpinnakerRetrofitErrorHandler.getInstance())
       .setRequestInterceptor(spinnakerRequestInterceptor)
@@ -0,0 +1,64 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.spinnaker.orca.config;
+
+import java.time.Duration;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/** Configuration of the caches used when loading and rendering pipeline templates. */
+@Data
+@ConfigurationProperties("pipeline-templates.cache")
+public class PipelineTemplateCacheProperties {
+
+  /**
+   * Loaded templates, keyed by their source. A template updated in place at the same source is
+   * picked up once its entry expires.
+   */
+  private Templates templates = new Templates();
+
+  /** Parsed Jinja templates, keyed by the template itself. */
+  private RenderTrees renderTrees = new RenderTrees();
+
+  /** Front50 lookups made by the {@code pipelineId} and {@code strategyId} tags. */
+  private Front50Lookups front50Lookups = new Front50Lookups();
+
+  @Data
+  public static class Templates {
+    private boolean enabled = false;
+    private Duration ttl = Duration.ofMinutes(1);
+    private long maximumSize = 1_000;
+  }
+
+  @Data
+  public static class RenderTrees {
+    private boolean enabled = false;
+    private long maximumSize = 10_000;
+  }
+
+  @Data
+  public static class Front50Lookups {
+    private boolean enabled = false;
+
+    /**
+     * How long a lookup is reused for. Planning a pipeline takes well under this, so every tag
+     * in the plan shares one lookup per application.
+     */
+    private Duration ttl = Duration.ofSeconds(5);
+
+    private long maximumSize = 1_000;
+  }
+}
@@ -21,19 +21,25 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.module.kotlin.KotlinModule;
 import com.hubspot.jinjava.lib.tag.Tag;
+import com.netflix.spectator.api.Registry;
 import com.netflix.spinnaker.orca.front50.Front50Service;
 import com.netflix.spinnaker.orca.front50.PipelineModelMutator;
 import com.netflix.spinnaker.orca.pipelinetemplate.PipelineTemplateModule;
 import com.netflix.spinnaker.orca.pipelinetemplate.loader.TemplateLoader;
+import com.netflix.spinnaker.orca.pipelinetemplate.loader.TemplateSourceCache;
 import com.netflix.spinnaker.orca.pipelinetemplate.v1schema.TemplatedPipelineModelMutator;
 import com.netflix.spinnaker.orca.pipelinetemplate.v1schema.render.JinjaRenderer;
 import com.netflix.spinnaker.orca.pipelinetemplate.v1schema.render.RenderedValueConverter;
 import com.netflix.spinnaker.orca.pipelinetemplate.v1schema.render.Renderer;
+import com.netflix.spinnaker.orca.pipelinetemplate.v1schema.render.TemplateTreeCache;
 import com.netflix.spinnaker.orca.pipelinetemplate.v1schema.render.YamlRenderedValueConverter;
+import com.netflix.spinnaker.orca.pipelinetemplate.v1schema.render.tags.Front50TagLookups;
 import java.util.List;
 import java.util.Optional;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 
@@ -46,6 +52,7 @@ import org.springframework.context.annotation.ComponentScan;
       "com.netflix.spinnaker.orca.pipelinetemplate.handler",
       "com.netflix.spinnaker.orca.pipelinetemplate.v1schema.handler"
     })
+@EnableConfigurationProperties(PipelineTemplateCacheProperties.class)
 public class PipelineTemplateConfiguration {
 
   @Autowired(required = false)
@@ -68,12 +75,31 @@ public class PipelineTemplateConfiguration {
   Renderer jinjaRenderer(
       RenderedValueConverter renderedValueConverter,
       ObjectMapper pipelineTemplateObjectMapper,
-      Optional<Front50Service> front50Service) {
+      Optional<Front50Service> front50Service,
+      Registry registry,
+      PipelineTemplateCacheProperties cacheProperties) {
+    TemplateTreeCache templateTreeCache =
+        cacheProperties.getRenderTrees().isEnabled()
+            ? new TemplateTreeCache(registry, cacheProperties.getRenderTrees())
+            : null;
+    Front50TagLookups front50TagLookups =
+        cacheProperties.getFront50Lookups().isEnabled()
+            ? new Front50TagLookups(registry, cacheProperties.getFront50Lookups())
+            : null;
     return new JinjaRenderer(
         renderedValueConverter,
         pipelineTemplateObjectMapper,
         front50Service.orElse(null),
-        additionalJinjaTags);
+        additionalJinjaTags,
+        templateTreeCache,
+        front50TagLookups);
+  }
+
+  @Bean
+  @ConditionalOnProperty("pipeline-templates.cache.templates.enabled")
+  TemplateSourceCache templateSourceCache(
+      Registry registry, PipelineTemplateCacheProperties cacheProperties) {
+    return new TemplateSourceCache(registry, cacheProperties.getTemplates());
   }
 
   @Bean
@@ -54,17 +54,28 @@ public class TemplateLoader {
 
   private Renderer renderer;
 
-  @Autowired
+  @Nullable private TemplateSourceCache templateSourceCache;
+
   public TemplateLoader(
       Collection<TemplateSchemeLoader> schemeLoaders,
       ObjectMapper objectMapper,
       Renderer renderer) {
+    this(schemeLoaders, objectMapper, renderer, Optional.empty());
+  }
+
+  @Autowired
+  public TemplateLoader(
+      Collection<TemplateSchemeLoader> schemeLoaders,
+      ObjectMapper objectMapper,
+      Renderer renderer,
+      Optional<TemplateSourceCache> templateSourceCache) {
     this.schemeLoaders = schemeLoaders;
     this.objectMapper =
         new ObjectMapper(new YAMLFactory())
             .setConfig(objectMapper.getSerializationConfig())
             .setConfig(objectMapper.getDeserializationConfig());
     this.renderer = renderer;
+    this.templateSourceCache = templateSourceCache.orElse(null);
   }
 
   /** @return a LIFO list of pipeline templates */
@@ -166,6 +177,13 @@ public class TemplateLoader {
   }
 
   private Map<String, Object> load(String source) {
+    if (templateSourceCache != null) {
+      return templateSourceCache.get(source, this::loadFromSource);
+    }
+    return loadFromSource(source);
+  }
+
+  private Map<String, Object> loadFromSource(String source) {
     URI uri;
     try {
       uri = new URI(source);
@@ -0,0 +1,100 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.spinnaker.orca.pipelinetemplate.loader;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.netflix.spectator.api.Counter;
+import com.netflix.spectator.api.Id;
+import com.netflix.spectator.api.Registry;
+import com.netflix.spectator.api.patterns.PolledMeter;
+import com.netflix.spinnaker.orca.config.PipelineTemplateCacheProperties;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Keeps the templates loaded by {@link TemplateLoader}, keyed by their source, so that a template
+ * and its parents are not fetched again every time a pipeline using them is planned.
+ *
+ * <p>The source of a template identifies its version, e.g. a Front50 template id and tag or the
+ * URL of a file. Callers modify the templates they load, so each gets its own copy. Failed loads
+ * are not cached.
+ *
+ * <p>Lookups are counted by {@code pipelineTemplates.cache.requests}, tagged {@code cache} {@code
+ * templates} and {@code result} {@code hit} or {@code miss}.
+ */
+public class TemplateSourceCache {
+
+  private final Cache<String, Map<String, Object>> cache;
+  private final Counter hits;
+  private final Counter misses;
+
+  public TemplateSourceCache(
+      Registry registry, PipelineTemplateCacheProperties.Templates properties) {
+    this.cache =
+        Caffeine.newBuilder()
+            .expireAfterWrite(properties.getTtl())
+            .maximumSize(properties.getMaximumSize())
+            .build();
+
+    Id requestsId = registry.createId("pipelineTemplates.cache.requests", "cache", "templates");
+    this.hits = registry.counter(requestsId.withTag("result", "hit"));
+    this.misses = registry.counter(requestsId.withTag("result", "miss"));
+
+    PolledMeter.using(registry)
+        .withName("pipelineTemplates.cache.size")
+        .withTag("cache", "templates")
+        .monitorValue(cache, it -> (double) it.estimatedSize());
+  }
+
+  /**
+   * @return a copy of the template loaded from {@code source}, calling {@code loader} if it is not
+   *     cached
+   */
+  public Map<String, Object> get(String source, Function<String, Map<String, Object>> loader) {
+    Map<String, Object> template = cache.getIfPresent(source);
+    if (template != null) {
+      hits.increment();
+    } else {
+      misses.increment();
+      template = loader.apply(source);
+      if (template == null) {
+        return null;
+      }
+      cache.put(source, copy(template));
+      return template;
+    }
+    return copy(template);
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <T> T copy(T value) {
+    if (value instanceof Map) {
+      Map<Object, Object> copy = new LinkedHashMap<>();
+      ((Map<Object, Object>) value).forEach((k, v) -> copy.put(k, copy(v)));
+      return (T) copy;
+    }
+    if (value instanceof List) {
+      List<Object> copy = new ArrayList<>();
+      ((List<Object>) value).forEach(v -> copy.add(copy(v)));
+      return (T) copy;
+    }
+    return value;
+  }
+}
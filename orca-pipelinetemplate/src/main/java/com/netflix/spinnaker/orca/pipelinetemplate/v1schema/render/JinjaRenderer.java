@@ -18,6 +18,7 @@ package com.netflix.spinnaker.orca.pipelinetemplate.v1schema.render;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.hubspot.jinjava.Jinjava;
 import com.hubspot.jinjava.JinjavaConfig;
+import com.hubspot.jinjava.interpret.Context;
 import com.hubspot.jinjava.interpret.Context.Library;
 import com.hubspot.jinjava.interpret.FatalTemplateErrorsException;
 import com.hubspot.jinjava.interpret.InterpretException;
@@ -26,12 +27,14 @@ import com.hubspot.jinjava.interpret.TemplateError;
 import com.hubspot.jinjava.interpret.TemplateError.ErrorItem;
 import com.hubspot.jinjava.interpret.TemplateError.ErrorReason;
 import com.hubspot.jinjava.interpret.TemplateError.ErrorType;
+import com.hubspot.jinjava.interpret.TemplateSyntaxException;
 import com.hubspot.jinjava.interpret.errorcategory.BasicTemplateErrorCategory;
 import com.hubspot.jinjava.lib.tag.Tag;
 import com.hubspot.jinjava.loader.ResourceLocator;
 import com.netflix.spinnaker.orca.front50.Front50Service;
 import com.netflix.spinnaker.orca.pipelinetemplate.exceptions.TemplateRenderException;
 import com.netflix.spinnaker.orca.pipelinetemplate.v1schema.render.filters.*;
+import com.netflix.spinnaker.orca.pipelinetemplate.v1schema.render.tags.Front50TagLookups;
 import com.netflix.spinnaker.orca.pipelinetemplate.v1schema.render.tags.ModuleTag;
 import com.netflix.spinnaker.orca.pipelinetemplate.v1schema.render.tags.PipelineIdTag;
 import com.netflix.spinnaker.orca.pipelinetemplate.v1schema.render.tags.StrategyIdTag;
@@ -44,12 +47,15 @@ import java.util.*;
 import java.util.function.Predicate;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
+import javax.annotation.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.yaml.snakeyaml.parser.ParserException;
 
 public class JinjaRenderer implements Renderer {
 
+  private static final Pattern JINJA_MARKUP = Pattern.compile("\\{[{%#]");
+
   private final Logger log = LoggerFactory.getLogger(getClass());
 
   private Jinjava jinja;
@@ -61,6 +67,8 @@ public class JinjaRenderer implements Renderer {
 
   private RenderedValueConverter renderedValueConverter;
 
+  @Nullable private TemplateTreeCache templateTreeCache;
+
   public JinjaRenderer(
       ObjectMapper pipelineTemplateObjectMapper,
       Front50Service front50Service,
@@ -77,6 +85,27 @@ public class JinjaRenderer implements Renderer {
       ObjectMapper pipelineTemplateObjectMapper,
       Front50Service front50Service,
       List<Tag> jinjaTags) {
+    this(
+        renderedValueConverter,
+        pipelineTemplateObjectMapper,
+        front50Service,
+        jinjaTags,
+        null,
+        null);
+  }
+
+  /**
+   * @param templateTreeCache if set, templates are parsed once and their node trees reused
+   * @param front50TagLookups if set, the Front50 lookups of the {@code pipelineId} and {@code
+   *     strategyId} tags are shared between the tags of a plan
+   */
+  public JinjaRenderer(
+      RenderedValueConverter renderedValueConverter,
+      ObjectMapper pipelineTemplateObjectMapper,
+      Front50Service front50Service,
+      List<Tag> jinjaTags,
+      @Nullable TemplateTreeCache templateTreeCache,
+      @Nullable Front50TagLookups front50TagLookups) {
     if (front50Service == null) {
       log.error(
           "Pipeline templates require front50 to enabled. Set 'front50.enabled: true' in your orca config.");
@@ -84,10 +113,14 @@ public class JinjaRenderer implements Renderer {
     }
 
     this.renderedValueConverter = renderedValueConverter;
+    this.templateTreeCache = templateTreeCache;
 
-    jinja = createJinjaRenderer(true, pipelineTemplateObjectMapper, front50Service, jinjaTags);
+    jinja =
+        createJinjaRenderer(
+            true, pipelineTemplateObjectMapper, front50Service, front50TagLookups, jinjaTags);
     nullableJinja =
-        createJinjaRenderer(false, pipelineTemplateObjectMapper, front50Service, jinjaTags);
+        createJinjaRenderer(
+            false, pipelineTemplateObjectMapper, front50Service, front50TagLookups, jinjaTags);
 
     log.info("PipelineTemplates: Using JinjaRenderer");
   }
@@ -96,12 +129,13 @@ public class JinjaRenderer implements Renderer {
       boolean failOnUnknownTokens,
       ObjectMapper pipelineTemplateObjectMapper,
       Front50Service front50Service,
+      @Nullable Front50TagLookups front50TagLookups,
       List<Tag> jinjaTags) {
     Jinjava jinja = new Jinjava(buildJinjavaConfig(failOnUnknownTokens));
     jinja.setResourceLocator(new NoopResourceLocator());
     jinja.getGlobalContext().registerTag(new ModuleTag(this, pipelineTemplateObjectMapper));
-    jinja.getGlobalContext().registerTag(new PipelineIdTag(front50Service));
-    jinja.getGlobalContext().registerTag(new StrategyIdTag(front50Service));
+    jinja.getGlobalContext().registerTag(new PipelineIdTag(front50Service, front50TagLookups));
+    jinja.getGlobalContext().registerTag(new StrategyIdTag(front50Service, front50TagLookups));
     if (jinjaTags != null) {
       jinjaTags.forEach(tag -> jinja.getGlobalContext().registerTag(tag));
     }
@@ -118,7 +152,7 @@ public class JinjaRenderer implements Renderer {
   public String render(String template, RenderContext context) {
     String rendered;
     try {
-      rendered = jinja.render(template, context.getVariables());
+      rendered = render(jinja, template, context.getVariables());
     } catch (FatalTemplateErrorsException fte) {
       List<TemplateError> templateErrors = (List<TemplateError>) fte.getErrors();
 
@@ -140,7 +174,7 @@ public class JinjaRenderer implements Renderer {
       if (contextVariables.keySet().stream().anyMatch(nullableUnknownToken)) {
         log.debug(
             "Nullable variable referenced in template '{}'. Rendering template with unknown token tolerant Jinja renderer.");
-        rendered = nullableJinja.render(template, context.getVariables());
+        rendered = render(nullableJinja, template, context.getVariables());
       } else {
         log.error("Failed rendering jinja template", fte);
         throw new TemplateRenderException(
@@ -184,6 +218,45 @@ public class JinjaRenderer implements Renderer {
     }
   }
 
+  private String render(Jinjava jinjava, String template, Map<String, Object> bindings) {
+    if (templateTreeCache == null) {
+      return jinjava.render(template, bindings);
+    }
+    if (!JINJA_MARKUP.matcher(template).find()) {
+      // rendering plain text leaves it as it is
+      return template;
+    }
+
+    // renders the cached node tree the same way Jinjava#render renders a template
+    JinjavaConfig config = jinjava.getGlobalConfig();
+    Context context = new Context(jinjava.getGlobalContext(), bindings, config.getDisabled());
+    JinjavaInterpreter interpreter = new JinjavaInterpreter(jinjava, context, config);
+    JinjavaInterpreter.pushCurrent(interpreter);
+    try {
+      String output;
+      try {
+        output = interpreter.render(templateTreeCache.get(template, interpreter));
+      } catch (TemplateSyntaxException e) {
+        throw new FatalTemplateErrorsException(
+            template, Collections.singletonList(TemplateError.fromException(e)));
+      } catch (InterpretException e) {
+        throw new FatalTemplateErrorsException(
+            template, Collections.singletonList(TemplateError.fromSyntaxError(e)));
+      }
+
+      List<TemplateError> fatalErrors =
+          interpreter.getErrorsCopy().stream()
+              .filter(error -> error.getSeverity() == ErrorType.FATAL)
+              .collect(Collectors.toList());
+      if (!fatalErrors.isEmpty()) {
+        throw new FatalTemplateErrorsException(template, fatalErrors);
+      }
+      return output;
+    } finally {
+      JinjavaInterpreter.popCurrent();
+    }
+  }
+
   private static class NoopResourceLocator implements ResourceLocator {
     @Override
     public String getString(String fullName, Charset encoding, JinjavaInterpreter interpreter)
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.spinnaker.orca.pipelinetemplate.v1schema.render;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.hubspot.jinjava.interpret.JinjavaInterpreter;
+import com.hubspot.jinjava.tree.Node;
+import com.netflix.spectator.api.Counter;
+import com.netflix.spectator.api.Id;
+import com.netflix.spectator.api.Registry;
+import com.netflix.spectator.api.patterns.PolledMeter;
+import com.netflix.spinnaker.orca.config.PipelineTemplateCacheProperties;
+
+/**
+ * Keeps the node trees Jinjava parses templates into, so that a template rendered for every stage
+ * of every plan is only parsed once.
+ *
+ * <p>Jinjava renders a node tree without modifying it, so trees are shared between renders and
+ * threads. A template that fails to parse is never cached, so its errors are reported every time
+ * it is rendered.
+ *
+ * <p>Lookups are counted by {@code pipelineTemplates.cache.requests}, tagged {@code cache} {@code
+ * renderTrees} and {@code result} {@code hit} or {@code miss}.
+ */
+public class TemplateTreeCache {
+
+  private final Cache<String, Node> cache;
+  private final Counter hits;
+  private final Counter misses;
+
+  public TemplateTreeCache(
+      Registry registry, PipelineTemplateCacheProperties.RenderTrees properties) {
+    this.cache = Caffeine.newBuilder().maximumSize(properties.getMaximumSize()).build();
+
+    Id requestsId = registry.createId("pipelineTemplates.cache.requests", "cache", "renderTrees");
+    this.hits = registry.counter(requestsId.withTag("result", "hit"));
+    this.misses = registry.counter(requestsId.withTag("result", "miss"));
+
+    PolledMeter.using(registry)
+        .withName("pipelineTemplates.cache.size")
+        .withTag("cache", "renderTrees")
+        .monitorValue(cache, it -> (double) it.estimatedSize());
+  }
+
+  /**
+   * @return the node tree of {@code template}, parsing it with {@code interpreter} if it is not
+   *     cached, in which case any parse errors are left on the interpreter
+   */
+  public Node get(String template, JinjavaInterpreter interpreter) {
+    Node root = cache.getIfPresent(template);
+    if (root != null) {
+      hits.increment();
+      return root;
+    }
+
+    misses.increment();
+    int errors = interpreter.getErrorsCopy().size();
+    root = interpreter.parse(template);
+    if (interpreter.getErrorsCopy().size() == errors) {
+      cache.put(template, root);
+    }
+    return root;
+  }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.spinnaker.orca.pipelinetemplate.v1schema.render.tags;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.netflix.spectator.api.Counter;
+import com.netflix.spectator.api.Id;
+import com.netflix.spectator.api.Registry;
+import com.netflix.spinnaker.orca.config.PipelineTemplateCacheProperties;
+import com.netflix.spinnaker.security.AuthenticatedRequest;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * A short lived memo of the Front50 lookups made by {@link PipelineIdTag} and {@link
+ * StrategyIdTag}, so that a template referring to many pipelines of an application looks them up
+ * once rather than once per reference.
+ *
+ * <p>Lookups are keyed by the user they are made for as well as the application, as Front50
+ * filters what it returns by user. Failed lookups are not cached.
+ *
+ * <p>Lookups are counted by {@code pipelineTemplates.cache.requests}, tagged {@code cache} {@code
+ * front50Lookups} and {@code result} {@code hit} or {@code miss}.
+ */
+public class Front50TagLookups {
+
+  private final Cache<Key, List<Map<String, Object>>> cache;
+  private final Counter hits;
+  private final Counter misses;
+
+  public Front50TagLookups(
+      Registry registry, PipelineTemplateCacheProperties.Front50Lookups properties) {
+    this.cache =
+        Caffeine.newBuilder()
+            .expireAfterWrite(properties.getTtl())
+            .maximumSize(properties.getMaximumSize())
+            .build();
+
+    Id requestsId =
+        registry.createId("pipelineTemplates.cache.requests", "cache", "front50Lookups");
+    this.hits = registry.counter(requestsId.withTag("result", "hit"));
+    this.misses = registry.counter(requestsId.withTag("result", "miss"));
+  }
+
+  public List<Map<String, Object>> getPipelines(
+      String application, Supplier<List<Map<String, Object>>> lookup) {
+    return get(new Key("pipelines", application), lookup);
+  }
+
+  public List<Map<String, Object>> getStrategies(
+      String application, Supplier<List<Map<String, Object>>> lookup) {
+    return get(new Key("strategies", application), lookup);
+  }
+
+  private List<Map<String, Object>> get(Key key, Supplier<List<Map<String, Object>>> lookup) {
+    List<Map<String, Object>> result = cache.getIfPresent(key);
+    if (result != null) {
+      hits.increment();
+      return result;
+    }
+
+    misses.increment();
+    result = lookup.get();
+    cache.put(key, result);
+    return result;
+  }
+
+  private static class Key {
+    final String type;
+    final String application;
+    final String user;
+
+    Key(String type, String application) {
+      this.type = type;
+      this.application = application;
+      this.user = AuthenticatedRequest.getSpinnakerUser().orElse(null);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof Key)) {
+        return false;
+      }
+      Key other = (Key) o;
+      return type.equals(other.type)
+          && application.equals(other.application)
+          && Objects.equals(user, other.user);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(type, application, user);
+    }
+  }
+}
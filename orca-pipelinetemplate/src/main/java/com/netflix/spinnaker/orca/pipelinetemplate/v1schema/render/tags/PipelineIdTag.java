@@ -32,6 +32,8 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.function.Supplier;
+import javax.annotation.Nullable;
 
 public class PipelineIdTag implements Tag {
   private static final String APPLICATION = "application";
@@ -39,9 +41,15 @@ public class PipelineIdTag implements Tag {
   private static final Splitter ON_EQUALS = Splitter.on("=");
 
   private final Front50Service front50Service;
+  @Nullable private final Front50TagLookups lookups;
 
   public PipelineIdTag(Front50Service front50Service) {
+    this(front50Service, null);
+  }
+
+  public PipelineIdTag(Front50Service front50Service, @Nullable Front50TagLookups lookups) {
     this.front50Service = front50Service;
+    this.lookups = lookups;
   }
 
   @Override
@@ -81,11 +89,14 @@ public class PipelineIdTag implements Tag {
     name = checkContext(name, context);
 
     final String appName = application;
+    Supplier<List<Map<String, Object>>> lookup =
+        () ->
+            AuthenticatedRequest.allowAnonymous(
+                () ->
+                    Optional.ofNullable(front50Service.getPipelines(appName, false))
+                        .orElse(Collections.emptyList()));
     List<Map<String, Object>> pipelines =
-        AuthenticatedRequest.allowAnonymous(
-            () ->
-                Optional.ofNullable(front50Service.getPipelines(appName, false))
-                    .orElse(Collections.emptyList()));
+        lookups == null ? lookup.get() : lookups.getPipelines(application, lookup);
     Map<String, Object> result = findPipeline(pipelines, application, name);
     return (String) result.get("id");
   }
@@ -27,6 +27,8 @@ import com.netflix.spinnaker.orca.front50.Front50Service;
 import com.netflix.spinnaker.orca.pipelinetemplate.exceptions.TemplateRenderException;
 import com.netflix.spinnaker.orca.pipelinetemplate.validator.Errors;
 import java.util.*;
+import java.util.function.Supplier;
+import javax.annotation.Nullable;
 
 public class StrategyIdTag implements Tag {
   private static final Splitter ON_EQUALS = Splitter.on("=");
@@ -34,9 +36,15 @@ public class StrategyIdTag implements Tag {
   private static final String NAME = "name";
 
   private final Front50Service front50Service;
+  @Nullable private final Front50TagLookups lookups;
 
   public StrategyIdTag(Front50Service front50Service) {
+    this(front50Service, null);
+  }
+
+  public StrategyIdTag(Front50Service front50Service, @Nullable Front50TagLookups lookups) {
     this.front50Service = front50Service;
+    this.lookups = lookups;
   }
 
   @Override
@@ -85,9 +93,13 @@ public class StrategyIdTag implements Tag {
     String name = paramPairs.get(NAME).replaceAll("^[\"\']|[\"\']$", "");
     name = checkContext(name, context);
 
+    final String appName = application;
+    Supplier<List<Map<String, Object>>> lookup =
+        () ->
+            Optional.ofNullable(front50Service.getStrategies(appName))
+                .orElse(Collections.emptyList());
     List<Map<String, Object>> strategies =
-        Optional.ofNullable(front50Service.getStrategies(application))
-            .orElse(Collections.emptyList());
+        lookups == null ? lookup.get() : lookups.getStrategies(application, lookup);
     Map<String, Object> result = findStrategy(strategies, application, name);
     return (String) result.get("id");
   }
@@ -17,6 +17,8 @@
 package com.netflix.spinnaker.orca.pipelinetemplate.loader
 
 import com.fasterxml.jackson.databind.ObjectMapper
+import com.netflix.spectator.api.NoopRegistry
+import com.netflix.spinnaker.orca.config.PipelineTemplateCacheProperties
 import com.netflix.spinnaker.orca.front50.Front50Service
 import com.netflix.spinnaker.orca.pipelinetemplate.exceptions.TemplateLoaderException
 import com.netflix.spinnaker.orca.pipelinetemplate.v1schema.model.TemplateConfiguration
@@ -82,4 +84,26 @@ class TemplateLoaderSpec extends Specification {
     def e = thrown(TemplateLoaderException)
     e.message == "Invalid URI '::'"
   }
+
+  void "should not load cached templates again"() {
+    given:
+    def cachingTemplateLoader = new TemplateLoader(
+      [schemeLoader],
+      objectMapper,
+      renderer,
+      Optional.of(new TemplateSourceCache(new NoopRegistry(), new PipelineTemplateCacheProperties.Templates()))
+    )
+
+    when:
+    cachingTemplateLoader.load(new TemplateConfiguration.TemplateSource(source: "template1.json"), null, null)
+    def second = cachingTemplateLoader.load(new TemplateConfiguration.TemplateSource(source: "template1.json"), null, null)
+
+    then:
+    second*.id == ["2", "1"]
+
+    1 * schemeLoader.load(new URI("template1.json")) >> [id: "1", source: "template2.json"]
+    1 * schemeLoader.load(new URI("template2.json")) >> [id: "2", source: null]
+    _ * schemeLoader.supports(_) >> { return true }
+    0 * _
+  }
 }
@@ -16,6 +16,8 @@
 package com.netflix.spinnaker.orca.pipelinetemplate.v1schema.render
 
 import com.fasterxml.jackson.databind.ObjectMapper
+import com.netflix.spectator.api.NoopRegistry
+import com.netflix.spinnaker.orca.config.PipelineTemplateCacheProperties
 import com.netflix.spinnaker.orca.front50.Front50Service
 import com.netflix.spinnaker.orca.pipelinetemplate.exceptions.TemplateRenderException
 import com.netflix.spinnaker.orca.pipelinetemplate.v1schema.model.PipelineTemplate
@@ -134,4 +136,54 @@ class JinjaRendererSpec extends Specification {
     TemplateRenderException tre = thrown()
     tre.message == 'failed rendering jinja template'
   }
+
+  @Unroll
+  def 'should render the same with parsed templates cached'() {
+    given:
+    Renderer cachingRenderer = new JinjaRenderer(
+      renderedValueConverter,
+      objectMapper,
+      Mock(Front50Service),
+      [],
+      new TemplateTreeCache(new NoopRegistry(), new PipelineTemplateCacheProperties.RenderTrees()),
+      null
+    )
+    RenderContext context = new DefaultRenderContext('myApp', new PipelineTemplate(), [job: 'job']).with {
+      variables.put('stringVar', 'myStringValue')
+      variables.put('regions', ['us-east-1', 'us-west-2'])
+      it
+    }
+
+    expect:
+    cachingRenderer.renderGraph(template, context) == subject.renderGraph(template, context)
+    cachingRenderer.renderGraph(template, context) == subject.renderGraph(template, context)
+
+    where:
+    template << [
+      '{{ stringVar }}',
+      '{% for region in regions %}- {{ region }}\n{% endfor %}',
+      '{{ trigger.job }}',
+      '* markdown list',
+      ''
+    ]
+  }
+
+  def 'should throw exception on missing variable values with parsed templates cached'() {
+    given:
+    Renderer cachingRenderer = new JinjaRenderer(
+      renderedValueConverter,
+      objectMapper,
+      Mock(Front50Service),
+      [],
+      new TemplateTreeCache(new NoopRegistry(), new PipelineTemplateCacheProperties.RenderTrees()),
+      null
+    )
+
+    when:
+    cachingRenderer.renderGraph('{{ missingVar }}', new DefaultRenderContext('myApp', new PipelineTemplate(), [:]))
+
+    then:
+    TemplateRenderException tre = thrown()
+    tre.message == 'failed rendering jinja template'
+  }
 }
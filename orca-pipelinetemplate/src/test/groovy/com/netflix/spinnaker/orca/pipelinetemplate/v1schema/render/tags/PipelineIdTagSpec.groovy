@@ -17,12 +17,15 @@
 package com.netflix.spinnaker.orca.pipelinetemplate.v1schema.render.tags
 
 import com.fasterxml.jackson.databind.ObjectMapper
+import com.netflix.spectator.api.NoopRegistry
+import com.netflix.spinnaker.orca.config.PipelineTemplateCacheProperties
 import com.netflix.spinnaker.orca.front50.Front50Service
 import com.netflix.spinnaker.orca.pipelinetemplate.exceptions.TemplateRenderException
 import com.netflix.spinnaker.orca.pipelinetemplate.v1schema.render.DefaultRenderContext
 import com.netflix.spinnaker.orca.pipelinetemplate.v1schema.render.JinjaRenderer
 import com.netflix.spinnaker.orca.pipelinetemplate.v1schema.render.RenderContext
 import com.netflix.spinnaker.orca.pipelinetemplate.v1schema.render.Renderer
+import com.netflix.spinnaker.orca.pipelinetemplate.v1schema.render.YamlRenderedValueConverter
 import spock.lang.Specification
 import spock.lang.Subject
 import spock.lang.Unroll
@@ -134,4 +137,39 @@ class PipelineIdTagSpec extends Specification {
     1 * front50Service.getPipelines(applicationInContext, false) >>  []
     thrown(TemplateRenderException)
   }
+
+  def 'should share front50 lookups between tags'() {
+    given:
+    Renderer cachingRenderer = new JinjaRenderer(
+      new YamlRenderedValueConverter(),
+      objectMapper,
+      front50Service,
+      [],
+      null,
+      new Front50TagLookups(new NoopRegistry(), new PipelineTemplateCacheProperties.Front50Lookups())
+    )
+    def context = new DefaultRenderContext('myApp', null, [:])
+
+    when:
+    def first = cachingRenderer.render('{% pipelineId name="Bake and Tag" %}', context)
+    def second = cachingRenderer.render('{% pipelineId name="Important pipeline" %}', context)
+
+    then:
+    first == '9595429f-afa0-4c34-852b-01a9a01967f9'
+    second == '1685429e-beb1-4d35-963c-02b9a01977e1'
+    1 * front50Service.getPipelines('myApp', false) >> [
+      [
+        name: 'Bake and Tag',
+        application: 'myApp',
+        id: '9595429f-afa0-4c34-852b-01a9a01967f9',
+        stages: []
+      ],
+      [
+        name: 'Important pipeline',
+        application: 'myApp',
+        id: '1685429e-beb1-4d35-963c-02b9a01977e1',
+        stages: []
+      ]
+    ]
+  }
 }
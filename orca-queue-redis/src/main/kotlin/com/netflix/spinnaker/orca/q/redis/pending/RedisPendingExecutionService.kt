@@ -21,6 +21,8 @@ import com.fasterxml.jackson.module.kotlin.readValue
 import com.netflix.spinnaker.orca.q.pending.PendingExecutionService
 import com.netflix.spinnaker.q.Message
 import redis.clients.jedis.Jedis
+import redis.clients.jedis.Response
+import redis.clients.jedis.Transaction
 import redis.clients.jedis.util.Pool
 
 class RedisPendingExecutionService(
@@ -47,13 +49,37 @@ class RedisPendingExecutionService(
         ?.let { mapper.readValue(it) }
     }
 
-  override fun purge(pipelineConfigId: String, callback: (Message) -> Unit) {
+  override fun popOldest(pipelineConfigId: String, count: Int): List<Message> {
+    if (count <= 0) {
+      return emptyList()
+    }
+
+    // the oldest messages are at the tail of the list
+    return popAll(pipelineConfigId) { key ->
+      lrange(key, -count.toLong(), -1)
+        .also { ltrim(key, 0, -count.toLong() - 1) }
+    }
+  }
+
+  override fun purge(pipelineConfigId: String): List<Message> =
+    popAll(pipelineConfigId) { key ->
+      lrange(key, 0, -1)
+        .also { del(key) }
+    }
+
+  /**
+   * Reads and removes a range of messages in one transaction.
+   *
+   * @return the messages in the range, oldest first.
+   */
+  private fun popAll(pipelineConfigId: String, block: Transaction.(String) -> Response<List<String>>): List<Message> =
     pool.resource.use { redis ->
-      while (redis.llen(listName(pipelineConfigId)) > 0L) {
-        popOldest(pipelineConfigId)?.let(callback)
+      val popped = redis.multi().use { tx ->
+        tx.block(listName(pipelineConfigId))
+          .also { tx.exec() }
       }
+      popped.get().asReversed().map { mapper.readValue<Message>(it) }
     }
-  }
 
   override fun depth(pipelineConfigId: String): Int =
     pool.resource.use { redis ->
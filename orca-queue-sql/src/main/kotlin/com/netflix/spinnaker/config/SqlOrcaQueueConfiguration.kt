@@ -22,8 +22,10 @@ import com.fasterxml.jackson.databind.module.SimpleModule
 import com.fasterxml.jackson.module.kotlin.KotlinModule
 import com.netflix.spinnaker.orca.TaskResolver
 import com.netflix.spinnaker.orca.api.pipeline.models.ExecutionType
+import com.netflix.spinnaker.orca.q.ExecutionLevel
 import com.netflix.spinnaker.orca.q.migration.ExecutionTypeDeserializer
 import com.netflix.spinnaker.orca.q.migration.TaskTypeDeserializer
+import com.netflix.spinnaker.q.Message
 import com.netflix.spinnaker.q.metrics.EventPublisher
 import com.netflix.spinnaker.q.migration.SerializationMigrator
 import com.netflix.spinnaker.q.sql.SqlDeadMessageHandler
@@ -32,6 +34,7 @@ import java.time.Clock
 import java.util.Optional
 import org.jooq.DSLContext
 import org.springframework.beans.factory.annotation.Autowired
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty
 import org.springframework.boot.context.properties.EnableConfigurationProperties
 import org.springframework.context.annotation.Bean
@@ -71,6 +74,7 @@ class SqlOrcaQueueConfiguration : SqlQueueConfiguration() {
   }
 
   @Bean
+  @ConditionalOnExpression("\${keiko.queue.sql.shards:1} <= 1")
   override fun queue(
     jooq: DSLContext,
     clock: Clock,
@@ -91,6 +95,13 @@ class SqlOrcaQueueConfiguration : SqlQueueConfiguration() {
       ackTimeout = properties.ackTimeout,
       deadMessageHandlers = listOf(deadMessageHandler),
       publisher = publisher,
-      sqlRetryProperties = properties.retries
+      sqlRetryProperties = properties.retries,
+      pollStrategy = properties.pollStrategy
     )
+
+  /**
+   * Keeps every message of an execution on the same shard.
+   */
+  override fun shardKey(message: Message): String? =
+    (message as? ExecutionLevel)?.executionId
 }
@@ -41,7 +41,11 @@ const val SOURCE_POOL_NAME_PROPERTY = "queue.shovel.source-pool-name"
 @Configuration
 @EnableConfigurationProperties(SqlQueueProperties::class)
 @ConditionalOnProperty(value = ["queue.shovel.enabled"])
-class SqlQueueShovelConfiguration {
+class SqlQueueShovelConfiguration(sqlQueueProperties: SqlQueueProperties) {
+
+  init {
+    checkUnsharded(sqlQueueProperties)
+  }
 
   @Bean(name = ["previousSqlQueue"])
   @ConditionalOnProperty(value = ["queue.shovel.kind"], havingValue = "sql-to-sql")
@@ -67,7 +71,8 @@ class SqlQueueShovelConfiguration {
       deadMessageHandlers = listOf(deadMessageHandler),
       publisher = publisher,
       sqlRetryProperties = properties.retries,
-      poolName = poolName
+      poolName = poolName,
+      pollStrategy = properties.pollStrategy
     )
 
   @Bean
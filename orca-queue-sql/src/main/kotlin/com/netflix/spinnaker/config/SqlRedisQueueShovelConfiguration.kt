@@ -44,7 +44,11 @@ import redis.clients.jedis.JedisCluster
 @Configuration
 @EnableConfigurationProperties(RedisQueueProperties::class, SqlQueueProperties::class)
 @ConditionalOnProperty(value = ["queue.shovel.enabled"])
-class SqlRedisQueueShovelConfiguration {
+class SqlRedisQueueShovelConfiguration(sqlQueueProperties: SqlQueueProperties) {
+
+  init {
+    checkUnsharded(sqlQueueProperties)
+  }
 
   @Bean
   @ConditionalOnBean(SqlQueue::class)
@@ -170,3 +174,13 @@ class SqlRedisQueueShovelConfiguration {
     )
   }
 }
+
+/**
+ * The shovels move messages to or from a single [SqlQueue], so with more than one
+ * shard they would not be created at all, or would only see the first shard.
+ */
+internal fun checkUnsharded(sqlQueueProperties: SqlQueueProperties) {
+  check(sqlQueueProperties.shards <= 1) {
+    "Queue shovels do not support a sharded SQL queue (keiko.queue.sql.shards=${sqlQueueProperties.shards})"
+  }
+}
@@ -20,6 +20,7 @@ import java.time.Clock
 import java.time.Duration
 import java.util.concurrent.TimeUnit
 import org.jooq.DSLContext
+import org.jooq.SQLDialect
 import org.jooq.SortField
 import org.jooq.SortOrder
 import org.jooq.impl.DSL
@@ -45,6 +46,9 @@ class SqlPendingExecutionService(
     private val messageField = DSL.field("message")
     private val shardField = DSL.field("shard")
 
+    private val depthTable = DSL.table("pending_execution_depths")
+    private val depthField = DSL.field("depth", Int::class.java)
+
     private val retrySupport = RetrySupport()
     private val log: Logger = LoggerFactory.getLogger(SqlPendingExecutionService::class.java)
   }
@@ -59,6 +63,11 @@ class SqlPendingExecutionService(
     shardField.eq(shard)
   }
 
+  // the depths table has the shard in its primary key, so it can't be null there
+  private val depthShard = if (shard.isNullOrBlank()) "" else shard
+
+  private val depthCondition = shardField.eq(depthShard)
+
   override fun enqueue(pipelineConfigId: String, message: Message) {
     PercentileTimer.get(registry, enqueueId)
       .record {
@@ -68,7 +77,11 @@ class SqlPendingExecutionService(
 
   private fun doEnqueue(pipelineConfigId: String, message: Message) {
     try {
-      val queued = depth(pipelineConfigId)
+      var queued = depth(pipelineConfigId)
+      if (queued >= maxDepth) {
+        // act on the messages actually pending, in case the depth has drifted from them
+        queued = recountDepth(pipelineConfigId)
+      }
       if (queued >= maxDepth) {
         /**
          * If dropping a StartExecution message, actively cancel the execution so it won't be left in
@@ -102,10 +115,15 @@ class SqlPendingExecutionService(
       }
 
       withRetry {
-        jooq.insertInto(pendingTable)
-          .columns(idField, configField, shardField, messageField)
-          .values(ULID().nextValue().toString(), pipelineConfigId, shard, mapper.writeValueAsString(message))
-          .execute()
+        jooq.transaction { configuration ->
+          val txn = DSL.using(configuration)
+          txn.insertInto(pendingTable)
+            .columns(idField, configField, shardField, messageField)
+            .values(ULID().nextValue().toString(), pipelineConfigId, shard, mapper.writeValueAsString(message))
+            .execute()
+
+          adjustDepth(txn, pipelineConfigId, 1)
+        }
       }
     } catch (e: Exception) {
       log.error("Failed to enqueue pending execution for pipeline $pipelineConfigId")
@@ -133,29 +151,66 @@ class SqlPendingExecutionService(
     return message
   }
 
-  private fun pop(pipelineConfigId: String, sortField: SortField<Any>): Message? {
+  override fun popOldest(pipelineConfigId: String, count: Int): List<Message> {
+    val start = clock.millis()
+    val messages = pop(pipelineConfigId, idField.asc(), count)
+
+    PercentileTimer.get(registry, popId.withTag("purge", "false"))
+      .record(clock.millis() - start, TimeUnit.MILLISECONDS)
+
+    return messages
+  }
+
+  override fun purge(pipelineConfigId: String): List<Message> {
+    val start = clock.millis()
+    val messages = pop(pipelineConfigId, idField.asc(), null)
+
+    PercentileTimer.get(registry, popId.withTag("purge", "true"))
+      .record(clock.millis() - start, TimeUnit.MILLISECONDS)
+
+    return messages
+  }
+
+  private fun pop(pipelineConfigId: String, sortField: SortField<Any>): Message? =
+    pop(pipelineConfigId, sortField, 1).firstOrNull()
+
+  /**
+   * Removes up to [limit] messages, or all of them if [limit] is `null`, in a single
+   * transaction: one select of the rows to remove and one delete of all of them.
+   */
+  private fun pop(pipelineConfigId: String, sortField: SortField<Any>, limit: Int?): List<Message> {
+    if (limit != null && limit <= 0) {
+      return emptyList()
+    }
+
     try {
       return withRetry {
         jooq.transactionResult { configuration ->
           val txn = DSL.using(configuration)
-          txn.select(idField, messageField)
+          val select = txn.select(idField, messageField)
             .from(pendingTable)
             .where(
               configField.eq(pipelineConfigId),
               shardCondition
             )
             .orderBy(sortField)
-            .limit(1)
+          val containers = (if (limit == null) select else select.limit(limit))
             .forUpdate()
-            .fetchOne()
-            ?.into(MessageContainer::class.java)
-            ?.let {
-              txn.deleteFrom(pendingTable)
-                .where(idField.eq(it.id))
-                .execute()
-
-              return@transactionResult mapper.readValue(it.message, Message::class.java)
-            }
+            .fetchInto(MessageContainer::class.java)
+
+          if (containers.isEmpty()) {
+            // nothing is pending, whatever the depth says
+            setDepth(txn, pipelineConfigId, 0)
+            return@transactionResult emptyList<Message>()
+          }
+
+          txn.deleteFrom(pendingTable)
+            .where(idField.`in`(containers.map { it.id }))
+            .execute()
+
+          adjustDepth(txn, pipelineConfigId, -containers.size)
+
+          containers.map { mapper.readValue(it.message, Message::class.java) }
         }
       }
     } catch (e: Exception) {
@@ -165,31 +220,117 @@ class SqlPendingExecutionService(
         e
       )
 
-      val purge = (sortField.order == SortOrder.DESC)
+      val purge = (sortField.order == SortOrder.DESC || limit == null)
       queue.push(StartWaitingExecutions(pipelineConfigId, purge), Duration.ofSeconds(10))
 
-      return null
+      return emptyList()
     }
   }
 
-  override fun purge(pipelineConfigId: String, callback: (Message) -> Unit) {
-    do {
-      val oldest = popOldest(pipelineConfigId)
-      oldest?.let(callback)
-    } while (oldest != null)
-  }
-
+  /**
+   * Reads the depth kept in the depths table, counting the pending messages only if there
+   * is no depth for the pipeline yet.
+   */
   override fun depth(pipelineConfigId: String): Int =
     withRetry {
-      jooq.selectCount()
-        .from(pendingTable)
+      val depth = jooq.select(depthField)
+        .from(depthTable)
         .where(
           configField.eq(pipelineConfigId),
-          shardCondition
+          depthCondition
         )
-        .fetchSingle(0, Int::class.java) ?: 0
+        .fetchOne(depthField)
+
+      depth?.coerceAtLeast(0) ?: countPending(jooq, pipelineConfigId)
+    }
+
+  /**
+   * Counts the pending messages of a pipeline and replaces its depth with the count.
+   *
+   * The depth is locked before counting, so a concurrent change of the messages either is
+   * counted or adjusts the depth after it has been replaced.
+   */
+  private fun recountDepth(pipelineConfigId: String): Int =
+    withRetry {
+      jooq.transactionResult { configuration ->
+        val txn = DSL.using(configuration)
+        txn.select(depthField)
+          .from(depthTable)
+          .where(
+            configField.eq(pipelineConfigId),
+            depthCondition
+          )
+          .forUpdate()
+          .fetch()
+
+        countPending(txn, pipelineConfigId).also { setDepth(txn, pipelineConfigId, it) }
+      }
+    }
+
+  private fun setDepth(txn: DSLContext, pipelineConfigId: String, depth: Int) {
+    txn.update(depthTable)
+      .set(depthField, depth)
+      .where(
+        configField.eq(pipelineConfigId),
+        depthCondition
+      )
+      .execute()
+  }
+
+  private fun countPending(ctx: DSLContext, pipelineConfigId: String): Int =
+    ctx.selectCount()
+      .from(pendingTable)
+      .where(
+        configField.eq(pipelineConfigId),
+        shardCondition
+      )
+      .fetchSingle(0, Int::class.java) ?: 0
+
+  /**
+   * Keeps the depth of a pipeline in step with its pending messages, within the transaction
+   * that added or removed them.
+   *
+   * A pipeline without a depth yet, including one with messages that were pending before
+   * depths were kept, gets the count of its messages once they have been changed.
+   */
+  private fun adjustDepth(txn: DSLContext, pipelineConfigId: String, delta: Int) {
+    if (updateDepth(txn, pipelineConfigId, delta) > 0) {
+      return
     }
 
+    val inserted = txn.insertInto(depthTable)
+      .set(configField, pipelineConfigId)
+      .set(shardField, depthShard)
+      .set(depthField, countPending(txn, pipelineConfigId))
+      .run {
+        when (txn.dialect()) {
+          SQLDialect.POSTGRES -> {
+            onConflict(configField, shardField)
+              .doNothing()
+              .execute()
+          }
+          else -> {
+            onDuplicateKeyIgnore()
+              .execute()
+          }
+        }
+      }
+
+    // a concurrent transaction added the depth first, it does not include this change
+    if (inserted == 0) {
+      updateDepth(txn, pipelineConfigId, delta)
+    }
+  }
+
+  private fun updateDepth(txn: DSLContext, pipelineConfigId: String, delta: Int): Int =
+    txn.update(depthTable)
+      .set(depthField, depthField.plus(delta))
+      .where(
+        configField.eq(pipelineConfigId),
+        depthCondition
+      )
+      .execute()
+
   override fun pendingIds(): List<String> {
     return jooq
       .select(configField)
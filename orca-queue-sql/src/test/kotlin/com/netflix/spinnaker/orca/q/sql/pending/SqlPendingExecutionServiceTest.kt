@@ -16,12 +16,16 @@ import com.netflix.spinnaker.q.Queue
 import com.netflix.spinnaker.time.fixedClock
 import com.nhaarman.mockito_kotlin.any
 import com.nhaarman.mockito_kotlin.mock
+import com.nhaarman.mockito_kotlin.never
+import com.nhaarman.mockito_kotlin.reset
 import com.nhaarman.mockito_kotlin.spy
 import com.nhaarman.mockito_kotlin.verify
 import com.nhaarman.mockito_kotlin.verifyNoMoreInteractions
 import com.nhaarman.mockito_kotlin.whenever
 import java.util.UUID
 import org.assertj.core.api.Assertions
+import org.jooq.impl.DSL.field
+import org.jooq.impl.DSL.table
 import org.jetbrains.spek.api.dsl.describe
 import org.jetbrains.spek.api.dsl.given
 import org.jetbrains.spek.api.dsl.it
@@ -116,6 +120,55 @@ internal object SqlPendingExecutionServiceTest : SubjectSpek<SqlPendingExecution
     }
   }
 
+  describe("a depth that has drifted from the pending messages") {
+    fun driftDepth(pipelineConfigId: String, depth: Int) {
+      jooq.insertInto(table("pending_execution_depths"))
+        .set(field("config_id"), pipelineConfigId)
+        .set(field("shard"), "test")
+        .set(field("depth"), depth)
+        .execute()
+    }
+
+    given("a depth of maxDepth without any messages pending") {
+      val driftedId = UUID.randomUUID().toString()
+
+      beforeGroup {
+        reset(repository)
+        driftDepth(driftedId, maxDepth)
+      }
+
+      on("enqueing a start message") {
+        subject.enqueue(driftedId, startMessage)
+
+        it("enqueues the message and corrects the depth") {
+          Assertions.assertThat(subject.depth(driftedId)).isEqualTo(1)
+        }
+
+        it("does not cancel the execution") {
+          verify(repository, never()).store(any())
+        }
+      }
+
+      afterGroup { subject.purge(driftedId, callback) }
+    }
+
+    given("a depth without any messages pending") {
+      val driftedId = UUID.randomUUID().toString()
+
+      beforeGroup {
+        driftDepth(driftedId, 2)
+      }
+
+      on("popping a message") {
+        subject.popOldest(driftedId)
+
+        it("resets the depth") {
+          Assertions.assertThat(subject.depth(driftedId)).isEqualTo(0)
+        }
+      }
+    }
+  }
+
   describe("popping fails due to a database exception") {
     given("db is down") {
       beforeGroup {
@@ -120,6 +120,64 @@ object PendingExecutionServiceTest : SubjectSpek<PendingExecutionService>({
     }
   }
 
+  describe("popping several messages at once") {
+    given("the queue is empty") {
+      beforeGroup {
+        Assertions.assertThat(subject.depth(id)).isZero()
+      }
+
+      on("popping messages") {
+        val popped = subject.popOldest(id, 2)
+
+        it("returns nothing") {
+          Assertions.assertThat(popped).isEmpty()
+        }
+      }
+    }
+
+    given("more messages were enqueued than are popped") {
+      beforeGroup {
+        subject.enqueue(id, startMessage)
+        subject.enqueue(id, restartMessage)
+      }
+
+      on("popping messages") {
+        val popped = subject.popOldest(id, 1)
+
+        it("returns the oldest messages") {
+          Assertions.assertThat(popped).containsExactly(startMessage)
+        }
+
+        it("leaves the rest on the queue") {
+          Assertions.assertThat(subject.depth(id)).isOne()
+        }
+      }
+
+      afterGroup { subject.purge(id, callback) }
+    }
+
+    given("fewer messages were enqueued than are popped") {
+      beforeGroup {
+        subject.enqueue(id, startMessage)
+        subject.enqueue(id, restartMessage)
+      }
+
+      on("popping messages") {
+        val popped = subject.popOldest(id, 3)
+
+        it("returns all the messages, oldest first") {
+          Assertions.assertThat(popped).containsExactly(startMessage, restartMessage)
+        }
+
+        it("makes the queue empty") {
+          Assertions.assertThat(subject.depth(id)).isZero()
+        }
+      }
+
+      afterGroup { subject.purge(id, callback) }
+    }
+  }
+
   describe("purging the queue") {
     val purgeCallback = mock<(Message) -> Unit>()
 
@@ -144,5 +202,26 @@ object PendingExecutionServiceTest : SubjectSpek<PendingExecutionService>({
 
       afterGroup { subject.purge(id, callback) }
     }
+
+    given("there are some messages on the queue to return") {
+      beforeGroup {
+        subject.enqueue(id, startMessage)
+        subject.enqueue(id, restartMessage)
+      }
+
+      on("purging the queue") {
+        val purged = subject.purge(id)
+
+        it("makes the queue empty") {
+          Assertions.assertThat(subject.depth(id)).isZero()
+        }
+
+        it("returns every message, oldest first") {
+          Assertions.assertThat(purged).containsExactly(startMessage, restartMessage)
+        }
+      }
+
+      afterGroup { subject.purge(id, callback) }
+    }
   }
 })
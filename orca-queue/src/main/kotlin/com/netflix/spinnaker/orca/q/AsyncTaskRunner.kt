@@ -0,0 +1,139 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License")
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.spinnaker.orca.q
+
+import com.netflix.spectator.api.Registry
+import com.netflix.spectator.api.patterns.PolledMeter
+import com.netflix.spinnaker.kork.dynamicconfig.DynamicConfigService
+import com.netflix.spinnaker.orca.ExecutionContext
+import com.netflix.spinnaker.orca.api.pipeline.AsyncTask
+import com.netflix.spinnaker.orca.api.pipeline.TaskResult
+import com.netflix.spinnaker.orca.api.pipeline.models.StageExecution
+import com.netflix.spinnaker.q.Queue
+import com.netflix.spinnaker.security.AuthenticatedRequest
+import java.time.Duration
+import java.time.Instant
+import java.util.concurrent.Callable
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.Executor
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.LinkedBlockingQueue
+import java.util.concurrent.ThreadPoolExecutor
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+import javax.annotation.PreDestroy
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory
+import org.springframework.stereotype.Component
+
+/**
+ * Starts [AsyncTask]s for [com.netflix.spinnaker.orca.q.handler.RunTaskHandler]
+ * so that message handler threads are not held while they wait on remote calls.
+ *
+ * Disabled unless `tasks.async.enabled` is set. Each node allows at most
+ * `tasks.async.maxInFlight` tasks in flight, beyond which tasks run
+ * synchronously on the message handler thread as before, and gives up on a
+ * task after `tasks.async.timeoutMs`. That must be at most half the queue's
+ * ack timeout, so that the message is not redelivered while the task runs,
+ * which is checked on startup and enforced after.
+ *
+ * Blocking work submitted by tasks runs on a pool of `tasks.async.poolSize`
+ * threads, with the authentication and [ExecutionContext] of the thread that
+ * started the task. A task that timed out counts towards the tasks in flight
+ * until it completes, as it still holds its thread.
+ */
+@Component
+class AsyncTaskRunner(
+  private val dynamicConfigService: DynamicConfigService,
+  private val registry: Registry,
+  queue: Queue
+) {
+
+  private val inFlight = AtomicInteger()
+  private val pool: ExecutorService = poolSize().let { size ->
+    ThreadPoolExecutor(size, size, 60, TimeUnit.SECONDS, LinkedBlockingQueue(), CustomizableThreadFactory("async-task-"))
+      .apply { allowCoreThreadTimeOut(true) }
+  }
+  private val rejectedId = registry.createId("tasks.async.rejected")
+  private val maxTimeoutMs = Instant.EPOCH.let { Duration.between(it, it.plus(queue.ackTimeout)).toMillis() / 2 }
+
+  init {
+    check(!isEnabled() || timeoutMs() <= maxTimeoutMs) {
+      "tasks.async.timeoutMs (${timeoutMs()}) must be at most half the queue ack timeout ($maxTimeoutMs)"
+    }
+
+    PolledMeter.using(registry)
+      .withName("tasks.async.inFlight")
+      .monitorValue(inFlight)
+  }
+
+  fun isEnabled(): Boolean = dynamicConfigService.isEnabled("tasks.async", false)
+
+  /**
+   * Starts [task] if this node is below its limit of tasks in flight.
+   *
+   * @return the pending result of [task], or `null` if it should be run
+   * synchronously instead.
+   */
+  fun start(task: AsyncTask, stage: StageExecution): CompletableFuture<TaskResult>? {
+    val maxInFlight = dynamicConfigService.getConfig(Int::class.java, "tasks.async.maxInFlight", 100)
+    if (inFlight.incrementAndGet() > maxInFlight) {
+      inFlight.decrementAndGet()
+      registry.counter(rejectedId.withTag("taskType", task.javaClass.simpleName)).increment()
+      return null
+    }
+
+    val result = try {
+      task.executeAsync(stage, executor())
+    } catch (e: Exception) {
+      CompletableFuture.failedFuture(e)
+    }
+    result.whenComplete { _, _ -> inFlight.decrementAndGet() }
+    return result
+      .copy()
+      .orTimeout(timeoutMs().coerceAtMost(maxTimeoutMs), TimeUnit.MILLISECONDS)
+  }
+
+  /**
+   * @return an [Executor] for blocking work and callbacks of tasks, which
+   * carries over the [ExecutionContext] of the calling thread.
+   */
+  fun executor(): Executor {
+    val context = ExecutionContext.get()
+    return Executor { command ->
+      val propagated = AuthenticatedRequest.propagate(Callable { command.run() })
+      pool.execute {
+        ExecutionContext.set(context)
+        try {
+          propagated.call()
+        } finally {
+          ExecutionContext.clear()
+        }
+      }
+    }
+  }
+
+  private fun timeoutMs(): Long =
+    dynamicConfigService.getConfig(Long::class.java, "tasks.async.timeoutMs", 20000L)
+
+  private fun poolSize(): Int =
+    dynamicConfigService.getConfig(Int::class.java, "tasks.async.poolSize", 100)
+
+  @PreDestroy
+  fun shutdown() {
+    pool.shutdown()
+  }
+}
@@ -18,10 +18,12 @@ package com.netflix.spinnaker.orca.q
 
 import com.netflix.spinnaker.q.QueueExecutor
 import org.springframework.beans.factory.annotation.Qualifier
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor
 import org.springframework.stereotype.Component
 
 @Component
+@ConditionalOnProperty("keiko.queue.virtual-threads.enabled", havingValue = "false", matchIfMissing = true)
 class ThreadPoolQueueExecutor(
   @Qualifier("messageHandlerPool") executor: ThreadPoolTaskExecutor
 ) : QueueExecutor<ThreadPoolTaskExecutor>(executor) {
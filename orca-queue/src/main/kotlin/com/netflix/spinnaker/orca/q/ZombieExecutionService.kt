@@ -20,12 +20,15 @@ import com.netflix.spinnaker.orca.api.pipeline.models.ExecutionType.ORCHESTRATIO
 import com.netflix.spinnaker.orca.api.pipeline.models.ExecutionType.PIPELINE
 import com.netflix.spinnaker.orca.api.pipeline.models.PipelineExecution
 import com.netflix.spinnaker.orca.pipeline.persistence.ExecutionRepository
+import com.netflix.spinnaker.q.ExecutionMessage
+import com.netflix.spinnaker.q.executionKey
 import com.netflix.spinnaker.q.metrics.MonitorableQueue
 import com.netflix.spinnaker.security.AuthenticatedRequest
 import java.time.Clock
 import java.time.Duration
 import java.time.Instant
 import java.util.Optional
+import java.util.concurrent.ConcurrentHashMap
 import org.slf4j.LoggerFactory
 import org.springframework.beans.factory.annotation.Qualifier
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean
@@ -72,6 +75,7 @@ class ZombieExecutionService(
       .toList()
       .toBlocking()
       .first()
+      .let(this::withoutMessagesInQueue)
   }
 
   /**
@@ -124,7 +128,30 @@ class ZombieExecutionService(
       .isBefore(clock.instant().minus(cutoff))
 
   private fun queueHasNoMessages(execution: PipelineExecution): Boolean =
-    !queue.containsMessage { message ->
-      message is ExecutionLevel && message.executionId == execution.id
+    !queue.containsMessagesForExecution(execution.type.name, execution.id)
+
+  /**
+   * Confirms [candidates] have no messages by reading every message in the queue once.
+   *
+   * The execution index of the queue misses messages pushed by instances that don't write
+   * to it, such as those of an earlier version during a deployment, so it is only trusted
+   * to rule executions out.
+   */
+  private fun withoutMessagesInQueue(candidates: List<PipelineExecution>): List<PipelineExecution> {
+    if (candidates.isEmpty()) {
+      return candidates
     }
+
+    val keys = candidates.map { executionKey(it.type.name, it.id) }.toSet()
+    val withMessages = ConcurrentHashMap.newKeySet<String>()
+    queue.containsMessage { message ->
+      if (message is ExecutionMessage && message.executionKey() in keys) {
+        withMessages.add(message.executionKey())
+      }
+      // keep reading, every message has to be seen
+      false
+    }
+
+    return candidates.filter { executionKey(it.type.name, it.id) !in withMessages }
+  }
 }
@@ -40,6 +40,7 @@ import com.netflix.spinnaker.orca.q.StartStage
 import com.netflix.spinnaker.orca.q.StartTask
 import com.netflix.spinnaker.q.Message
 import com.netflix.spinnaker.q.Queue
+import com.netflix.spinnaker.q.metrics.MonitorableQueue
 import java.time.Instant
 import kotlin.reflect.full.memberProperties
 import org.slf4j.LoggerFactory
@@ -53,6 +54,7 @@ import rx.Observable
  * an Execution, but will perform hydration on what it can and report on
  * any Executions skipped. This command will ensure that if any branch of an
  * Execution cannot be hydrated, no parts of the Execution will be.
+ * Executions that still have messages on the queue are skipped.
  */
 @Component
 class HydrateQueueCommand(
@@ -66,7 +68,7 @@ class HydrateQueueCommand(
   override fun invoke(p1: HydrateQueueInput): HydrateQueueOutput {
     val pInTimeWindow = { execution: PipelineExecution -> inTimeWindow(p1, execution) }
 
-    val targets = if (p1.executionId == null) {
+    val running = if (p1.executionId == null) {
       executionRepository
         .retrieveRunning()
         .filter(pInTimeWindow)
@@ -80,6 +82,14 @@ class HydrateQueueCommand(
         .first()
     }
 
+    val targets = running.filterNot { execution ->
+      hasQueuedMessages(execution).also { queued ->
+        if (queued) {
+          log.info("Not hydrating execution ${execution.id} as it still has messages on the queue")
+        }
+      }
+    }
+
     val output = HydrateQueueOutput(
       dryRun = p1.dryRun,
       executions = targets.map { it.id to processExecution(it) }.toMap()
@@ -238,6 +248,13 @@ class HydrateQueueCommand(
     }
   }
 
+  /**
+   * An execution with messages still on the queue is progressing, hydrating it
+   * would only duplicate those messages.
+   */
+  private fun hasQueuedMessages(execution: PipelineExecution): Boolean =
+    (queue as? MonitorableQueue)?.containsMessagesForExecution(execution.type.name, execution.id) == true
+
   private fun inTimeWindow(input: HydrateQueueInput, execution: PipelineExecution): Boolean =
     execution.startTime
       ?.let { Instant.ofEpochMilli(it) }
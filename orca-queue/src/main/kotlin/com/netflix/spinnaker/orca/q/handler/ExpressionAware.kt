@@ -53,6 +53,10 @@ interface ExpressionAware {
     val execution = execution
     val stage = this
     this.context = object : MutableMap<String, Any?> by processed {
+      // built on the first lookup of a value that contains an expression and shared by every
+      // later lookup, until the context is modified
+      private var evaluationContext: Map<String, Any>? = null
+
       override fun get(key: String): Any? {
         if (execution.type == PIPELINE) {
           if (key == "trigger") {
@@ -67,12 +71,33 @@ interface ExpressionAware {
         val result = processed[key]
 
         if (result is String && ContextParameterProcessor.containsExpression(result)) {
-          val augmentedContext = contextParameterProcessor.buildExecutionContext(stage)
-          return contextParameterProcessor.process(mapOf(key to result), augmentedContext, true)[key]
+          val memoized = evaluationContext
+            ?: contextParameterProcessor.buildEvaluationContext(stage).also { evaluationContext = it }
+          return contextParameterProcessor.processWithEvaluationContext(mapOf(key to result), memoized, true)[key]
         }
 
         return result
       }
+
+      override fun put(key: String, value: Any?): Any? {
+        evaluationContext = null
+        return processed.put(key, value)
+      }
+
+      override fun putAll(from: Map<out String, Any?>) {
+        evaluationContext = null
+        processed.putAll(from)
+      }
+
+      override fun remove(key: String): Any? {
+        evaluationContext = null
+        return processed.remove(key)
+      }
+
+      override fun clear() {
+        evaluationContext = null
+        processed.clear()
+      }
     }
 
     // Clean up errors: since expressions are evaluated multiple times, it's possible that when
@@ -28,6 +28,7 @@ import com.netflix.spinnaker.orca.pipeline.model.StageExecutionImpl
 import com.netflix.spinnaker.orca.pipeline.persistence.ExecutionNotFoundException
 import com.netflix.spinnaker.orca.pipeline.persistence.ExecutionRepository
 import com.netflix.spinnaker.orca.pipeline.persistence.ExecutionRepository.ExecutionCriteria
+import com.netflix.spinnaker.orca.pipeline.persistence.WriteBehindExecutionRepository
 import com.netflix.spinnaker.orca.q.CompleteExecution
 import com.netflix.spinnaker.orca.q.ContinueParentStage
 import com.netflix.spinnaker.orca.q.ExecutionLevel
@@ -37,6 +38,7 @@ import com.netflix.spinnaker.orca.q.InvalidTaskId
 import com.netflix.spinnaker.orca.q.StageLevel
 import com.netflix.spinnaker.orca.q.StartStage
 import com.netflix.spinnaker.orca.q.TaskLevel
+import com.netflix.spinnaker.q.DeferredPushes
 import com.netflix.spinnaker.q.Message
 import com.netflix.spinnaker.q.MessageHandler
 import java.time.Duration
@@ -52,13 +54,42 @@ internal interface OrcaMessageHandler<M : Message> : MessageHandler<M> {
 
   val repository: ExecutionRepository
 
+  /**
+   * When [repository] defers writes, handles [message] in a single unit of work.
+   * Pushes are deferred alongside it so that nothing this handler queues can be
+   * picked up before the writes it depends on have been flushed.
+   */
+  override fun invoke(message: Message) {
+    val repository = repository
+    if (repository !is WriteBehindExecutionRepository || !messageType.isAssignableFrom(message.javaClass)) {
+      return super.invoke(message)
+    }
+
+    val batchPushes = !DeferredPushes.isActive()
+    if (batchPushes) {
+      DeferredPushes.begin()
+    }
+    try {
+      @Suppress("UNCHECKED_CAST")
+      repository.unitOfWork { handle(message as M) }
+    } finally {
+      if (batchPushes) {
+        DeferredPushes.flush()
+      }
+    }
+  }
+
   fun Collection<ExceptionHandler>.shouldRetry(ex: Exception, taskName: String?): ExceptionHandler.Response? {
     val exceptionHandler = find { it.handles(ex) }
     return exceptionHandler?.handle(taskName ?: "unspecified", ex)
   }
 
-  fun TaskLevel.withTask(block: (StageExecution, TaskExecution) -> Unit) =
-    withStage { stage ->
+  /**
+   * @param focused load only what the task's stage needs up front, see
+   * [ExecutionRepository.retrieveForStage].
+   */
+  fun TaskLevel.withTask(focused: Boolean = false, block: (StageExecution, TaskExecution) -> Unit) =
+    withStage(focused) { stage ->
       stage
         .taskById(taskId)
         .let { task ->
@@ -71,8 +102,8 @@ internal interface OrcaMessageHandler<M : Message> : MessageHandler<M> {
         }
     }
 
-  fun StageLevel.withStage(block: (StageExecution) -> Unit) =
-    withExecution { execution ->
+  fun StageLevel.withStage(focused: Boolean = false, block: (StageExecution) -> Unit) =
+    withExecution(if (focused) stageId else null) { execution ->
       try {
         execution
           .stageById(stageId)
@@ -90,9 +121,13 @@ internal interface OrcaMessageHandler<M : Message> : MessageHandler<M> {
       }
     }
 
-  fun ExecutionLevel.withExecution(block: (PipelineExecution) -> Unit) =
+  fun ExecutionLevel.withExecution(focusStageId: String? = null, block: (PipelineExecution) -> Unit) =
     try {
-      val execution = repository.retrieve(executionType, executionId)
+      val execution = if (focusStageId == null) {
+        repository.retrieve(executionType, executionId)
+      } else {
+        repository.retrieveForStage(executionType, executionId, focusStageId)
+      }
       block.invoke(execution)
     } catch (e: ExecutionNotFoundException) {
       queue.push(InvalidExecutionId(this))
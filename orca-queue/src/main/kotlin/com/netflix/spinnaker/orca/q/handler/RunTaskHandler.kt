@@ -22,6 +22,7 @@ import com.netflix.spinnaker.kork.dynamicconfig.DynamicConfigService
 import com.netflix.spinnaker.kork.exceptions.UserException
 import com.netflix.spinnaker.orca.api.pipeline.TaskExecutionInterceptor
 import com.netflix.spinnaker.orca.TaskResolver
+import com.netflix.spinnaker.orca.api.pipeline.AsyncTask
 import com.netflix.spinnaker.orca.api.pipeline.OverridableTimeoutRetryableTask
 import com.netflix.spinnaker.orca.api.pipeline.RetryableTask
 import com.netflix.spinnaker.orca.api.pipeline.Task
@@ -53,6 +54,7 @@ import com.netflix.spinnaker.orca.pipeline.StageDefinitionBuilderFactory
 import com.netflix.spinnaker.orca.pipeline.persistence.ExecutionRepository
 import com.netflix.spinnaker.orca.pipeline.util.ContextParameterProcessor
 import com.netflix.spinnaker.orca.pipeline.util.StageNavigator
+import com.netflix.spinnaker.orca.q.AsyncTaskRunner
 import com.netflix.spinnaker.orca.q.CompleteTask
 import com.netflix.spinnaker.orca.q.InvalidTaskType
 import com.netflix.spinnaker.orca.q.PauseTask
@@ -60,6 +62,7 @@ import com.netflix.spinnaker.orca.q.RunTask
 import com.netflix.spinnaker.orca.q.metrics.MetricsTagHelper
 import com.netflix.spinnaker.orca.time.toDuration
 import com.netflix.spinnaker.orca.time.toInstant
+import com.netflix.spinnaker.q.DeferredAcks
 import com.netflix.spinnaker.q.Message
 import com.netflix.spinnaker.q.Queue
 import org.apache.commons.lang3.time.DurationFormatUtils
@@ -71,6 +74,8 @@ import java.time.Duration
 import java.time.Duration.ZERO
 import java.time.Instant
 import java.time.temporal.TemporalAmount
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.CompletionException
 import java.util.concurrent.TimeUnit
 import kotlin.Exception
 import kotlin.IllegalStateException
@@ -87,7 +92,7 @@ import kotlin.to
 import kotlin.toString
 
 @Component
-class RunTaskHandler(
+class RunTaskHandler @JvmOverloads constructor(
   override val queue: Queue,
   override val repository: ExecutionRepository,
   override val stageNavigator: StageNavigator,
@@ -100,6 +105,7 @@ class RunTaskHandler(
   private val registry: Registry,
   private val dynamicConfigService: DynamicConfigService,
   private val retriableLock: RetriableLock,
+  private val asyncTaskRunner: AsyncTaskRunner? = null
 ) : OrcaMessageHandler<RunTask>, ExpressionAware, AuthenticationAware {
 
   /**
@@ -124,25 +130,14 @@ class RunTaskHandler(
               log.warn("deprecated-task-run ${task.javaClass.simpleName}")
             }
             val thisInvocationStartTimeMs = clock.millis()
-            val execution = stage.execution
             var taskResult: TaskResult? = null
 
             var taskException: Exception? = null
+            var pendingResult: CompletableFuture<TaskResult>? = null
             try {
               taskExecutionInterceptors.forEach { t -> stage = t.beforeTaskExecution(task, stage) }
 
-              if (execution.isCanceled) {
-                task.onCancelWithResult(stage)?.run {
-                  stage.processTaskOutput(this)
-                }
-                queue.push(CompleteTask(message, CANCELED))
-              } else if (execution.status.isComplete) {
-                queue.push(CompleteTask(message, CANCELED))
-              } else if (execution.status == PAUSED) {
-                queue.push(PauseTask(message))
-              } else if (stage.isManuallySkipped()) {
-                queue.push(CompleteTask(message, SKIPPED))
-              } else {
+              if (!stage.isInterrupted(message, task)) {
                 try {
                   task.checkForTimeout(stage, taskModel, message)
                 } catch (e: TimeoutException) {
@@ -163,89 +158,228 @@ class RunTaskHandler(
                 }
 
                 if (taskResult == null) {
-                  taskResult = task.execute(stage.withMergedContext())
-                  taskExecutionInterceptors.forEach { t -> taskResult = t.afterTaskExecution(task, stage, taskResult) }
+                  pendingResult = task.startAsync(stage.withMergedContext())
+                  if (pendingResult == null) {
+                    taskResult = task.execute(stage.withMergedContext())
+                    taskExecutionInterceptors.forEach { t -> taskResult = t.afterTaskExecution(task, stage, taskResult) }
+                  }
                 }
 
-                taskResult!!.let { result: TaskResult ->
-                  when (result.status) {
-                    RUNNING -> {
-                      stage.processTaskOutput(result)
-                      queue.push(message, task.backoffPeriod(taskModel, stage))
-                      trackResult(stage, thisInvocationStartTimeMs, taskModel, result.status)
-                    }
-
-                    SUCCEEDED, REDIRECT, SKIPPED, FAILED_CONTINUE, STOPPED -> {
-                      stage.processTaskOutput(result)
-                      queue.push(CompleteTask(message, result.status))
-                      trackResult(stage, thisInvocationStartTimeMs, taskModel, result.status)
-                    }
-
-                    CANCELED -> {
-                      stage.processTaskOutput(result.mergeOutputs(task.onCancelWithResult(stage)))
-                      val status = stage.failureStatus(default = result.status)
-                      queue.push(CompleteTask(message, status, result.status))
-                      trackResult(stage, thisInvocationStartTimeMs, taskModel, status)
-                    }
-
-                    TERMINAL -> {
-                      stage.processTaskOutput(result)
-                      val status = stage.failureStatus(default = result.status)
-                      queue.push(CompleteTask(message, status, result.status))
-                      trackResult(stage, thisInvocationStartTimeMs, taskModel, status)
-                    }
-
-                    else -> {
-                      stage.processTaskOutput(result)
-                      TODO("Unhandled task status ${result.status}")
-                    }
-                  }
+                val pending = pendingResult
+                if (pending != null) {
+                  completeAsync(message, task, pending, thisInvocationStartTimeMs)
+                } else {
+                  stage.handleResult(message, task, taskModel, taskResult!!, thisInvocationStartTimeMs)
                 }
               }
             } catch (e: Exception) {
               taskException = e;
-              val exceptionDetails = exceptionHandlers.shouldRetry(e, taskModel.name)
-              if (exceptionDetails?.shouldRetry == true) {
-                log.warn("Error running ${message.taskType.simpleName} for ${message.executionType}[${message.executionId}]")
-                queue.push(message, task.backoffPeriod(taskModel, stage))
-                trackResult(stage, thisInvocationStartTimeMs, taskModel, RUNNING)
-              } else if (e is TimeoutException && stage.context["markSuccessfulOnTimeout"] == true) {
-                trackResult(stage, thisInvocationStartTimeMs, taskModel, SUCCEEDED)
-                queue.push(CompleteTask(message, SUCCEEDED))
-              } else {
-                if (e !is TimeoutException) {
-                  if (e is UserException) {
-                    log.warn(
-                      "${message.taskType.simpleName} for ${message.executionType}[${message.executionId}] failed, likely due to user error",
-                      e
-                    )
-                  } else {
-                    log.error(
-                      "Error running ${message.taskType.simpleName} for ${message.executionType}[${message.executionId}]",
-                      e
-                    )
-                  }
+              stage.handleException(message, task, taskModel, e, thisInvocationStartTimeMs)
+            } finally {
+              if (pendingResult == null) {
+                taskExecutionInterceptors.forEach { t ->
+                  t.finallyAfterTaskExecution(
+                    task,
+                    stage,
+                    taskResult,
+                    taskException
+                  )
                 }
-                val status = stage.failureStatus(default = TERMINAL)
-                stage.context["exception"] = exceptionDetails
-                //Adding here serves two purposes one to display taskwise failures,other to display the exact failure when continue pipeline is set to true
-                taskModel.taskExceptionDetails["exception"] = exceptionDetails
-                repository.storeStage(stage)
-                queue.push(CompleteTask(message, status, TERMINAL))
-                trackResult(stage, thisInvocationStartTimeMs, taskModel, status)
               }
-            } finally {
-              taskExecutionInterceptors.forEach { t ->
-                t.finallyAfterTaskExecution(
-                  task,
-                  stage,
-                  taskResult,
-                  taskException
-                )
+            }
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * Moves [message] on without running its task if the execution was canceled,
+   * completed or paused, or the stage was skipped.
+   *
+   * @return `true` if the task should not run, or its result not be applied.
+   */
+  private fun StageExecution.isInterrupted(message: RunTask, task: Task): Boolean {
+    val stage = this
+    when {
+      execution.isCanceled -> {
+        task.onCancelWithResult(stage)?.run {
+          stage.processTaskOutput(this)
+        }
+        queue.push(CompleteTask(message, CANCELED))
+      }
+      execution.status.isComplete -> queue.push(CompleteTask(message, CANCELED))
+      execution.status == PAUSED -> queue.push(PauseTask(message))
+      stage.isManuallySkipped() -> queue.push(CompleteTask(message, SKIPPED))
+      else -> return false
+    }
+    return true
+  }
+
+  private fun StageExecution.handleResult(
+    message: RunTask,
+    task: Task,
+    taskModel: TaskExecution,
+    result: TaskResult,
+    thisInvocationStartTimeMs: Long
+  ) {
+    val stage = this
+    when (result.status) {
+      RUNNING -> {
+        stage.processTaskOutput(result)
+        queue.push(message, task.backoffPeriod(taskModel, stage))
+        trackResult(stage, thisInvocationStartTimeMs, taskModel, result.status)
+      }
+
+      SUCCEEDED, REDIRECT, SKIPPED, FAILED_CONTINUE, STOPPED -> {
+        stage.processTaskOutput(result)
+        queue.push(CompleteTask(message, result.status))
+        trackResult(stage, thisInvocationStartTimeMs, taskModel, result.status)
+      }
+
+      CANCELED -> {
+        stage.processTaskOutput(result.mergeOutputs(task.onCancelWithResult(stage)))
+        val status = stage.failureStatus(default = result.status)
+        queue.push(CompleteTask(message, status, result.status))
+        trackResult(stage, thisInvocationStartTimeMs, taskModel, status)
+      }
+
+      TERMINAL -> {
+        stage.processTaskOutput(result)
+        val status = stage.failureStatus(default = result.status)
+        queue.push(CompleteTask(message, status, result.status))
+        trackResult(stage, thisInvocationStartTimeMs, taskModel, status)
+      }
+
+      else -> {
+        stage.processTaskOutput(result)
+        TODO("Unhandled task status ${result.status}")
+      }
+    }
+  }
+
+  private fun StageExecution.handleException(
+    message: RunTask,
+    task: Task,
+    taskModel: TaskExecution,
+    e: Exception,
+    thisInvocationStartTimeMs: Long
+  ) {
+    val stage = this
+    val exceptionDetails = exceptionHandlers.shouldRetry(e, taskModel.name)
+    if (exceptionDetails?.shouldRetry == true) {
+      log.warn("Error running ${message.taskType.simpleName} for ${message.executionType}[${message.executionId}]")
+      queue.push(message, task.backoffPeriod(taskModel, stage))
+      trackResult(stage, thisInvocationStartTimeMs, taskModel, RUNNING)
+    } else if (e is TimeoutException && stage.context["markSuccessfulOnTimeout"] == true) {
+      trackResult(stage, thisInvocationStartTimeMs, taskModel, SUCCEEDED)
+      queue.push(CompleteTask(message, SUCCEEDED))
+    } else {
+      if (e !is TimeoutException) {
+        if (e is UserException) {
+          log.warn(
+            "${message.taskType.simpleName} for ${message.executionType}[${message.executionId}] failed, likely due to user error",
+            e
+          )
+        } else {
+          log.error(
+            "Error running ${message.taskType.simpleName} for ${message.executionType}[${message.executionId}]",
+            e
+          )
+        }
+      }
+      val status = stage.failureStatus(default = TERMINAL)
+      stage.context["exception"] = exceptionDetails
+      //Adding here serves two purposes one to display taskwise failures,other to display the exact failure when continue pipeline is set to true
+      taskModel.taskExceptionDetails["exception"] = exceptionDetails
+      repository.storeStage(stage)
+      queue.push(CompleteTask(message, status, TERMINAL))
+      trackResult(stage, thisInvocationStartTimeMs, taskModel, status)
+    }
+  }
+
+  /**
+   * Starts this task without waiting for it to complete if it is an [AsyncTask],
+   * asynchronous tasks are enabled and the ack of the message can be deferred.
+   *
+   * @return the pending result, or `null` if the task should be run synchronously.
+   */
+  private fun Task.startAsync(stage: StageExecution): CompletableFuture<TaskResult>? =
+    if (this is AsyncTask && asyncTaskRunner != null && asyncTaskRunner.isEnabled() && DeferredAcks.canDefer()) {
+      asyncTaskRunner.start(this, stage)
+    } else {
+      null
+    }
+
+  /**
+   * Handles the result of an [AsyncTask] once it completes, holding the lock on
+   * the stage again while doing so, and only then acknowledges [message].
+   *
+   * The execution is read again once the lock is held, and the result is
+   * discarded if the execution was canceled, completed or paused, or the stage
+   * skipped, while the task ran. A task that does not complete within
+   * `tasks.async.timeoutMs` is retried after its backoff period.
+   */
+  private fun completeAsync(
+    message: RunTask,
+    task: Task,
+    pendingResult: CompletableFuture<TaskResult>,
+    thisInvocationStartTimeMs: Long
+  ) {
+    val ack = DeferredAcks.defer() ?: throw IllegalStateException("Cannot defer ack of $message")
+    pendingResult.whenCompleteAsync(
+      { result, error ->
+        try {
+          message.withLocking {
+            message.withTask { stage, taskModel, _ ->
+              stage.withAuth {
+                stage.withLoggingContext(taskModel) {
+                  stage.applyAsyncResult(message, task, taskModel, result, error, thisInvocationStartTimeMs)
+                }
               }
             }
           }
+          ack.invoke()
+        } catch (e: Throwable) {
+          log.error("Unhandled throwable completing $message", e)
+        }
+      },
+      asyncTaskRunner!!.executor()
+    )
+  }
+
+  private fun StageExecution.applyAsyncResult(
+    message: RunTask,
+    task: Task,
+    taskModel: TaskExecution,
+    result: TaskResult?,
+    error: Throwable?,
+    thisInvocationStartTimeMs: Long
+  ) {
+    val stage = this
+    var taskResult: TaskResult? = result
+    var taskException: Exception? = null
+    try {
+      val cause = if (error is CompletionException) error.cause ?: error else error
+      if (stage.isInterrupted(message, task)) {
+        taskResult = null
+      } else if (cause is java.util.concurrent.TimeoutException) {
+        log.warn("Timed out waiting for ${message.taskType.simpleName} for ${message.executionType}[${message.executionId}]")
+        queue.push(message, task.backoffPeriod(taskModel, stage))
+        trackResult(stage, thisInvocationStartTimeMs, taskModel, RUNNING)
+      } else {
+        if (cause != null) {
+          throw cause
         }
+        taskExecutionInterceptors.forEach { t -> taskResult = t.afterTaskExecution(task, stage, taskResult) }
+        stage.handleResult(message, task, taskModel, taskResult!!, thisInvocationStartTimeMs)
+      }
+    } catch (e: Exception) {
+      taskException = e
+      stage.handleException(message, task, taskModel, e, thisInvocationStartTimeMs)
+    } finally {
+      taskExecutionInterceptors.forEach { t ->
+        t.finallyAfterTaskExecution(task, stage, taskResult, taskException)
       }
     }
   }
@@ -278,7 +412,7 @@ class RunTaskHandler(
   override val messageType = RunTask::class.java
 
   private fun RunTask.withTask(block: (StageExecution, TaskExecution, Task) -> Unit) =
-    withTask { stage, taskModel ->
+    withTask(focused = true) { stage, taskModel ->
       try {
         taskResolver.getTask(taskModel.implementingClass)
       } catch (e: TaskResolver.NoSuchTaskException) {
@@ -23,7 +23,9 @@ import com.netflix.spinnaker.orca.q.RestartStage
 import com.netflix.spinnaker.orca.q.StartExecution
 import com.netflix.spinnaker.orca.q.StartWaitingExecutions
 import com.netflix.spinnaker.orca.q.pending.PendingExecutionService
+import com.netflix.spinnaker.q.Message
 import com.netflix.spinnaker.q.Queue
+import java.time.Duration.ZERO
 import org.slf4j.Logger
 import org.slf4j.LoggerFactory
 import org.springframework.stereotype.Component
@@ -42,25 +44,9 @@ class StartWaitingExecutionsHandler(
   override fun handle(message: StartWaitingExecutions) {
     if (message.purgeQueue) {
       // when purging the queue, run the latest message and discard the rest
-      pendingExecutionService.popNewest(message.pipelineConfigId)
-        .also { _ ->
-          pendingExecutionService.purge(message.pipelineConfigId) { purgedMessage ->
-            when (purgedMessage) {
-              is StartExecution -> {
-                log.info("Dropping queued pipeline {} {}", purgedMessage.application, purgedMessage.executionId)
-                queue.push(CancelExecution(
-                  source = purgedMessage,
-                  user = "spinnaker",
-                  reason = "This execution was queued but then canceled because a newer queued execution superceded it. This pipeline is configured to automatically cancel waiting executions." 
-                ))
-              }
-              is RestartStage -> {
-                log.info("Cancelling restart of {} {}", purgedMessage.application, purgedMessage.executionId)
-                // don't need to do anything else
-              }
-            }
-          }
-        }
+      val purged = pendingExecutionService.purge(message.pipelineConfigId)
+      cancelSuperseded(purged.dropLast(1))
+      purged.lastOrNull()
     } else {
       // when not purging the queue, run the messages in the order they came in
       pendingExecutionService.popOldest(message.pipelineConfigId)
@@ -73,4 +59,29 @@ class StartWaitingExecutionsHandler(
         queue.push(it)
       }
   }
+
+  private fun cancelSuperseded(purgedMessages: List<Message>) {
+    val cancellations = purgedMessages.mapNotNull { purgedMessage ->
+      when (purgedMessage) {
+        is StartExecution -> {
+          log.info("Dropping queued pipeline {} {}", purgedMessage.application, purgedMessage.executionId)
+          CancelExecution(
+            source = purgedMessage,
+            user = "spinnaker",
+            reason = "This execution was queued but then canceled because a newer queued execution superceded it. This pipeline is configured to automatically cancel waiting executions."
+          ) to ZERO
+        }
+        is RestartStage -> {
+          log.info("Cancelling restart of {} {}", purgedMessage.application, purgedMessage.executionId)
+          // don't need to do anything else
+          null
+        }
+        else -> null
+      }
+    }
+
+    if (cancellations.isNotEmpty()) {
+      queue.pushAll(cancellations)
+    }
+  }
 }
@@ -27,7 +27,9 @@ import com.netflix.spinnaker.orca.api.pipeline.models.StageExecution
 import com.netflix.spinnaker.orca.api.pipeline.models.TaskExecution
 import com.netflix.spinnaker.orca.pipeline.persistence.ExecutionRepository
 import com.netflix.spinnaker.q.Attribute
+import com.netflix.spinnaker.q.ExecutionMessage
 import com.netflix.spinnaker.q.Message
+import com.netflix.spinnaker.q.executionKey
 import java.time.Duration
 
 /**
@@ -37,9 +39,11 @@ interface ApplicationAware {
   val application: String
 }
 
-interface ExecutionLevel : ApplicationAware {
+interface ExecutionLevel : ApplicationAware, ExecutionMessage {
   val executionType: ExecutionType
   val executionId: String
+
+  override fun executionKey() = executionKey(executionType.name, executionId)
 }
 
 interface StageLevel : ExecutionLevel {
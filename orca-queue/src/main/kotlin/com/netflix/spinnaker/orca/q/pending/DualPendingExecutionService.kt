@@ -87,11 +87,24 @@ class DualPendingExecutionService(
     }
   }
 
-  override fun purge(pipelineConfigId: String, callback: (Message) -> Unit) {
-    do {
-      val oldest = popOldest(pipelineConfigId)
-      oldest?.let(callback)
-    } while (oldest != null)
+  override fun popOldest(pipelineConfigId: String, count: Int): List<Message> {
+    val messages = previous.popOldest(pipelineConfigId, count)
+    if (messages.isNotEmpty()) {
+      registry.counter(hitFromSecondaryId).increment(messages.size.toLong())
+    }
+    return if (messages.size < count) {
+      messages + primary.popOldest(pipelineConfigId, count - messages.size)
+    } else {
+      messages
+    }
+  }
+
+  override fun purge(pipelineConfigId: String): List<Message> {
+    val messages = previous.purge(pipelineConfigId)
+    if (messages.isNotEmpty()) {
+      registry.counter(hitFromSecondaryId).increment(messages.size.toLong())
+    }
+    return messages + primary.purge(pipelineConfigId)
   }
 
   override fun depth(pipelineConfigId: String): Int {
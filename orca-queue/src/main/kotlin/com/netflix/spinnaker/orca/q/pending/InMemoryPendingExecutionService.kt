@@ -47,11 +47,19 @@ class InMemoryPendingExecutionService : PendingExecutionService {
     }
   }
 
-  override fun purge(pipelineConfigId: String, callback: (Message) -> Unit) {
-    pendingFor(pipelineConfigId).let {
-      while (it.isNotEmpty()) {
-        it.removeFirst()?.let(callback)
-      }
+  override fun popOldest(pipelineConfigId: String, count: Int): List<Message> {
+    return pendingFor(pipelineConfigId).let {
+      generateSequence { if (it.isEmpty()) null else it.removeFirst() }
+        .take(count)
+        .toList()
+    }
+  }
+
+  override fun purge(pipelineConfigId: String): List<Message> {
+    return pendingFor(pipelineConfigId).let {
+      val messages = it.toList()
+      it.clear()
+      messages
     }
   }
 
@@ -26,7 +26,24 @@ interface PendingExecutionService {
   fun enqueue(pipelineConfigId: String, message: Message)
   fun popOldest(pipelineConfigId: String): Message?
   fun popNewest(pipelineConfigId: String): Message?
-  fun purge(pipelineConfigId: String, callback: (Message) -> Unit)
+
+  /**
+   * Removes up to [count] of the oldest messages at once.
+   *
+   * @return the removed messages, oldest first.
+   */
+  fun popOldest(pipelineConfigId: String, count: Int): List<Message>
+
+  /**
+   * Removes every message at once.
+   *
+   * @return the removed messages, oldest first.
+   */
+  fun purge(pipelineConfigId: String): List<Message>
+
+  fun purge(pipelineConfigId: String, callback: (Message) -> Unit) =
+    purge(pipelineConfigId).forEach(callback)
+
   fun depth(pipelineConfigId: String): Int
   fun pendingIds(): List<String>
 }
@@ -0,0 +1,248 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.spinnaker.orca.q.handler;
+
+import static com.netflix.spinnaker.orca.api.pipeline.models.ExecutionType.PIPELINE;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.netflix.spectator.api.NoopRegistry;
+import com.netflix.spinnaker.kork.dynamicconfig.DynamicConfigService;
+import com.netflix.spinnaker.orca.TaskResolver;
+import com.netflix.spinnaker.orca.api.pipeline.AsyncTask;
+import com.netflix.spinnaker.orca.api.pipeline.RetryableTask;
+import com.netflix.spinnaker.orca.api.pipeline.Task;
+import com.netflix.spinnaker.orca.api.pipeline.TaskResult;
+import com.netflix.spinnaker.orca.api.pipeline.models.ExecutionStatus;
+import com.netflix.spinnaker.orca.api.pipeline.models.StageExecution;
+import com.netflix.spinnaker.orca.api.pipeline.models.TaskExecution;
+import com.netflix.spinnaker.orca.exceptions.DefaultExceptionHandler;
+import com.netflix.spinnaker.orca.lock.RetriableLock;
+import com.netflix.spinnaker.orca.pipeline.StageDefinitionBuilderFactory;
+import com.netflix.spinnaker.orca.pipeline.model.PipelineExecutionImpl;
+import com.netflix.spinnaker.orca.pipeline.model.StageExecutionImpl;
+import com.netflix.spinnaker.orca.pipeline.model.TaskExecutionImpl;
+import com.netflix.spinnaker.orca.pipeline.persistence.ExecutionRepository;
+import com.netflix.spinnaker.orca.pipeline.util.ContextParameterProcessor;
+import com.netflix.spinnaker.orca.pipeline.util.StageNavigator;
+import com.netflix.spinnaker.orca.q.AsyncTaskRunner;
+import com.netflix.spinnaker.orca.q.CompleteTask;
+import com.netflix.spinnaker.orca.q.RunTask;
+import com.netflix.spinnaker.q.DeferredAcks;
+import com.netflix.spinnaker.q.Queue;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nonnull;
+import kotlin.Unit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+class RunTaskHandlerAsyncTaskTest {
+
+  private final Queue queue = mock(Queue.class);
+  private final ExecutionRepository executionRepository =
+      mock(ExecutionRepository.class, Mockito.CALLS_REAL_METHODS);
+  private final DynamicConfigService dynamicConfigService = mock(DynamicConfigService.class);
+  private final RetriableLock retriableLock = mock(RetriableLock.class);
+  private final DummyAsyncTask task = new DummyAsyncTask();
+  private final CountDownLatch acked = new CountDownLatch(1);
+
+  private RunTaskHandler runTaskHandler;
+  private PipelineExecutionImpl pipeline;
+  private RunTask runTaskMessage;
+
+  @BeforeEach
+  void setup() {
+    doReturn(0)
+        .when(dynamicConfigService)
+        .getConfig(any(), eq("tasks.warningInvocationTimeMs"), any());
+    doReturn(0L)
+        .when(dynamicConfigService)
+        .getConfig(any(), eq("tasks.global.backOffPeriod"), any());
+    doReturn(10).when(dynamicConfigService).getConfig(any(), eq("tasks.async.maxInFlight"), any());
+    doReturn(10).when(dynamicConfigService).getConfig(any(), eq("tasks.async.poolSize"), any());
+    doReturn(20000L)
+        .when(dynamicConfigService)
+        .getConfig(any(), eq("tasks.async.timeoutMs"), any());
+    doReturn(true).when(dynamicConfigService).isEnabled("tasks.async", false);
+    when(queue.getAckTimeout()).thenReturn(Duration.ofMinutes(1));
+
+    doAnswer(
+            invocation -> {
+              Runnable runnable = invocation.getArgument(1);
+              runnable.run();
+              return true;
+            })
+        .when(retriableLock)
+        .lock(any(RetriableLock.RetriableLockOptions.class), any(Runnable.class));
+
+    runTaskHandler =
+        new RunTaskHandler(
+            queue,
+            executionRepository,
+            mock(StageNavigator.class),
+            mock(StageDefinitionBuilderFactory.class),
+            mock(ContextParameterProcessor.class),
+            new TaskResolver(
+                new RunTaskHandlerExceptionHandlerTest.TasksProvider(List.<Task>of(task))),
+            Clock.systemUTC(),
+            List.of(new DefaultExceptionHandler()),
+            List.of(),
+            new NoopRegistry(),
+            dynamicConfigService,
+            retriableLock,
+            new AsyncTaskRunner(dynamicConfigService, new NoopRegistry(), queue));
+
+    pipeline = new PipelineExecutionImpl(PIPELINE, "test-application");
+    TaskExecution taskExecution = new TaskExecutionImpl();
+    taskExecution.setId("1");
+    taskExecution.setStartTime(System.currentTimeMillis());
+    taskExecution.setImplementingClass(DummyAsyncTask.class.getName());
+    StageExecution stage =
+        new StageExecutionImpl(pipeline, "stage-type", "stage-name", new HashMap<>());
+    stage.setTasks(List.of(taskExecution));
+    pipeline.getStages().add(stage);
+
+    runTaskMessage =
+        new RunTask(
+            pipeline.getType(), pipeline.getId(), "foo", stage.getId(), "1", DummyAsyncTask.class);
+    when(executionRepository.retrieve(PIPELINE, runTaskMessage.getExecutionId()))
+        .thenReturn(pipeline);
+
+    DeferredAcks.INSTANCE.begin(
+        () -> {
+          acked.countDown();
+          return Unit.INSTANCE;
+        });
+  }
+
+  @AfterEach
+  void cleanup() {
+    DeferredAcks.INSTANCE.clear();
+  }
+
+  @Test
+  void completesTheTaskOnceItsResultIsAvailable() throws InterruptedException {
+    runTaskHandler.handle(runTaskMessage);
+
+    assertThat(DeferredAcks.INSTANCE.isDeferred()).isTrue();
+    verify(queue, never()).push(any(CompleteTask.class));
+
+    task.result.complete(TaskResult.SUCCEEDED);
+
+    assertThat(acked.await(5, TimeUnit.SECONDS)).isTrue();
+    verify(queue).push(new CompleteTask(runTaskMessage, ExecutionStatus.SUCCEEDED));
+  }
+
+  @Test
+  void discardsTheResultIfTheExecutionWasCanceledWhileTheTaskRan()
+      throws InterruptedException {
+    runTaskHandler.handle(runTaskMessage);
+
+    pipeline.setCanceled(true);
+    task.result.complete(TaskResult.SUCCEEDED);
+
+    assertThat(acked.await(5, TimeUnit.SECONDS)).isTrue();
+    verify(queue).push(new CompleteTask(runTaskMessage, ExecutionStatus.CANCELED));
+    verify(queue, never()).push(new CompleteTask(runTaskMessage, ExecutionStatus.SUCCEEDED));
+  }
+
+  @Test
+  void retriesTasksThatTimeOut() throws InterruptedException {
+    doReturn(10L).when(dynamicConfigService).getConfig(any(), eq("tasks.async.timeoutMs"), any());
+
+    runTaskHandler.handle(runTaskMessage);
+
+    assertThat(acked.await(5, TimeUnit.SECONDS)).isTrue();
+    verify(queue).push(eq(runTaskMessage), any());
+    verify(queue, never()).push(any(CompleteTask.class));
+  }
+
+  @Test
+  void refusesTimeoutsTheQueueWouldRedeliverTheMessageWithin() {
+    doReturn(40000L)
+        .when(dynamicConfigService)
+        .getConfig(any(), eq("tasks.async.timeoutMs"), any());
+
+    assertThatThrownBy(() -> new AsyncTaskRunner(dynamicConfigService, new NoopRegistry(), queue))
+        .isInstanceOf(IllegalStateException.class);
+  }
+
+  @Test
+  void runsTasksSynchronouslyBeyondTheLimitOfTasksInFlight() {
+    doReturn(0).when(dynamicConfigService).getConfig(any(), eq("tasks.async.maxInFlight"), any());
+
+    runTaskHandler.handle(runTaskMessage);
+
+    assertThat(DeferredAcks.INSTANCE.isDeferred()).isFalse();
+    verify(queue).push(new CompleteTask(runTaskMessage, ExecutionStatus.SUCCEEDED));
+  }
+
+  @Test
+  void runsTasksSynchronouslyWhenDisabled() {
+    doReturn(false).when(dynamicConfigService).isEnabled("tasks.async", false);
+
+    runTaskHandler.handle(runTaskMessage);
+
+    assertThat(DeferredAcks.INSTANCE.isDeferred()).isFalse();
+    verify(queue).push(new CompleteTask(runTaskMessage, ExecutionStatus.SUCCEEDED));
+  }
+
+  static class DummyAsyncTask implements RetryableTask, AsyncTask {
+
+    final CompletableFuture<TaskResult> result = new CompletableFuture<>();
+
+    @Nonnull
+    @Override
+    public TaskResult execute(@Nonnull StageExecution stage) {
+      return TaskResult.SUCCEEDED;
+    }
+
+    @Nonnull
+    @Override
+    public CompletableFuture<TaskResult> executeAsync(
+        @Nonnull StageExecution stage, @Nonnull Executor executor) {
+      return result;
+    }
+
+    @Override
+    public long getBackoffPeriod() {
+      return 1000;
+    }
+
+    @Override
+    public long getTimeout() {
+      return 60000;
+    }
+  }
+}
@@ -69,6 +69,7 @@ import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.MethodSource;
+import org.mockito.Mockito;
 import org.springframework.beans.BeansException;
 import org.springframework.beans.factory.ObjectProvider;
 import retrofit.RetrofitError;
@@ -154,7 +155,9 @@ class RunTaskHandlerExceptionHandlerTest {
 
   private Queue queue = mock(Queue.class);
 
-  private ExecutionRepository executionRepository = mock(ExecutionRepository.class);
+  // calls through to the real default retrieveForStage so that retrieve stubs apply
+  private ExecutionRepository executionRepository =
+      mock(ExecutionRepository.class, Mockito.CALLS_REAL_METHODS);
 
   private DummyTask dummyTask = mock(DummyTask.class);
 
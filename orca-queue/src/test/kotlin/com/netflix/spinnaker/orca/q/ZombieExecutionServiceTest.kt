@@ -19,9 +19,11 @@ import com.netflix.spinnaker.orca.api.pipeline.models.ExecutionStatus
 import com.netflix.spinnaker.orca.api.pipeline.models.ExecutionType
 import com.netflix.spinnaker.orca.api.test.pipeline
 import com.netflix.spinnaker.orca.pipeline.persistence.ExecutionRepository
+import com.netflix.spinnaker.q.Message
 import com.netflix.spinnaker.q.metrics.MonitorableQueue
 import com.netflix.spinnaker.time.fixedClock
 import com.nhaarman.mockito_kotlin.any
+import com.nhaarman.mockito_kotlin.doAnswer
 import com.nhaarman.mockito_kotlin.doReturn
 import com.nhaarman.mockito_kotlin.mock
 import com.nhaarman.mockito_kotlin.reset
@@ -68,7 +70,7 @@ object ZombieExecutionServiceTest : SubjectSpek<ZombieExecutionService>({
 
       beforeGroup {
         whenever(repository.retrieve(ExecutionType.PIPELINE, criteria)) doReturn Observable.just(pipeline)
-        whenever(queue.containsMessage(any())) doReturn true
+        whenever(queue.containsMessagesForExecution(any(), any())) doReturn true
       }
 
       afterGroup(::resetMocks)
@@ -90,7 +92,7 @@ object ZombieExecutionServiceTest : SubjectSpek<ZombieExecutionService>({
 
       beforeGroup {
         whenever(repository.retrieve(pipeline.type, criteria)) doReturn Observable.just(pipeline)
-        whenever(queue.containsMessage(any())) doReturn true
+        whenever(queue.containsMessagesForExecution(any(), any())) doReturn true
       }
 
       afterGroup(::resetMocks)
@@ -112,7 +114,7 @@ object ZombieExecutionServiceTest : SubjectSpek<ZombieExecutionService>({
 
       beforeGroup {
         whenever(repository.retrieve(ExecutionType.PIPELINE, criteria)) doReturn Observable.just(pipeline)
-        whenever(queue.containsMessage(any())) doReturn false
+        whenever(queue.containsMessagesForExecution(any(), any())) doReturn false
       }
 
       afterGroup(::resetMocks)
@@ -125,5 +127,30 @@ object ZombieExecutionServiceTest : SubjectSpek<ZombieExecutionService>({
         }
       }
     }
+
+    given("a running pipeline whose messages were not indexed") {
+      val pipeline = pipeline {
+        status = ExecutionStatus.RUNNING
+        buildTime = clock.instant().minus(1, ChronoUnit.HOURS).toEpochMilli()
+      }
+
+      beforeGroup {
+        whenever(repository.retrieve(ExecutionType.PIPELINE, criteria)) doReturn Observable.just(pipeline)
+        whenever(queue.containsMessagesForExecution(any(), any())) doReturn false
+        whenever(queue.containsMessage(any())) doAnswer {
+          it.getArgument<(Message) -> Boolean>(0).invoke(StartExecution(pipeline))
+        }
+      }
+
+      afterGroup(::resetMocks)
+
+      on("looking for zombies") {
+        val result = subject.findAllZombies(Duration.ofMinutes(10))
+
+        it("finds its messages by reading the queue") {
+          assert(result.isEmpty())
+        }
+      }
+    }
   }
 })
@@ -39,6 +39,7 @@ import com.netflix.spinnaker.orca.q.stageWithSyntheticAfter
 import com.netflix.spinnaker.orca.q.stageWithSyntheticBefore
 import com.netflix.spinnaker.q.Message
 import com.netflix.spinnaker.q.Queue
+import com.netflix.spinnaker.q.metrics.MonitorableQueue
 import com.nhaarman.mockito_kotlin.any
 import com.nhaarman.mockito_kotlin.argumentCaptor
 import com.nhaarman.mockito_kotlin.check
@@ -46,6 +47,7 @@ import com.nhaarman.mockito_kotlin.doReturn
 import com.nhaarman.mockito_kotlin.eq
 import com.nhaarman.mockito_kotlin.isA
 import com.nhaarman.mockito_kotlin.mock
+import com.nhaarman.mockito_kotlin.never
 import com.nhaarman.mockito_kotlin.reset
 import com.nhaarman.mockito_kotlin.times
 import com.nhaarman.mockito_kotlin.verify
@@ -158,6 +160,36 @@ object HydrateQueueCommandTest : SubjectSpek<HydrateQueueCommand>({
         }
       }
     }
+
+    given("running executions that still have messages on the queue") {
+      val monitorableQueue: MonitorableQueue = mock()
+      val pipeline = pipeline {
+        status = RUNNING
+        application = "whatever"
+        stage {
+          refId = "1"
+          type = "whatever"
+          status = NOT_STARTED
+        }
+      }
+
+      beforeGroup {
+        whenever(repository.retrieve(eq(ORCHESTRATION), any<ExecutionCriteria>())) doReturn Observable.empty()
+        whenever(repository.retrieve(eq(PIPELINE), any<ExecutionCriteria>())) doReturn Observable.just(pipeline)
+        whenever(monitorableQueue.containsMessagesForExecution(PIPELINE.name, pipeline.id)) doReturn true
+      }
+      afterGroup(::resetMocks)
+
+      on("invoking") {
+        val output = HydrateQueueCommand(monitorableQueue, repository, taskResolver)
+          .invoke(HydrateQueueInput(dryRun = false))
+
+        it("skips the execution") {
+          assertThat(output.executions).isEmpty()
+          verify(monitorableQueue, never()).push(any<Message>())
+        }
+      }
+    }
   }
 
   describe("hydrating a queue with running executions") {
@@ -51,6 +51,7 @@ import org.jetbrains.spek.api.dsl.it
 import org.jetbrains.spek.api.dsl.on
 import org.jetbrains.spek.api.lifecycle.CachingMode.GROUP
 import org.jetbrains.spek.subject.SubjectSpek
+import org.mockito.Mockito
 import org.mockito.stubbing.Answer
 import org.threeten.extra.Minutes
 import java.time.Clock
@@ -64,7 +65,8 @@ import kotlin.reflect.jvm.jvmName
 object RunTaskHandlerTest : SubjectSpek<RunTaskHandler>({
 
   val queue: Queue = mock()
-  val repository: ExecutionRepository = mock()
+  // calls through to the real default retrieveForStage so that retrieve stubs apply
+  val repository: ExecutionRepository = Mockito.mock(ExecutionRepository::class.java, Mockito.CALLS_REAL_METHODS)
   val stageNavigator: StageNavigator = mock()
   val task: DummyTask = mock {
     on { extensionClass } doReturn DummyTask::class.java
@@ -24,21 +24,22 @@ import com.netflix.spinnaker.orca.q.StartWaitingExecutions
 import com.netflix.spinnaker.orca.q.pending.PendingExecutionService
 import com.netflix.spinnaker.q.Message
 import com.netflix.spinnaker.q.Queue
+import com.nhaarman.mockito_kotlin.any
 import com.nhaarman.mockito_kotlin.argumentCaptor
 import com.nhaarman.mockito_kotlin.doReturn
-import com.nhaarman.mockito_kotlin.eq
 import com.nhaarman.mockito_kotlin.isA
 import com.nhaarman.mockito_kotlin.mock
 import com.nhaarman.mockito_kotlin.never
 import com.nhaarman.mockito_kotlin.reset
-import com.nhaarman.mockito_kotlin.times
 import com.nhaarman.mockito_kotlin.verify
 import com.nhaarman.mockito_kotlin.verifyNoMoreInteractions
 import com.nhaarman.mockito_kotlin.whenever
 import java.time.Instant.now
+import java.time.temporal.TemporalAmount
 import java.util.Random
 import java.util.UUID
 import kotlin.math.absoluteValue
+import org.assertj.core.api.Assertions.assertThat
 import org.jetbrains.spek.api.dsl.describe
 import org.jetbrains.spek.api.dsl.given
 import org.jetbrains.spek.api.dsl.it
@@ -104,7 +105,7 @@ object StartWaitingExecutionsHandlerTest : SubjectSpek<StartWaitingExecutionsHan
       given("the queue should be purged") {
         beforeGroup {
           whenever(pipelineQueue.depth(configId)) doReturn 1
-          whenever(pipelineQueue.popNewest(configId)) doReturn StartExecution(waitingPipeline)
+          whenever(pipelineQueue.purge(configId)) doReturn listOf<Message>(StartExecution(waitingPipeline))
         }
 
         afterGroup(::resetMocks)
@@ -119,6 +120,7 @@ object StartWaitingExecutionsHandlerTest : SubjectSpek<StartWaitingExecutionsHan
 
         it("does not cancel anything") {
           verify(queue, never()).push(isA<CancelExecution>())
+          verify(queue, never()).pushAll(any())
         }
       }
     }
@@ -162,13 +164,9 @@ object StartWaitingExecutionsHandlerTest : SubjectSpek<StartWaitingExecutionsHan
           whenever(pipelineQueue.depth(configId)) doReturn waitingPipelines.size
           whenever(pipelineQueue.popOldest(configId)) doReturn StartExecution(oldest)
           whenever(pipelineQueue.popNewest(configId)) doReturn StartExecution(newest)
-          argumentCaptor<(Message) -> Unit>().apply {
-            whenever(pipelineQueue.purge(eq(configId), capture())).then {
-              (waitingPipelines - newest).forEach {
-                firstValue.invoke(StartExecution(it))
-              }
-            }
-          }
+          whenever(pipelineQueue.purge(configId)) doReturn waitingPipelines
+            .sortedBy { it.buildTime }
+            .map { StartExecution(it) }
         }
 
         afterGroup(::resetMocks)
@@ -181,12 +179,22 @@ object StartWaitingExecutionsHandlerTest : SubjectSpek<StartWaitingExecutionsHan
           verify(queue).push(StartExecution(newest))
         }
 
-        it("cancels all the other waiting pipelines") {
-          verify(queue, times(waitingPipelines.size - 1)).push(isA<CancelExecution>())
+        it("cancels all the other waiting pipelines at once") {
+          argumentCaptor<List<Pair<Message, TemporalAmount>>>().apply {
+            verify(queue).pushAll(capture())
+            assertThat(firstValue.map { it.first })
+              .hasSize(waitingPipelines.size - 1)
+              .allMatch { it is CancelExecution }
+          }
         }
 
         it("does not cancel the one it's trying to start") {
-          verify(queue, never()).push(CancelExecution(newest))
+          verify(queue, never()).push(isA<CancelExecution>())
+          argumentCaptor<List<Pair<Message, TemporalAmount>>>().apply {
+            verify(queue).pushAll(capture())
+            assertThat(firstValue.map { (it.first as CancelExecution).executionId })
+              .doesNotContain(newest.id)
+          }
         }
       }
     }
@@ -107,7 +107,7 @@ object ZombieExecutionCheckingAgentTest : SubjectSpek<ZombieExecutionCheckingAge
 
         beforeGroup {
           whenever(repository.retrieve(PIPELINE, criteria)) doReturn just(pipeline)
-          whenever(queue.containsMessage(any())) doReturn true
+          whenever(queue.containsMessagesForExecution(any(), any())) doReturn true
         }
 
         afterGroup(::resetMocks)
@@ -140,7 +140,7 @@ object ZombieExecutionCheckingAgentTest : SubjectSpek<ZombieExecutionCheckingAge
 
         beforeGroup {
           whenever(repository.retrieve(PIPELINE, criteria)) doReturn just(pipeline)
-          whenever(queue.containsMessage(any())) doReturn true
+          whenever(queue.containsMessagesForExecution(any(), any())) doReturn true
         }
 
         afterGroup(::resetMocks)
@@ -162,7 +162,7 @@ object ZombieExecutionCheckingAgentTest : SubjectSpek<ZombieExecutionCheckingAge
 
         beforeGroup {
           whenever(repository.retrieve(pipeline.type, criteria)) doReturn just(pipeline)
-          whenever(queue.containsMessage(any())) doReturn true
+          whenever(queue.containsMessagesForExecution(any(), any())) doReturn true
         }
 
         afterGroup(::resetMocks)
@@ -184,7 +184,7 @@ object ZombieExecutionCheckingAgentTest : SubjectSpek<ZombieExecutionCheckingAge
 
         beforeGroup {
           whenever(repository.retrieve(PIPELINE, criteria)) doReturn just(pipeline)
-          whenever(queue.containsMessage(any())) doReturn false
+          whenever(queue.containsMessagesForExecution(any(), any())) doReturn false
         }
 
         afterGroup(::resetMocks)
@@ -20,6 +20,8 @@ package com.netflix.spinnaker.orca.retrofit
 import com.jakewharton.retrofit.Ok3Client
 import com.netflix.spectator.api.Registry
 import com.netflix.spinnaker.config.OkHttp3ClientConfiguration
+import com.netflix.spinnaker.orca.retrofit.bulkhead.BulkheadConfigurationProperties
+import com.netflix.spinnaker.orca.retrofit.bulkhead.ServiceBulkheads
 import com.netflix.spinnaker.orca.retrofit.exceptions.SpinnakerServerExceptionHandler
 import groovy.transform.CompileStatic
 import okhttp3.Interceptor
@@ -39,7 +41,7 @@ import retrofit.RestAdapter.LogLevel
 @Configuration
 @CompileStatic
 @Import(OkHttp3ClientConfiguration)
-@EnableConfigurationProperties
+@EnableConfigurationProperties(BulkheadConfigurationProperties)
 class RetrofitConfiguration {
   @Bean(name = ["retrofitClient"])
   @Scope(ConfigurableBeanFactory.SCOPE_SINGLETON)
@@ -66,6 +68,11 @@ class RetrofitConfiguration {
     new Ok3Client(builder.build())
   }
 
+  @Bean
+  ServiceBulkheads serviceBulkheads(Registry registry, BulkheadConfigurationProperties bulkheadConfigurationProperties) {
+    new ServiceBulkheads(registry, bulkheadConfigurationProperties)
+  }
+
   @Bean
   LogLevel retrofitLogLevel(@Value('${retrofit.log-level:BASIC}') String retrofitLogLevel) {
     return LogLevel.valueOf(retrofitLogLevel)
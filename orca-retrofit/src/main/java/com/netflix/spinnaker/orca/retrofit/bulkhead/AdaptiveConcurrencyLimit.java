@@ -0,0 +1,92 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.spinnaker.orca.retrofit.bulkhead;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A limit on concurrent requests that adapts to how the service is coping (additive increase,
+ * multiplicative decrease).
+ *
+ * <p>Each request that completes in time while the limit is in use raises the limit by {@code
+ * 1/limit}, so by about one per limit's worth of requests. Each request that fails or exceeds the
+ * latency threshold multiplies the limit by the backoff ratio.
+ */
+public class AdaptiveConcurrencyLimit {
+
+  private final int minLimit;
+  private final int maxLimit;
+  private final double backoffRatio;
+  private final long latencyThresholdNanos;
+
+  private double limit;
+  private int inFlight;
+
+  public AdaptiveConcurrencyLimit(BulkheadConfigurationProperties.Limits limits) {
+    this.minLimit = Math.max(1, limits.getMinLimit());
+    this.maxLimit = Math.max(minLimit, limits.getMaxLimit());
+    this.backoffRatio = limits.getBackoffRatio();
+    this.latencyThresholdNanos = TimeUnit.MILLISECONDS.toNanos(limits.getLatencyThresholdMs());
+    this.limit = Math.min(maxLimit, Math.max(minLimit, limits.getInitialLimit()));
+  }
+
+  /**
+   * @return {@code true} if a request may be made, in which case {@link #onSuccess(long)} or
+   *     {@link #onDropped()} must be called once it completes
+   */
+  public synchronized boolean tryAcquire() {
+    if (inFlight >= getLimit()) {
+      return false;
+    }
+    inFlight++;
+    return true;
+  }
+
+  /** Records a request that completed after {@code latencyNanos}. */
+  public synchronized void onSuccess(long latencyNanos) {
+    boolean saturated = inFlight >= getLimit() / 2;
+    inFlight--;
+    if (latencyNanos > latencyThresholdNanos) {
+      decrease();
+    } else if (saturated) {
+      limit = Math.min(maxLimit, limit + 1 / limit);
+    }
+  }
+
+  /** Records a request that failed in a way that suggests the service is overloaded. */
+  public synchronized void onDropped() {
+    inFlight--;
+    decrease();
+  }
+
+  /** Records a request that failed for reasons that say nothing about the service's load. */
+  public synchronized void onIgnored() {
+    inFlight--;
+  }
+
+  public synchronized int getLimit() {
+    return (int) limit;
+  }
+
+  public synchronized int getInFlight() {
+    return inFlight;
+  }
+
+  private void decrease() {
+    limit = Math.max(minLimit, limit * backoffRatio);
+  }
+}
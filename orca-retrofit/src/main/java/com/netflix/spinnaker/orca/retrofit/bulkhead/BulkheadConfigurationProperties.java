@@ -0,0 +1,127 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.spinnaker.orca.retrofit.bulkhead;
+
+import java.util.HashMap;
+import java.util.Map;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration of the per-service bulkheads applied to HTTP clients of downstream services, see
+ * {@link ServiceBulkheads}.
+ *
+ * <p>{@link #getDefaults()} apply to every service, and may be overridden for a service under
+ * {@code services.<name>}, e.g. {@code retrofit.bulkheads.services.clouddriver.max-limit}.
+ */
+@ConfigurationProperties("retrofit.bulkheads")
+public class BulkheadConfigurationProperties {
+
+  /** flag to enable/disable limiting concurrent requests to each downstream service */
+  private boolean enabled = false;
+
+  private Limits defaults = new Limits();
+
+  private Map<String, Limits> services = new HashMap<>();
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  public void setEnabled(boolean enabled) {
+    this.enabled = enabled;
+  }
+
+  public Limits getDefaults() {
+    return defaults;
+  }
+
+  public void setDefaults(Limits defaults) {
+    this.defaults = defaults;
+  }
+
+  public Map<String, Limits> getServices() {
+    return services;
+  }
+
+  public void setServices(Map<String, Limits> services) {
+    this.services = services;
+  }
+
+  /** @return the limits of {@code service}, falling back to {@link #getDefaults()} */
+  public Limits limitsFor(String service) {
+    return services.getOrDefault(service, defaults);
+  }
+
+  public static class Limits {
+
+    /** number of concurrent requests allowed before any have completed */
+    private int initialLimit = 20;
+
+    private int minLimit = 2;
+
+    private int maxLimit = 200;
+
+    /**
+     * the limit is multiplied by this when a request fails or takes longer than {@link
+     * #getLatencyThresholdMs()}
+     */
+    private double backoffRatio = 0.9;
+
+    /** requests taking longer than this are treated as a sign the service is overloaded */
+    private long latencyThresholdMs = 10_000;
+
+    public int getInitialLimit() {
+      return initialLimit;
+    }
+
+    public void setInitialLimit(int initialLimit) {
+      this.initialLimit = initialLimit;
+    }
+
+    public int getMinLimit() {
+      return minLimit;
+    }
+
+    public void setMinLimit(int minLimit) {
+      this.minLimit = minLimit;
+    }
+
+    public int getMaxLimit() {
+      return maxLimit;
+    }
+
+    public void setMaxLimit(int maxLimit) {
+      this.maxLimit = maxLimit;
+    }
+
+    public double getBackoffRatio() {
+      return backoffRatio;
+    }
+
+    public void setBackoffRatio(double backoffRatio) {
+      this.backoffRatio = backoffRatio;
+    }
+
+    public long getLatencyThresholdMs() {
+      return latencyThresholdMs;
+    }
+
+    public void setLatencyThresholdMs(long latencyThresholdMs) {
+      this.latencyThresholdMs = latencyThresholdMs;
+    }
+  }
+}
@@ -0,0 +1,39 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.spinnaker.orca.retrofit.bulkhead;
+
+import java.io.IOException;
+
+/**
+ * Thrown instead of making a request to a service that already has as many requests in flight as
+ * its bulkhead allows. The request was never sent, so it is always safe to retry.
+ *
+ * <p>This is an {@link IOException} so that it reaches callers the way network errors do.
+ */
+public class ServiceBulkheadFullException extends IOException {
+
+  private final String service;
+
+  public ServiceBulkheadFullException(String service, int limit) {
+    super(String.format("Too many concurrent requests to %s (limit: %d)", service, limit));
+    this.service = service;
+  }
+
+  public String getService() {
+    return service;
+  }
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.spinnaker.orca.retrofit.bulkhead;
+
+import com.netflix.spectator.api.Counter;
+import com.netflix.spectator.api.Registry;
+import com.netflix.spectator.api.patterns.PolledMeter;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import retrofit.client.Client;
+import retrofit.client.Request;
+import retrofit.client.Response;
+
+/**
+ * Gives each downstream service its own {@link AdaptiveConcurrencyLimit}, so that one slow service
+ * cannot tie up every message handler thread.
+ *
+ * <p>Requests beyond the limit fail straight away with a {@link ServiceBulkheadFullException},
+ * which tasks retry after their backoff period rather than waiting for the service.
+ *
+ * <p>Publishes {@code retrofit.bulkhead.limit}, {@code retrofit.bulkhead.inFlight} and {@code
+ * retrofit.bulkhead.rejected}, tagged by {@code service}.
+ */
+public class ServiceBulkheads {
+
+  private final Registry registry;
+  private final BulkheadConfigurationProperties properties;
+  private final Map<String, AdaptiveConcurrencyLimit> limits = new ConcurrentHashMap<>();
+
+  public ServiceBulkheads(Registry registry, BulkheadConfigurationProperties properties) {
+    this.registry = registry;
+    this.properties = properties;
+  }
+
+  /**
+   * @return {@code client} with requests limited by the bulkhead of {@code service}, or {@code
+   *     client} itself if bulkheads are disabled
+   */
+  public Client withBulkhead(String service, Client client) {
+    if (!properties.isEnabled()) {
+      return client;
+    }
+    return new BulkheadClient(service, client);
+  }
+
+  /** @return the limit shared by every client of {@code service} */
+  public AdaptiveConcurrencyLimit limitFor(String service) {
+    return limits.computeIfAbsent(
+        service,
+        it -> {
+          AdaptiveConcurrencyLimit limit =
+              new AdaptiveConcurrencyLimit(properties.limitsFor(service));
+          PolledMeter.using(registry)
+              .withName("retrofit.bulkhead.limit")
+              .withTag("service", service)
+              .monitorValue(limit, l -> (double) l.getLimit());
+          PolledMeter.using(registry)
+              .withName("retrofit.bulkhead.inFlight")
+              .withTag("service", service)
+              .monitorValue(limit, l -> (double) l.getInFlight());
+          return limit;
+        });
+  }
+
+  private class BulkheadClient implements Client {
+
+    private final String service;
+    private final Client delegate;
+    private final AdaptiveConcurrencyLimit limit;
+    private final Counter rejected;
+
+    BulkheadClient(String service, Client delegate) {
+      this.service = service;
+      this.delegate = delegate;
+      this.limit = limitFor(service);
+      this.rejected = registry.counter("retrofit.bulkhead.rejected", "service", service);
+    }
+
+    @Override
+    public Response execute(Request request) throws IOException {
+      if (!limit.tryAcquire()) {
+        rejected.increment();
+        throw new ServiceBulkheadFullException(service, limit.getLimit());
+      }
+
+      long start = registry.clock().monotonicTime();
+      Response response;
+      try {
+        response = delegate.execute(request);
+      } catch (IOException e) {
+        limit.onDropped();
+        throw e;
+      } catch (RuntimeException e) {
+        limit.onIgnored();
+        throw e;
+      }
+
+      if (isOverloaded(response.getStatus())) {
+        limit.onDropped();
+      } else {
+        limit.onSuccess(registry.clock().monotonicTime() - start);
+      }
+      return response;
+    }
+
+    private boolean isOverloaded(int responseCode) {
+      return responseCode == 429 || responseCode == 503 || responseCode == 504;
+    }
+  }
+}
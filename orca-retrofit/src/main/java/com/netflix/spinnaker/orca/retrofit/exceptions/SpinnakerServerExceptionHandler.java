@@ -21,6 +21,7 @@ import com.netflix.spinnaker.kork.retrofit.exceptions.SpinnakerHttpException;
 import com.netflix.spinnaker.kork.retrofit.exceptions.SpinnakerNetworkException;
 import com.netflix.spinnaker.kork.retrofit.exceptions.SpinnakerServerException;
 import com.netflix.spinnaker.orca.exceptions.ExceptionHandler;
+import com.netflix.spinnaker.orca.retrofit.bulkhead.ServiceBulkheadFullException;
 import java.util.List;
 import java.util.Map;
 import org.slf4j.Logger;
@@ -117,11 +118,15 @@ public class SpinnakerServerExceptionHandler extends BaseRetrofitExceptionHandle
 
     // Although Spinnaker*Exception has a retryable property that other parts of
     // spinnaker use, ignore it here because that would retry (most) POST
-    // requests which could be dangerous.
+    // requests which could be dangerous.  Requests refused by a bulkhead were
+    // never sent though, so those are safe to retry whatever their method.
+    boolean bulkheadFull =
+        Throwables.getCausalChain(ex).stream()
+            .anyMatch(it -> it instanceof ServiceBulkheadFullException);
     return new ExceptionHandler.Response(
         ex.getClass().getSimpleName(),
         taskName,
         responseDetails,
-        shouldRetry(ex, kind, httpMethod, responseCode));
+        bulkheadFull || shouldRetry(ex, kind, httpMethod, responseCode));
   }
 }
@@ -0,0 +1,131 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.spinnaker.orca.retrofit.bulkhead;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.netflix.spectator.api.DefaultRegistry;
+import com.netflix.spectator.api.Registry;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import retrofit.client.Client;
+import retrofit.client.Request;
+import retrofit.client.Response;
+
+class ServiceBulkheadsTest {
+
+  private static final Request REQUEST = new Request("GET", "http://clouddriver", List.of(), null);
+
+  private Registry registry;
+  private BulkheadConfigurationProperties properties;
+
+  @BeforeEach
+  void setup() {
+    registry = new DefaultRegistry();
+    properties = new BulkheadConfigurationProperties();
+    properties.setEnabled(true);
+  }
+
+  @Test
+  void leavesClientsAloneWhenDisabled() {
+    properties.setEnabled(false);
+    Client client = mock(Client.class);
+
+    assertThat(new ServiceBulkheads(registry, properties).withBulkhead("clouddriver", client))
+        .isSameAs(client);
+  }
+
+  @Test
+  void rejectsRequestsBeyondTheLimitOfTheService() throws IOException {
+    ServiceBulkheads bulkheads = new ServiceBulkheads(registry, properties);
+    Client client = mock(Client.class);
+    AdaptiveConcurrencyLimit limit = bulkheads.limitFor("clouddriver");
+    for (int i = 0; i < limit.getLimit(); i++) {
+      assertThat(limit.tryAcquire()).isTrue();
+    }
+
+    assertThatThrownBy(() -> bulkheads.withBulkhead("clouddriver", client).execute(REQUEST))
+        .isInstanceOf(ServiceBulkheadFullException.class);
+    verify(client, never()).execute(any());
+    assertThat(registry.counter("retrofit.bulkhead.rejected", "service", "clouddriver").count())
+        .isEqualTo(1);
+
+    when(client.execute(any())).thenReturn(response(200));
+    assertThat(bulkheads.withBulkhead("front50", client).execute(REQUEST).getStatus())
+        .isEqualTo(200);
+  }
+
+  @Test
+  void backsOffWhenTheServiceIsOverloaded() throws IOException {
+    ServiceBulkheads bulkheads = new ServiceBulkheads(registry, properties);
+    Client delegate = mock(Client.class);
+    Client client = bulkheads.withBulkhead("clouddriver", delegate);
+    AdaptiveConcurrencyLimit limit = bulkheads.limitFor("clouddriver");
+
+    when(delegate.execute(any())).thenReturn(response(503));
+    client.execute(REQUEST);
+    assertThat(limit.getLimit()).isEqualTo(18);
+
+    when(delegate.execute(any())).thenThrow(new IOException("read timed out"));
+    assertThatThrownBy(() -> client.execute(REQUEST)).isInstanceOf(IOException.class);
+    assertThat(limit.getLimit()).isEqualTo(16);
+    assertThat(limit.getInFlight()).isZero();
+  }
+
+  @Test
+  void limitDecreasesOnFailuresAndRecoversOnSuccesses() {
+    BulkheadConfigurationProperties.Limits limits = new BulkheadConfigurationProperties.Limits();
+    limits.setInitialLimit(10);
+    limits.setMinLimit(2);
+    limits.setMaxLimit(12);
+    limits.setBackoffRatio(0.5);
+    AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(limits);
+
+    assertThat(limit.tryAcquire()).isTrue();
+    limit.onDropped();
+    assertThat(limit.getLimit()).isEqualTo(5);
+
+    assertThat(limit.tryAcquire()).isTrue();
+    limit.onSuccess(TimeUnit.MILLISECONDS.toNanos(limits.getLatencyThresholdMs() + 1));
+    assertThat(limit.getLimit()).isEqualTo(2);
+    assertThat(limit.getInFlight()).isEqualTo(0);
+
+    for (int i = 0; i < 100; i++) {
+      int acquired = 0;
+      while (limit.tryAcquire()) {
+        acquired++;
+      }
+      for (int j = 0; j < acquired; j++) {
+        limit.onSuccess(0);
+      }
+    }
+    assertThat(limit.getLimit()).isEqualTo(12);
+  }
+
+  private static Response response(int status) {
+    return new Response("http://clouddriver", status, "reason", List.of(), null);
+  }
+}
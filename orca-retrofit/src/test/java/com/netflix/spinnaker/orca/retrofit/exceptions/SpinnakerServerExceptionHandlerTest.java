@@ -31,6 +31,7 @@ import com.netflix.spinnaker.kork.retrofit.exceptions.SpinnakerNetworkException;
 import com.netflix.spinnaker.kork.retrofit.exceptions.SpinnakerRetrofitErrorHandler;
 import com.netflix.spinnaker.kork.retrofit.exceptions.SpinnakerServerException;
 import com.netflix.spinnaker.orca.exceptions.ExceptionHandler;
+import com.netflix.spinnaker.orca.retrofit.bulkhead.ServiceBulkheadFullException;
 import java.io.IOException;
 import java.util.List;
 import java.util.Map;
@@ -315,13 +316,21 @@ class SpinnakerServerExceptionHandlerTest {
     SpinnakerServerException nonIdempotentThrottlingException =
         expectingException(() -> api.post("whatever"));
 
+    // Requests refused by a bulkhead were never sent, so are retryable even if
+    // not idempotent
+    when(client.execute(any(Request.class)))
+        .thenThrow(new ServiceBulkheadFullException("clouddriver", 20));
+    SpinnakerServerException bulkheadFullException =
+        expectingException(() -> api.post("whatever"));
+
     return Stream.of(
         Arguments.of(notRetryable, false),
         Arguments.of(retryable, true),
         Arguments.of(idempotentNetworkException, true),
         Arguments.of(idempotentGatewayException, true),
         Arguments.of(idempotentThrottlingException, true),
-        Arguments.of(nonIdempotentThrottlingException, false));
+        Arguments.of(nonIdempotentThrottlingException, false),
+        Arguments.of(bulkheadFullException, true));
   }
 
   @ParameterizedTest(name = "{index} => verifyResponseDetails {0}")
@@ -0,0 +1,32 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.spinnaker.config
+
+/**
+ * Defines properties for archiving the executions removed by a cleanup agent.
+ */
+class CleanupArchiveProperties {
+  /**
+   * Writes each execution to a gzipped NDJSON file in [directory] before it is deleted.
+   * Executions that cannot be archived are not deleted.
+   */
+  var enabled: Boolean = false
+
+  /**
+   * Directory the archive files are written to, one per execution type, application and day
+   */
+  var directory: String = "/tmp/orca-cleanup-archive"
+}
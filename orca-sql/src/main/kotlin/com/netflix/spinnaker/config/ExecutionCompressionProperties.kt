@@ -15,12 +15,16 @@
  */
 package com.netflix.spinnaker.config
 
+import com.github.luben.zstd.ZstdInputStream
+import com.github.luben.zstd.ZstdOutputStream
 import java.io.InputStream
 import java.io.OutputStream
 import java.util.zip.DeflaterOutputStream
 import java.util.zip.GZIPInputStream
 import java.util.zip.GZIPOutputStream
 import java.util.zip.InflaterInputStream
+import net.jpountz.lz4.LZ4FrameInputStream
+import net.jpountz.lz4.LZ4FrameOutputStream
 import org.springframework.boot.context.properties.ConfigurationProperties
 
 /**
@@ -56,26 +60,79 @@ class ExecutionCompressionProperties {
    */
   var compressionType: CompressionType = CompressionType.ZLIB
 
+  /**
+   * Settings that only apply to [CompressionType.ZSTD]
+   */
+  var zstd: ZstdProperties = ZstdProperties()
+
   fun isWriteEnabled() = enabled && (compressionMode == CompressionMode.READ_WRITE)
 }
 
+class ZstdProperties {
+
+  /**
+   * Compression level, higher levels compress better but slower
+   */
+  var level: Int = 3
+
+  /**
+   * Compresses new bodies with the latest trained dictionary, if there is one.
+   * Bodies compressed with a dictionary can always be read, regardless of this setting.
+   */
+  var dictionaryEnabled: Boolean = false
+
+  /**
+   * How often to check for a newly trained dictionary
+   */
+  var dictionaryRefreshIntervalMs: Long = 300_000
+
+  /**
+   * Maximum size, in bytes, of a trained dictionary
+   */
+  var dictionarySize: Int = 112_640
+
+  /**
+   * Number of recent stage bodies, per execution type, to train a dictionary from
+   */
+  var trainingSampleCount: Int = 1000
+
+  /**
+   * How often to train a new dictionary, when training is enabled through
+   * execution-repository.sql.compression.zstd.training.enabled
+   */
+  var trainingIntervalMs: Long = 86_400_000
+}
+
 /**
  * Enum defining the support compression types
  */
 enum class CompressionType(val type: String) {
   GZIP("GZIP"),
-  ZLIB("ZLIB");
+  ZLIB("ZLIB"),
+  ZSTD("ZSTD"),
+  LZ4("LZ4");
 
-  fun getDeflator(outStream: OutputStream) =
+  /**
+   * @param dictionary only used by [ZSTD], must be a dictionary trained by zstd
+   * @param level only used by [ZSTD]
+   */
+  fun getDeflator(outStream: OutputStream, dictionary: ByteArray? = null, level: Int = 3): OutputStream =
     when (this) {
       GZIP -> GZIPOutputStream(outStream)
       ZLIB -> DeflaterOutputStream(outStream)
+      ZSTD -> ZstdOutputStream(outStream).setLevel(level).apply { dictionary?.let { setDict(it) } }
+      LZ4 -> LZ4FrameOutputStream(outStream)
     }
 
-  fun getInflator(inStream: InputStream) =
+  /**
+   * @param dictionary only used by [ZSTD], must be the dictionary the body was compressed with
+   */
+  fun getInflator(inStream: InputStream, dictionary: ByteArray? = null): InputStream =
     when (this) {
       GZIP -> GZIPInputStream(inStream)
       ZLIB -> InflaterInputStream(inStream)
+      ZSTD -> ZstdInputStream(inStream).apply { dictionary?.let { setDict(it) } }
+      LZ4 -> LZ4FrameInputStream(inStream)
     }
 }
 
@@ -0,0 +1,38 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.spinnaker.config
+
+import org.springframework.boot.context.properties.ConfigurationProperties
+
+/**
+ * Defines properties for the pipeline summaries table, a denormalized projection of
+ * pipeline executions holding what lists of executions display, without stage bodies.
+ */
+@ConfigurationProperties("execution-repository.sql.summaries")
+class ExecutionSummaryProperties {
+
+  /**
+   * Maintains a summary of every pipeline execution as it is stored, and serves lists of
+   * executions from them. Executions stored before this was enabled have no summary until
+   * they are next stored.
+   */
+  var enabled: Boolean = false
+
+  /**
+   * The largest page of summaries that may be requested at once.
+   */
+  var maxPageSize: Int = 500
+}
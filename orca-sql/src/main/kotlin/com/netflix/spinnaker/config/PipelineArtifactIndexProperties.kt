@@ -0,0 +1,51 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.spinnaker.config
+
+import org.springframework.boot.context.properties.ConfigurationProperties
+
+/**
+ * Defines properties for the pipeline artifacts table, an index of the artifacts emitted by
+ * pipeline executions that prior artifacts are looked up in.
+ */
+@ConfigurationProperties("execution-repository.sql.artifact-index")
+class PipelineArtifactIndexProperties {
+
+  /**
+   * Indexes the artifacts of pipeline executions as they are stored, and looks up prior
+   * artifacts in the index. Executions stored before this was enabled are loaded in full
+   * until they have been backfilled.
+   */
+  var enabled: Boolean = false
+
+  var backfill: BackfillProperties = BackfillProperties()
+}
+
+class BackfillProperties {
+
+  /**
+   * Indexes the artifacts of completed executions stored before the index was enabled,
+   * most recent first
+   */
+  var enabled: Boolean = false
+
+  /**
+   * Number of executions to index on each run
+   */
+  var batchSize: Int = 100
+
+  var intervalMs: Long = 60_000
+}
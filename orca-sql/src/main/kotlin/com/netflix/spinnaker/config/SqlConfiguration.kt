@@ -31,12 +31,15 @@ import com.netflix.spinnaker.orca.notifications.SqlNotificationClusterLock
 import com.netflix.spinnaker.orca.pipeline.model.support.CustomTriggerDeserializerSupplier
 import com.netflix.spinnaker.orca.pipeline.model.support.TriggerDeserializer
 import com.netflix.spinnaker.orca.pipeline.persistence.ExecutionRepository
+import com.netflix.spinnaker.orca.pipeline.persistence.WriteBehindExecutionRepository
 import com.netflix.spinnaker.orca.sql.PipelineRefTriggerDeserializerSupplier
 import com.netflix.spinnaker.orca.sql.SpringLiquibaseProxy
 import com.netflix.spinnaker.orca.sql.SqlHealthIndicator
 import com.netflix.spinnaker.orca.sql.SqlHealthcheckActivator
 import com.netflix.spinnaker.orca.sql.pipeline.persistence.ExecutionStatisticsRepository
 import com.netflix.spinnaker.orca.sql.pipeline.persistence.SqlExecutionRepository
+import com.netflix.spinnaker.orca.sql.pipeline.persistence.SqlExecutionSummaryRepository
+import com.netflix.spinnaker.orca.sql.pipeline.persistence.SqlPipelineArtifactIndex
 import com.netflix.spinnaker.orca.sql.telemetry.SqlActiveExecutionsMonitor
 import java.time.Clock
 import java.util.Optional
@@ -60,7 +63,7 @@ import org.springframework.context.annotation.Primary
 
 @Configuration
 @ConditionalOnProperty("sql.enabled")
-@EnableConfigurationProperties(OrcaSqlProperties::class, ExecutionCompressionProperties::class, PipelineRefProperties::class)
+@EnableConfigurationProperties(OrcaSqlProperties::class, ExecutionCompressionProperties::class, PipelineRefProperties::class, StageDeltaProperties::class, ExecutionSummaryProperties::class, PipelineArtifactIndexProperties::class)
 @Import(DefaultSqlConfiguration::class)
 @ComponentScan("com.netflix.spinnaker.orca.sql")
 
@@ -83,7 +86,11 @@ class SqlConfiguration {
     executionRepositoryListeners: Collection<ExecutionRepositoryListener>,
     compressionProperties: ExecutionCompressionProperties,
     pipelineRefProperties: PipelineRefProperties,
-    dataSource: DataSource
+    stageDeltaProperties: StageDeltaProperties,
+    executionSummaryProperties: ExecutionSummaryProperties,
+    artifactIndexProperties: PipelineArtifactIndexProperties,
+    dataSource: DataSource,
+    @Value("\${execution-repository.sql.write-behind.enabled:false}") writeBehindEnabled: Boolean
   ) =
     SqlExecutionRepository(
       orcaSqlProperties.partitionName,
@@ -96,9 +103,14 @@ class SqlConfiguration {
       executionRepositoryListeners = executionRepositoryListeners,
       compressionProperties = compressionProperties,
       pipelineRefEnabled = pipelineRefProperties.enabled,
-      dataSource = dataSource
+      dataSource = dataSource,
+      stageDeltaProperties = stageDeltaProperties,
+      executionSummaryProperties = executionSummaryProperties,
+      artifactIndexProperties = artifactIndexProperties
     ).let {
       InstrumentedProxy.proxy(registry, it, "sql.executions", mapOf(Pair("repository", "primary"))) as ExecutionRepository
+    }.let {
+      if (writeBehindEnabled) WriteBehindExecutionRepository(it, registry) else it
     }
 
   @ConditionalOnProperty("execution-repository.sql.enabled", "execution-repository.sql.secondary.enabled")
@@ -112,6 +124,7 @@ class SqlConfiguration {
     @Value("\${execution-repository.sql.secondary.pool-name}") poolName: String,
     compressionProperties: ExecutionCompressionProperties,
     pipelineRefProperties: PipelineRefProperties,
+    stageDeltaProperties: StageDeltaProperties,
     dataSource: DataSource
   ) =
     SqlExecutionRepository(
@@ -124,19 +137,34 @@ class SqlConfiguration {
       poolName,
       compressionProperties = compressionProperties,
       pipelineRefEnabled = pipelineRefProperties.enabled,
-      dataSource = dataSource
+      dataSource = dataSource,
+      stageDeltaProperties = stageDeltaProperties
     ).let {
       InstrumentedProxy.proxy(registry, it, "sql.executions", mapOf(Pair("repository", "secondary"))) as ExecutionRepository
     }
 
+  @ConditionalOnProperty("execution-repository.sql.enabled", "execution-repository.sql.summaries.enabled")
+  @Bean
+  fun sqlExecutionSummaryRepository(dsl: DSLContext) =
+    SqlExecutionSummaryRepository(dsl)
+
+  @ConditionalOnProperty("execution-repository.sql.enabled", "execution-repository.sql.artifact-index.enabled")
+  @Bean
+  fun sqlPipelineArtifactIndex(dsl: DSLContext, mapper: ObjectMapper) =
+    SqlPipelineArtifactIndex(dsl, mapper)
+
   @ConditionalOnProperty("monitor.active-executions.redis", havingValue = "false")
   @Bean
   fun sqlActiveExecutionsMonitor(
-    @Qualifier("sqlExecutionRepository") executionRepository: ExecutionStatisticsRepository,
+    @Qualifier("sqlExecutionRepository") executionRepository: ExecutionRepository,
     registry: Registry,
     @Value("\${monitor.active-executions.refresh.frequency.ms:60000}") refreshFrequencyMs: Long
   ) =
-    SqlActiveExecutionsMonitor(executionRepository, registry, refreshFrequencyMs)
+    SqlActiveExecutionsMonitor(
+      ((executionRepository as? WriteBehindExecutionRepository)?.delegate ?: executionRepository) as ExecutionStatisticsRepository,
+      registry,
+      refreshFrequencyMs
+    )
 
   @Bean
   fun sqlHealthcheckActivator(dsl: DSLContext, registry: Registry) =
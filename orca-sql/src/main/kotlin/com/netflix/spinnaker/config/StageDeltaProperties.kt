@@ -0,0 +1,55 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.spinnaker.config
+
+import org.springframework.boot.context.properties.ConfigurationProperties
+
+/**
+ * Defines properties for persisting stage updates as JSON merge patches against the
+ * previously stored body rather than rewriting the whole body on every write.
+ *
+ * Deltas trade some CPU (diffing the old and new body) for much smaller writes to the
+ * stages tables, which matters most for long running tasks that are rescheduled often.
+ */
+@ConfigurationProperties("execution-repository.sql.stage-deltas")
+class StageDeltaProperties {
+
+  /**
+   * Applies stored deltas when reading stages. Must stay enabled until every stage that has
+   * deltas has been compacted, see [writeEnabled].
+   */
+  var enabled: Boolean = false
+
+  /**
+   * Determines whether stage writes may be stored as deltas, or only read.
+   * Only relevant when enabled is true. Disable this first when turning the feature off.
+   */
+  var writeEnabled: Boolean = true
+
+  /**
+   * Number of deltas a stage may accumulate before the next write stores the full body
+   * and removes them. Stages are also compacted when they complete.
+   */
+  var compactionThreshold: Int = 20
+
+  /**
+   * A delta is only stored if it is smaller than this fraction of the full body,
+   * otherwise the full body is written.
+   */
+  var maxDeltaRatio: Double = 0.5
+
+  fun isWriteEnabled() = enabled && writeEnabled
+}
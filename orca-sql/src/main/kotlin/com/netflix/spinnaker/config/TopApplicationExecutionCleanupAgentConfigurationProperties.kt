@@ -39,6 +39,25 @@ class TopApplicationExecutionCleanupAgentConfigurationProperties() {
    */
   var exceptionApplicationThresholds: Map<String, Int> = emptyMap()
 
+  /**
+   * Picks the executions to delete for a batch of applications with a single window function
+   * query, a page of [pageSize] at a time, rather than with a query per application.
+   * Requires MySQL 8+ or PostgreSQL.
+   */
+  var setBasedSelection: Boolean = false
+
+  /**
+   * Number of executions picked per page when [setBasedSelection] is enabled
+   */
+  var pageSize: Int = 1000
+
+  /**
+   * Maximum number of executions deleted per second, 0 for no limit
+   */
+  var executionsPerSecond: Double = 0.0
+
+  var archive: CleanupArchiveProperties = CleanupArchiveProperties()
+
   constructor(
     intervalMs: Long,
     threshold: Int,
@@ -17,7 +17,6 @@
 package com.netflix.spinnaker.orca.sql.cleanup
 
 import com.netflix.spectator.api.Counter
-import com.netflix.spectator.api.Id
 import com.netflix.spectator.api.Registry
 import com.netflix.spectator.api.patterns.LongTaskTimer
 import com.netflix.spinnaker.orca.api.pipeline.models.ExecutionStatus
@@ -35,7 +34,6 @@ abstract class AbstractCleanupPollingAgent(
   val log: Logger = LoggerFactory.getLogger(javaClass)
   val completedStatuses = ExecutionStatus.COMPLETED.map { it.toString() }
 
-  val deletedId: Id = registry.createId("pollers.$notificationType.deleted")
   val errorsCounter: Counter = registry.counter("pollers.$notificationType.errors")
   val invocationTimer: LongTaskTimer = LongTaskTimer.get(registry, registry.createId("pollers.$notificationType.timing"))
 
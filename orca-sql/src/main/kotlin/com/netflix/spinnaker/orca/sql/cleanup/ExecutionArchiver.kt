@@ -0,0 +1,66 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.spinnaker.orca.sql.cleanup
+
+import com.fasterxml.jackson.databind.ObjectMapper
+import com.netflix.spinnaker.orca.api.pipeline.models.ExecutionType
+import com.netflix.spinnaker.orca.pipeline.persistence.ExecutionNotFoundException
+import com.netflix.spinnaker.orca.pipeline.persistence.ExecutionRepository
+import java.nio.file.Files
+import java.nio.file.Path
+import java.nio.file.StandardOpenOption.APPEND
+import java.nio.file.StandardOpenOption.CREATE
+import java.time.Clock
+import java.time.LocalDate
+import java.util.zip.GZIPOutputStream
+
+/**
+ * Writes executions to gzipped NDJSON files before a cleanup agent deletes them, one file per
+ * execution type, application and day in [directory].
+ *
+ * Each call appends a complete gzip member to the file, which `zcat` and [java.util.zip.GZIPInputStream]
+ * read back as a single stream.
+ */
+internal class ExecutionArchiver(
+  private val executionRepository: ExecutionRepository,
+  private val mapper: ObjectMapper,
+  private val directory: Path,
+  private val clock: Clock
+) {
+
+  /**
+   * @return the number of executions archived, which leaves out any already deleted.
+   */
+  fun archive(type: ExecutionType, application: String, executionIds: List<String>): Int {
+    Files.createDirectories(directory)
+    val file = directory.resolve("${type.toString().lowercase()}-$application-${LocalDate.now(clock)}.ndjson.gz")
+
+    var archived = 0
+    GZIPOutputStream(Files.newOutputStream(file, CREATE, APPEND)).bufferedWriter().use { writer ->
+      executionIds.forEach { id ->
+        val execution = try {
+          executionRepository.retrieve(type, id)
+        } catch (e: ExecutionNotFoundException) {
+          return@forEach
+        }
+        writer.write(mapper.writeValueAsString(execution))
+        writer.newLine()
+        archived++
+      }
+    }
+    return archived
+  }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.spinnaker.orca.sql.cleanup
+
+import com.google.common.util.concurrent.RateLimiter
+import com.netflix.spectator.api.Registry
+import com.netflix.spinnaker.orca.api.pipeline.models.ExecutionType
+import com.netflix.spinnaker.orca.notifications.scheduling.PipelineDependencyCleanupOperator
+import com.netflix.spinnaker.orca.pipeline.persistence.ExecutionRepository
+import java.util.concurrent.TimeUnit
+
+/**
+ * Deletes the executions picked by a cleanup agent, [chunkSize] at a time.
+ *
+ * Deletes are held to [executionsPerSecond] across chunks, so that working through a large
+ * backlog does not flood replication, and each chunk is archived first when there is an
+ * [archiver]. Besides the executions deleted, it records how long chunks took to delete and
+ * how long they waited for the budget, which grow as the database falls behind.
+ */
+internal class ExecutionDeleter(
+  private val executionRepository: ExecutionRepository,
+  private val pipelineDependencyCleanupOperators: List<PipelineDependencyCleanupOperator>,
+  private val archiver: ExecutionArchiver?,
+  private val chunkSize: Int,
+  executionsPerSecond: Double,
+  private val registry: Registry,
+  notificationType: String
+) {
+
+  private val rateLimiter = if (executionsPerSecond > 0) RateLimiter.create(executionsPerSecond) else null
+
+  private val deletedId = registry.createId("pollers.$notificationType.deleted")
+  private val archivedId = registry.createId("pollers.$notificationType.archived")
+  private val chunkTimer = registry.timer("pollers.$notificationType.chunkTiming")
+  private val throttledTimer = registry.timer("pollers.$notificationType.throttled")
+
+  /**
+   * @return the number of executions deleted.
+   */
+  fun delete(type: ExecutionType, application: String, executionIds: List<String>): Int {
+    if (executionIds.isEmpty()) {
+      return 0
+    }
+
+    pipelineDependencyCleanupOperators.forEach { it.cleanup(executionIds) }
+
+    executionIds.chunked(chunkSize).forEach { ids ->
+      rateLimiter?.let {
+        throttledTimer.record((it.acquire(ids.size) * 1000).toLong(), TimeUnit.MILLISECONDS)
+      }
+
+      archiver?.let {
+        val archived = it.archive(type, application, ids)
+        registry.counter(archivedId.withTag("application", application)).add(archived.toDouble())
+      }
+
+      val start = System.nanoTime()
+      executionRepository.delete(type, ids)
+      chunkTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS)
+      registry.counter(deletedId.withTag("application", application)).add(ids.size.toDouble())
+    }
+
+    return executionIds.size
+  }
+}
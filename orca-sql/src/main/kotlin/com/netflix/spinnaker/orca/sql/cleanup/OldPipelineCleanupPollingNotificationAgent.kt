@@ -16,6 +16,7 @@
 
 package com.netflix.spinnaker.orca.sql.cleanup
 
+import com.fasterxml.jackson.databind.ObjectMapper
 import com.netflix.spectator.api.Registry
 import com.netflix.spinnaker.config.OldPipelineCleanupAgentConfigurationProperties
 import com.netflix.spinnaker.config.OrcaSqlProperties
@@ -23,14 +24,17 @@ import com.netflix.spinnaker.orca.api.pipeline.models.ExecutionType
 import com.netflix.spinnaker.orca.notifications.NotificationClusterLock
 import com.netflix.spinnaker.orca.notifications.scheduling.PipelineDependencyCleanupOperator
 import com.netflix.spinnaker.orca.pipeline.persistence.ExecutionRepository
+import java.nio.file.Paths
 import java.time.Clock
 import java.time.Instant
 import java.time.temporal.ChronoUnit
-import java.util.concurrent.atomic.AtomicInteger
+import org.jooq.Condition
 import org.jooq.DSLContext
 import org.jooq.impl.DSL.count
 import org.jooq.impl.DSL.field
 import org.jooq.impl.DSL.name
+import org.jooq.impl.DSL.noCondition
+import org.jooq.impl.DSL.rowNumber
 import org.jooq.impl.DSL.table
 import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression
 import org.springframework.boot.context.properties.EnableConfigurationProperties
@@ -44,16 +48,29 @@ class OldPipelineCleanupPollingNotificationAgent(
   private val jooq: DSLContext,
   private val clock: Clock,
   registry: Registry,
-  private val executionRepository: ExecutionRepository,
+  executionRepository: ExecutionRepository,
+  mapper: ObjectMapper,
   private val configurationProperties: OldPipelineCleanupAgentConfigurationProperties,
   private val orcaSqlProperties: OrcaSqlProperties,
-  private val pipelineDependencyCleanupOperators: List<PipelineDependencyCleanupOperator>
+  pipelineDependencyCleanupOperators: List<PipelineDependencyCleanupOperator>
 ) : AbstractCleanupPollingAgent(
   clusterLock,
   configurationProperties.intervalMs,
   registry
 ) {
 
+  private val executionDeleter = ExecutionDeleter(
+    executionRepository,
+    pipelineDependencyCleanupOperators,
+    configurationProperties.archive.takeIf { it.enabled }?.let {
+      ExecutionArchiver(executionRepository, mapper, Paths.get(it.directory), clock)
+    },
+    configurationProperties.chunkSize,
+    configurationProperties.executionsPerSecond,
+    registry,
+    notificationType
+  )
+
   override fun performCleanup() {
     val exceptionalApps = configurationProperties.exceptionalApplications.toHashSet()
 
@@ -75,6 +92,11 @@ class OldPipelineCleanupPollingNotificationAgent(
       val thresholdMillis = Instant.ofEpochMilli(clock.millis()).minus(thresholdToUse, ChronoUnit.DAYS).toEpochMilli()
 
       for (chunk in candidateApplications.chunked(5)) {
+        if (configurationProperties.setBasedSelection) {
+          performSetBasedCleanup(chunk, thresholdMillis)
+          continue
+        }
+
         var queryBuilder = jooq
           .select(field("application"), field("config_id"), count(field("id")).`as`("count"))
           .from(table("pipelines"))
@@ -139,8 +161,6 @@ class OldPipelineCleanupPollingNotificationAgent(
     pipelineConfigId: String,
     thresholdMillis: Long
   ): Int {
-    val deletedExecutionCount = AtomicInteger()
-
     var queryBuilder = jooq
       .select(field("id"))
       .from(table("pipelines"))
@@ -163,15 +183,61 @@ class OldPipelineCleanupPollingNotificationAgent(
       .limit(configurationProperties.minimumPipelineExecutions, Int.MAX_VALUE)
       .fetch(field("id"), String::class.java)
 
-    pipelineDependencyCleanupOperators.forEach { it.cleanup(executionsToRemove) }
-
-    executionsToRemove.chunked(configurationProperties.chunkSize).forEach { ids ->
-      deletedExecutionCount.addAndGet(ids.size)
-      executionRepository.delete(ExecutionType.PIPELINE, ids)
+    return executionDeleter.delete(ExecutionType.PIPELINE, application, executionsToRemove)
+  }
 
-      registry.counter(deletedId.withTag("application", application)).add(ids.size.toDouble())
+  /**
+   * Cleans up the executions of every pipeline config in [applications] the same way as
+   * [performCleanup], ranking the executions of each pipeline config in a single query
+   * rather than querying them one pipeline config at a time.
+   */
+  private fun performSetBasedCleanup(applications: List<String>, thresholdMillis: Long) {
+    val startTime = System.currentTimeMillis()
+
+    val ranked = jooq
+      .select(
+        field("id"),
+        field("application"),
+        rowNumber()
+          .over()
+          .partitionBy(field("application"), field("config_id"))
+          .orderBy(field("build_time").desc())
+          .`as`("execution_rank")
+      )
+      .from(table("pipelines"))
+      .where(field("application").`in`(*applications.toTypedArray()))
+      .and(field("config_id").isNotNull)
+      .and(field("build_time").le(thresholdMillis))
+      .and(field("status").`in`(*completedStatuses.toTypedArray()))
+      .and(partitionCondition())
+      .asTable("ranked_pipelines")
+
+    var deleted = 0
+    jooq.forEachPageOfRankedExecutions(
+      ranked,
+      configurationProperties.minimumPipelineExecutions,
+      configurationProperties.pageSize
+    ) { page ->
+      page.forEach { (application, ids) ->
+        try {
+          deleted += executionDeleter.delete(ExecutionType.PIPELINE, application, ids)
+        } catch (e: Exception) {
+          log.error("Failed to cleanup old pipelines for $application", e)
+          errorsCounter.increment()
+        }
+      }
     }
 
-    return deletedExecutionCount.toInt()
+    val elapsedMs = System.currentTimeMillis() - startTime
+    log.info(
+      "Cleaned up {} old pipelines for {} in {}ms ({}/s)",
+      deleted,
+      applications,
+      elapsedMs,
+      deleted * 1000 / elapsedMs.coerceAtLeast(1)
+    )
   }
+
+  private fun partitionCondition(): Condition =
+    orcaSqlProperties.partitionName?.let { field(name("partition")).eq(it) } ?: noCondition()
 }
@@ -0,0 +1,58 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.spinnaker.orca.sql.cleanup
+
+import org.jooq.DSLContext
+import org.jooq.Table
+import org.jooq.impl.DSL.field
+import org.jooq.impl.DSL.name
+
+/**
+ * Reads the executions of [ranked] whose `execution_rank` is above [keep], passing them to
+ * [block] in pages of [pageSize] grouped by application.
+ *
+ * The executions are read in a single pass over [ranked], so ranking them, which means going
+ * through every execution that [ranked] considers, happens once rather than once per page.
+ * Pages are handed to [block] as they are read, without waiting for the rest.
+ *
+ * @return the number of executions read.
+ */
+internal fun DSLContext.forEachPageOfRankedExecutions(
+  ranked: Table<*>,
+  keep: Int,
+  pageSize: Int,
+  block: (Map<String, List<String>>) -> Unit
+): Int {
+  val id = field(name(ranked.name, "id"), String::class.java)
+  val application = field(name(ranked.name, "application"), String::class.java)
+  val rank = field(name(ranked.name, "execution_rank"), Int::class.java)
+
+  var total = 0
+  select(id, application)
+    .from(ranked)
+    .where(rank.gt(keep))
+    .fetchSize(pageSize)
+    .fetchLazy()
+    .use { cursor ->
+      while (cursor.hasNext()) {
+        val page = cursor.fetchNext(pageSize)
+        block(page.groupBy({ it.value2() }, { it.value1() }))
+        total += page.size
+      }
+    }
+
+  return total
+}
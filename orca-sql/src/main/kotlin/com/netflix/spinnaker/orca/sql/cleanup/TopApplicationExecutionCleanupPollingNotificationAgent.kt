@@ -16,6 +16,7 @@
 
 package com.netflix.spinnaker.orca.sql.cleanup
 
+import com.fasterxml.jackson.databind.ObjectMapper
 import com.netflix.spectator.api.Registry
 import com.netflix.spinnaker.config.OrcaSqlProperties
 import com.netflix.spinnaker.config.TopApplicationExecutionCleanupAgentConfigurationProperties
@@ -23,7 +24,8 @@ import com.netflix.spinnaker.orca.api.pipeline.models.ExecutionType
 import com.netflix.spinnaker.orca.notifications.NotificationClusterLock
 import com.netflix.spinnaker.orca.notifications.scheduling.PipelineDependencyCleanupOperator
 import com.netflix.spinnaker.orca.pipeline.persistence.ExecutionRepository
-import java.util.concurrent.atomic.AtomicInteger
+import java.nio.file.Paths
+import java.time.Clock
 import org.jooq.DSLContext
 import org.jooq.impl.DSL
 import org.jooq.impl.DSL.name
@@ -37,17 +39,31 @@ import org.springframework.stereotype.Component
 class TopApplicationExecutionCleanupPollingNotificationAgent(
   clusterLock: NotificationClusterLock,
   private val jooq: DSLContext,
+  private val clock: Clock,
   registry: Registry,
-  private val executionRepository: ExecutionRepository,
+  executionRepository: ExecutionRepository,
+  mapper: ObjectMapper,
   private val configurationProperties: TopApplicationExecutionCleanupAgentConfigurationProperties,
   private val orcaSqlProperties: OrcaSqlProperties,
-  private val pipelineDependencyCleanupOperators: List<PipelineDependencyCleanupOperator>
+  pipelineDependencyCleanupOperators: List<PipelineDependencyCleanupOperator>
 ) : AbstractCleanupPollingAgent(
   clusterLock,
   configurationProperties.intervalMs,
   registry
 ) {
 
+  private val executionDeleter = ExecutionDeleter(
+    executionRepository,
+    pipelineDependencyCleanupOperators,
+    configurationProperties.archive.takeIf { it.enabled }?.let {
+      ExecutionArchiver(executionRepository, mapper, Paths.get(it.directory), clock)
+    },
+    configurationProperties.chunkSize,
+    configurationProperties.executionsPerSecond,
+    registry,
+    notificationType
+  )
+
   override fun performCleanup() {
     // We don't have an index on partition/application so a query on a given partition is very expensive.
     // Instead perform a query without partition constraint to get potential candidates.
@@ -64,6 +80,11 @@ class TopApplicationExecutionCleanupPollingNotificationAgent(
 
     candidateApplicationGroups.forEach { (thresholdToUse, candidateApplications) ->
       for (chunk in candidateApplications.chunked(5)) {
+        if (configurationProperties.setBasedSelection) {
+          performSetBasedCleanup(chunk, thresholdToUse)
+          continue
+        }
+
         val applicationsWithLotsOfOrchestrations = jooq
           .select(DSL.field("application"))
           .from(DSL.table("orchestrations"))
@@ -106,8 +127,6 @@ class TopApplicationExecutionCleanupPollingNotificationAgent(
    * An application can have at most [threshold] completed orchestrations.
    */
   private fun performCleanup(application: String, threshold: Int): Int {
-    val deletedExecutionCount = AtomicInteger()
-
     val executionsToRemove = jooq
       .select(DSL.field("id"))
       .from(DSL.table("orchestrations"))
@@ -121,15 +140,58 @@ class TopApplicationExecutionCleanupPollingNotificationAgent(
 
     log.debug("Found {} old orchestrations for {}", executionsToRemove.size, application)
 
-    pipelineDependencyCleanupOperators.forEach { it.cleanup(executionsToRemove) }
+    return executionDeleter.delete(ExecutionType.ORCHESTRATION, application, executionsToRemove)
+  }
 
-    executionsToRemove.chunked(configurationProperties.chunkSize).forEach { ids ->
-      deletedExecutionCount.addAndGet(ids.size)
+  /**
+   * Cleans up the orchestrations of [applications] the same way as [performCleanup], ranking
+   * the orchestrations of each application in a single query. Unlike [performCleanup], only
+   * orchestrations in this partition are considered.
+   */
+  private fun performSetBasedCleanup(applications: List<String>, threshold: Int) {
+    val startTime = System.currentTimeMillis()
 
-      executionRepository.delete(ExecutionType.ORCHESTRATION, ids)
-      registry.counter(deletedId.withTag("application", application)).add(ids.size.toDouble())
+    val ranked = jooq
+      .select(
+        DSL.field("id"),
+        DSL.field("application"),
+        DSL.rowNumber()
+          .over()
+          .partitionBy(DSL.field("application"))
+          .orderBy(DSL.field("build_time").desc())
+          .`as`("execution_rank")
+      )
+      .from(DSL.table("orchestrations"))
+      .where(DSL.field("application").`in`(*applications.toTypedArray()))
+      .and(DSL.field("status").`in`(*completedStatuses.toTypedArray()))
+      .and(
+        if (orcaSqlProperties.partitionName == null) {
+          DSL.noCondition()
+        } else {
+          DSL.field(name("partition")).eq(orcaSqlProperties.partitionName)
+        }
+      )
+      .asTable("ranked_orchestrations")
+
+    var deleted = 0
+    jooq.forEachPageOfRankedExecutions(ranked, threshold, configurationProperties.pageSize) { page ->
+      page.forEach { (application, ids) ->
+        try {
+          deleted += executionDeleter.delete(ExecutionType.ORCHESTRATION, application, ids)
+        } catch (e: Exception) {
+          log.error("Failed to cleanup old orchestrations for $application", e)
+          errorsCounter.increment()
+        }
+      }
     }
 
-    return deletedExecutionCount.toInt()
+    val elapsedMs = System.currentTimeMillis() - startTime
+    log.info(
+      "Cleaned up {} old orchestrations for {} in {}ms ({}/s)",
+      deleted,
+      applications,
+      elapsedMs,
+      deleted * 1000 / elapsedMs.coerceAtLeast(1)
+    )
   }
 }
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.spinnaker.orca.sql.pipeline.persistence
+
+import com.github.luben.zstd.Zstd
+import com.google.common.base.Supplier
+import com.google.common.base.Suppliers
+import com.netflix.spinnaker.config.CompressionType
+import com.netflix.spinnaker.config.ExecutionCompressionProperties
+import java.time.Clock
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.TimeUnit
+import org.jooq.DSLContext
+import org.jooq.impl.DSL.field
+import org.jooq.impl.DSL.table
+
+/**
+ * Loads and stores the shared dictionaries that bodies are compressed with when using
+ * [CompressionType.ZSTD].
+ *
+ * Dictionaries are never modified. zstd writes the id of the dictionary into every frame
+ * compressed with it, so a body can always be read with the dictionary it was written
+ * with, while new bodies are compressed with the latest one.
+ */
+class CompressionDictionaries(
+  private val jooq: DSLContext,
+  private val compressionProperties: ExecutionCompressionProperties,
+  private val clock: Clock = Clock.systemUTC()
+) {
+
+  private val dictionaries = ConcurrentHashMap<Long, ByteArray>()
+
+  private val latest: Supplier<CompressionDictionary?> = Suppliers.memoizeWithExpiration(
+    { fetchLatest() },
+    compressionProperties.zstd.dictionaryRefreshIntervalMs,
+    TimeUnit.MILLISECONDS
+  )
+
+  /**
+   * @return the dictionary new bodies should be compressed with, if any.
+   */
+  fun current(): CompressionDictionary? =
+    if (compressionProperties.zstd.dictionaryEnabled) latest.get() else null
+
+  /**
+   * @return the dictionary [frame] was compressed with, or `null` if it was compressed
+   * without one.
+   */
+  fun forFrame(frame: ByteArray): ByteArray? {
+    val id = Zstd.getDictIdFromFrame(frame)
+    if (id == 0L) {
+      return null
+    }
+    return dictionaries.computeIfAbsent(id) {
+      fetch(it) ?: throw IllegalStateException("Compression dictionary $it does not exist")
+    }
+  }
+
+  /**
+   * Stores a newly trained [dictionary] as the latest version.
+   *
+   * @return the id zstd assigned to the dictionary.
+   */
+  fun store(dictionary: ByteArray, sampleCount: Int): Long {
+    val id = Zstd.getDictIdFromDict(dictionary)
+    jooq
+      .insertInto(dictionariesTable)
+      .set(field("dictionary_id"), id)
+      .set(field("compression_type"), CompressionType.ZSTD.type)
+      .set(field("dictionary"), dictionary)
+      .set(field("sample_count"), sampleCount)
+      .set(field("created_at"), clock.millis())
+      .execute()
+    dictionaries[id] = dictionary
+    return id
+  }
+
+  private fun fetch(id: Long): ByteArray? =
+    jooq
+      .select(field("dictionary"))
+      .from(dictionariesTable)
+      .where(field("dictionary_id").eq(id))
+      .fetchOne(field("dictionary"), ByteArray::class.java)
+
+  private fun fetchLatest(): CompressionDictionary? =
+    jooq
+      .select(field("dictionary_id"), field("dictionary"))
+      .from(dictionariesTable)
+      .where(field("compression_type").eq(CompressionType.ZSTD.type))
+      .orderBy(field("id").desc())
+      .limit(1)
+      .fetchOne()
+      ?.let {
+        CompressionDictionary((it.getValue(0) as Number).toLong(), it.getValue(1, ByteArray::class.java))
+      }
+      ?.also { dictionaries.putIfAbsent(it.id, it.dictionary) }
+
+  companion object {
+    private val dictionariesTable = table("execution_compression_dictionaries")
+  }
+}
+
+class CompressionDictionary(
+  val id: Long,
+  val dictionary: ByteArray
+)
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.spinnaker.orca.sql.pipeline.persistence
+
+import com.github.luben.zstd.ZstdDictTrainer
+import com.netflix.spectator.api.Registry
+import com.netflix.spinnaker.config.CompressionType
+import com.netflix.spinnaker.config.ExecutionCompressionProperties
+import com.netflix.spinnaker.orca.api.pipeline.models.ExecutionType
+import com.netflix.spinnaker.orca.notifications.AbstractPollingNotificationAgent
+import com.netflix.spinnaker.orca.notifications.NotificationClusterLock
+import java.nio.charset.StandardCharsets
+import org.jooq.DSLContext
+import org.jooq.Record
+import org.jooq.impl.DSL.field
+import org.slf4j.LoggerFactory
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression
+import org.springframework.stereotype.Component
+
+/**
+ * Periodically trains a new zstd dictionary from a sample of recently stored stage bodies,
+ * see [CompressionDictionaries].
+ *
+ * Stage bodies of the same kind share most of their keys and many of their values, which a
+ * dictionary captures so that each body doesn't have to repeat them.
+ */
+@Component
+@ConditionalOnExpression("\${execution-repository.sql.compression.zstd.training.enabled:false} && \${execution-repository.sql.enabled:false}")
+class CompressionDictionaryTrainingAgent(
+  clusterLock: NotificationClusterLock,
+  private val jooq: DSLContext,
+  private val compressionProperties: ExecutionCompressionProperties,
+  private val registry: Registry
+) : AbstractPollingNotificationAgent(clusterLock) {
+
+  private val log = LoggerFactory.getLogger(javaClass)
+
+  private val dictionaries = CompressionDictionaries(jooq, compressionProperties)
+
+  override fun getPollingInterval() = compressionProperties.zstd.trainingIntervalMs
+
+  override fun getNotificationType(): String = javaClass.simpleName
+
+  override fun tick() {
+    val dictionarySize = compressionProperties.zstd.dictionarySize
+    // zstd recommends ~100 times as much sample data as the size of the dictionary
+    val trainer = ZstdDictTrainer(dictionarySize * 100, dictionarySize)
+    var sampleCount = 0
+    for (type in ExecutionType.values()) {
+      sampleBodies(type).forEach {
+        if (trainer.addSample(it)) {
+          sampleCount++
+        }
+      }
+    }
+
+    try {
+      val id = dictionaries.store(trainer.trainSamples(), sampleCount)
+      registry.counter("executionRepository.compression.dictionaries", "result", "trained").increment()
+      log.info("Trained compression dictionary $id from $sampleCount stage bodies")
+    } catch (e: Exception) {
+      registry.counter("executionRepository.compression.dictionaries", "result", "failed").increment()
+      log.error("Failed to train compression dictionary from $sampleCount stage bodies", e)
+    }
+  }
+
+  private fun sampleBodies(type: ExecutionType): List<ByteArray> {
+    val select = if (compressionProperties.enabled) {
+      jooq
+        .select(field("body"), field("compressed_body"), field("compression_type"))
+        .from(type.stagesTableName)
+        .leftJoin(type.stagesTableName.compressedExecTable).using(field("id"))
+    } else {
+      jooq
+        .select(field("body"))
+        .from(type.stagesTableName)
+    }
+
+    return select
+      .orderBy(field("id").desc())
+      .limit(compressionProperties.zstd.trainingSampleCount)
+      .fetch()
+      .map { it.body() }
+      .filter { it.isNotEmpty() }
+  }
+
+  private fun Record.body(): ByteArray {
+    val body = getValue(0, String::class.java)
+    if (!body.isNullOrEmpty() || size() == 1) {
+      return body.orEmpty().toByteArray(StandardCharsets.UTF_8)
+    }
+
+    val compressedBody = getValue(1, ByteArray::class.java) ?: return ByteArray(0)
+    val compressionType = CompressionType.valueOf(getValue(2, String::class.java))
+    val dictionary = if (compressionType == CompressionType.ZSTD) dictionaries.forFrame(compressedBody) else null
+    return compressionType.getInflator(compressedBody.inputStream(), dictionary).use { it.readBytes() }
+  }
+}
@@ -15,6 +15,7 @@
  */
 package com.netflix.spinnaker.orca.sql.pipeline.persistence
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties
 import com.fasterxml.jackson.databind.ObjectMapper
 import com.fasterxml.jackson.module.kotlin.readValue
 import com.google.common.annotations.VisibleForTesting
@@ -23,6 +24,7 @@ import com.netflix.spinnaker.config.ExecutionCompressionProperties
 import com.netflix.spinnaker.orca.api.pipeline.models.ExecutionType
 import com.netflix.spinnaker.orca.api.pipeline.models.PipelineExecution
 import com.netflix.spinnaker.orca.api.pipeline.models.StageExecution
+import com.netflix.spinnaker.orca.pipeline.model.StageExecutionImpl
 import java.sql.ResultSet
 import org.jooq.DSLContext
 import org.jooq.impl.DSL.field
@@ -34,12 +36,21 @@ import java.nio.charset.StandardCharsets
  *
  * When retrieving an Execution from SQL, we lazily load its stages on-demand
  * in this mapper as well.
+ *
+ * @param deferredStageMapper reads stages without their context, outputs and
+ * tasks. Required to map executions around a focus stage, see [map].
+ * @param stageDeltas applies stored stage deltas, if enabled.
+ * @param compressionDictionaries resolves the dictionaries of bodies compressed
+ * with [CompressionType.ZSTD].
  */
 class ExecutionMapper(
   private val mapper: ObjectMapper,
   private val stageBatchSize: Int,
   private val compressionProperties: ExecutionCompressionProperties,
-  private val pipelineRefEnabled: Boolean
+  private val pipelineRefEnabled: Boolean,
+  private val deferredStageMapper: ObjectMapper? = null,
+  private val stageDeltas: StageDeltas? = null,
+  private val compressionDictionaries: CompressionDictionaries? = null
 ) {
 
   private val log = LoggerFactory.getLogger(javaClass)
@@ -61,7 +72,12 @@ class ExecutionMapper(
     return if (compressionProperties.enabled && body.isNullOrEmpty()) {
       val compressionType = CompressionType.valueOf(rs.getString("compression_type"))
       val compressedBody = rs.getBytes("compressed_body")
-      compressionType.getInflator(compressedBody.inputStream())
+      val dictionary = if (compressionType == CompressionType.ZSTD) {
+        compressionDictionaries?.forFrame(compressedBody)
+      } else {
+        null
+      }
+      compressionType.getInflator(compressedBody.inputStream(), dictionary)
         .bufferedReader(StandardCharsets.UTF_8)
         .use { it.readText() }
     } else {
@@ -69,7 +85,17 @@ class ExecutionMapper(
     }
   }
 
-  fun map(rs: ResultSet, context: DSLContext): Collection<PipelineExecution> {
+  /**
+   * Maps each row of [rs] to an execution with all of its stages.
+   *
+   * If [focusStageId] is set, only that stage and its ancestors are fully
+   * deserialized. Every other stage is read without its context, outputs and
+   * tasks, which are deserialized from the already fetched body the first time
+   * they are accessed.
+   */
+  fun map(rs: ResultSet, context: DSLContext, focusStageId: String? = null): Collection<PipelineExecution> {
+    val deferStages = focusStageId != null && deferredStageMapper != null
+
     val results = mutableListOf<PipelineExecution>()
     val executionMap = mutableMapOf<String, PipelineExecution>()
     val legacyMap = mutableMapOf<String, String>()
@@ -108,14 +134,26 @@ class ExecutionMapper(
           }
         }
 
+        val deltas = if (stageDeltas?.readEnabled == true) {
+          stageDeltas.select(context, type, executionIds)
+        } else {
+          emptyMap()
+        }
+
         context.selectExecutionStages(type, executionIds, compressionProperties).let { stageResultSet ->
           while (stageResultSet.next()) {
-            mapStage(stageResultSet, executionMap)
+            mapStage(stageResultSet, executionMap, deferStages, deltas)
           }
         }
 
         executions.forEach { execution ->
           execution.stages.sortBy { it.refId }
+          if (deferStages) {
+            execution.stages
+              .find { it.id == focusStageId }
+              ?.ancestors()
+              ?.forEach { (it as? StageExecutionImpl)?.loadDeferred() }
+          }
         }
       }
     }
@@ -123,17 +161,30 @@ class ExecutionMapper(
     return results
   }
 
-  private fun mapStage(rs: ResultSet, executions: Map<String, PipelineExecution>) {
+  private fun mapStage(
+    rs: ResultSet,
+    executions: Map<String, PipelineExecution>,
+    deferred: Boolean,
+    deltas: Map<String, List<String>>
+  ) {
     val executionId = rs.getString("execution_id")
-    val body = getDecompressedBody(rs)
+    val patches = if (deltas.isEmpty()) emptyList() else deltas[rs.getString("id")].orEmpty()
+    val body = getDecompressedBody(rs).let {
+      if (patches.isEmpty()) it else stageDeltas!!.apply(it, patches)
+    }
+    val stage = if (deferred) {
+      deferredStageMapper!!.readValue<StageExecution>(body)
+        .also { (it as StageExecutionImpl).deferLoading { mapper.readValue<StageExecution>(body) } }
+    } else {
+      mapper.readValue<StageExecution>(body)
+    }
     executions.getValue(executionId)
       .stages
       .add(
-        mapper.readValue<StageExecution>(body)
-          .apply {
-            execution = executions.getValue(executionId)
-            setSize(body.length.toLong())
-          }
+        stage.apply {
+          execution = executions.getValue(executionId)
+          setSize(body.length.toLong())
+        }
       )
   }
 
@@ -161,7 +212,21 @@ class ExecutionMapper(
     return context
       .selectExecution(type, compressionProperties)
       .where(field("id").eq(trigger.parentExecutionId))
-      .fetchExecutions(mapper, 200, compressionProperties, context, pipelineRefEnabled)
+      .fetchExecutions(mapper, 200, compressionProperties, context, pipelineRefEnabled, stageDeltas, compressionDictionaries)
       .firstOrNull()
   }
 }
+
+/**
+ * Skips the potentially large properties of a stage so that they can be
+ * deserialized on demand, see [StageExecutionImpl.deferLoading].
+ */
+@JsonIgnoreProperties("context", "outputs", "tasks")
+internal abstract class DeferredStageMixin
+
+/**
+ * Returns a copy of this mapper that reads stages without their context,
+ * outputs and tasks.
+ */
+internal fun ObjectMapper.copyDeferringStageBodies(): ObjectMapper =
+  copy().addMixIn(StageExecutionImpl::class.java, DeferredStageMixin::class.java)
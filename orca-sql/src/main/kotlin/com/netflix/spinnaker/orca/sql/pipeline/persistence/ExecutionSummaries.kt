@@ -0,0 +1,99 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.spinnaker.orca.sql.pipeline.persistence
+
+import com.fasterxml.jackson.databind.ObjectMapper
+import com.netflix.spinnaker.orca.api.pipeline.models.PipelineExecution
+import com.netflix.spinnaker.orca.api.pipeline.models.StageExecution
+import java.lang.System.currentTimeMillis
+import org.jooq.Field
+import org.jooq.Record
+import org.jooq.Table
+import org.jooq.impl.DSL.field
+import org.jooq.impl.DSL.table
+
+internal val pipelineSummariesTable: Table<Record> = table("pipeline_summaries")
+internal val pipelineStageSummariesTable: Table<Record> = table("pipeline_stage_summaries")
+
+/**
+ * Builds the rows of the pipeline summaries tables, see [SqlExecutionSummaryRepository].
+ *
+ * Each stage has its own row, written whenever the stage is, so that stages stored at
+ * the same time by different instances never overwrite each other's digest.
+ */
+internal class ExecutionSummaries(
+  private val mapper: ObjectMapper
+) {
+
+  /**
+   * @return the columns of the summary of [execution].
+   */
+  fun columns(executionId: String, execution: PipelineExecution): Map<Field<Any?>, Any?> {
+    val columns = mutableMapOf<Field<Any?>, Any?>(
+      field("id") to executionId,
+      field("application") to execution.application,
+      field("config_id") to execution.pipelineConfigId,
+      field("name") to execution.name,
+      field("status") to execution.status.toString(),
+      field("build_time") to (execution.buildTime ?: currentTimeMillis()),
+      field("trigger_type") to execution.trigger.type,
+      field("updated_at") to currentTimeMillis()
+    )
+
+    // jooq has some issues casting nulls when updating in the Postgres dialect
+    execution.startTime?.let { columns[field("start_time")] = it }
+    execution.endTime?.let { columns[field("end_time")] = it }
+    return columns
+  }
+
+  /**
+   * @return the columns of the digest of [stage], stored as [stageId] of [executionId].
+   */
+  fun stageColumns(executionId: String, stageId: String, stage: StageExecution): Map<Field<Any?>, Any?> =
+    mapOf(
+      field("id") to stageId,
+      field("execution_id") to executionId,
+      field("ref_id") to stage.refId,
+      field("summary") to mapper.writeValueAsString(
+        StageSummary(
+          id = stage.id,
+          refId = stage.refId,
+          type = stage.type,
+          name = stage.name,
+          status = stage.status.toString(),
+          startTime = stage.startTime,
+          endTime = stage.endTime,
+          parentStageId = stage.parentStageId,
+          syntheticStageOwner = stage.syntheticStageOwner?.toString(),
+          requisiteStageRefIds = stage.requisiteStageRefIds
+        )
+      ),
+      field("updated_at") to currentTimeMillis()
+    )
+
+  internal data class StageSummary(
+    val id: String,
+    val refId: String?,
+    val type: String,
+    val name: String?,
+    val status: String,
+    val startTime: Long?,
+    val endTime: Long?,
+    val parentStageId: String?,
+    val syntheticStageOwner: String?,
+    val requisiteStageRefIds: Collection<String>
+  )
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.spinnaker.orca.sql.pipeline.persistence
+
+import com.fasterxml.jackson.databind.ObjectMapper
+import com.netflix.spectator.api.Registry
+import com.netflix.spinnaker.config.PipelineArtifactIndexProperties
+import com.netflix.spinnaker.orca.api.pipeline.models.ExecutionStatus
+import com.netflix.spinnaker.orca.api.pipeline.models.ExecutionType.PIPELINE
+import com.netflix.spinnaker.orca.notifications.AbstractPollingNotificationAgent
+import com.netflix.spinnaker.orca.notifications.NotificationClusterLock
+import com.netflix.spinnaker.orca.pipeline.persistence.ExecutionRepository
+import org.jooq.DSLContext
+import org.jooq.impl.DSL.field
+import org.jooq.impl.DSL.name
+import org.jooq.impl.DSL.noCondition
+import org.jooq.impl.DSL.selectOne
+import org.jooq.impl.DSL.using
+import org.slf4j.LoggerFactory
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression
+import org.springframework.stereotype.Component
+
+/**
+ * Indexes the artifacts of pipeline executions stored before the pipeline artifacts table
+ * was enabled, see [PipelineArtifacts], working back from the most recent execution.
+ *
+ * Only completed executions are indexed, as running ones may still be written to. Executions
+ * that are missed, including any still running when the backfill passes them, go on being
+ * loaded in full whenever their artifacts are looked up.
+ */
+@Component
+@ConditionalOnExpression("\${execution-repository.sql.artifact-index.backfill.enabled:false} && \${execution-repository.sql.enabled:false}")
+class PipelineArtifactIndexBackfillAgent(
+  clusterLock: NotificationClusterLock,
+  private val jooq: DSLContext,
+  mapper: ObjectMapper,
+  private val executionRepository: ExecutionRepository,
+  private val properties: PipelineArtifactIndexProperties,
+  private val registry: Registry
+) : AbstractPollingNotificationAgent(clusterLock) {
+
+  private val log = LoggerFactory.getLogger(javaClass)
+
+  private val pipelineArtifacts = PipelineArtifacts(mapper)
+
+  private val completedStatuses = ExecutionStatus.COMPLETED.map { it.toString() }
+
+  // the id below which executions have not been looked at yet
+  private var cursor: String? = null
+  private var done = false
+
+  override fun getPollingInterval() = properties.backfill.intervalMs
+
+  override fun getNotificationType(): String = javaClass.simpleName
+
+  override fun tick() {
+    if (done) {
+      return
+    }
+
+    val executionIds = selectUnindexedExecutionIds()
+    executionIds.forEach { backfill(it) }
+
+    cursor = executionIds.lastOrNull() ?: cursor
+    if (executionIds.size < properties.backfill.batchSize) {
+      log.info("Finished indexing the artifacts of existing pipeline executions")
+      done = true
+    }
+  }
+
+  private fun selectUnindexedExecutionIds(): List<String> {
+    val id = field(name(PIPELINE.tableName.name, "id"), String::class.java)
+    return jooq
+      .select(id)
+      .from(PIPELINE.tableName)
+      .where(cursor?.let { id.lt(it) } ?: noCondition())
+      .and(field("status").`in`(completedStatuses))
+      .andNotExists(
+        selectOne()
+          .from(pipelineArtifactsTable)
+          .where(field(name(pipelineArtifactsTable.name, "execution_id"), String::class.java).eq(id))
+          .and(field(name(pipelineArtifactsTable.name, "ordinal")).eq(TRIGGER_ORDINAL))
+      )
+      .orderBy(id.desc())
+      .limit(properties.backfill.batchSize)
+      .fetch(id)
+  }
+
+  private fun backfill(executionId: String) {
+    try {
+      val execution = executionRepository.retrieve(PIPELINE, executionId)
+      jooq.transaction { ctx ->
+        pipelineArtifacts.storeAll(using(ctx), executionId, execution, execution.stages)
+      }
+      registry.counter("executionRepository.artifactIndex.backfill", "result", "indexed").increment()
+    } catch (e: Exception) {
+      registry.counter("executionRepository.artifactIndex.backfill", "result", "failed").increment()
+      log.warn("Failed to index the artifacts of execution $executionId", e)
+    }
+  }
+}
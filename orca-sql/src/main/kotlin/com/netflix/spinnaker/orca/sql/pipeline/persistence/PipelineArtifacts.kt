@@ -0,0 +1,134 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.spinnaker.orca.sql.pipeline.persistence
+
+import com.fasterxml.jackson.databind.ObjectMapper
+import com.netflix.spinnaker.orca.api.pipeline.models.ExecutionStatus.NOT_STARTED
+import com.netflix.spinnaker.orca.api.pipeline.models.PipelineExecution
+import com.netflix.spinnaker.orca.api.pipeline.models.StageExecution
+import com.netflix.spinnaker.orca.pipeline.model.StageExecutionImpl
+import java.lang.System.currentTimeMillis
+import org.jooq.DSLContext
+import org.jooq.Record
+import org.jooq.Table
+import org.jooq.impl.DSL.field
+import org.jooq.impl.DSL.table
+import org.slf4j.LoggerFactory
+
+internal val pipelineArtifactsTable: Table<Record> = table("pipeline_artifacts")
+
+/**
+ * The ordinal of the row holding the artifacts of an execution's trigger. The rows of its
+ * stages are numbered from 0 in topological order.
+ */
+internal const val TRIGGER_ORDINAL = -1
+
+/**
+ * Writes the rows of the pipeline artifacts table, see [SqlPipelineArtifactIndex].
+ *
+ * An indexed execution has a row for its trigger, which is written even when the trigger has
+ * no artifacts and tells indexed executions apart from the rest, and a row for each top-level
+ * stage with `artifacts` in its outputs. Synthetic stages are left out, as they are when the
+ * artifacts are read from the execution itself.
+ */
+internal class PipelineArtifacts(
+  private val mapper: ObjectMapper
+) {
+
+  private val log = LoggerFactory.getLogger(javaClass)
+
+  /**
+   * Replaces the rows of [execution], whose stages are [stages].
+   */
+  fun storeAll(ctx: DSLContext, executionId: String, execution: PipelineExecution, stages: List<StageExecution>) {
+    ctx.deleteFrom(pipelineArtifactsTable)
+      .where(field("execution_id").eq(executionId))
+      .execute()
+
+    val ordinals = ordinals(execution, stages) ?: return
+    insert(ctx, executionId, executionId, null, TRIGGER_ORDINAL, execution.trigger.artifacts)
+    stages.forEach { stage ->
+      val artifacts = stage.emittedArtifacts()
+      val ordinal = ordinals[stage.id]
+      if (artifacts != null && ordinal != null) {
+        insert(ctx, stage.id, executionId, stage.refId, ordinal, artifacts)
+      }
+    }
+  }
+
+  /**
+   * Updates the row of [stage] after it was stored on its own.
+   *
+   * Stages only lose their artifacts when they are restarted, so a stage without artifacts
+   * has nothing to update unless it has just been reset.
+   */
+  fun storeStage(ctx: DSLContext, executionId: String, stage: StageExecution) {
+    if (stage.parentStageId != null) {
+      return
+    }
+
+    val artifacts = stage.emittedArtifacts()
+    if (artifacts == null && stage.status != NOT_STARTED) {
+      return
+    }
+
+    delete(ctx, stage.id)
+    if (artifacts != null) {
+      val ordinal = ordinals(stage.execution, stage.execution.stages)?.get(stage.id)
+      if (ordinal == null) {
+        // without its trigger row the execution is no longer considered indexed
+        delete(ctx, executionId)
+        return
+      }
+      insert(ctx, stage.id, executionId, stage.refId, ordinal, artifacts)
+    }
+  }
+
+  /**
+   * Removes the row of a stage, or of an execution's trigger.
+   */
+  fun delete(ctx: DSLContext, id: String) {
+    ctx.deleteFrom(pipelineArtifactsTable)
+      .where(field("id").eq(id))
+      .execute()
+  }
+
+  private fun insert(ctx: DSLContext, id: String, executionId: String, refId: String?, ordinal: Int, artifacts: List<*>) {
+    ctx.insertInto(pipelineArtifactsTable)
+      .columns(field("id"), field("execution_id"), field("ref_id"), field("ordinal"), field("artifacts"), field("updated_at"))
+      .values(id, executionId, refId, ordinal, mapper.writeValueAsString(artifacts), currentTimeMillis())
+      .execute()
+  }
+
+  /**
+   * @return the position of each top-level stage in topological order, or `null` if the
+   * stages cannot be sorted, in which case the execution is not indexed.
+   */
+  private fun ordinals(execution: PipelineExecution, stages: Collection<StageExecution>): Map<String, Int>? =
+    try {
+      StageExecutionImpl.topologicalSort(stages)
+        .iterator()
+        .asSequence()
+        .withIndex()
+        .associate { (ordinal, stage) -> stage.id to ordinal }
+    } catch (e: IllegalStateException) {
+      log.warn("Not indexing the artifacts of execution ${execution.id}", e)
+      null
+    }
+
+  private fun StageExecution.emittedArtifacts(): List<*>? =
+    outputs["artifacts"] as? List<*>
+}
@@ -16,8 +16,13 @@
 package com.netflix.spinnaker.orca.sql.pipeline.persistence
 
 import com.fasterxml.jackson.databind.ObjectMapper
+import com.fasterxml.jackson.databind.node.ObjectNode
 import com.google.common.annotations.VisibleForTesting
+import com.netflix.spinnaker.config.CompressionType
 import com.netflix.spinnaker.config.ExecutionCompressionProperties
+import com.netflix.spinnaker.config.ExecutionSummaryProperties
+import com.netflix.spinnaker.config.PipelineArtifactIndexProperties
+import com.netflix.spinnaker.config.StageDeltaProperties
 import com.netflix.spinnaker.kork.core.RetrySupport
 import com.netflix.spinnaker.kork.exceptions.ConfigurationException
 import com.netflix.spinnaker.kork.exceptions.SystemException
@@ -72,6 +77,7 @@ import org.jooq.impl.DSL.count
 import org.jooq.impl.DSL.field
 import org.jooq.impl.DSL.name
 import org.jooq.impl.DSL.now
+import org.jooq.impl.DSL.select
 import org.jooq.impl.DSL.table
 import org.jooq.impl.DSL.timestampSub
 import org.jooq.impl.DSL.value
@@ -114,7 +120,8 @@ import kotlin.collections.toTypedArray
  * There is a small amount of MySQL/PostgreSQL specific commands inside, but
  * all of which safely fallback to common SQL if the dialect does not match.
  */
-class SqlExecutionRepository(
+class SqlExecutionRepository
+@JvmOverloads constructor(
   private val partitionName: String?,
   private val jooq: DSLContext,
   private val mapper: ObjectMapper,
@@ -127,7 +134,10 @@ class SqlExecutionRepository(
   private val executionRepositoryListeners: Collection<ExecutionRepositoryListener> = emptyList(),
   private val compressionProperties: ExecutionCompressionProperties,
   private val pipelineRefEnabled: Boolean,
-  private val dataSource: DataSource
+  private val dataSource: DataSource,
+  stageDeltaProperties: StageDeltaProperties = StageDeltaProperties(),
+  private val executionSummaryProperties: ExecutionSummaryProperties = ExecutionSummaryProperties(),
+  private val artifactIndexProperties: PipelineArtifactIndexProperties = PipelineArtifactIndexProperties()
 ) : ExecutionRepository, ExecutionStatisticsRepository {
   companion object {
     val ulid = SpinULID(SecureRandom())
@@ -136,6 +146,16 @@ class SqlExecutionRepository(
 
   private val log = LoggerFactory.getLogger(javaClass)
 
+  private val deferredStageMapper by lazy { mapper.copyDeferringStageBodies() }
+
+  private val stageDeltas = StageDeltas(mapper, stageDeltaProperties)
+
+  private val compressionDictionaries = CompressionDictionaries(jooq, compressionProperties)
+
+  private val executionSummaries = ExecutionSummaries(mapper)
+
+  private val pipelineArtifacts = PipelineArtifacts(mapper)
+
   init {
     // If there's no read pool configured, fall back to the default pool
     if ((dataSource !is AbstractRoutingDataSource)
@@ -180,7 +200,10 @@ class SqlExecutionRepository(
   override fun storeStage(stage: StageExecution) {
     doForeignAware(PatchStageInterlinkEvent(stage.execution.type, stage.execution.id, stage.id, mapper.writeValueAsString(stage))) {
       _, dslContext ->
-      jooq.transactional { storeStageInternal(dslContext, stage) }
+      jooq.transactional {
+        val executionId = storeStageInternal(dslContext, stage)
+        storeStageArtifactsInternal(dslContext, stage, executionId)
+      }
     }
   }
 
@@ -192,8 +215,22 @@ class SqlExecutionRepository(
     validateHandledPartitionOrThrow(execution)
 
     withPool(poolName) {
+      if (isSummarized(execution)) {
+        jooq.delete(pipelineStageSummariesTable)
+          .where(
+            field("id").`in`(
+              select(field("id")).from(execution.type.stagesTableName).where(stageId.toWhereCondition())
+            )
+          )
+          .execute()
+      }
+
       jooq.delete(execution.type.stagesTableName)
         .where(stageId.toWhereCondition()).execute()
+
+      if (isArtifactIndexed(execution)) {
+        pipelineArtifacts.delete(jooq, stageId)
+      }
     }
   }
 
@@ -320,6 +357,30 @@ class SqlExecutionRepository(
     }
   }
 
+  /**
+   * Stores [stages] and [execution]'s status in a single transaction. Foreign executions, and
+   * batches spanning more than one execution, fall back to individual writes.
+   */
+  override fun storeBatch(stages: Collection<StageExecution>, execution: PipelineExecution?) {
+    val target = execution ?: stages.firstOrNull()?.execution ?: return
+    if (isForeign(target) || stages.any { it.execution.id != target.id }) {
+      super.storeBatch(stages, execution)
+      return
+    }
+
+    withPool(poolName) {
+      jooq.transactional { ctx ->
+        // matches storeStage(), which is a no-op once the execution has been deleted
+        if (ctx.fetchExists(ctx.selectFrom(target.type.tableName).where(target.id.toWhereCondition()))) {
+          stages.forEach { stage ->
+            storeStageInternal(ctx, stage).also { storeStageArtifactsInternal(ctx, stage, it) }
+          }
+          execution?.let { storeExecutionInternal(ctx, it) }
+        }
+      }
+    }
+  }
+
   override fun delete(type: ExecutionType, id: String) {
     doForeignAware(DeleteInterlinkEvent(type, id)) {
       _, dslContext ->
@@ -408,6 +469,19 @@ class SqlExecutionRepository(
     selectExecution(jooq, type, id)
       ?: throw ExecutionNotFoundException("No $type found for $id")
 
+  override fun retrieveForStage(type: ExecutionType, id: String, stageId: String): PipelineExecution {
+    withPool(poolName) {
+      return ExecutionMapper(mapper, stageReadSize, compressionProperties, pipelineRefEnabled, deferredStageMapper, stageDeltas, compressionDictionaries)
+        .map(
+          jooq.selectExecution(type, compressionProperties).where(id.toWhereCondition()).fetch().intoResultSet(),
+          jooq,
+          focusStageId = stageId
+        )
+        .firstOrNull()
+        ?: throw ExecutionNotFoundException("No $type found for $id")
+    }
+  }
+
   override fun retrieve(type: ExecutionType): Observable<PipelineExecution> =
     Observable.from(
       fetchExecutions { pageSize, cursor ->
@@ -605,7 +679,7 @@ class SqlExecutionRepository(
         .fetch()
 
       log.debug("getting stage information for all the executions found so far")
-      return ExecutionMapper(mapper, stageReadSize,compressionProperties, pipelineRefEnabled).map(baseQuery.intoResultSet(), jooq)
+      return ExecutionMapper(mapper, stageReadSize,compressionProperties, pipelineRefEnabled, stageDeltas = stageDeltas, compressionDictionaries = compressionDictionaries).map(baseQuery.intoResultSet(), jooq)
     }
   }
 
@@ -1044,6 +1118,11 @@ class SqlExecutionRepository(
 
       storeCorrelationIdInternal(ctx, execution)
 
+      if (isSummarized(execution)) {
+        val summary = executionSummaries.columns(executionId, execution)
+        upsert(ctx, pipelineSummariesTable, summary, summary - field("id"), executionId)
+      }
+
       if (storeStages) {
         val stageIds = stages.map { it.id }.toTypedArray()
 
@@ -1059,9 +1138,20 @@ class SqlExecutionRepository(
                   .and(field("legacy_id").notIn(*stageIds).or(field("legacy_id").isNull))
               }
             }.execute()
+
+          if (isSummarized(execution)) {
+            ctx.deleteFrom(pipelineStageSummariesTable)
+              .where(field("execution_id").eq(executionId))
+              .and(field("id").notIn(select(field("id")).from(stageTableName).where(field("execution_id").eq(executionId))))
+              .execute()
+          }
         }
 
         stages.forEach { storeStageInternal(ctx, it, executionId) }
+
+        if (isArtifactIndexed(execution)) {
+          pipelineArtifacts.storeAll(ctx, executionId, execution, stages)
+        }
       }
     } finally {
       withListener { onUpsert(execution) }
@@ -1071,12 +1161,16 @@ class SqlExecutionRepository(
     }
   }
 
+  /**
+   * @return the id of the execution of [stage], which differs from [PipelineExecution.getId]
+   * for executions with a legacy id.
+   */
   private fun storeStageInternal(
     ctx: DSLContext,
     stage: StageExecution,
     executionId: String? = null,
     notifyListener: Boolean = false
-  ) {
+  ): String {
     val stageTable = stage.execution.type.stagesTableName
     val table = stage.execution.type.tableName
     val body = mapper.writeValueAsString(stage)
@@ -1089,6 +1183,23 @@ class SqlExecutionRepository(
     val executionUlid = executionId ?: mapLegacyId(ctx, table, stage.execution.id, buildTime).first
     val (stageId, legacyId) = mapLegacyId(ctx, stageTable, stage.id, buildTime)
 
+    if (isSummarized(stage.execution)) {
+      val summary = executionSummaries.stageColumns(executionUlid, stageId, stage)
+      upsert(ctx, pipelineStageSummariesTable, summary, summary - field("id"), stageId)
+    }
+
+    if (stageDeltas.writeEnabled) {
+      val patch = selectStoredStage(ctx, stage.execution.type, stageId)
+        ?.let { stageDeltas.diff(stage, it, body) }
+      if (patch != null) {
+        storeStageDeltaInternal(ctx, stage, stageId, executionUlid, patch)
+        if (notifyListener) {
+          withListener { onUpsert(stage.execution) }
+        }
+        return executionUlid
+      }
+    }
+
     val insertPairs = mapOf(
       field("id") to stageId,
       field("legacy_id") to legacyId,
@@ -1106,11 +1217,81 @@ class SqlExecutionRepository(
 
     upsert(ctx, stageTable, insertPairs, updatePairs, stage.id, compressionProperties.isWriteEnabled())
 
+    if (stageDeltas.readEnabled) {
+      // Compacts any deltas written on top of the previous body, by this or any other
+      // instance, which would otherwise be applied on top of the new one
+      ctx.delete(stage.execution.type.stageDeltasTableName)
+        .where(field("stage_id").eq(stageId))
+        .execute()
+    }
+
     // This method is called from [storeInternal] as well. We don't want to notify multiple times for the same
     // overall persist operation.
     if (notifyListener) {
       withListener { onUpsert(stage.execution) }
     }
+    return executionUlid
+  }
+
+  /**
+   * Locks the stage [stageId] until the end of the transaction, so that concurrent writers
+   * of the stage each diff against the deltas of the one before.
+   *
+   * @return the stored state of the stage [stageId], or `null` if it is not stored yet.
+   */
+  private fun selectStoredStage(ctx: DSLContext, type: ExecutionType, stageId: String): StageDeltas.StoredStage? {
+    // locked on its own, PostgreSQL can't lock the nullable side of the join to the compressed body
+    ctx.select(field("id"))
+      .from(type.stagesTableName)
+      .where(field("id").eq(stageId))
+      .forUpdate()
+      .fetch()
+
+    val rs = ctx.selectStage(type, stageId, compressionProperties)
+    if (!rs.next()) {
+      return null
+    }
+
+    val body = ExecutionMapper(mapper, stageReadSize, compressionProperties, pipelineRefEnabled, compressionDictionaries = compressionDictionaries)
+      .getDecompressedBody(rs)
+    return stageDeltas.stored(ctx, type, stageId, body)
+  }
+
+  private fun isSummarized(execution: PipelineExecution) =
+    executionSummaryProperties.enabled && execution.type == PIPELINE
+
+  private fun isArtifactIndexed(execution: PipelineExecution) =
+    artifactIndexProperties.enabled && execution.type == PIPELINE
+
+  private fun storeStageArtifactsInternal(ctx: DSLContext, stage: StageExecution, executionId: String) {
+    if (isArtifactIndexed(stage.execution)) {
+      pipelineArtifacts.storeStage(ctx, executionId, stage)
+    }
+  }
+
+  /**
+   * Appends [patch] to the deltas of [stage] and updates the columns that are queried
+   * directly, leaving the stored body untouched.
+   */
+  private fun storeStageDeltaInternal(
+    ctx: DSLContext,
+    stage: StageExecution,
+    stageId: String,
+    executionId: String,
+    patch: ObjectNode
+  ) {
+    if (patch.size() > 0) {
+      ctx.insertInto(stage.execution.type.stageDeltasTableName)
+        .columns(field("stage_id"), field("execution_id"), field("patch"), field("created_at"))
+        .values(stageId, executionId, mapper.writeValueAsString(patch), currentTimeMillis())
+        .execute()
+    }
+
+    ctx.update(stage.execution.type.stagesTableName)
+      .set(field("status"), stage.status.toString())
+      .set(field("updated_at"), currentTimeMillis())
+      .where(field("id").eq(stageId))
+      .execute()
   }
 
   private fun storeCorrelationIdInternal(ctx: DSLContext, execution: PipelineExecution) {
@@ -1154,8 +1335,10 @@ class SqlExecutionRepository(
       log.debug("Performing large body compression for $id.")
       val compressedBodyByteStream = ByteArrayOutputStream()
       val zipBeginTS = currentTimeMillis()
-      compressionProperties.compressionType
-        .getDeflator(compressedBodyByteStream)
+      val compressionType = compressionProperties.compressionType
+      val dictionary = if (compressionType == CompressionType.ZSTD) compressionDictionaries.current() else null
+      compressionType
+        .getDeflator(compressedBodyByteStream, dictionary?.dictionary, compressionProperties.zstd.level)
         .bufferedWriter(StandardCharsets.UTF_8)
         .use { it.write(body, 0, body.length) }
       compressedBody = compressedBodyByteStream.toByteArray()
@@ -1394,7 +1577,8 @@ class SqlExecutionRepository(
   }
 
   private fun SelectForUpdateStep<out Record>.fetchExecutions() =
-    ExecutionMapper(mapper, stageReadSize, compressionProperties, pipelineRefEnabled).map(fetch().intoResultSet(), jooq)
+    ExecutionMapper(mapper, stageReadSize, compressionProperties, pipelineRefEnabled, stageDeltas = stageDeltas, compressionDictionaries = compressionDictionaries)
+      .map(fetch().intoResultSet(), jooq)
 
   private fun SelectForUpdateStep<out Record>.fetchExecution() =
     fetchExecutions().firstOrNull()
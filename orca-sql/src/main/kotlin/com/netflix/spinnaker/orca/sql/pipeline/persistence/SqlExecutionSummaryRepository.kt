@@ -0,0 +1,188 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.spinnaker.orca.sql.pipeline.persistence
+
+import com.fasterxml.jackson.annotation.JsonRawValue
+import com.netflix.spinnaker.kork.sql.routing.withPool
+import com.netflix.spinnaker.orca.api.pipeline.models.ExecutionStatus
+import org.jooq.Condition
+import org.jooq.DSLContext
+import org.jooq.Record
+import org.jooq.impl.DSL.field
+import org.jooq.impl.DSL.noCondition
+
+/**
+ * Reads the pipeline summaries maintained by [SqlExecutionRepository], most recently
+ * built first.
+ *
+ * Summaries hold what lists of executions display (status, timing, trigger type and the
+ * status of each stage), so reading them never touches stage bodies.
+ */
+class SqlExecutionSummaryRepository(
+  private val jooq: DSLContext,
+  private val poolName: String = "default"
+) {
+
+  /**
+   * @return a page of the summaries of the pipelines of [application] matching [criteria].
+   */
+  fun getPipelineSummaries(application: String, criteria: ExecutionSummaryCriteria): PipelineExecutionSummaryPage {
+    val after = criteria.cursor?.let { Cursor.parse(it) }
+
+    withPool(poolName) {
+      val records = jooq
+        .select(
+          field("id"),
+          field("application"),
+          field("config_id"),
+          field("name"),
+          field("status"),
+          field("build_time"),
+          field("start_time"),
+          field("end_time"),
+          field("trigger_type")
+        )
+        .from(pipelineSummariesTable)
+        .where(field("application").eq(application))
+        .and(criteria.statusCondition())
+        .and(criteria.configIdCondition())
+        .and(after?.condition() ?: noCondition())
+        .orderBy(field("build_time").desc(), field("id").desc())
+        .limit(criteria.pageSize)
+        .fetch()
+
+      val stages = selectStageSummaries(records.map { it.get("id", String::class.java) })
+      val summaries = records.map { it.toSummary(stages[it.get("id", String::class.java)].orEmpty()) }
+
+      return PipelineExecutionSummaryPage(
+        summaries,
+        summaries.lastOrNull()
+          ?.takeIf { summaries.size == criteria.pageSize }
+          ?.let { Cursor(it.buildTime, it.id).toString() }
+      )
+    }
+  }
+
+  /**
+   * @return the stage digests of each of [executionIds], ordered by refId as the stages of
+   * an execution are when it is read.
+   */
+  private fun selectStageSummaries(executionIds: List<String>): Map<String, List<String>> =
+    if (executionIds.isEmpty()) {
+      emptyMap()
+    } else {
+      jooq
+        .select(field("execution_id"), field("summary"))
+        .from(pipelineStageSummariesTable)
+        .where(field("execution_id").`in`(executionIds))
+        .orderBy(field("execution_id"), field("ref_id"), field("id"))
+        .fetch()
+        .groupBy({ it.get(0, String::class.java) }, { it.get(1, String::class.java) })
+    }
+
+  private fun ExecutionSummaryCriteria.statusCondition(): Condition =
+    if (statuses.isEmpty() || statuses.size == ExecutionStatus.values().size) {
+      noCondition()
+    } else {
+      field("status").`in`(statuses.map { it.toString() })
+    }
+
+  private fun ExecutionSummaryCriteria.configIdCondition(): Condition =
+    if (pipelineConfigIds.isEmpty()) {
+      noCondition()
+    } else {
+      field("config_id").`in`(pipelineConfigIds)
+    }
+
+  private fun Record.toSummary(stages: List<String>) =
+    PipelineExecutionSummary(
+      id = get("id", String::class.java),
+      application = get("application", String::class.java),
+      pipelineConfigId = get("config_id", String::class.java),
+      name = get("name", String::class.java),
+      status = ExecutionStatus.valueOf(get("status", String::class.java)),
+      buildTime = get("build_time", Long::class.javaObjectType),
+      startTime = get("start_time", Long::class.javaObjectType),
+      endTime = get("end_time", Long::class.javaObjectType),
+      triggerType = get("trigger_type", String::class.java),
+      stages = stages.joinToString(",", "[", "]")
+    )
+}
+
+data class ExecutionSummaryCriteria(
+  val pageSize: Int,
+  val statuses: Collection<ExecutionStatus> = emptyList(),
+  val pipelineConfigIds: Collection<String> = emptyList(),
+  /**
+   * The cursor returned with the previous page, or `null` for the first page.
+   */
+  val cursor: String? = null
+) {
+  init {
+    cursor?.let { Cursor.parse(it) }
+  }
+}
+
+/**
+ * A page of [PipelineExecutionSummary], with the cursor of the next page or `null` if
+ * this is the last one.
+ */
+data class PipelineExecutionSummaryPage(
+  val executions: List<PipelineExecutionSummary>,
+  val nextCursor: String?
+)
+
+/**
+ * What lists of executions display about a pipeline execution.
+ */
+data class PipelineExecutionSummary(
+  val id: String,
+  val application: String,
+  val pipelineConfigId: String?,
+  val name: String?,
+  val status: ExecutionStatus,
+  val buildTime: Long,
+  val startTime: Long?,
+  val endTime: Long?,
+  val triggerType: String?,
+  /**
+   * The id, refId, type, name, status, timing and relationships of each stage, as a JSON
+   * array of the digests stored for each stage.
+   */
+  @get:JsonRawValue
+  val stages: String
+)
+
+/**
+ * The position after the last summary of a page, which is the build time and id of that
+ * summary as summaries are ordered by both.
+ */
+internal data class Cursor(val buildTime: Long, val id: String) {
+  fun condition(): Condition =
+    field("build_time").lt(buildTime)
+      .or(field("build_time").eq(buildTime).and(field("id").lt(id)))
+
+  override fun toString() = "$buildTime:$id"
+
+  companion object {
+    fun parse(cursor: String): Cursor {
+      val parts = cursor.split(":", limit = 2)
+      val buildTime = parts.first().toLongOrNull()
+      require(parts.size == 2 && buildTime != null) { "Invalid cursor $cursor" }
+      return Cursor(buildTime, parts[1])
+    }
+  }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.spinnaker.orca.sql.pipeline.persistence
+
+import com.fasterxml.jackson.core.type.TypeReference
+import com.fasterxml.jackson.databind.ObjectMapper
+import com.netflix.spinnaker.kork.artifacts.model.Artifact
+import com.netflix.spinnaker.kork.sql.routing.withPool
+import com.netflix.spinnaker.orca.api.pipeline.models.ExecutionStatus
+import com.netflix.spinnaker.orca.api.pipeline.models.ExecutionType.PIPELINE
+import com.netflix.spinnaker.orca.pipeline.persistence.ExecutionRepository.ExecutionCriteria
+import com.netflix.spinnaker.orca.pipeline.persistence.PipelineArtifactIndex
+import com.netflix.spinnaker.orca.pipeline.persistence.PipelineArtifactIndex.ExecutionArtifacts
+import com.netflix.spinnaker.orca.pipeline.persistence.PipelineArtifactIndex.StageArtifacts
+import java.util.Optional
+import org.jooq.Condition
+import org.jooq.DSLContext
+import org.jooq.Record
+import org.jooq.impl.DSL.field
+import org.jooq.impl.DSL.noCondition
+
+/**
+ * Reads the pipeline artifacts maintained by [SqlExecutionRepository].
+ *
+ * The execution is picked from the ids and start times of the most recent executions, the
+ * same way as from the executions themselves, so a lookup never touches an execution or stage
+ * body. Executions that have not been indexed yet are left to be loaded in full.
+ */
+class SqlPipelineArtifactIndex(
+  private val jooq: DSLContext,
+  private val mapper: ObjectMapper,
+  private val poolName: String = "default"
+) : PipelineArtifactIndex {
+
+  private val artifactsType = object : TypeReference<List<Artifact>>() {}
+
+  override fun getArtifacts(pipelineConfigId: String, criteria: ExecutionCriteria): Optional<ExecutionArtifacts> {
+    withPool(poolName) {
+      val executionId = selectExecutionId(pipelineConfigId, criteria) ?: return Optional.empty()
+
+      val rows = jooq
+        .select(field("ref_id"), field("ordinal"), field("artifacts"))
+        .from(pipelineArtifactsTable)
+        .where(field("execution_id").eq(executionId))
+        .orderBy(field("ordinal"))
+        .fetch()
+
+      val trigger = rows.firstOrNull()
+        ?.takeIf { it.get(1, Int::class.java) == TRIGGER_ORDINAL }
+        ?: return Optional.empty()
+
+      return Optional.of(
+        ExecutionArtifacts(
+          rows.drop(1).map { StageArtifacts(it.get(0, String::class.java), it.artifacts()) },
+          trigger.artifacts()
+        )
+      )
+    }
+  }
+
+  /**
+   * Picks the execution that started last of the most recent executions matching [criteria],
+   * falling back to the most recent one that hasn't started, as
+   * [com.netflix.spinnaker.orca.pipeline.util.ArtifactUtils] does.
+   */
+  private fun selectExecutionId(pipelineConfigId: String, criteria: ExecutionCriteria): String? =
+    jooq
+      .select(field("id"), field("start_time"))
+      .from(PIPELINE.tableName)
+      .where(field("config_id").eq(pipelineConfigId))
+      .and(statusCondition(criteria.statuses))
+      .orderBy(field("id").desc())
+      .limit(criteria.pageSize)
+      .fetch { it.get(0, String::class.java) to it.get(1, Long::class.javaObjectType) }
+      .minWithOrNull(
+        compareBy<Pair<String, Long?>, Long?>(nullsLast(reverseOrder())) { it.second }
+          .thenByDescending { it.first }
+      )
+      ?.first
+
+  private fun statusCondition(statuses: Collection<ExecutionStatus>): Condition =
+    if (statuses.isEmpty() || statuses.size == ExecutionStatus.values().size) {
+      noCondition()
+    } else {
+      field("status").`in`(statuses.map { it.toString() })
+    }
+
+  private fun Record.artifacts(): List<Artifact> =
+    mapper.readValue(get(2, String::class.java), artifactsType)
+}
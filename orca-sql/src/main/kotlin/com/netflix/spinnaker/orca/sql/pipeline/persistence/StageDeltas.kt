@@ -0,0 +1,164 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.spinnaker.orca.sql.pipeline.persistence
+
+import com.fasterxml.jackson.databind.JsonNode
+import com.fasterxml.jackson.databind.ObjectMapper
+import com.fasterxml.jackson.databind.node.ObjectNode
+import com.netflix.spinnaker.config.StageDeltaProperties
+import com.netflix.spinnaker.orca.api.pipeline.models.ExecutionType
+import com.netflix.spinnaker.orca.api.pipeline.models.StageExecution
+import org.jooq.DSLContext
+import org.jooq.impl.DSL.field
+
+/**
+ * Stores stage bodies as JSON merge patches (RFC 7386) against the stored body of the stage,
+ * with any deltas already written on top of it by any instance applied.
+ *
+ * A stage that is not stored yet is written in full. Writing a stage in full removes all
+ * of its deltas in the same transaction. The stage row is locked while its stored state is
+ * read and a delta appended, so concurrent writers of a stage never diff against the same
+ * state.
+ */
+internal class StageDeltas(
+  private val mapper: ObjectMapper,
+  private val properties: StageDeltaProperties
+) {
+
+  val readEnabled: Boolean
+    get() = properties.enabled
+
+  val writeEnabled: Boolean
+    get() = properties.isWriteEnabled()
+
+  /**
+   * Returns the stored state of the stage [stageId], whose full body is [body].
+   */
+  fun stored(ctx: DSLContext, type: ExecutionType, stageId: String, body: String): StoredStage {
+    val patches = ctx
+      .select(field("patch"))
+      .from(type.stageDeltasTableName)
+      .where(field("stage_id").eq(stageId))
+      .orderBy(field("id"))
+      .fetch(0, String::class.java)
+
+    return StoredStage(if (patches.isEmpty()) body else apply(body, patches), patches.size)
+  }
+
+  /**
+   * Computes the patch that turns the stored state [base] of [stage] into [body].
+   *
+   * @return `null` if the stage should be written in full instead.
+   */
+  fun diff(stage: StageExecution, base: StoredStage, body: String): ObjectNode? {
+    if (stage.status.isComplete || base.deltaCount >= properties.compactionThreshold) {
+      return null
+    }
+
+    val source = mapper.readTree(base.body)
+    val target = mapper.readTree(body)
+    val patch = mergeDiff(source, target) as? ObjectNode ?: return null
+    if (mapper.writeValueAsString(patch).length > body.length * properties.maxDeltaRatio) {
+      return null
+    }
+    return patch
+  }
+
+  /**
+   * Selects the deltas of every stage of [executionIds], keyed by stage id in the order
+   * they were written.
+   */
+  fun select(ctx: DSLContext, type: ExecutionType, executionIds: Collection<String>): Map<String, List<String>> =
+    ctx
+      .select(field("stage_id"), field("patch"))
+      .from(type.stageDeltasTableName)
+      .where(field("execution_id").`in`(*executionIds.toTypedArray()))
+      .orderBy(field("id"))
+      .fetch()
+      .groupBy({ it.getValue(0, String::class.java) }, { it.getValue(1, String::class.java) })
+
+  /**
+   * Applies [patches] to [body] in order.
+   */
+  fun apply(body: String, patches: List<String>): String =
+    patches
+      .fold(mapper.readTree(body)) { target, patch -> mergePatch(target, mapper.readTree(patch)) }
+      .let { mapper.writeValueAsString(it) }
+
+  /**
+   * RFC 7386: a `null` member removes the target member, an object is merged recursively
+   * and anything else replaces the target value.
+   */
+  private fun mergePatch(target: JsonNode?, patch: JsonNode): JsonNode {
+    if (patch !is ObjectNode) {
+      return patch
+    }
+
+    val result = target as? ObjectNode ?: mapper.createObjectNode()
+    patch.fields().forEach { (name, value) ->
+      if (value.isNull) {
+        result.remove(name)
+      } else {
+        result.set<JsonNode>(name, mergePatch(result.get(name), value))
+      }
+    }
+    return result
+  }
+
+  /**
+   * Returns a patch that [mergePatch] turns [source] into [target] with, or `null` if
+   * there is none. Merge patches use `null` for removal, so they cannot set a member of
+   * an object to an explicit `null`.
+   */
+  private fun mergeDiff(source: JsonNode, target: JsonNode): JsonNode? {
+    if (source !is ObjectNode || target !is ObjectNode) {
+      return if (target.hasNullMember()) null else target
+    }
+
+    val patch = mapper.createObjectNode()
+    source.fieldNames().forEach { name ->
+      if (!target.has(name)) {
+        patch.putNull(name)
+      }
+    }
+    target.fields().forEach { (name, value) ->
+      val old = source.get(name)
+      if (old != value) {
+        val member = if (old == null) {
+          if (value.hasNullMember()) null else value
+        } else {
+          mergeDiff(old, value)
+        }
+        patch.set<JsonNode>(name, member ?: return null)
+      }
+    }
+    return patch
+  }
+
+  /**
+   * Arrays are replaced as a whole when patched, so only object members matter.
+   */
+  private fun JsonNode.hasNullMember(): Boolean =
+    isNull || (this is ObjectNode && fields().asSequence().any { it.value.hasNullMember() })
+
+  /**
+   * The [body] of a stage as read, which has [deltaCount] deltas on top of its full body.
+   */
+  class StoredStage(
+    val body: String,
+    val deltaCount: Int
+  )
+}
@@ -91,6 +91,15 @@ internal val ExecutionType.stagesTableName: Table<Record>
     ExecutionType.ORCHESTRATION -> DSL.table("orchestration_stages")
   }
 
+/**
+ * Convert an execution type to its jooq stage deltas table object.
+ */
+internal val ExecutionType.stageDeltasTableName: Table<Record>
+  get() = when (this) {
+    ExecutionType.PIPELINE -> DSL.table("pipeline_stage_deltas")
+    ExecutionType.ORCHESTRATION -> DSL.table("orchestration_stage_deltas")
+  }
+
 /**
  * Converts a provided table to it's equivalent compressed executions table
  */
@@ -113,6 +122,22 @@ internal fun DSLContext.selectExecutionStages(executionType: ExecutionType, exec
     .intoResultSet()
 }
 
+/**
+ * Selects the stage [stageId] of an [executionType].
+ */
+internal fun DSLContext.selectStage(executionType: ExecutionType, stageId: String, compressionProperties: ExecutionCompressionProperties): ResultSet {
+  val selectFrom = select(selectStageFields(compressionProperties)).from(executionType.stagesTableName)
+
+  if (compressionProperties.enabled) {
+    selectFrom.leftJoin(executionType.stagesTableName.compressedExecTable).using(field("id"))
+  }
+
+  return selectFrom
+    .where(field("id").eq(stageId))
+    .fetch()
+    .intoResultSet()
+}
+
 /**
  * The fields used in a SELECT executions query.
  */
@@ -140,21 +165,33 @@ internal fun SelectForUpdateStep<out Record>.fetchExecutions(
   stageReadSize: Int,
   compressionProperties: ExecutionCompressionProperties,
   jooq: DSLContext,
-  pipelineRefEnabled: Boolean
+  pipelineRefEnabled: Boolean,
+  stageDeltas: StageDeltas? = null,
+  compressionDictionaries: CompressionDictionaries? = null
 ) =
-  ExecutionMapper(mapper, stageReadSize, compressionProperties, pipelineRefEnabled).map(fetch().intoResultSet(), jooq)
+  ExecutionMapper(
+    mapper,
+    stageReadSize,
+    compressionProperties,
+    pipelineRefEnabled,
+    stageDeltas = stageDeltas,
+    compressionDictionaries = compressionDictionaries
+  )
+    .map(fetch().intoResultSet(), jooq)
 
 
 private fun selectStageFields(compressionProperties: ExecutionCompressionProperties): List<Field<Any>> {
   if (compressionProperties.enabled) {
-    return listOf(field("execution_id"),
+    return listOf(field("id"),
+      field("execution_id"),
       field("body"),
       field("compressed_body"),
       field("compression_type")
     )
   }
 
-  return listOf(field("execution_id"),
+  return listOf(field("id"),
+    field("execution_id"),
     field("body")
   )
 }
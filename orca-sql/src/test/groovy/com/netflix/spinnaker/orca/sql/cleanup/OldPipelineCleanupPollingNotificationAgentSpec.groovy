@@ -23,8 +23,10 @@ import com.netflix.spinnaker.kork.sql.config.RetryProperties
 import com.netflix.spinnaker.kork.sql.test.SqlTestUtil
 
 import javax.sql.DataSource
+import java.nio.file.Files
 import java.time.Clock
 import java.time.Instant
+import java.util.zip.GZIPInputStream
 import com.fasterxml.jackson.databind.ObjectMapper
 import com.fasterxml.jackson.module.kotlin.KotlinModule
 import com.netflix.spectator.api.NoopRegistry
@@ -61,23 +63,14 @@ abstract class OldPipelineCleanupPollingNotificationAgentSpec extends Specificat
   @Shared
   ExecutionRepository executionRepository
 
-  def cleanupAgent = new OldPipelineCleanupPollingNotificationAgent(
-    Mock(NotificationClusterLock),
-    currentDatabase.context,
-    Clock.systemDefaultZone(),
-    new NoopRegistry(),
-    executionRepository,
-    new OldPipelineCleanupAgentConfigurationProperties(
-        0L,
-        10L, // threshold days
-        5,  // minimum pipeline executions
-        1,
-        ["exceptionalApp"],
-        50
-    ),
-    new OrcaSqlProperties(),
-    []
-  )
+  def cleanupAgent = buildCleanupAgent(new OldPipelineCleanupAgentConfigurationProperties(
+      0L,
+      10L, // threshold days
+      5,  // minimum pipeline executions
+      1,
+      ["exceptionalApp"],
+      50
+  ))
 
   def setupSpec() {
     currentDatabase = getDatabase()
@@ -150,6 +143,72 @@ abstract class OldPipelineCleanupPollingNotificationAgentSpec extends Specificat
     allExecutions*.name.sort() == ["#09", "#49", "#51", "#52", "#53", "#54", "#55"]
   }
 
+  def "should preserve the most recent 5 executions when picking executions with a window function"() {
+    given:
+    def app = "app"
+    (1..10).each {
+      executionRepository.store(buildExecution(app, 10 + it))
+    }
+    executionRepository.store(buildExecution(app, 1))
+    executionRepository.store(buildExecution(app, 2))
+
+    and:
+    def properties = new OldPipelineCleanupAgentConfigurationProperties(0L, 10L, 5, 2, [], 50)
+    properties.setBasedSelection = true
+    properties.pageSize = 2
+    def setBasedCleanupAgent = buildCleanupAgent(properties)
+
+    when:
+    setBasedCleanupAgent.tick()
+    def allExecutions = executionRepository.retrievePipelinesForApplication(app).toList().toBlocking().first().unique()
+
+    then:
+    allExecutions*.name.sort() == ["#01", "#02", "#11", "#12", "#13", "#14", "#15"]
+  }
+
+  def "should archive executions before deleting them"() {
+    given:
+    def app = "app"
+    (1..7).each {
+      executionRepository.store(buildExecution(app, 10 + it))
+    }
+
+    and:
+    def archiveDirectory = Files.createTempDirectory("orca-cleanup-archive")
+    def properties = new OldPipelineCleanupAgentConfigurationProperties(0L, 10L, 5, 1, [], 50)
+    properties.archive.enabled = true
+    properties.archive.directory = archiveDirectory.toString()
+    def archivingCleanupAgent = buildCleanupAgent(properties)
+
+    when:
+    archivingCleanupAgent.tick()
+    def archiveFiles = Files.list(archiveDirectory).toList()
+    def archivedNames = new GZIPInputStream(Files.newInputStream(archiveFiles[0])).readLines().collect {
+      mapper.readValue(it, PipelineExecutionImpl).name
+    }
+
+    then:
+    archiveFiles.size() == 1
+    archivedNames.sort() == ["#16", "#17"]
+
+    cleanup:
+    archiveDirectory.toFile().deleteDir()
+  }
+
+  OldPipelineCleanupPollingNotificationAgent buildCleanupAgent(OldPipelineCleanupAgentConfigurationProperties properties) {
+    return new OldPipelineCleanupPollingNotificationAgent(
+        Mock(NotificationClusterLock),
+        currentDatabase.context,
+        Clock.systemDefaultZone(),
+        new NoopRegistry(),
+        executionRepository,
+        mapper,
+        properties,
+        new OrcaSqlProperties(),
+        []
+    )
+  }
+
   PipelineExecutionImpl buildExecution(String application, int daysOffset) {
     PipelineExecutionImpl e = new PipelineExecutionImpl(PIPELINE, application)
     e.status = ExecutionStatus.SUCCEEDED
@@ -36,6 +36,7 @@ import spock.lang.Shared
 import spock.lang.Specification
 
 import javax.sql.DataSource
+import java.time.Clock
 import java.time.Instant
 
 import static com.netflix.spinnaker.kork.sql.test.SqlTestUtil.*
@@ -62,23 +63,15 @@ abstract class TopApplicationExecutionCleanupPollingNotificationAgentSpec extend
   static final exceptionApp1 = "exceptionApp1"
   static final exceptionApp2 = "exceptionApp2"
 
-  def cleanupAgent = new TopApplicationExecutionCleanupPollingNotificationAgent(
-    Mock(NotificationClusterLock),
-    currentDatabase.context,
-    new NoopRegistry(),
-    executionRepository,
-    new TopApplicationExecutionCleanupAgentConfigurationProperties(
-        0L,
-        2,
-        1,
-        [
-            exceptionApp1 : 4,
-            exceptionApp2 : 5
-        ]
-    ),
-    new OrcaSqlProperties(),
-    []
-  )
+  def cleanupAgent = buildCleanupAgent(new TopApplicationExecutionCleanupAgentConfigurationProperties(
+      0L,
+      2,
+      1,
+      [
+          exceptionApp1 : 4,
+          exceptionApp2 : 5
+      ]
+  ))
 
   def setupSpec() {
     currentDatabase = getDatabase()
@@ -136,6 +129,44 @@ abstract class TopApplicationExecutionCleanupPollingNotificationAgentSpec extend
     allExecutionsApp2*.name.sort() == ["#11", "#12", "#13", "#14", "#15"]
   }
 
+  def "should preserve threshold executions when picking executions with a window function"() {
+    given:
+    def criteria = new ExecutionRepository.ExecutionCriteria(statuses: ["SUCCEEDED"])
+    (1..10).each {
+      executionRepository.store(buildExecution(regularApp, 10 + it))
+      executionRepository.store(buildExecution(exceptionApp1, 10 + it))
+    }
+
+    and:
+    def properties = new TopApplicationExecutionCleanupAgentConfigurationProperties(0L, 2, 2, [exceptionApp1: 4])
+    properties.setBasedSelection = true
+    properties.pageSize = 3
+    def setBasedCleanupAgent = buildCleanupAgent(properties)
+
+    when: 'agent runs'
+    setBasedCleanupAgent.tick()
+    def allExecutions = executionRepository.retrieveOrchestrationsForApplication(regularApp, criteria, null)
+    def allExecutionsApp1 = executionRepository.retrieveOrchestrationsForApplication(exceptionApp1, criteria, null)
+
+    then: 'preserves the threshold of each application'
+    allExecutions*.name.sort() == ["#11", "#12"]
+    allExecutionsApp1*.name.sort() == ["#11", "#12", "#13", "#14"]
+  }
+
+  TopApplicationExecutionCleanupPollingNotificationAgent buildCleanupAgent(TopApplicationExecutionCleanupAgentConfigurationProperties properties) {
+    return new TopApplicationExecutionCleanupPollingNotificationAgent(
+        Mock(NotificationClusterLock),
+        currentDatabase.context,
+        Clock.systemDefaultZone(),
+        new NoopRegistry(),
+        executionRepository,
+        mapper,
+        properties,
+        new OrcaSqlProperties(),
+        []
+    )
+  }
+
   PipelineExecutionImpl buildExecution(String application, int daysOffset) {
     PipelineExecutionImpl e = new PipelineExecutionImpl(ORCHESTRATION, application)
     e.status = ExecutionStatus.SUCCEEDED
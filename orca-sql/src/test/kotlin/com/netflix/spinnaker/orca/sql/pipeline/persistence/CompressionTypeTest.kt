@@ -0,0 +1,133 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.spinnaker.orca.sql.pipeline.persistence
+
+import com.github.luben.zstd.Zstd
+import com.github.luben.zstd.ZstdDictTrainer
+import com.netflix.spinnaker.config.CompressionType
+import com.netflix.spinnaker.orca.api.pipeline.models.ExecutionStatus
+import com.netflix.spinnaker.orca.api.pipeline.models.ExecutionType
+import com.netflix.spinnaker.orca.jackson.OrcaObjectMapper
+import com.netflix.spinnaker.orca.pipeline.model.PipelineExecutionImpl
+import com.netflix.spinnaker.orca.pipeline.model.StageExecutionImpl
+import com.netflix.spinnaker.orca.pipeline.model.TaskExecutionImpl
+import java.io.ByteArrayOutputStream
+import java.nio.charset.StandardCharsets
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.params.ParameterizedTest
+import org.junit.jupiter.params.provider.EnumSource
+
+class CompressionTypeTest {
+
+  private val bodies = stageBodies(2000)
+
+  @ParameterizedTest
+  @EnumSource(CompressionType::class)
+  fun `bodies survive a round trip`(compressionType: CompressionType) {
+    val body = bodies.first()
+
+    val compressed = compress(compressionType, body)
+
+    assertThat(compressed.size).isLessThan(body.length)
+    assertThat(decompress(compressionType, compressed)).isEqualTo(body)
+  }
+
+  @Test
+  fun `zstd frames record the dictionary they were compressed with`() {
+    val dictionary = train(bodies)
+    val body = bodies.last()
+
+    val withDictionary = compress(CompressionType.ZSTD, body, dictionary)
+    val withoutDictionary = compress(CompressionType.ZSTD, body)
+
+    assertThat(Zstd.getDictIdFromFrame(withDictionary)).isEqualTo(Zstd.getDictIdFromDict(dictionary))
+    assertThat(Zstd.getDictIdFromFrame(withoutDictionary)).isEqualTo(0L)
+    assertThat(withDictionary.size).isLessThan(withoutDictionary.size)
+    assertThat(decompress(CompressionType.ZSTD, withDictionary, dictionary)).isEqualTo(body)
+  }
+
+  private fun compress(compressionType: CompressionType, body: String, dictionary: ByteArray? = null): ByteArray {
+    val out = ByteArrayOutputStream()
+    compressionType.getDeflator(out, dictionary)
+      .bufferedWriter(StandardCharsets.UTF_8)
+      .use { it.write(body) }
+    return out.toByteArray()
+  }
+
+  private fun decompress(compressionType: CompressionType, body: ByteArray, dictionary: ByteArray? = null): String =
+    compressionType.getInflator(body.inputStream(), dictionary)
+      .bufferedReader(StandardCharsets.UTF_8)
+      .use { it.readText() }
+
+  private fun train(samples: List<String>): ByteArray {
+    val trainer = ZstdDictTrainer(samples.sumOf { it.length }, 16 * 1024)
+    samples.forEach { trainer.addSample(it.toByteArray(StandardCharsets.UTF_8)) }
+    return trainer.trainSamples()
+  }
+
+  /**
+   * Stage bodies shaped like those of a typical deploy pipeline, serialized the same way
+   * [SqlExecutionRepository] does.
+   */
+  private fun stageBodies(count: Int): List<String> {
+    val mapper = OrcaObjectMapper.getInstance()
+    val execution = PipelineExecutionImpl(ExecutionType.PIPELINE, "covfefe")
+    return (0 until count).map { i ->
+      val start = 1_700_000_000_000L + i * 1000L
+      val end = start + 60_000L + i
+      val stage = StageExecutionImpl(
+        execution,
+        if (i % 2 == 0) "createServerGroup" else "disableServerGroup",
+        "Deploy in us-west-2",
+        mutableMapOf(
+          "account" to "prod-${i % 3}",
+          "cloudProvider" to "aws",
+          "credentials" to "prod-${i % 3}",
+          "region" to "us-west-2",
+          "availabilityZones" to mapOf("us-west-2" to listOf("us-west-2a", "us-west-2b", "us-west-2c")),
+          "capacity" to mapOf("min" to i % 5, "max" to i % 5 + 2, "desired" to i % 5 + 1),
+          "amiName" to "covfefe-1.0.$i-h$i.${Integer.toHexString(i * 7919)}-x86_64",
+          "instanceType" to "m5.large",
+          "kato.last.task.id" to mapOf("id" to "01H${i.toString().padStart(23, '0')}"),
+          "deploy.server.groups" to mapOf("us-west-2" to listOf("covfefe-v${(i % 1000).toString().padStart(3, '0')}")),
+          "notification.type" to "createdeploy",
+          "stack" to "main",
+          "strategy" to "redblack",
+          "securityGroups" to listOf("covfefe", "nf-infrastructure", "nf-datacenter"),
+          "tags" to mapOf("owner" to "team-$i@example.com", "costCenter" to "${1000 + i % 17}")
+        )
+      ).apply {
+        refId = "$i"
+        status = ExecutionStatus.SUCCEEDED
+        startTime = start
+        endTime = end
+        tasks = listOf("determineHealthProviders", "createServerGroup", "monitorDeploy", "waitForUpInstances")
+          .mapIndexed { index, name ->
+            TaskExecutionImpl().apply {
+              id = "${index + 1}"
+              this.name = name
+              implementingClass = "com.netflix.spinnaker.orca.clouddriver.tasks.${name.replaceFirstChar { it.uppercase() }}Task"
+              status = ExecutionStatus.SUCCEEDED
+              startTime = start
+              endTime = end
+            }
+          }
+      }
+      mapper.writeValueAsString(stage)
+    }
+  }
+}
@@ -19,8 +19,13 @@ import com.fasterxml.jackson.databind.ObjectMapper
 import com.netflix.spinnaker.config.CompressionMode
 import com.netflix.spinnaker.config.CompressionType
 import com.netflix.spinnaker.config.ExecutionCompressionProperties
+import com.netflix.spinnaker.config.ExecutionSummaryProperties
+import com.netflix.spinnaker.config.PipelineArtifactIndexProperties
+import com.netflix.spinnaker.config.StageDeltaProperties
+import com.netflix.spinnaker.kork.artifacts.model.Artifact
 import com.netflix.spinnaker.kork.sql.config.RetryProperties
 import com.netflix.spinnaker.kork.sql.test.SqlTestUtil
+import com.netflix.spinnaker.orca.api.pipeline.models.ExecutionStatus
 import com.netflix.spinnaker.orca.api.pipeline.models.ExecutionType
 import com.netflix.spinnaker.orca.api.pipeline.models.PipelineExecution
 import com.netflix.spinnaker.orca.api.pipeline.models.StageExecution
@@ -32,6 +37,7 @@ import com.netflix.spinnaker.orca.pipeline.model.PipelineTrigger
 import com.netflix.spinnaker.orca.pipeline.model.StageExecutionImpl
 import com.netflix.spinnaker.orca.pipeline.model.support.TriggerDeserializer
 import com.netflix.spinnaker.orca.pipeline.persistence.ExecutionNotFoundException
+import com.netflix.spinnaker.orca.pipeline.persistence.ExecutionRepository.ExecutionCriteria
 import com.netflix.spinnaker.orca.sql.PipelineRefTriggerDeserializerSupplier
 import com.nhaarman.mockito_kotlin.atLeastOnce
 import com.nhaarman.mockito_kotlin.doReturn
@@ -314,6 +320,260 @@ class SqlExecutionRepositoryTest : JUnit5Minutests {
       }
     }
 
+    context("retrieveForStage") {
+      val pipelineExecution = PipelineExecutionImpl(ExecutionType.PIPELINE, "test-application")
+      val upstream = pipelineExecution.stage {
+        context["upstream"] = true
+      }
+      val target = pipelineExecution.stage {
+        refId = "2"
+        requisiteStageRefIds = listOf("1")
+        context["target"] = true
+      }
+      val unrelated = pipelineExecution.stage {
+        refId = "3"
+        context["unrelated"] = true
+      }
+
+      test("loads the stage and its ancestors, and defers the rest until first access") {
+        sqlExecutionRepository.store(pipelineExecution)
+
+        val stages = sqlExecutionRepository
+          .retrieveForStage(ExecutionType.PIPELINE, pipelineExecution.id, target.id)
+          .stages
+          .associate { it.id to it as StageExecutionImpl }
+
+        assertThat(stages.getValue(target.id).isLoadingDeferred).isFalse()
+        assertThat(stages.getValue(upstream.id).isLoadingDeferred).isFalse()
+        assertThat(stages.getValue(unrelated.id).isLoadingDeferred).isTrue()
+        assertThat(stages.getValue(unrelated.id).refId).isEqualTo("3")
+
+        assertThat(stages.getValue(unrelated.id).context).containsEntry("unrelated", true)
+        assertThat(stages.getValue(unrelated.id).isLoadingDeferred).isFalse()
+      }
+
+      test("throws if the execution does not exist") {
+        assertThatThrownBy {
+          sqlExecutionRepository.retrieveForStage(ExecutionType.PIPELINE, "does-not-exist", target.id)
+        }.isInstanceOf(ExecutionNotFoundException::class.java)
+      }
+    }
+
+    context("storing stages as deltas") {
+      val testType = ExecutionType.PIPELINE
+      val deltasTable = testType.stageDeltasTableName
+      val pipelineExecution = PipelineExecutionImpl(testType, "test-application")
+      val stage = pipelineExecution.stage {
+        context["large"] = "x".repeat(1000)
+      }
+
+      fun storedBody() =
+        database.context.select(field("body")).from(testType.stagesTableName).fetchOne(0, String::class.java)
+
+      test("writes only the changes to a stage that was read back") {
+        sqlExecutionRepositoryWithStageDeltas.store(pipelineExecution)
+        val bodyBefore = storedBody()
+
+        val retrieved = sqlExecutionRepositoryWithStageDeltas.retrieve(testType, pipelineExecution.id)
+        retrieved.stageById(stage.id).context["polled"] = 1
+        sqlExecutionRepositoryWithStageDeltas.storeStage(retrieved.stageById(stage.id))
+
+        assertThat(storedBody()).isEqualTo(bodyBefore)
+        assertThat(database.context.fetchCount(deltasTable)).isEqualTo(1)
+
+        val actual = sqlExecutionRepositoryWithStageDeltas.retrieve(testType, pipelineExecution.id)
+        assertThat(actual.stageById(stage.id).context)
+          .containsEntry("polled", 1)
+          .containsEntry("large", "x".repeat(1000))
+      }
+
+      test("compacts deltas into the body once the threshold is reached") {
+        sqlExecutionRepositoryWithStageDeltas.store(pipelineExecution)
+
+        val retrieved = sqlExecutionRepositoryWithStageDeltas.retrieve(testType, pipelineExecution.id)
+        (1..3).forEach {
+          retrieved.stageById(stage.id).context["polled"] = it
+          sqlExecutionRepositoryWithStageDeltas.storeStage(retrieved.stageById(stage.id))
+        }
+
+        assertThat(database.context.fetchCount(deltasTable)).isEqualTo(0)
+        assertThat(storedBody()).contains("\"polled\":3")
+      }
+
+      test("writing a stage in full removes deltas written through other copies of it") {
+        val otherExecution = PipelineExecutionImpl(testType, "test-application")
+        val otherStage = otherExecution.stage {
+          context["large"] = "x".repeat(1000)
+        }
+        sqlExecutionRepositoryWithStageDeltas.store(otherExecution)
+
+        val retrieved = sqlExecutionRepositoryWithStageDeltas.retrieve(testType, otherExecution.id)
+        retrieved.stageById(otherStage.id).context["polled"] = 1
+        sqlExecutionRepositoryWithStageDeltas.storeStage(retrieved.stageById(otherStage.id))
+        assertThat(database.context.fetchCount(deltasTable)).isEqualTo(1)
+
+        // the copy stored first, as held by another instance, knows nothing of the delta
+        otherStage.status = ExecutionStatus.SUCCEEDED
+        sqlExecutionRepositoryWithStageDeltas.storeStage(otherStage)
+
+        assertThat(database.context.fetchCount(deltasTable)).isEqualTo(0)
+        val actual = sqlExecutionRepositoryWithStageDeltas.retrieve(testType, otherExecution.id)
+        assertThat(actual.stageById(otherStage.id).status).isEqualTo(ExecutionStatus.SUCCEEDED)
+        assertThat(actual.stageById(otherStage.id).context).doesNotContainKey("polled")
+      }
+    }
+
+    context("indexing artifacts") {
+      fun pipelineExecution() = PipelineExecutionImpl(ExecutionType.PIPELINE, "test-application").apply {
+        pipelineConfigId = "test-config"
+        trigger = DefaultTrigger(type = "default", artifacts = mutableListOf(Artifact.builder().type("trigger").build()))
+        stage {
+          outputs["artifacts"] = listOf(Artifact.builder().type("1").build())
+        }
+        stage {
+          refId = "2"
+          requisiteStageRefIds = listOf("1")
+        }
+      }
+
+      fun indexedArtifacts() =
+        sqlPipelineArtifactIndex.getArtifacts("test-config", ExecutionCriteria().setPageSize(1)).orElse(null)
+
+      test("indexes the artifacts of the trigger and of each stage as they are stored") {
+        val pipelineExecution = pipelineExecution()
+        sqlExecutionRepositoryWithArtifactIndex.store(pipelineExecution)
+        val second = pipelineExecution.stages.last()
+        second.outputs["artifacts"] = listOf(Artifact.builder().type("2").build())
+        sqlExecutionRepositoryWithArtifactIndex.storeStage(second)
+
+        val artifacts = indexedArtifacts()
+        assertThat(artifacts.trigger.map { it.type }).containsExactly("trigger")
+        assertThat(artifacts.stages.map { it.refId }).containsExactly("1", "2")
+        assertThat(artifacts.stages.flatMap { it.artifacts }.map { it.type }).containsExactly("1", "2")
+      }
+
+      test("forgets the artifacts of a restarted stage") {
+        val pipelineExecution = pipelineExecution()
+        sqlExecutionRepositoryWithArtifactIndex.store(pipelineExecution)
+        val first = pipelineExecution.stages.first()
+        first.outputs.remove("artifacts")
+        first.status = ExecutionStatus.NOT_STARTED
+        sqlExecutionRepositoryWithArtifactIndex.storeStage(first)
+
+        assertThat(indexedArtifacts().stages).isEmpty()
+      }
+
+      test("prefers the execution that started last to more recent ones that have not started") {
+        val started = pipelineExecution().apply { startTime = currentTimeMillis() }
+        sqlExecutionRepositoryWithArtifactIndex.store(started)
+        val notStarted = pipelineExecution().apply {
+          trigger = DefaultTrigger(type = "default", artifacts = mutableListOf(Artifact.builder().type("not started").build()))
+        }
+        sqlExecutionRepositoryWithArtifactIndex.store(notStarted)
+
+        val artifacts = sqlPipelineArtifactIndex.getArtifacts("test-config", ExecutionCriteria().setPageSize(2)).get()
+        assertThat(artifacts.trigger.map { it.type }).containsExactly("trigger")
+      }
+
+      test("finds nothing for executions that have not been indexed") {
+        sqlExecutionRepositoryNoCompression.store(pipelineExecution())
+
+        assertThat(indexedArtifacts()).isNull()
+      }
+    }
+
+    context("summarizing pipelines") {
+      fun pipelineExecution(buildTime: Long = currentTimeMillis()) =
+        PipelineExecutionImpl(ExecutionType.PIPELINE, "test-application").apply {
+          this.buildTime = buildTime
+          pipelineConfigId = "test-config"
+          trigger = DefaultTrigger(type = "manual")
+          stage {}
+          stage {
+            refId = "2"
+          }
+        }
+
+      fun summaries(pageSize: Int = 10, cursor: String? = null) =
+        sqlExecutionSummaryRepository.getPipelineSummaries("test-application", ExecutionSummaryCriteria(pageSize, cursor = cursor))
+
+      fun stageStatuses(summary: PipelineExecutionSummary) =
+        orcaObjectMapper.readTree(summary.stages).map { it["refId"].asText() to it["status"].asText() }
+
+      test("summarizes a pipeline and its stages as it is stored") {
+        val pipelineExecution = pipelineExecution()
+        sqlExecutionRepositoryWithSummaries.store(pipelineExecution)
+
+        val summary = summaries().executions.single()
+        assertThat(summary.id).isEqualTo(pipelineExecution.id)
+        assertThat(summary.pipelineConfigId).isEqualTo("test-config")
+        assertThat(summary.status).isEqualTo(ExecutionStatus.NOT_STARTED)
+        assertThat(summary.triggerType).isEqualTo("manual")
+        assertThat(stageStatuses(summary)).containsExactly("1" to "NOT_STARTED", "2" to "NOT_STARTED")
+      }
+
+      test("keeps the updates of stages stored from different copies of the execution") {
+        val pipelineExecution = pipelineExecution()
+        sqlExecutionRepositoryWithSummaries.store(pipelineExecution)
+
+        // parallel branches, each handled with its own copy of the execution
+        val first = sqlExecutionRepositoryWithSummaries.retrieve(ExecutionType.PIPELINE, pipelineExecution.id)
+        val second = sqlExecutionRepositoryWithSummaries.retrieve(ExecutionType.PIPELINE, pipelineExecution.id)
+        first.stageByRef("1").status = ExecutionStatus.SUCCEEDED
+        second.stageByRef("2").status = ExecutionStatus.RUNNING
+        sqlExecutionRepositoryWithSummaries.storeStage(first.stageByRef("1"))
+        sqlExecutionRepositoryWithSummaries.storeStage(second.stageByRef("2"))
+
+        assertThat(stageStatuses(summaries().executions.single()))
+          .containsExactly("1" to "SUCCEEDED", "2" to "RUNNING")
+      }
+
+      test("forgets removed stages") {
+        val pipelineExecution = pipelineExecution()
+        sqlExecutionRepositoryWithSummaries.store(pipelineExecution)
+        sqlExecutionRepositoryWithSummaries.removeStage(pipelineExecution, pipelineExecution.stageByRef("2").id)
+
+        assertThat(stageStatuses(summaries().executions.single())).containsExactly("1" to "NOT_STARTED")
+      }
+
+      test("updates the status of a canceled pipeline") {
+        val pipelineExecution = pipelineExecution()
+        sqlExecutionRepositoryWithSummaries.store(pipelineExecution)
+        sqlExecutionRepositoryWithSummaries.cancel(ExecutionType.PIPELINE, pipelineExecution.id, "user", "reason")
+
+        assertThat(summaries().executions.single().status).isEqualTo(ExecutionStatus.CANCELED)
+      }
+
+      test("removes the summary of a deleted pipeline") {
+        val pipelineExecution = pipelineExecution()
+        sqlExecutionRepositoryWithSummaries.store(pipelineExecution)
+        sqlExecutionRepositoryWithSummaries.delete(ExecutionType.PIPELINE, pipelineExecution.id)
+
+        assertThat(summaries().executions).isEmpty()
+        assertThat(database.context.fetchCount(pipelineStageSummariesTable)).isEqualTo(0)
+      }
+
+      test("pages through summaries, most recently built first") {
+        val executions = listOf(pipelineExecution(3), pipelineExecution(2), pipelineExecution(2), pipelineExecution(1))
+        executions.forEach { sqlExecutionRepositoryWithSummaries.store(it) }
+        val expected = executions.sortedWith(compareByDescending<PipelineExecution> { it.buildTime }.thenByDescending { it.id })
+
+        val firstPage = summaries(pageSize = 3)
+        assertThat(firstPage.executions.map { it.id }).isEqualTo(expected.take(3).map { it.id })
+        assertThat(firstPage.nextCursor).isNotNull()
+
+        val secondPage = summaries(pageSize = 3, cursor = firstPage.nextCursor)
+        assertThat(secondPage.executions.map { it.id }).containsExactly(expected.last().id)
+        assertThat(secondPage.nextCursor).isNull()
+      }
+
+      test("does not summarize pipelines while disabled") {
+        sqlExecutionRepositoryNoCompression.store(pipelineExecution())
+
+        assertThat(summaries().executions).isEmpty()
+      }
+    }
+
     context("upserting executions with pipelineRef") {
 
       val testType = ExecutionType.PIPELINE
@@ -753,6 +1013,71 @@ class SqlExecutionRepositoryTest : JUnit5Minutests {
         mockDataSource
       )
 
+    val sqlExecutionRepositoryWithStageDeltas =
+      SqlExecutionRepository(
+        "test",
+        database.context,
+        orcaObjectMapper,
+        testRetryProprties,
+        10,
+        100,
+        "poolName",
+        "myReadPoolName",
+        null,
+        emptyList(),
+        executionCompressionPropertiesDisabled,
+        false,
+        mockDataSource,
+        StageDeltaProperties().apply {
+          enabled = true
+          compactionThreshold = 2
+        }
+      )
+
+    val sqlExecutionRepositoryWithArtifactIndex =
+      SqlExecutionRepository(
+        "test",
+        database.context,
+        orcaObjectMapper,
+        testRetryProprties,
+        10,
+        100,
+        "poolName",
+        "myReadPoolName",
+        null,
+        emptyList(),
+        executionCompressionPropertiesDisabled,
+        false,
+        mockDataSource,
+        artifactIndexProperties = PipelineArtifactIndexProperties().apply {
+          enabled = true
+        }
+      )
+
+    val sqlPipelineArtifactIndex = SqlPipelineArtifactIndex(database.context, orcaObjectMapper, "poolName")
+
+    val sqlExecutionRepositoryWithSummaries =
+      SqlExecutionRepository(
+        "test",
+        database.context,
+        orcaObjectMapper,
+        testRetryProprties,
+        10,
+        100,
+        "poolName",
+        "myReadPoolName",
+        null,
+        emptyList(),
+        executionCompressionPropertiesDisabled,
+        false,
+        mockDataSource,
+        executionSummaryProperties = ExecutionSummaryProperties().apply {
+          enabled = true
+        }
+      )
+
+    val sqlExecutionSummaryRepository = SqlExecutionSummaryRepository(database.context, "poolName")
+
     fun addCustomDeserializerWithFeatureFlagEnabled() {
       TriggerDeserializer.customTriggerSuppliers.clear()
       TriggerDeserializer.customTriggerSuppliers.add(deserializerEnabled)
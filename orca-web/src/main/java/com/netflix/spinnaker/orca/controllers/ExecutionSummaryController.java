@@ -0,0 +1,108 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.spinnaker.orca.controllers;
+
+import com.netflix.spinnaker.config.ExecutionSummaryProperties;
+import com.netflix.spinnaker.kork.web.exceptions.InvalidRequestException;
+import com.netflix.spinnaker.orca.api.pipeline.models.ExecutionStatus;
+import com.netflix.spinnaker.orca.sql.pipeline.persistence.ExecutionSummaryCriteria;
+import com.netflix.spinnaker.orca.sql.pipeline.persistence.PipelineExecutionSummaryPage;
+import com.netflix.spinnaker.orca.sql.pipeline.persistence.SqlExecutionSummaryRepository;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Lists pipeline executions from their summaries, a page at a time.
+ *
+ * <p>Unlike {@code /v2/applications/{application}/pipelines} this never loads stage contexts or
+ * outputs.
+ */
+@RestController
+@ConditionalOnProperty({
+  "execution-repository.sql.enabled",
+  "execution-repository.sql.summaries.enabled"
+})
+public class ExecutionSummaryController {
+
+  private final SqlExecutionSummaryRepository summaryRepository;
+
+  private final ExecutionSummaryProperties properties;
+
+  @Autowired
+  ExecutionSummaryController(
+      SqlExecutionSummaryRepository summaryRepository,
+      ExecutionSummaryProperties properties) {
+    this.summaryRepository = summaryRepository;
+    this.properties = properties;
+  }
+
+  /**
+   * Responds with {@code {"executions": [...], "nextCursor": "..."}}, where {@code nextCursor} is
+   * {@code null} on the last page and is otherwise passed back as {@code cursor} to fetch the next
+   * one.
+   */
+  @PreAuthorize("hasPermission(#application, 'APPLICATION', 'READ')")
+  @GetMapping("/v3/applications/{application}/pipelines/summaries")
+  PipelineExecutionSummaryPage getPipelineSummaries(
+      @PathVariable String application,
+      @RequestParam(value = "limit", defaultValue = "25") int limit,
+      @RequestParam(value = "statuses", required = false) List<String> statuses,
+      @RequestParam(value = "pipelineConfigIds", required = false) List<String> pipelineConfigIds,
+      @RequestParam(value = "cursor", required = false) String cursor) {
+    if (limit < 1) {
+      throw new InvalidRequestException("limit must be positive");
+    }
+
+    ExecutionSummaryCriteria criteria;
+    try {
+      criteria =
+          new ExecutionSummaryCriteria(
+              Math.min(limit, properties.getMaxPageSize()),
+              parseStatuses(statuses),
+              pipelineConfigIds == null ? List.of() : pipelineConfigIds,
+              cursor);
+    } catch (IllegalArgumentException e) {
+      throw new InvalidRequestException(e.getMessage());
+    }
+
+    return summaryRepository.getPipelineSummaries(application, criteria);
+  }
+
+  private static List<ExecutionStatus> parseStatuses(List<String> statuses) {
+    if (statuses == null) {
+      return new ArrayList<>();
+    }
+    try {
+      return statuses.stream()
+          .flatMap(it -> List.of(it.split(",")).stream())
+          .map(String::trim)
+          .filter(it -> !it.isEmpty())
+          .map(it -> ExecutionStatus.valueOf(it.toUpperCase()))
+          .collect(Collectors.toList());
+    } catch (IllegalArgumentException e) {
+      throw new InvalidRequestException("Invalid statuses " + statuses);
+    }
+  }
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.spinnaker.orca.controllers
+
+import com.fasterxml.jackson.databind.JsonNode
+import com.netflix.spinnaker.config.ExecutionCompressionProperties
+import com.netflix.spinnaker.config.ExecutionSummaryProperties
+import com.netflix.spinnaker.kork.sql.config.RetryProperties
+import com.netflix.spinnaker.kork.sql.test.SqlTestUtil
+import com.netflix.spinnaker.orca.api.pipeline.models.ExecutionType.PIPELINE
+import com.netflix.spinnaker.orca.jackson.OrcaObjectMapper
+import com.netflix.spinnaker.orca.pipeline.model.DefaultTrigger
+import com.netflix.spinnaker.orca.pipeline.model.PipelineExecutionImpl
+import com.netflix.spinnaker.orca.pipeline.model.StageExecutionImpl
+import com.netflix.spinnaker.orca.sql.pipeline.persistence.SqlExecutionRepository
+import com.netflix.spinnaker.orca.sql.pipeline.persistence.SqlExecutionSummaryRepository
+import com.nhaarman.mockito_kotlin.mock
+import dev.minutest.junit.JUnit5Minutests
+import dev.minutest.rootContext
+import org.jooq.impl.DSL.table
+import org.springframework.test.web.servlet.MockMvc
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get
+import org.springframework.test.web.servlet.setup.MockMvcBuilders
+import strikt.api.expectCatching
+import strikt.api.expectThat
+import strikt.assertions.containsExactly
+import strikt.assertions.isEqualTo
+import strikt.assertions.isFailure
+import strikt.assertions.isTrue
+
+class ExecutionSummaryControllerTest : JUnit5Minutests {
+  class Fixture {
+    val database: SqlTestUtil.TestDatabase = SqlTestUtil.initTcMysqlDatabase()!!
+
+    private val executionRepository = SqlExecutionRepository(
+      partitionName = "test",
+      jooq = database.context,
+      mapper = OrcaObjectMapper.getInstance(),
+      retryProperties = RetryProperties(),
+      compressionProperties = ExecutionCompressionProperties(),
+      pipelineRefEnabled = false,
+      dataSource = mock(),
+      executionSummaryProperties = ExecutionSummaryProperties().apply { enabled = true }
+    )
+
+    private val controller = ExecutionSummaryController(
+      SqlExecutionSummaryRepository(database.context),
+      ExecutionSummaryProperties()
+    )
+
+    val subject: MockMvc = MockMvcBuilders.standaloneSetup(controller).build()
+
+    val executions = (1L..3L).map { buildTime ->
+      PipelineExecutionImpl(PIPELINE, "test-app").apply {
+        this.buildTime = buildTime
+        trigger = DefaultTrigger(type = "manual")
+        stages.add(
+          StageExecutionImpl(this, "wait").apply {
+            refId = "1"
+          }
+        )
+      }
+    }
+
+    fun setup() {
+      executions.forEach { executionRepository.store(it) }
+    }
+
+    fun cleanUp() {
+      SqlTestUtil.cleanupDb(database.context)
+    }
+
+    fun summaries(query: String): JsonNode =
+      subject.perform(get("/v3/applications/test-app/pipelines/summaries?$query"))
+        .andReturn()
+        .response
+        .let {
+          expectThat(it.status).isEqualTo(200)
+          OrcaObjectMapper.getInstance().readTree(it.contentAsString)
+        }
+  }
+
+  fun tests() = rootContext<Fixture> {
+    fixture {
+      Fixture()
+    }
+
+    before { setup() }
+    after { cleanUp() }
+
+    test("pages through the summaries of an application, most recently built first") {
+      val firstPage = summaries("limit=2")
+      expectThat(firstPage["executions"].map { it["id"].asText() })
+        .containsExactly(executions[2].id, executions[1].id)
+      expectThat(firstPage["executions"][0]["stages"].map { it["type"].asText() })
+        .containsExactly("wait")
+
+      val secondPage = summaries("limit=2&cursor=${firstPage["nextCursor"].asText()}")
+      expectThat(secondPage["executions"].map { it["id"].asText() })
+        .containsExactly(executions[0].id)
+      expectThat(secondPage["nextCursor"].isNull).isTrue()
+    }
+
+    test("fails the request rather than responding with a partial page") {
+      database.context.alterTable(table("pipeline_stage_summaries")).renameTo(table("unavailable")).execute()
+      try {
+        expectCatching { subject.perform(get("/v3/applications/test-app/pipelines/summaries")) }
+          .isFailure()
+      } finally {
+        database.context.alterTable(table("unavailable")).renameTo(table("pipeline_stage_summaries")).execute()
+      }
+    }
+  }
+}
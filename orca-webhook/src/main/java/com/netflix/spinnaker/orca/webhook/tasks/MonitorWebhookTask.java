@@ -20,6 +20,7 @@ package com.netflix.spinnaker.orca.webhook.tasks;
 import com.google.common.base.Strings;
 import com.jayway.jsonpath.JsonPath;
 import com.jayway.jsonpath.PathNotFoundException;
+import com.netflix.spinnaker.orca.api.pipeline.AsyncTask;
 import com.netflix.spinnaker.orca.api.pipeline.OverridableTimeoutRetryableTask;
 import com.netflix.spinnaker.orca.api.pipeline.TaskResult;
 import com.netflix.spinnaker.orca.api.pipeline.models.ExecutionStatus;
@@ -46,7 +47,7 @@ import org.springframework.web.client.HttpStatusCodeException;
 
 @Slf4j
 @Component
-public class MonitorWebhookTask implements OverridableTimeoutRetryableTask {
+public class MonitorWebhookTask implements OverridableTimeoutRetryableTask, AsyncTask {
   private static final String JSON_PATH_NOT_FOUND_ERR_FMT =
       "Unable to parse %s: JSON property '%s' not found in response body";
 